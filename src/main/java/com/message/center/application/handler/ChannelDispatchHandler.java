@@ -3,49 +3,142 @@ package com.message.center.application.handler;
 import com.message.center.domain.entity.ChannelConfig;
 import com.message.center.domain.entity.ChannelTask;
 import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.vo.BatchSaveResult;
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.HandlerResult;
 import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 渠道分发处理器
  * 顺序：600
- * 职责：将消息分发到各个渠道执行
+ * 职责：创建渠道任务并落库，再分发到各个渠道执行
+ * 部分渠道触发频次限制且未延后时，这些渠道记录为频次受限任务，只落库不执行
  */
 @Component
 public class ChannelDispatchHandler implements MessageHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(ChannelDispatchHandler.class);
+
     @Autowired
     private ChannelTaskExecutor channelTaskExecutor;
 
+    @Autowired
+    private ChannelTaskRepository channelTaskRepository;
+
     @Override
     public HandlerResult handle(MessageContext context) {
         // 1. 为每个渠道创建发送任务
+        List<ChannelTask> tasks = buildChannelTasks(context);
+
+        // 2. 将任务设置到上下文
+        context.setChannelTasks(tasks);
+
+        // 3. 先落库获取任务ID，执行器回写状态时依赖ID
+        List<ChannelTask> savedTasks = saveChannelTasks(tasks);
+
+        // 4. 任务全部写入失败时消息不会发出，返回失败以中止责任链并退还已占用的频次额度
+        if (savedTasks.isEmpty() && !tasks.isEmpty()) {
+            return HandlerResult.fail("DISPATCH_FAILED", "渠道任务写入失败");
+        }
+
+        // 5. 并发执行所有待发送的渠道任务，频次受限任务不执行
+        List<ChannelTask> dispatchableTasks = dispatchable(savedTasks);
+        if (!dispatchableTasks.isEmpty()) {
+            channelTaskExecutor.executeAll(dispatchableTasks);
+        }
+
+        return HandlerResult.success();
+    }
+
+    /**
+     * 批量写入渠道任务
+     * @param tasks 渠道任务列表
+     * @return 写入成功（已回填ID）的任务列表
+     */
+    public List<ChannelTask> saveChannelTasks(List<ChannelTask> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        BatchSaveResult saveResult = channelTaskRepository.batchInsert(tasks);
+        if (saveResult.isAllSaved()) {
+            return tasks;
+        }
+        log.warn("部分渠道任务写入失败，总数：{}，成功：{}，失败批次：{}",
+                saveResult.getTotalCount(), saveResult.getSavedCount(), saveResult.getFailures());
+        return tasks.stream()
+                .filter(task -> task.getId() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 为上下文中的每个渠道配置创建发送任务
+     * 频次控制处理器记录的受限渠道同时创建频次受限任务，便于查询每个渠道的结果
+     * @param context 消息处理上下文（已完成渠道路由和模板渲染）
+     * @return 渠道任务列表
+     */
+    public static List<ChannelTask> buildChannelTasks(MessageContext context) {
         List<ChannelTask> tasks = new ArrayList<>();
         for (ChannelConfig config : context.getChannelConfigs()) {
-            ChannelTask task = new ChannelTask();
-            task.setMessageId(context.getMessageId());
-            task.setChannelType(config.getChannelType());
-            task.setChannelConfigId(config.getId());
+            ChannelTask task = newTask(context, config);
             task.setRenderedContent(context.getRenderedMessages().get(config.getChannelType()));
             task.setStatus(TaskStatus.PENDING);
-            task.setRetryCount(0);
-            task.setMaxRetry(3); // 默认最大重试次数为3
             tasks.add(task);
         }
+        List<ChannelConfig> rateLimitedConfigs = context.getAttribute(RateLimitHandler.RATE_LIMITED_CONFIGS_ATTRIBUTE);
+        if (rateLimitedConfigs != null) {
+            for (ChannelConfig config : rateLimitedConfigs) {
+                tasks.add(finishedTask(context, config, TaskStatus.RATE_LIMITED, "触发频次限制"));
+            }
+        }
+        return tasks;
+    }
 
-        // 2. 将任务设置到上下文
-        context.setChannelTasks(tasks);
+    /**
+     * 创建已结束的渠道任务，只落库不执行，用于记录未发送渠道的结果
+     * @param context 消息处理上下文
+     * @param config 渠道配置
+     * @param status 任务状态
+     * @param resultMessage 执行结果
+     * @return 渠道任务
+     */
+    public static ChannelTask finishedTask(MessageContext context, ChannelConfig config, TaskStatus status,
+                                           String resultMessage) {
+        ChannelTask task = newTask(context, config);
+        task.setStatus(status);
+        task.setResultMessage(resultMessage);
+        task.setFinishTime(LocalDateTime.now());
+        return task;
+    }
 
-        // 3. 并发执行所有渠道任务
-        channelTaskExecutor.executeAll(tasks);
+    /**
+     * 过滤出需要执行的渠道任务
+     * @param tasks 渠道任务列表
+     * @return 待发送的任务列表
+     */
+    public static List<ChannelTask> dispatchable(List<ChannelTask> tasks) {
+        return tasks.stream()
+                .filter(task -> task.getStatus() == TaskStatus.PENDING)
+                .collect(Collectors.toList());
+    }
 
-        return HandlerResult.success();
+    private static ChannelTask newTask(MessageContext context, ChannelConfig config) {
+        ChannelTask task = new ChannelTask();
+        task.setMessageId(context.getMessageId());
+        task.setChannelType(config.getChannelType());
+        task.setChannelConfigId(config.getId());
+        task.setRetryCount(0);
+        task.setMaxRetry(3); // 默认最大重试次数为3
+        return task;
     }
 
     @Override
@@ -33,4 +33,12 @@ public interface MessageHandler {
      * @return true表示支持处理
      */
     boolean supports(MessageContext context);
+
+    /**
+     * 责任链被后续处理器中止时回调，用于撤销本处理器已产生的副作用，如退还已占用的频次额度
+     * 仅对本次已成功执行的处理器按执行顺序的逆序调用
+     * @param context 消息处理上下文
+     */
+    default void onChainAborted(MessageContext context) {
+    }
 }
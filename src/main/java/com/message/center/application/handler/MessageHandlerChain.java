@@ -2,23 +2,33 @@ package com.message.center.application.handler;
 
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.HandlerResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
 /**
  * 责任链执行器
  * 负责按顺序执行所有处理器
+ * 某个处理器失败或抛出异常时，按逆序回调已成功执行的处理器的 onChainAborted 进行补偿
  */
 @Component
 public class MessageHandlerChain {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageHandlerChain.class);
+
     @Autowired
     private List<MessageHandler> handlers;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostConstruct
     public void init() {
         // 按order排序
@@ -31,13 +41,26 @@ public class MessageHandlerChain {
      * @return 责任链执行结果
      */
     public ChainResult execute(MessageContext context) {
+        return execute(context, Integer.MIN_VALUE);
+    }
+
+    /**
+     * 从指定顺序的处理器开始执行责任链，顺序更小的处理器跳过
+     * @param context 消息处理上下文
+     * @param fromOrder 起始处理器的顺序
+     * @return 责任链执行结果
+     */
+    public ChainResult execute(MessageContext context, int fromOrder) {
         ChainResult result = new ChainResult();
         result.setStartTime(System.currentTimeMillis());
 
+        // 已成功执行的处理器，中止时用于补偿
+        List<MessageHandler> executed = new ArrayList<>(handlers.size());
+
         // 遍历所有处理器
         for (MessageHandler handler : handlers) {
             // 检查是否支持处理
-            if (!handler.supports(context)) {
+            if (handler.getOrder() < fromOrder || !handler.supports(context)) {
                 continue;
             }
 
@@ -49,12 +72,19 @@ public class MessageHandlerChain {
                 // 如果处理失败或不继续执行，终止责任链
                 if (!handlerResult.isContinueChain()) {
                     result.setSuccess(handlerResult.isSuccess());
+                    result.setErrorCode(handlerResult.getErrorCode());
                     result.setErrorMessage(handlerResult.getErrorMessage());
+                    if (!handlerResult.isSuccess()) {
+                        compensate(executed, handler, context);
+                    }
                     break;
                 }
+                executed.add(handler);
             } catch (Exception e) {
                 result.setSuccess(false);
+                result.setErrorCode("SYSTEM_ERROR");
                 result.setErrorMessage("处理器[" + handler.getName() + "]执行异常: " + e.getMessage());
+                compensate(executed, handler, context);
                 break;
             }
         }
@@ -63,6 +93,26 @@ public class MessageHandlerChain {
         return result;
     }
 
+    /**
+     * 按逆序回调已执行处理器的补偿逻辑，单个处理器补偿失败不影响其他处理器
+     * @param executed 已成功执行的处理器
+     * @param failed 中止责任链的处理器
+     * @param context 消息处理上下文
+     */
+    private void compensate(List<MessageHandler> executed, MessageHandler failed, MessageContext context) {
+        meterRegistry.counter("message.center.chain.aborted", "handler", failed.getClass().getSimpleName()).increment();
+        for (int i = executed.size() - 1; i >= 0; i--) {
+            MessageHandler handler = executed.get(i);
+            try {
+                handler.onChainAborted(context);
+            } catch (Exception e) {
+                log.error("处理器[{}]补偿失败，消息ID：{}", handler.getName(), context.getMessageId(), e);
+                meterRegistry.counter("message.center.chain.compensation.failed",
+                        "handler", handler.getClass().getSimpleName()).increment();
+            }
+        }
+    }
+
     /**
      * 责任链执行结果
      */
@@ -73,6 +123,8 @@ public class MessageHandlerChain {
         private long endTime;
         /** 是否成功 */
         private boolean success;
+        /** 错误码 */
+        private String errorCode;
         /** 错误信息 */
         private String errorMessage;
         /** 处理器执行结果列表 */
@@ -114,6 +166,14 @@ public class MessageHandlerChain {
             this.success = success;
         }
 
+        public String getErrorCode() {
+            return errorCode;
+        }
+
+        public void setErrorCode(String errorCode) {
+            this.errorCode = errorCode;
+        }
+
         public String getErrorMessage() {
             return errorMessage;
         }
@@ -1,91 +1,190 @@
 package com.message.center.application.handler;
 
-import cn.hutool.core.collection.CollUtil;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.message.center.domain.entity.ChannelConfig;
 import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import com.message.center.domain.enums.RateLimitLevel;
 import com.message.center.domain.enums.TimeUnitEnum;
+import com.message.center.domain.vo.DeferredMessage;
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.HandlerResult;
+import com.message.center.infrastructure.config.RateLimitDeferralConfig;
+import com.message.center.infrastructure.config.RateLimitHierarchyConfig;
+import com.message.center.infrastructure.delay.DelayStore;
+import com.message.center.infrastructure.ratelimit.LeasedRateLimiter;
+import com.message.center.infrastructure.ratelimit.RateLimitKeys;
+import com.message.center.infrastructure.ratelimit.RateLimitResult;
+import com.message.center.infrastructure.ratelimit.RateLimitRule;
 import com.message.center.interfaces.dubbo.api.ChannelConfigService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 频次控制处理器
  * 顺序：400
- * 职责：检查各渠道的发送频次限制
- * 设计原则：
- * - 租户隔离：每个租户的每个渠道维护独立的频次计数器，互不影响
- * - 灵活配置：支持不同的时间窗口（秒/分钟/小时/天）和限制数量
- * - 实现方式：基于 Redis 的计数器 + TTL 实现滑动时间窗口
- * - Key 设计规则：rate_limit:{channelType}:{tenantId}:{storeId}:{timeWindow}
+ * 职责：按渠道检查发送频次限制，受限渠道延后发送或记录为频次受限任务
+ * Key 设计规则：rate_limit:{tenantId:storeId}:{channelType}，由 RateLimitKeys 生成
  */
 @Component
 public class RateLimitHandler implements MessageHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(RateLimitHandler.class);
+
+    /** 上下文中记录消息已延后次数的属性名 */
+    public static final String DEFER_ATTEMPTS_ATTRIBUTE = "rateLimit.deferAttempts";
+
+    /** 上下文中标记消息已延后的属性名 */
+    public static final String DEFERRED_ATTRIBUTE = "rateLimit.deferred";
+
+    /** 所有渠道均已延后发送时的结果码 */
+    public static final String DEFERRED_CODE = "RATE_LIMIT_DEFERRED";
+
+    /** 上下文中记录频次受限且未延后的渠道配置的属性名，由渠道分发处理器记录为频次受限任务 */
+    public static final String RATE_LIMITED_CONFIGS_ATTRIBUTE = "rateLimit.rateLimitedConfigs";
+
+    /** webhook 标识缓存的条目上限 */
+    private static final int MAX_CACHED_WEBHOOKS = 10_000;
+
+    /** 渠道配置JSON -> webhook 标识，没有 webhook 时为空字符串 */
+    private static final Map<String, String> WEBHOOK_IDS = new ConcurrentHashMap<>();
+
+    /** 上下文中记录已占用额度的规则的属性名 */
+    static final String RESERVED_RULES_ATTRIBUTE = "rateLimit.reservedRules";
+
+    /** 上下文中记录已占用额度的渠道的属性名 */
+    static final String RESERVED_CHANNELS_ATTRIBUTE = "rateLimit.reservedChannels";
+
     @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private LeasedRateLimiter rateLimiter;
 
     @Autowired
     private ChannelConfigService channelConfigService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RateLimitDeferralConfig deferralConfig;
+
+    @Autowired
+    private RateLimitHierarchyConfig hierarchyConfig;
+
+    @Autowired(required = false)
+    private DelayStore delayStore;
+
     @Override
     public HandlerResult handle(MessageContext context) {
-        List<ChannelType> allowedChannels = new ArrayList<>();
-
-        // 检查每个渠道的频次限制
-        for (ChannelType channelType : context.getTargetChannels()) {
-            // 获取渠道的频次限制配置
-            ChannelConfigService.RateLimitConfig rateLimitConfig = channelConfigService.getRateLimitConfig(
-                    context.getTenantId(),
-                    context.getStoreId(),
-                    channelType
-            );
-
-            // 构建 Redis Key
-            String rateLimitKey = buildRateLimitKey(
-                    channelType,
-                    context.getTenantId(),
-                    context.getStoreId(),
-                    rateLimitConfig
-            );
-
-            // 检查当前时间窗口内的发送次数
-            Long currentCount = redisTemplate.opsForValue().increment(rateLimitKey);
-
-            // 首次计数时设置过期时间
-            if (currentCount == 1) {
-                long ttlSeconds = getTTLSeconds(rateLimitConfig);
-                redisTemplate.expire(rateLimitKey, ttlSeconds, TimeUnit.SECONDS);
-            }
+        List<ChannelType> targetChannels = context.getTargetChannels();
 
-            // 判断是否超过限制
-            if (currentCount <= rateLimitConfig.getCount()) {
-                allowedChannels.add(channelType);
-            } else {
-                return HandlerResult.fail("RATE_LIMITED", 
-                        String.format("渠道%s触发频次限制，当前窗口已发送%d条，限制%d条", 
-                                channelType.getName(), currentCount, rateLimitConfig.getCount()));
-            }
+        // 构建每个渠道各层的频次限制规则
+        List<LevelRules> channelRules = new ArrayList<>(targetChannels.size());
+        List<List<RateLimitRule>> ruleGroups = new ArrayList<>(targetChannels.size());
+        for (ChannelType channelType : targetChannels) {
+            LevelRules levelRules = buildLevelRules(context.getTenantId(), context.getStoreId(), channelType,
+                    webhookId(configOf(context, channelType)));
+            channelRules.add(levelRules);
+            ruleGroups.add(levelRules.rules);
         }
 
-        // 更新上下文中的可用渠道列表
-        context.setTargetChannels(allowedChannels);
+        // 逐渠道判定，同一渠道的各层全部满足才计数，未超限的渠道计数
+        List<RateLimitResult> results = rateLimiter.tryAcquireGroups(ruleGroups, 1);
+        List<ChannelType> allowedChannels = new ArrayList<>(targetChannels.size());
+        List<List<RateLimitRule>> allowedRules = new ArrayList<>(targetChannels.size());
+        List<ChannelType> limitedChannels = new ArrayList<>();
+        List<List<RateLimitRule>> limitedRules = new ArrayList<>();
+        RateLimitResult firstRejected = null;
+        RateLimitRule firstRejectedRule = null;
+        RateLimitLevel firstRejectedLevel = null;
+        for (int i = 0; i < targetChannels.size(); i++) {
+            RateLimitResult result = results.get(i);
+            if (result.isAllowed()) {
+                allowedChannels.add(targetChannels.get(i));
+                allowedRules.add(channelRules.get(i).rules);
+                continue;
+            }
+            // 受限渠道按瓶颈层的额度恢复时间延后
+            RateLimitRule rejectedRule = channelRules.get(i).rules.get(result.getRejectedIndex());
+            RateLimitLevel rejectedLevel = channelRules.get(i).levels.get(result.getRejectedIndex());
+            limitedChannels.add(targetChannels.get(i));
+            limitedRules.add(List.of(rejectedRule));
+            meterRegistry.counter("message.center.rate_limit.rejected",
+                    "channel", targetChannels.get(i).name(), "level", rejectedLevel.name()).increment();
+            if (firstRejected == null) {
+                firstRejected = result;
+                firstRejectedRule = rejectedRule;
+                firstRejectedLevel = rejectedLevel;
+            }
+        }
+        if (limitedChannels.isEmpty()) {
+            reserve(context, allowedRules, allowedChannels);
+            return HandlerResult.success();
+        }
 
-        // 如果所有渠道都被限流，返回失败
+        // 受限渠道优先延后发送，无法延后的记录为频次受限任务
+        List<ChannelType> notDeferred = defer(context, limitedChannels, limitedRules);
         if (allowedChannels.isEmpty()) {
-            return HandlerResult.fail("RATE_LIMITED", "所有渠道均触发频次限制，消息发送失败");
+            if (notDeferred.size() < limitedChannels.size()) {
+                return new HandlerResult(false, true, DEFERRED_CODE,
+                        String.format("渠道%s触发频次限制，消息已延后发送", names(limitedChannels)));
+            }
+            ChannelType channelType = limitedChannels.get(0);
+            return HandlerResult.fail("RATE_LIMITED",
+                    String.format("渠道%s触发%s频次限制，当前窗口已发送%d条，限制%d条",
+                            channelType.getName(), firstRejectedLevel.getName(),
+                            firstRejected.getCurrentCount(), firstRejectedRule.getLimit()));
         }
 
+        // 部分渠道受限：只保留未超限的渠道继续执行，渠道配置同步过滤
+        List<ChannelConfig> allowedConfigs = new ArrayList<>();
+        List<ChannelConfig> rateLimitedConfigs = new ArrayList<>();
+        for (ChannelConfig config : context.getChannelConfigs()) {
+            if (allowedChannels.contains(config.getChannelType())) {
+                allowedConfigs.add(config);
+            } else if (notDeferred.contains(config.getChannelType())) {
+                rateLimitedConfigs.add(config);
+            }
+        }
+        context.setTargetChannels(allowedChannels);
+        context.setChannelConfigs(allowedConfigs);
+        if (!rateLimitedConfigs.isEmpty()) {
+            context.addAttribute(RATE_LIMITED_CONFIGS_ATTRIBUTE, rateLimitedConfigs);
+        }
+        reserve(context, allowedRules, allowedChannels);
         return HandlerResult.success();
     }
 
+    /**
+     * 后续处理器失败时退还本条消息占用的额度，避免未发出的消息消耗租户频次
+     */
+    @Override
+    public void onChainAborted(MessageContext context) {
+        List<List<RateLimitRule>> rules = context.getAttribute(RESERVED_RULES_ATTRIBUTE);
+        List<ChannelType> channels = context.getAttribute(RESERVED_CHANNELS_ATTRIBUTE);
+        if (rules == null || channels == null) {
+            return;
+        }
+        // 先移除记录，保证同一条消息只退还一次
+        context.getAttributes().remove(RESERVED_RULES_ATTRIBUTE);
+        context.getAttributes().remove(RESERVED_CHANNELS_ATTRIBUTE);
+        for (int i = 0; i < rules.size(); i++) {
+            rules.get(i).forEach(rule -> rateLimiter.release(rule, 1));
+            meterRegistry.counter("message.center.rate_limit.refunded", "channel", channels.get(i).name()).increment();
+        }
+    }
+
     @Override
     public int getOrder() {
         return 400;
@@ -102,44 +201,354 @@ public class RateLimitHandler implements MessageHandler {
     }
 
     /**
-     * 构建频次限制的 Redis Key
+     * 是否开启延后发送
+     * @return true表示触发频次限制的渠道可以延后发送
+     */
+    public boolean isDeferralEnabled() {
+        return deferralConfig.isEnabled() && delayStore != null;
+    }
+
+    /**
+     * 将触发频次限制的渠道延后发送，每个渠道按各自的额度恢复时间单独暂存
+     * @param context 消息处理上下文
+     * @param channelTypes 额度不足的渠道
+     * @return 未能延后的渠道，未开启延后发送、超过最大延后次数或存储已满时返回全部渠道
+     */
+    public List<ChannelType> defer(MessageContext context, List<ChannelType> channelTypes) {
+        if (!deferralConfig.isEnabled()) {
+            return channelTypes;
+        }
+        // 不知道瓶颈在哪一层，按各层中最晚的恢复时间延后
+        List<List<RateLimitRule>> rules = new ArrayList<>(channelTypes.size());
+        for (ChannelType channelType : channelTypes) {
+            rules.add(buildLevelRules(context.getTenantId(), context.getStoreId(), channelType,
+                    webhookId(configOf(context, channelType))).rules);
+        }
+        return defer(context, channelTypes, rules);
+    }
+
+    /**
+     * 消息是否已被延后发送
+     * @param context 消息处理上下文
+     * @return true表示已延后
+     */
+    public static boolean isDeferred(MessageContext context) {
+        return Boolean.TRUE.equals(context.getAttribute(DEFERRED_ATTRIBUTE));
+    }
+
+    /**
+     * 申请发送额度
+     * 按剩余额度申请 permits 个额度，分层时各层都满足的部分才算获得
+     * @param tenantId 租户ID
+     * @param storeId 门店ID
+     * @param channelType 渠道类型
+     * @param permits 申请数量
+     * @return 实际获得的额度（0 ~ permits）
+     */
+    public int acquire(Long tenantId, Long storeId, ChannelType channelType, int permits) {
+        if (permits <= 0) {
+            return 0;
+        }
+        return acquire(List.of(new Demand(tenantId, storeId, channelType, permits)))[0];
+    }
+
+    /**
+     * 退还未使用的发送额度
+     * @param tenantId 租户ID
+     * @param storeId 门店ID
+     * @param channelType 渠道类型
+     * @param permits 退还数量
      */
-    private String buildRateLimitKey(ChannelType channelType, Long tenantId, Long storeId, 
-                                   ChannelConfigService.RateLimitConfig config) {
-        String timeWindow = calculateTimeWindow(config);
-        String storeIdStr = storeId != null ? String.valueOf(storeId) : "null";
-        return String.format("rate_limit:%s:%d:%s:%s",
-                channelType,
-                tenantId,
-                storeIdStr,
-                timeWindow);
+    public void release(Long tenantId, Long storeId, ChannelType channelType, int permits) {
+        if (permits <= 0) {
+            return;
+        }
+        release(List.of(new Demand(tenantId, storeId, channelType, permits)));
+    }
+
+    /**
+     * 批量申请发送额度
+     * 所有（租户, 门店, 渠道）的申请在一次管道往返中完成，用于批量发送时按批合并计数
+     * @param demands 额度申请
+     * @return 与申请一一对应的实际获得额度
+     */
+    public int[] acquire(List<Demand> demands) {
+        if (demands.isEmpty()) {
+            return new int[0];
+        }
+        List<RateLimitRule> rules = new ArrayList<>(demands.size());
+        List<Integer> owners = new ArrayList<>(demands.size());
+        collectRules(demands, rules, owners);
+        int[] permits = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            permits[i] = demands.get(owners.get(i)).permits();
+        }
+        int[] grantedPerRule = rateLimiter.acquireUpTo(rules, permits);
+
+        // 分层时每个申请实际获得各层中最少的额度，其余层多获得的部分一次退还
+        int[] granted = new int[demands.size()];
+        Arrays.fill(granted, Integer.MAX_VALUE);
+        for (int i = 0; i < rules.size(); i++) {
+            granted[owners.get(i)] = Math.min(granted[owners.get(i)], grantedPerRule[i]);
+        }
+        int[] excess = new int[rules.size()];
+        boolean hasExcess = false;
+        for (int i = 0; i < rules.size(); i++) {
+            excess[i] = grantedPerRule[i] - granted[owners.get(i)];
+            hasExcess |= excess[i] > 0;
+        }
+        if (hasExcess) {
+            rateLimiter.release(rules, excess);
+        }
+        for (int i = 0; i < granted.length; i++) {
+            if (granted[i] == Integer.MAX_VALUE) {
+                // 没有任何层级的规则，不受限制
+                granted[i] = demands.get(i).permits();
+            }
+        }
+        return granted;
     }
 
     /**
-     * 根据时间单位计算当前时间窗口标识
+     * 批量退还未使用的发送额度，一次管道往返完成
+     * @param demands 退还的额度，permits 为退还数量
      */
-    private String calculateTimeWindow(ChannelConfigService.RateLimitConfig config) {
-        LocalDateTime now = LocalDateTime.now();
-        switch (config.getUnit()) {
-            case "SECOND":
-                int secondSlot = now.getSecond() / config.getWindow() * config.getWindow();
-                return now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm")) + "_" + secondSlot;
-            case "MINUTE":
-                return now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-            case "HOUR":
-                return now.format(DateTimeFormatter.ofPattern("yyyyMMddHH"));
-            case "DAY":
-                return now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-            default:
-                return now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
+    public void release(List<Demand> demands) {
+        if (demands.isEmpty()) {
+            return;
+        }
+        List<RateLimitRule> rules = new ArrayList<>(demands.size());
+        List<Integer> owners = new ArrayList<>(demands.size());
+        collectRules(demands, rules, owners);
+        int[] permits = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            permits[i] = demands.get(owners.get(i)).permits();
         }
+        rateLimiter.release(rules, permits);
     }
 
     /**
-     * 计算Redis Key的TTL（秒）
+     * 获取渠道配置中 webhook 地址的标识，用于机器人层的 Key
+     * 同一个 webhook 被多个门店或渠道配置共用时共享额度，标识为地址的摘要，避免 Key 中出现访问令牌
+     * @param config 渠道配置，可为空
+     * @return webhook 标识，没有 webhook 时返回null
+     */
+    public static String webhookId(ChannelConfig config) {
+        if (config == null || config.getConfigJson() == null || config.getConfigJson().isEmpty()) {
+            return null;
+        }
+        String json = config.getConfigJson();
+        String webhookId = WEBHOOK_IDS.get(json);
+        if (webhookId == null) {
+            webhookId = parseWebhookId(json);
+            if (WEBHOOK_IDS.size() < MAX_CACHED_WEBHOOKS) {
+                WEBHOOK_IDS.put(json, webhookId);
+            }
+        }
+        return webhookId.isEmpty() ? null : webhookId;
+    }
+
+    /**
+     * 额度申请：租户ID + 门店ID + 渠道类型 + 数量，webhookId 为空时不检查机器人层
+     */
+    public record Demand(Long tenantId, Long storeId, ChannelType channelType, int permits, String webhookId) {
+
+        public Demand(Long tenantId, Long storeId, ChannelType channelType, int permits) {
+            this(tenantId, storeId, channelType, permits, null);
+        }
+    }
+
+    private void collectRules(List<Demand> demands, List<RateLimitRule> rules, List<Integer> owners) {
+        for (int i = 0; i < demands.size(); i++) {
+            Demand demand = demands.get(i);
+            for (RateLimitRule rule : buildLevelRules(demand.tenantId(), demand.storeId(), demand.channelType(),
+                    demand.webhookId()).rules) {
+                rules.add(rule);
+                owners.add(i);
+            }
+        }
+    }
+
+    /**
+     * 记录占用的额度，责任链中止时退还
+     */
+    private void reserve(MessageContext context, List<List<RateLimitRule>> rules, List<ChannelType> channels) {
+        context.addAttribute(RESERVED_RULES_ATTRIBUTE, rules);
+        context.addAttribute(RESERVED_CHANNELS_ATTRIBUTE, channels);
+    }
+
+    /**
+     * 按各渠道被拒绝规则的额度恢复时间暂存消息，返回未能延后的渠道
+     * @param rules 与渠道一一对应，按其中最晚的额度恢复时间延后
+     */
+    private List<ChannelType> defer(MessageContext context, List<ChannelType> channelTypes,
+                                    List<List<RateLimitRule>> rules) {
+        if (!deferralConfig.isEnabled() || delayStore == null) {
+            return channelTypes;
+        }
+        Integer attempts = context.getAttribute(DEFER_ATTEMPTS_ATTRIBUTE);
+        int nextAttempt = attempts != null ? attempts + 1 : 1;
+        if (nextAttempt > deferralConfig.getMaxAttempts()) {
+            meterRegistry.counter("message.center.rate_limit.deferral", "result", "exhausted").increment(channelTypes.size());
+            return channelTypes;
+        }
+        List<ChannelType> notDeferred = new ArrayList<>();
+        for (int i = 0; i < channelTypes.size(); i++) {
+            String outcome = offer(context, channelTypes.get(i), rules.get(i), nextAttempt);
+            meterRegistry.counter("message.center.rate_limit.deferral", "result", outcome).increment();
+            if (!"deferred".equals(outcome)) {
+                notDeferred.add(channelTypes.get(i));
+            }
+        }
+        if (notDeferred.size() < channelTypes.size()) {
+            context.addAttribute(DEFERRED_ATTRIBUTE, true);
+        }
+        return notDeferred;
+    }
+
+    /**
+     * 暂存单个渠道的延后消息
+     * @return 结果：deferred/full/error
+     */
+    private String offer(MessageContext context, ChannelType channelType, List<RateLimitRule> rules, int attempt) {
+        try {
+            DeferredMessage deferred = new DeferredMessage();
+            deferred.setMessageId(context.getMessageId());
+            deferred.setTenantId(context.getTenantId());
+            deferred.setStoreId(context.getStoreId());
+            deferred.setBusinessType(context.getBusinessType());
+            deferred.setBusinessData(context.getBusinessData());
+            deferred.setTargetChannels(List.of(channelType));
+            deferred.setChannelConfig(configOf(context, channelType));
+            deferred.setAttempts(attempt);
+            long dueTime = 0;
+            for (RateLimitRule rule : rules) {
+                dueTime = Math.max(dueTime, rateLimiter.nextAvailableAt(rule));
+            }
+            deferred.setDueTime(dueTime);
+            return delayStore.offer(deferred) ? "deferred" : "full";
+        } catch (Exception e) {
+            log.error("延后发送消息失败，消息ID：{}，渠道：{}，原因：{}", context.getMessageId(), channelType, e.getMessage(), e);
+            return "error";
+        }
+    }
+
+    private static String names(List<ChannelType> channelTypes) {
+        StringBuilder builder = new StringBuilder();
+        for (ChannelType channelType : channelTypes) {
+            if (builder.length() > 0) {
+                builder.append("、");
+            }
+            builder.append(channelType.getName());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 按配置的检查顺序构建渠道各层的频次限制规则，未开启分层时只有门店层
+     */
+    private LevelRules buildLevelRules(Long tenantId, Long storeId, ChannelType channelType, String webhookId) {
+        LevelRules levelRules = new LevelRules();
+        if (!hierarchyConfig.isEnabled()) {
+            levelRules.add(RateLimitLevel.STORE, buildRule(tenantId, storeId, channelType));
+            return levelRules;
+        }
+        for (RateLimitLevel level : hierarchyConfig.getPrecedence()) {
+            switch (level) {
+                case GLOBAL -> levelRules.add(level, buildRule(RateLimitKeys.globalPrefix(channelType),
+                        hierarchyConfig.getGlobal().get(channelType)));
+                case TENANT -> levelRules.add(level, buildRule(RateLimitKeys.tenantPrefix(tenantId, channelType),
+                        hierarchyConfig.getTenant().get(channelType)));
+                case STORE -> levelRules.add(level, buildRule(tenantId, storeId, channelType));
+                case WEBHOOK -> {
+                    if (webhookId != null) {
+                        levelRules.add(level, buildRule(RateLimitKeys.webhookPrefix(webhookId, channelType),
+                                hierarchyConfig.getWebhook().get(channelType)));
+                    }
+                }
+            }
+        }
+        return levelRules;
+    }
+
+    /**
+     * 构建渠道的频次限制规则（门店层），未配置频次限制时返回null
+     */
+    private RateLimitRule buildRule(Long tenantId, Long storeId, ChannelType channelType) {
+        ChannelConfigService.RateLimitConfig rateLimitConfig = channelConfigService.getRateLimitConfig(
+                tenantId, storeId, channelType);
+        if (rateLimitConfig == null || rateLimitConfig.getCount() == null) {
+            return null;
+        }
+        return new RateLimitRule(
+                RateLimitKeys.prefix(tenantId, storeId, channelType),
+                rateLimitConfig.getCount(),
+                getTTLSeconds(rateLimitConfig),
+                RateLimitAlgorithm.getByCode(rateLimitConfig.getAlgorithm()));
+    }
+
+    /**
+     * 按分层配置构建规则，该渠道未配置此层时返回null
+     */
+    private RateLimitRule buildRule(String prefix, RateLimitHierarchyConfig.Quota quota) {
+        if (quota == null || quota.getCount() == null) {
+            return null;
+        }
+        return new RateLimitRule(
+                prefix,
+                quota.getCount(),
+                TimeUnitEnum.getByCode(quota.getUnit()).toSeconds(quota.getWindow()),
+                RateLimitAlgorithm.getByCode(quota.getAlgorithm()));
+    }
+
+    private static ChannelConfig configOf(MessageContext context, ChannelType channelType) {
+        if (context.getChannelConfigs() == null) {
+            return null;
+        }
+        for (ChannelConfig config : context.getChannelConfigs()) {
+            if (config.getChannelType() == channelType) {
+                return config;
+            }
+        }
+        return null;
+    }
+
+    private static String parseWebhookId(String configJson) {
+        try {
+            JSONObject json = JSON.parseObject(configJson);
+            String webhook = json != null ? json.getString("webhook") : null;
+            if (webhook == null || webhook.isEmpty()) {
+                return "";
+            }
+            return DigestUtils.md5DigestAsHex(webhook.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("解析渠道配置中的webhook失败，原因：{}", e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 计算时间窗口长度（秒）
      */
     private long getTTLSeconds(ChannelConfigService.RateLimitConfig config) {
         TimeUnitEnum unit = TimeUnitEnum.getByCode(config.getUnit());
         return unit.toSeconds(config.getWindow());
     }
+
+    /**
+     * 一个渠道各层的规则，规则与层级一一对应，按检查顺序排列
+     */
+    private static final class LevelRules {
+
+        private final List<RateLimitRule> rules = new ArrayList<>(4);
+
+        private final List<RateLimitLevel> levels = new ArrayList<>(4);
+
+        void add(RateLimitLevel level, RateLimitRule rule) {
+            if (rule != null) {
+                rules.add(rule);
+                levels.add(level);
+            }
+        }
+    }
 }
@@ -5,7 +5,6 @@ import com.message.center.domain.enums.MessageStatus;
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.HandlerResult;
 import com.message.center.domain.repository.MessageRepository;
-import com.message.center.domain.repository.ChannelTaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -20,17 +19,11 @@ public class StatusTrackingHandler implements MessageHandler {
     @Autowired
     private MessageRepository messageRepository;
 
-    @Autowired
-    private ChannelTaskRepository channelTaskRepository;
-
     @Override
     public HandlerResult handle(MessageContext context) {
-        // 1. 更新消息状态为处理中
+        // 更新消息状态为处理中（渠道任务已在分发前落库）
         messageRepository.updateStatus(context.getMessageId(), MessageStatus.PROCESSING);
 
-        // 2. 保存渠道任务
-        channelTaskRepository.saveBatch(context.getChannelTasks());
-
         return HandlerResult.success();
     }
 
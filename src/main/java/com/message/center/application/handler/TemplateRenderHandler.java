@@ -25,6 +25,8 @@ public class TemplateRenderHandler implements MessageHandler {
     @Override
     public HandlerResult handle(MessageContext context) {
         Map<ChannelType, String> renderedMessages = new HashMap<>();
+        // 复用验证阶段的解析结果，各渠道共用
+        Map<String, Object> data = context.getParsedBusinessData().asMap();
 
         // 对每个目标渠道进行模板渲染
         for (ChannelType channelType : context.getTargetChannels()) {
@@ -38,6 +40,7 @@ public class TemplateRenderHandler implements MessageHandler {
             // 渲染模板
             String renderedContent = messageTemplateService.renderTemplate(
                     template,
+                    data,
                     context.getBusinessData()
             );
 
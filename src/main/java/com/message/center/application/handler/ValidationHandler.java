@@ -1,7 +1,6 @@
 package com.message.center.application.handler;
 
 import cn.hutool.core.util.StrUtil;
-import com.alibaba.fastjson2.JSON;
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.HandlerResult;
 import org.springframework.stereotype.Component;
@@ -29,10 +28,8 @@ public class ValidationHandler implements MessageHandler {
             return HandlerResult.fail("VALIDATION_ERROR", "业务数据不能为空");
         }
 
-        // 2. 验证JSON格式
-        try {
-            JSON.parse(context.getBusinessData());
-        } catch (Exception e) {
+        // 2. 验证JSON格式，解析结果留在上下文中供后续处理器使用
+        if (!context.getParsedBusinessData().isValid()) {
             return HandlerResult.fail("VALIDATION_ERROR", "业务数据必须是有效的JSON格式");
         }
 
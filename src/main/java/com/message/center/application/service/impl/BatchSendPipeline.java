@@ -0,0 +1,503 @@
+package com.message.center.application.service.impl;
+
+import com.message.center.application.handler.ChannelDispatchHandler;
+import com.message.center.application.handler.RateLimitHandler;
+import com.message.center.application.handler.TimeWindowHandler;
+import com.message.center.application.handler.ValidationHandler;
+import com.message.center.application.service.MessageSendApplicationService.BatchSendResult;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.ChannelConfigRepository;
+import com.message.center.domain.service.MessageDomainService;
+import com.message.center.domain.vo.BatchSaveResult;
+import com.message.center.domain.vo.HandlerResult;
+import com.message.center.domain.vo.Message;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.domain.vo.SendResult;
+import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import com.message.center.interfaces.dubbo.api.MessageTemplateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 批量发送流水线
+ * 按（租户, 门店, 业务类型）分组处理消息：
+ * - 每组只查询一次时间窗口、渠道配置和模板
+ * - 频次额度按（租户, 门店, 渠道）合并，整批在一次管道往返中申请，未分配的额度也一次退还；额度不足只影响对应渠道，开启延后发送时该渠道延后重新发送
+ * - 消息和渠道任务分别多行写入，消息落库后再延后受限渠道，最后统一分发
+ */
+@Component
+public class BatchSendPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSendPipeline.class);
+
+    @Autowired
+    private ValidationHandler validationHandler;
+
+    @Autowired
+    private TimeWindowHandler timeWindowHandler;
+
+    @Autowired
+    private RateLimitHandler rateLimitHandler;
+
+    @Autowired
+    private ChannelConfigRepository channelConfigRepository;
+
+    @Autowired
+    private MessageTemplateService messageTemplateService;
+
+    @Autowired
+    private MessageDomainService messageDomainService;
+
+    @Autowired
+    private ChannelDispatchHandler channelDispatchHandler;
+
+    @Autowired
+    private ChannelTaskExecutor channelTaskExecutor;
+
+    /**
+     * 执行批量发送
+     * @param messages 消息列表（messageId已生成）
+     * @return 批量发送结果，results与messages一一对应
+     */
+    public BatchSendResult execute(List<Message> messages) {
+        SendResult[] results = new SendResult[messages.size()];
+        MessageContext[] contexts = new MessageContext[messages.size()];
+        List<com.message.center.domain.entity.Message> dbMessages = new ArrayList<>();
+        List<ChannelTask> tasks = new ArrayList<>();
+
+        // 1. 逐条校验，并按（租户, 门店, 业务类型）分组
+        Map<GroupKey, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            MessageContext context = MessageSendApplicationServiceImpl.buildMessageContext(message);
+            HandlerResult validation = validationHandler.handle(context);
+            if (!validation.isSuccess()) {
+                results[i] = failResult(message, validation.getErrorCode(), validation.getErrorMessage());
+                continue;
+            }
+            contexts[i] = context;
+            groups.computeIfAbsent(groupKey(message), key -> new ArrayList<>()).add(i);
+        }
+
+        // 2. 逐组准备：时间窗口、渠道配置、模板和路由，单组异常不影响其他组
+        Map<GroupKey, GroupPlan> plans = new LinkedHashMap<>();
+        for (Map.Entry<GroupKey, List<Integer>> group : groups.entrySet()) {
+            try {
+                GroupPlan plan = prepareGroup(group.getKey(), group.getValue(), messages, contexts, results);
+                if (plan != null) {
+                    plans.put(group.getKey(), plan);
+                }
+            } catch (Exception e) {
+                failGroup(group.getKey(), group.getValue(), messages, results, tasks, e);
+            }
+        }
+
+        // 3. 频次控制：所有分组、所有渠道的额度需求合并为一次管道往返申请
+        acquireQuota(plans, messages, results);
+
+        // 4. 逐组按提交顺序分配额度，渲染模板并创建渠道任务；分组中途异常时整组失败并退还已分配的额度
+        List<Deferral> deferrals = new ArrayList<>();
+        for (Map.Entry<GroupKey, GroupPlan> entry : plans.entrySet()) {
+            GroupPlan plan = entry.getValue();
+            try {
+                dispatchGroup(plan, messages, contexts, results, tasks, deferrals);
+            } catch (Exception e) {
+                plan.indexes.forEach(index -> refund(plan, index));
+                deferrals.removeIf(deferral -> plan.indexes.contains(deferral.index()));
+                failGroup(entry.getKey(), plan.indexes, messages, results, tasks, e);
+            }
+        }
+
+        // 5. 多行写入消息，已通过校验的消息无论成败都落库以便追踪；写入失败的消息置为失败，其渠道任务不再写入、额度退还
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> dbIndexes = new ArrayList<>();
+        for (List<Integer> indexes : groups.values()) {
+            for (int index : indexes) {
+                dbMessages.add(toDbMessage(messages.get(index), contexts[index], results[index], now));
+                dbIndexes.add(index);
+            }
+        }
+        BatchSaveResult saveResult = messageDomainService.batchCreateMessages(dbMessages);
+        Set<Integer> unsaved = failUnsaved(saveResult, dbIndexes, messages, results, tasks);
+        for (int index : unsaved) {
+            GroupPlan plan = plans.get(groupKey(messages.get(index)));
+            if (plan != null) {
+                refund(plan, index);
+            }
+        }
+
+        // 6. 一次管道往返退还所有分组未分配的额度
+        releaseQuota(plans);
+
+        // 7. 已落库的消息延后受限渠道，未能延后的渠道记录为频次受限
+        deferrals.removeIf(deferral -> unsaved.contains(deferral.index()));
+        deferLimited(deferrals, messages, results, tasks);
+
+        // 8. 多行写入渠道任务后统一分发，频次受限任务只落库
+        List<ChannelTask> savedTasks = ChannelDispatchHandler.dispatchable(channelDispatchHandler.saveChannelTasks(tasks));
+        if (!savedTasks.isEmpty()) {
+            channelTaskExecutor.executeAll(savedTasks);
+        }
+
+        int successCount = (int) Arrays.stream(results).filter(SendResult::isSuccess).count();
+        return new BatchSendResult(messages.size(), successCount, messages.size() - successCount, Arrays.asList(results));
+    }
+
+    /**
+     * 准备同一（租户, 门店, 业务类型）下的消息：查询配置和模板，按目标渠道路由并汇总额度需求
+     * @return 分组计划，整组失败时返回null
+     */
+    private GroupPlan prepareGroup(GroupKey key, List<Integer> indexes, List<Message> messages,
+                                   MessageContext[] contexts, SendResult[] results) {
+        // 1. 时间窗口：与消息内容无关，每组检查一次
+        HandlerResult timeWindow = timeWindowHandler.handle(contexts[indexes.get(0)]);
+        if (!timeWindow.isSuccess()) {
+            failAll(indexes, messages, results, timeWindow.getErrorCode(), timeWindow.getErrorMessage());
+            return null;
+        }
+
+        // 2. 渠道配置：每组查询一次
+        List<ChannelConfig> enabledConfigs = channelConfigRepository.getConfigs(
+                        key.tenantId(), key.storeId(), key.businessType()).stream()
+                .filter(config -> Boolean.TRUE.equals(config.getEnabled()))
+                .collect(Collectors.toList());
+        if (enabledConfigs.isEmpty()) {
+            failAll(indexes, messages, results, "NO_CHANNEL", "未配置可用的发送渠道");
+            return null;
+        }
+
+        // 3. 模板：每个渠道查询一次
+        GroupPlan plan = new GroupPlan(key, indexes);
+        for (ChannelConfig config : enabledConfigs) {
+            if (!plan.webhookIds.containsKey(config.getChannelType())) {
+                plan.webhookIds.put(config.getChannelType(), RateLimitHandler.webhookId(config));
+            }
+            if (!plan.templates.containsKey(config.getChannelType())) {
+                plan.templates.put(config.getChannelType(), messageTemplateService.getTemplate(
+                        key.tenantId(), key.businessType(), config.getChannelType()));
+            }
+        }
+
+        // 4. 路由：逐条按目标渠道过滤，并汇总各渠道的额度需求
+        for (int index : indexes) {
+            List<ChannelType> targetChannels = contexts[index].getTargetChannels();
+            List<ChannelConfig> configs = enabledConfigs.stream()
+                    .filter(config -> targetChannels == null || targetChannels.isEmpty()
+                            || targetChannels.contains(config.getChannelType()))
+                    .collect(Collectors.toList());
+            if (configs.isEmpty()) {
+                results[index] = failResult(messages.get(index), "NO_CHANNEL", "未找到匹配的发送渠道");
+                continue;
+            }
+            plan.routedConfigs.put(index, configs);
+            for (ChannelType channelType : channelTypes(configs)) {
+                plan.demands.merge(channelType, 1, Integer::sum);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * 一次申请所有分组的额度，申请失败时涉及的分组整体失败
+     */
+    private void acquireQuota(Map<GroupKey, GroupPlan> plans, List<Message> messages, SendResult[] results) {
+        List<RateLimitHandler.Demand> demands = new ArrayList<>();
+        List<GroupPlan> owners = new ArrayList<>();
+        for (GroupPlan plan : plans.values()) {
+            for (Map.Entry<ChannelType, Integer> demand : plan.demands.entrySet()) {
+                demands.add(new RateLimitHandler.Demand(plan.key.tenantId(), plan.key.storeId(),
+                        demand.getKey(), demand.getValue(), plan.webhookIds.get(demand.getKey())));
+                owners.add(plan);
+            }
+        }
+        if (demands.isEmpty()) {
+            return;
+        }
+        int[] granted;
+        try {
+            granted = rateLimitHandler.acquire(demands);
+        } catch (Exception e) {
+            log.error("批量申请频次额度失败，分组数：{}，原因：{}", plans.size(), e.getMessage(), e);
+            for (GroupPlan plan : plans.values()) {
+                plan.routedConfigs.keySet().forEach(index -> results[index] = failResult(messages.get(index),
+                        "SYSTEM_ERROR", "发送消息失败: " + e.getMessage()));
+            }
+            plans.clear();
+            return;
+        }
+        for (int i = 0; i < demands.size(); i++) {
+            owners.get(i).remaining.put(demands.get(i).channelType(), granted[i]);
+        }
+    }
+
+    /**
+     * 按提交顺序逐渠道分配额度，渲染模板并创建渠道任务
+     * 开启延后发送时额度不足的渠道先记录下来，消息落库后再延后
+     */
+    private void dispatchGroup(GroupPlan plan, List<Message> messages, MessageContext[] contexts,
+                               SendResult[] results, List<ChannelTask> tasks, List<Deferral> deferrals) {
+        Map<ChannelType, Integer> remaining = plan.remaining;
+        boolean deferralEnabled = rateLimitHandler.isDeferralEnabled();
+
+        // 1. 额度不足的渠道延后发送或记录为频次受限任务，其余渠道照常发送（与单条发送语义一致）
+        for (Map.Entry<Integer, List<ChannelConfig>> routed : plan.routedConfigs.entrySet()) {
+            int index = routed.getKey();
+            MessageContext context = contexts[index];
+            Set<ChannelType> channelTypes = EnumSet.noneOf(ChannelType.class);
+            List<ChannelType> limitedChannels = new ArrayList<>();
+            for (ChannelType channelType : channelTypes(routed.getValue())) {
+                if (remaining.get(channelType) > 0) {
+                    channelTypes.add(channelType);
+                } else {
+                    limitedChannels.add(channelType);
+                }
+            }
+            if (deferralEnabled && !limitedChannels.isEmpty()) {
+                deferrals.add(new Deferral(index, context, routed.getValue(), limitedChannels));
+            }
+            if (channelTypes.isEmpty()) {
+                if (deferralEnabled) {
+                    results[index] = SendResult.deferred(messages.get(index).getMessageId());
+                } else {
+                    results[index] = failResult(messages.get(index), "RATE_LIMITED",
+                            String.format("渠道%s触发频次限制", limitedChannels.get(0).getName()));
+                }
+                continue;
+            }
+            channelTypes.forEach(channelType -> remaining.merge(channelType, -1, Integer::sum));
+            plan.consumed.put(index, channelTypes);
+            List<ChannelConfig> allowedConfigs = new ArrayList<>();
+            List<ChannelConfig> rateLimitedConfigs = new ArrayList<>();
+            for (ChannelConfig config : routed.getValue()) {
+                if (channelTypes.contains(config.getChannelType())) {
+                    allowedConfigs.add(config);
+                } else if (!deferralEnabled) {
+                    rateLimitedConfigs.add(config);
+                }
+            }
+            if (!rateLimitedConfigs.isEmpty()) {
+                context.addAttribute(RateLimitHandler.RATE_LIMITED_CONFIGS_ATTRIBUTE, rateLimitedConfigs);
+            }
+
+            // 2. 渲染模板并创建渠道任务
+            context.setChannelConfigs(allowedConfigs);
+            context.setTargetChannels(new ArrayList<>(channelTypes));
+            Map<String, Object> data = context.getParsedBusinessData().asMap();
+            for (ChannelType channelType : channelTypes) {
+                context.addRenderedMessage(channelType, messageTemplateService.renderTemplate(
+                        plan.templates.get(channelType), data, context.getBusinessData()));
+            }
+            List<ChannelTask> messageTasks = ChannelDispatchHandler.buildChannelTasks(context);
+            context.setChannelTasks(messageTasks);
+            tasks.addAll(messageTasks);
+            results[index] = SendResult.success(messages.get(index).getMessageId());
+        }
+    }
+
+    /**
+     * 延后已落库消息的受限渠道
+     * 全部渠道都未能延后的消息置为失败，其余消息未能延后的渠道记录为频次受限任务
+     */
+    private void deferLimited(List<Deferral> deferrals, List<Message> messages, SendResult[] results,
+                              List<ChannelTask> tasks) {
+        for (Deferral deferral : deferrals) {
+            MessageContext context = deferral.context();
+            String messageId = context.getMessageId();
+            // 延后的消息携带路由后的渠道配置，重新发送时不再路由
+            context.setChannelConfigs(deferral.routedConfigs());
+            List<ChannelType> notDeferred;
+            try {
+                notDeferred = rateLimitHandler.defer(context, deferral.channelTypes());
+            } catch (Exception e) {
+                log.error("延后发送消息失败，消息ID：{}，原因：{}", messageId, e.getMessage(), e);
+                notDeferred = deferral.channelTypes();
+            }
+            if (notDeferred.isEmpty()) {
+                continue;
+            }
+            if (!results[deferral.index()].isDeferred()) {
+                for (ChannelConfig config : deferral.routedConfigs()) {
+                    if (notDeferred.contains(config.getChannelType())) {
+                        tasks.add(ChannelDispatchHandler.finishedTask(context, config, TaskStatus.RATE_LIMITED, "触发频次限制"));
+                    }
+                }
+            } else if (notDeferred.size() == deferral.channelTypes().size()) {
+                results[deferral.index()] = failResult(messages.get(deferral.index()), "RATE_LIMITED",
+                        String.format("渠道%s触发频次限制", notDeferred.get(0).getName()));
+                try {
+                    messageDomainService.updateMessageStatus(messageId, MessageStatus.FAILED);
+                } catch (Exception e) {
+                    log.error("更新消息状态失败，消息ID：{}，原因：{}", messageId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 退还消息已分配的额度，由最后一次退还统一归还
+     */
+    private void refund(GroupPlan plan, int index) {
+        Set<ChannelType> consumed = plan.consumed.remove(index);
+        if (consumed != null) {
+            consumed.forEach(channelType -> plan.remaining.merge(channelType, 1, Integer::sum));
+        }
+    }
+
+    /**
+     * 一次退还所有分组未分配的额度
+     */
+    private void releaseQuota(Map<GroupKey, GroupPlan> plans) {
+        List<RateLimitHandler.Demand> leftovers = new ArrayList<>();
+        for (GroupPlan plan : plans.values()) {
+            for (Map.Entry<ChannelType, Integer> left : plan.remaining.entrySet()) {
+                if (left.getValue() > 0) {
+                    leftovers.add(new RateLimitHandler.Demand(plan.key.tenantId(), plan.key.storeId(),
+                            left.getKey(), left.getValue(), plan.webhookIds.get(left.getKey())));
+                }
+            }
+        }
+        try {
+            rateLimitHandler.release(leftovers);
+        } catch (Exception e) {
+            log.warn("退还未分配的频次额度失败，数量：{}，原因：{}", leftovers.size(), e.getMessage());
+        }
+    }
+
+    private void failGroup(GroupKey key, List<Integer> indexes, List<Message> messages, SendResult[] results,
+                           List<ChannelTask> tasks, Exception e) {
+        log.error("批量发送分组处理失败，分组：{}，原因：{}", key, e.getMessage(), e);
+        for (int index : indexes) {
+            if (results[index] == null || results[index].isSuccess()) {
+                results[index] = failResult(messages.get(index), "SYSTEM_ERROR", "发送消息失败: " + e.getMessage());
+            }
+        }
+        tasks.removeIf(task -> indexes.stream()
+                .anyMatch(index -> messages.get(index).getMessageId().equals(task.getMessageId())));
+    }
+
+    /**
+     * 写入失败批次中的消息置为失败，并移除其渠道任务
+     * @return 写入失败的消息序号
+     */
+    private Set<Integer> failUnsaved(BatchSaveResult saveResult, List<Integer> dbIndexes, List<Message> messages,
+                                     SendResult[] results, List<ChannelTask> tasks) {
+        if (saveResult.getFailures().isEmpty()) {
+            return Set.of();
+        }
+        Set<Integer> unsaved = new HashSet<>();
+        Set<String> unsavedIds = new HashSet<>();
+        for (BatchSaveResult.ChunkFailure failure : saveResult.getFailures()) {
+            for (int i = failure.getFromIndex(); i < failure.getFromIndex() + failure.getSize(); i++) {
+                int index = dbIndexes.get(i);
+                unsaved.add(index);
+                unsavedIds.add(messages.get(index).getMessageId());
+                results[index] = failResult(messages.get(index), "SYSTEM_ERROR",
+                        "保存消息失败: " + failure.getErrorMessage());
+            }
+        }
+        log.warn("部分消息写入失败，总数：{}，失败数：{}", saveResult.getTotalCount(), unsavedIds.size());
+        tasks.removeIf(task -> unsavedIds.contains(task.getMessageId()));
+        return unsaved;
+    }
+
+    /**
+     * 构建待写入的消息实体
+     */
+    private com.message.center.domain.entity.Message toDbMessage(Message message, MessageContext context,
+                                                                  SendResult result, LocalDateTime now) {
+        com.message.center.domain.entity.Message dbMessage = MessageSendApplicationServiceImpl.convertToDbMessage(message);
+        if (result.isDeferred()) {
+            // 全部渠道待延后发送，重新发送时再创建渠道任务；未能延后时再置为失败
+            dbMessage.setStatus(MessageStatus.DEFERRED);
+        } else if (result.isSuccess()) {
+            dbMessage.setStatus(MessageStatus.PROCESSING);
+            dbMessage.setTotalChannels(context.getChannelTasks().size());
+        } else {
+            dbMessage.setStatus(MessageStatus.FAILED);
+            dbMessage.setFinishTime(now);
+        }
+        return dbMessage;
+    }
+
+    private static GroupKey groupKey(Message message) {
+        return new GroupKey(message.getTenantId(), message.getStoreId(), message.getBusinessType());
+    }
+
+    private Set<ChannelType> channelTypes(List<ChannelConfig> configs) {
+        Set<ChannelType> channelTypes = EnumSet.noneOf(ChannelType.class);
+        configs.forEach(config -> channelTypes.add(config.getChannelType()));
+        return channelTypes;
+    }
+
+    private void failAll(List<Integer> indexes, List<Message> messages, SendResult[] results,
+                         String errorCode, String errorMessage) {
+        for (int index : indexes) {
+            results[index] = failResult(messages.get(index), errorCode, errorMessage);
+        }
+    }
+
+    private SendResult failResult(Message message, String errorCode, String errorMessage) {
+        SendResult result = SendResult.fail(errorCode, errorMessage);
+        result.setMessageId(message.getMessageId());
+        return result;
+    }
+
+    /**
+     * 分组键：租户ID + 门店ID + 业务类型
+     */
+    private record GroupKey(Long tenantId, Long storeId, String businessType) {
+    }
+
+    /**
+     * 待延后的受限渠道：消息序号、上下文、路由后的渠道配置和受限渠道
+     */
+    private record Deferral(int index, MessageContext context, List<ChannelConfig> routedConfigs,
+                            List<ChannelType> channelTypes) {
+    }
+
+    /**
+     * 分组计划：路由结果、模板、webhook 标识、各渠道的额度需求、已申请到的剩余额度和每条消息已分配的渠道
+     */
+    private static class GroupPlan {
+
+        private final GroupKey key;
+
+        private final List<Integer> indexes;
+
+        private final Map<ChannelType, MessageTemplate> templates = new EnumMap<>(ChannelType.class);
+
+        private final Map<ChannelType, String> webhookIds = new EnumMap<>(ChannelType.class);
+
+        private final Map<Integer, List<ChannelConfig>> routedConfigs = new LinkedHashMap<>();
+
+        private final Map<ChannelType, Integer> demands = new EnumMap<>(ChannelType.class);
+
+        private final Map<ChannelType, Integer> remaining = new EnumMap<>(ChannelType.class);
+
+        private final Map<Integer, Set<ChannelType>> consumed = new LinkedHashMap<>();
+
+        GroupPlan(GroupKey key, List<Integer> indexes) {
+            this.key = key;
+            this.indexes = indexes;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.message.center.application.service.impl;
+
+import com.message.center.application.handler.ChannelDispatchHandler;
+import com.message.center.application.handler.MessageHandlerChain;
+import com.message.center.application.handler.RateLimitHandler;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.MessageRepository;
+import com.message.center.domain.vo.DeferredMessage;
+import com.message.center.domain.vo.Message;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.infrastructure.config.RateLimitDeferralConfig;
+import com.message.center.infrastructure.delay.DelayStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延后消息调度器
+ * 定时从 DelayStore 取出已到期的消息，从频次控制处理器继续执行责任链，每次最多取出 releaseBatchSize 条，
+ * 释放速率不超过 releaseBatchSize / pollIntervalMillis，避免额度恢复瞬间集中放出
+ * 重新执行时额度仍不足的消息会按新的恢复时间再次延后，直到超过最大延后次数；最终失败时记录渠道任务并更新消息状态
+ */
+@Component
+public class DeferredMessageDispatcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DeferredMessageDispatcher.class);
+
+    @Autowired
+    private RateLimitDeferralConfig deferralConfig;
+
+    @Autowired(required = false)
+    private DelayStore delayStore;
+
+    @Autowired
+    private MessageHandlerChain messageHandlerChain;
+
+    @Autowired
+    private RateLimitHandler rateLimitHandler;
+
+    @Autowired
+    private ChannelDispatchHandler channelDispatchHandler;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        if (!deferralConfig.isEnabled() || delayStore == null) {
+            return;
+        }
+        Gauge.builder("message.center.rate_limit.deferral.pending", delayStore, DelayStore::size)
+                .register(meterRegistry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-center-deferred-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = deferralConfig.getPollIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::dispatchDue, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 重新发送已到期的消息
+     */
+    void dispatchDue() {
+        List<DeferredMessage> due;
+        try {
+            due = delayStore.pollDue(System.currentTimeMillis(), deferralConfig.getReleaseBatchSize());
+        } catch (Exception e) {
+            log.error("拉取到期的延后消息失败，原因：{}", e.getMessage(), e);
+            return;
+        }
+        for (DeferredMessage deferred : due) {
+            redispatch(deferred);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 重新执行责任链，消息已在首次发送时落库
+     * 首次发送时已完成校验、时间窗口和路由，携带渠道配置的消息从频次控制处理器继续执行
+     */
+    private void redispatch(DeferredMessage deferred) {
+        String outcome;
+        MessageContext context = MessageSendApplicationServiceImpl.buildMessageContext(toMessage(deferred));
+        context.addAttribute(RateLimitHandler.DEFER_ATTEMPTS_ATTRIBUTE, deferred.getAttempts());
+        try {
+            MessageHandlerChain.ChainResult result;
+            if (deferred.getChannelConfig() != null) {
+                context.setChannelConfigs(List.of(deferred.getChannelConfig()));
+                result = messageHandlerChain.execute(context, rateLimitHandler.getOrder());
+            } else {
+                result = messageHandlerChain.execute(context);
+            }
+            if (!result.isSuccess()) {
+                outcome = "failed";
+                log.warn("延后消息重新发送失败，消息ID：{}，错误信息：{}", deferred.getMessageId(), result.getErrorMessage());
+                recordFailure(context, deferred, result.getErrorCode(), result.getErrorMessage());
+            } else {
+                outcome = RateLimitHandler.isDeferred(context) ? "deferred_again" : "sent";
+            }
+        } catch (Exception e) {
+            outcome = "failed";
+            log.error("延后消息重新发送异常，消息ID：{}", deferred.getMessageId(), e);
+            recordFailure(context, deferred, "SYSTEM_ERROR", e.getMessage());
+        }
+        meterRegistry.counter("message.center.rate_limit.deferral.released", "result", outcome).increment();
+    }
+
+    /**
+     * 记录重新发送失败的结果：该渠道记录为频次受限或失败任务，消息没有其他渠道已发出时置为失败
+     */
+    private void recordFailure(MessageContext context, DeferredMessage deferred, String errorCode, String errorMessage) {
+        try {
+            ChannelConfig config = deferred.getChannelConfig();
+            if (config != null) {
+                TaskStatus status = "RATE_LIMITED".equals(errorCode) ? TaskStatus.RATE_LIMITED : TaskStatus.FAILED;
+                channelDispatchHandler.saveChannelTasks(List.of(
+                        ChannelDispatchHandler.finishedTask(context, config, status, errorMessage)));
+            }
+            com.message.center.domain.entity.Message message = messageRepository.getByMessageId(deferred.getMessageId());
+            if (message != null && message.getStatus() == MessageStatus.DEFERRED) {
+                messageRepository.updateStatus(deferred.getMessageId(), MessageStatus.FAILED);
+            }
+        } catch (Exception e) {
+            log.error("记录延后消息的发送结果失败，消息ID：{}", deferred.getMessageId(), e);
+        }
+    }
+
+    private static Message toMessage(DeferredMessage deferred) {
+        Message message = new Message();
+        message.setMessageId(deferred.getMessageId());
+        message.setTenantId(deferred.getTenantId());
+        message.setStoreId(deferred.getStoreId());
+        message.setBusinessType(deferred.getBusinessType());
+        message.setBusinessData(deferred.getBusinessData());
+        message.setTargetChannels(deferred.getTargetChannels());
+        return message;
+    }
+}
@@ -1,12 +1,18 @@
 package com.message.center.application.service.impl;
 
 import com.alibaba.fastjson2.JSON;
+import com.message.center.application.handler.RateLimitHandler;
 import com.message.center.application.service.MessageSendApplicationService;
+import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.repository.MessageRepository;
 import com.message.center.domain.service.MessageDomainService;
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.Message;
 import com.message.center.domain.vo.SendResult;
 import com.message.center.application.handler.MessageHandlerChain;
+import com.message.center.infrastructure.config.AsyncSendConfig;
+import com.message.center.infrastructure.mq.MessageQueue;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,52 +33,156 @@ public class MessageSendApplicationServiceImpl implements MessageSendApplication
     @Autowired
     private MessageDomainService messageDomainService;
 
+    @Autowired
+    private MessageRepository messageRepository;
+
     @Autowired
     private MessageHandlerChain messageHandlerChain;
 
+    @Autowired
+    private AsyncSendConfig asyncSendConfig;
+
+    @Autowired(required = false)
+    private MessageQueue messageQueue;
+
+    @Autowired
+    private BatchSendPipeline batchSendPipeline;
+
+    @PostConstruct
+    public void init() {
+        // 异步模式下注册队列消费者，由消费线程执行责任链
+        if (asyncSendConfig.isEnabled()) {
+            if (messageQueue == null) {
+                throw new IllegalStateException("已开启异步发送，但未找到可用的消息队列：" + asyncSendConfig.getQueueType());
+            }
+            messageQueue.subscribe(this::consumeMessage);
+        }
+    }
+
     @Override
     public SendResult sendMessage(Message message) {
-        try {
-            // 1. 生成消息ID
-            String messageId = generateMessageId();
-            message.setMessageId(messageId);
-
-            // 2. 保存消息到数据库
-            com.message.center.domain.entity.Message dbMessage = convertToDbMessage(message);
-            messageDomainService.createMessage(dbMessage);
-
-            // 3. 执行责任链处理
-            MessageContext context = buildMessageContext(message);
-            MessageHandlerChain.ChainResult chainResult = messageHandlerChain.execute(context);
-
-            if (chainResult.isSuccess()) {
-                return SendResult.success(messageId);
-            } else {
-                return SendResult.fail("MESSAGE_PROCESS_ERROR", chainResult.getErrorMessage());
-            }
-        } catch (Exception e) {
-            log.error("发送消息失败: {}", e.getMessage(), e);
-            return SendResult.fail("SYSTEM_ERROR", "发送消息失败: " + e.getMessage());
+        // 1. 生成消息ID
+        String messageId = generateMessageId();
+        message.setMessageId(messageId);
+
+        // 2. 异步模式：投递到队列后立即返回
+        if (asyncSendConfig.isEnabled()) {
+            return acceptMessage(message);
         }
+
+        // 3. 同步模式：在调用线程上执行责任链
+        return processMessage(message);
     }
 
     @Override
     public BatchSendResult batchSendMessages(List<Message> messages) {
-        List<SendResult> results = new ArrayList<>();
-        int successCount = 0;
-        int failedCount = 0;
+        // 异步模式下逐条投递即可，投递本身没有数据库和Redis开销
+        if (asyncSendConfig.isEnabled()) {
+            List<SendResult> results = new ArrayList<>();
+            int successCount = 0;
+            for (Message message : messages) {
+                SendResult result = sendMessage(message);
+                results.add(result);
+                if (result.isSuccess()) {
+                    successCount++;
+                }
+            }
+            return new BatchSendResult(messages.size(), successCount, messages.size() - successCount, results);
+        }
 
+        // 同步模式走批量流水线：按组解析配置和模板，多行写入消息和任务
         for (Message message : messages) {
-            SendResult result = sendMessage(message);
-            results.add(result);
-            if (result.isSuccess()) {
-                successCount++;
-            } else {
-                failedCount++;
+            message.setMessageId(generateMessageId());
+        }
+        return batchSendPipeline.execute(messages);
+    }
+
+    /**
+     * 投递消息到队列
+     * @param message 消息对象
+     * @return 投递结果，成功时携带messageId
+     */
+    private SendResult acceptMessage(Message message) {
+        try {
+            if (messageQueue.offer(message)) {
+                return SendResult.success(message.getMessageId());
             }
+            log.warn("消息队列已满或投递失败，消息ID：{}", message.getMessageId());
+            return SendResult.fail("QUEUE_FULL", "消息队列繁忙，请稍后重试");
+        } catch (Exception e) {
+            log.error("投递消息失败: {}", e.getMessage(), e);
+            return SendResult.fail("SYSTEM_ERROR", "投递消息失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 消费队列中的消息
+     * 保存消息失败等系统异常直接抛出，由消息队列重新投递；责任链返回的业务失败只记录日志
+     * 重复投递时按messageId判重：已落库且未开始处理的只重新执行责任链，已开始处理的直接忽略
+     * @param message 消息对象
+     */
+    private void consumeMessage(Message message) {
+        com.message.center.domain.entity.Message existing = messageRepository.getByMessageId(message.getMessageId());
+        SendResult result;
+        if (existing == null) {
+            result = handleMessage(message);
+        } else if (existing.getStatus() == MessageStatus.PENDING) {
+            result = executeChain(message);
+        } else {
+            log.info("消息已处理，忽略重复投递，消息ID：{}，状态：{}", message.getMessageId(), existing.getStatus());
+            return;
+        }
+        if (!result.isSuccess()) {
+            log.warn("异步处理消息失败，消息ID：{}，错误信息：{}", message.getMessageId(), result.getErrorMessage());
+        }
+    }
+
+    /**
+     * 同步处理消息，系统异常转换为失败结果
+     * @param message 消息对象（messageId已生成）
+     * @return 处理结果
+     */
+    private SendResult processMessage(Message message) {
+        try {
+            return handleMessage(message);
+        } catch (Exception e) {
+            log.error("发送消息失败: {}", e.getMessage(), e);
+            return SendResult.fail("SYSTEM_ERROR", "发送消息失败: " + e.getMessage());
         }
+    }
 
-        return new BatchSendResult(messages.size(), successCount, failedCount, results);
+    /**
+     * 保存消息并执行责任链
+     * @param message 消息对象（messageId已生成）
+     * @return 处理结果
+     */
+    private SendResult handleMessage(Message message) {
+        // 1. 保存消息到数据库
+        com.message.center.domain.entity.Message dbMessage = convertToDbMessage(message);
+        messageDomainService.createMessage(dbMessage);
+
+        // 2. 执行责任链处理
+        return executeChain(message);
+    }
+
+    /**
+     * 执行责任链，消息已落库
+     * @param message 消息对象（messageId已生成）
+     * @return 处理结果
+     */
+    private SendResult executeChain(Message message) {
+        MessageContext context = buildMessageContext(message);
+        MessageHandlerChain.ChainResult chainResult = messageHandlerChain.execute(context);
+
+        if (chainResult.isSuccess() && RateLimitHandler.isDeferred(context) && context.getChannelTasks() == null) {
+            // 所有渠道均已延后，由延后消息调度器到期后发送
+            messageDomainService.updateMessageStatus(message.getMessageId(), MessageStatus.DEFERRED);
+            return SendResult.deferred(message.getMessageId());
+        } else if (chainResult.isSuccess()) {
+            return SendResult.success(message.getMessageId());
+        } else {
+            return SendResult.fail("MESSAGE_PROCESS_ERROR", chainResult.getErrorMessage());
+        }
     }
 
     /**
@@ -89,7 +199,7 @@ public class MessageSendApplicationServiceImpl implements MessageSendApplication
      * @param message VO对象
      * @return 数据库实体
      */
-    private com.message.center.domain.entity.Message convertToDbMessage(Message message) {
+    static com.message.center.domain.entity.Message convertToDbMessage(Message message) {
         com.message.center.domain.entity.Message dbMessage = new com.message.center.domain.entity.Message();
         dbMessage.setMessageId(message.getMessageId());
         dbMessage.setTenantId(message.getTenantId());
@@ -106,7 +216,7 @@ public class MessageSendApplicationServiceImpl implements MessageSendApplication
      * @param message 消息对象
      * @return 消息处理上下文
      */
-    private MessageContext buildMessageContext(Message message) {
+    static MessageContext buildMessageContext(Message message) {
         MessageContext context = new MessageContext();
         context.setMessageId(message.getMessageId());
         context.setTenantId(message.getTenantId());
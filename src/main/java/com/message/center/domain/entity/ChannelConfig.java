@@ -83,6 +83,12 @@ public class ChannelConfig implements Serializable {
     @TableField("rate_limit_unit")
     private String rateLimitUnit;
 
+    /**
+     * 频次限制算法：FIXED_WINDOW/SLIDING_LOG/SLIDING_WINDOW_COUNTER
+     */
+    @TableField("rate_limit_algorithm")
+    private String rateLimitAlgorithm;
+
     /**
      * 是否启用时间窗口限制
      */
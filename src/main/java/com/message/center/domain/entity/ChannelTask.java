@@ -72,6 +72,12 @@ public class ChannelTask implements Serializable {
     @TableField("next_retry_time")
     private LocalDateTime nextRetryTime;
 
+    /**
+     * 重试租约持有者，待重试任务被某个节点领取后记录该节点标识，租约到期前其他节点不再领取
+     */
+    @TableField("lease_owner")
+    private String leaseOwner;
+
     /**
      * 发送结果消息
      */
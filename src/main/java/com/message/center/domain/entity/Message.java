@@ -60,7 +60,7 @@ public class Message implements Serializable {
     private String targetChannels;
 
     /**
-     * 消息状态：PENDING/PROCESSING/SUCCESS/PARTIAL_SUCCESS/FAILED
+     * 消息状态：PENDING/PROCESSING/DEFERRED/SUCCESS/PARTIAL_SUCCESS/FAILED
      */
     @TableField("status")
     private MessageStatus status;
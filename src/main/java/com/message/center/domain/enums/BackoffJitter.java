@@ -0,0 +1,22 @@
+package com.message.center.domain.enums;
+
+import lombok.Getter;
+
+/**
+ * 重试退避抖动方式枚举
+ * 同一时刻失败的任务按抖动打散下次重试时间，避免渠道恢复时同时重试
+ */
+@Getter
+public enum BackoffJitter {
+    NONE("不抖动", "按 初始间隔 * 倍数^(次数-1) 计算，不超过最大间隔"),
+    FULL("完全抖动", "在 0 到指数退避间隔之间随机"),
+    DECORRELATED("去相关抖动", "在初始间隔到上一次间隔的3倍之间随机，不超过最大间隔");
+
+    private final String name;
+    private final String description;
+
+    BackoffJitter(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+}
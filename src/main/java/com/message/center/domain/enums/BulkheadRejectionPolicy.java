@@ -0,0 +1,21 @@
+package com.message.center.domain.enums;
+
+import lombok.Getter;
+
+/**
+ * 渠道隔离线程池的拒绝策略枚举
+ * 线程和队列都已满时新提交的渠道任务的处理方式
+ */
+@Getter
+public enum BulkheadRejectionPolicy {
+    REJECT("拒绝", "不执行，任务按 BULKHEAD_REJECTED 错误码进入重试判定"),
+    CALLER_RUNS("调用线程执行", "由提交任务的线程直接执行，会占用接口请求线程");
+
+    private final String name;
+    private final String description;
+
+    BulkheadRejectionPolicy(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+}
@@ -9,6 +9,7 @@ import lombok.Getter;
 public enum MessageStatus {
     PENDING("待处理", "消息已接收，等待处理"),
     PROCESSING("处理中", "消息正在处理中"),
+    DEFERRED("延后发送", "触发频次限制，等待额度恢复后发送"),
     SUCCESS("全部成功", "所有渠道消息发送成功"),
     PARTIAL_SUCCESS("部分成功", "部分渠道消息发送成功"),
     FAILED("全部失败", "所有渠道消息发送失败");
@@ -0,0 +1,35 @@
+package com.message.center.domain.enums;
+
+import lombok.Getter;
+
+/**
+ * 频次限制算法枚举
+ */
+@Getter
+public enum RateLimitAlgorithm {
+    FIXED_WINDOW("固定窗口", "FIXED_WINDOW"),
+    SLIDING_LOG("滑动日志", "SLIDING_LOG"),
+    SLIDING_WINDOW_COUNTER("滑动窗口计数", "SLIDING_WINDOW_COUNTER");
+
+    private final String name;
+    private final String code;
+
+    RateLimitAlgorithm(String name, String code) {
+        this.name = name;
+        this.code = code;
+    }
+
+    /**
+     * 根据code获取枚举
+     * @param code 算法代码
+     * @return 频次限制算法，未配置或无法识别时返回固定窗口
+     */
+    public static RateLimitAlgorithm getByCode(String code) {
+        for (RateLimitAlgorithm algorithm : values()) {
+            if (algorithm.getCode().equals(code)) {
+                return algorithm;
+            }
+        }
+        return FIXED_WINDOW;
+    }
+}
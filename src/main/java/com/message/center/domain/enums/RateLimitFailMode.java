@@ -0,0 +1,22 @@
+package com.message.center.domain.enums;
+
+import lombok.Getter;
+
+/**
+ * 频次限制降级方式枚举
+ * Redis 不可用时各渠道的判定方式
+ */
+@Getter
+public enum RateLimitFailMode {
+    LOCAL("本地限流", "按 额度/节点数 在本节点近似限流"),
+    OPEN("放行", "不做频次限制，全部放行"),
+    CLOSED("拒绝", "全部按触发频次限制处理");
+
+    private final String name;
+    private final String description;
+
+    RateLimitFailMode(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+}
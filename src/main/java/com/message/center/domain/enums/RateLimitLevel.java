@@ -0,0 +1,22 @@
+package com.message.center.domain.enums;
+
+import lombok.Getter;
+
+/**
+ * 频次限制层级枚举
+ */
+@Getter
+public enum RateLimitLevel {
+    GLOBAL("全局", "平台内同一渠道的总发送量"),
+    TENANT("租户", "同一租户在该渠道的发送量"),
+    STORE("门店", "同一租户门店在该渠道的发送量，即渠道配置中的频次限制"),
+    WEBHOOK("机器人", "同一个 webhook 地址的发送量，对应渠道方对单个机器人的限制");
+
+    private final String name;
+    private final String description;
+
+    RateLimitLevel(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+}
@@ -12,7 +12,8 @@ public enum TaskStatus {
     SUCCESS("发送成功", "任务发送成功"),
     FAILED("发送失败", "任务发送失败，且已达到最大重试次数"),
     RETRY("等待重试", "任务发送失败，等待重试"),
-    CANCELLED("已取消", "任务已取消");
+    CANCELLED("已取消", "任务已取消"),
+    RATE_LIMITED("频次受限", "渠道触发频次限制，未发送");
 
     private final String name;
     private final String description;
@@ -2,6 +2,8 @@ package com.message.center.domain.repository;
 
 import com.message.center.domain.entity.ChannelTask;
 import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.vo.BatchSaveResult;
+import com.message.center.domain.vo.TaskStatusTransition;
 
 import java.util.List;
 
@@ -17,6 +19,14 @@ public interface ChannelTaskRepository {
      */
     boolean batchSave(List<ChannelTask> tasks);
 
+    /**
+     * 按批次写入渠道任务
+     * 写入成功的任务会回填自增ID，失败批次记录在结果中，不影响其他批次
+     * @param tasks 渠道任务列表
+     * @return 批量保存结果
+     */
+    BatchSaveResult batchInsert(List<ChannelTask> tasks);
+
     /**
      * 批量保存渠道任务（别名方法）
      * @param tasks 渠道任务列表
@@ -33,6 +43,22 @@ public interface ChannelTaskRepository {
      */
     boolean updateStatus(String taskId, TaskStatus status, String result);
 
+    /**
+     * 条件迁移任务状态
+     * 仅当任务当前状态属于期望状态时才更新，用于防止并发执行器重复处理同一任务
+     * @param transition 状态迁移
+     * @return 是否迁移成功
+     */
+    boolean transitionStatus(TaskStatusTransition transition);
+
+    /**
+     * 批量条件迁移任务状态
+     * 写库失败时抛出异常；已写入的迁移再次提交时不再满足期望状态，不会重复生效
+     * @param transitions 状态迁移列表
+     * @return 迁移成功的任务数
+     */
+    int batchTransitionStatus(List<TaskStatusTransition> transitions);
+
     /**
      * 根据消息ID查询渠道任务列表
      * @param messageId 消息ID
@@ -2,6 +2,9 @@ package com.message.center.domain.repository;
 
 import com.message.center.domain.entity.Message;
 import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.vo.BatchSaveResult;
+
+import java.util.List;
 
 /**
  * 消息仓库接口
@@ -15,6 +18,14 @@ public interface MessageRepository {
      */
     boolean save(Message message);
 
+    /**
+     * 批量保存消息（按批次大小分片，多行插入）
+     * 失败批次记录在结果中，不影响其他批次
+     * @param messages 消息列表
+     * @return 批量保存结果
+     */
+    BatchSaveResult batchSave(List<Message> messages);
+
     /**
      * 根据消息ID查询消息
      * @param messageId 消息ID
@@ -1,6 +1,7 @@
 package com.message.center.domain.repository;
 
 import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
 
 /**
  * 消息模板仓库接口
@@ -13,4 +14,34 @@ public interface MessageTemplateRepository {
      * @return 消息模板对象
      */
     MessageTemplate getById(Long templateId);
-}
\ No newline at end of file
+
+    /**
+     * 查询启用的消息模板
+     * @param tenantId 租户ID
+     * @param businessType 业务类型
+     * @param channelType 渠道类型
+     * @return 消息模板，不存在时返回null
+     */
+    MessageTemplate getTemplate(Long tenantId, String businessType, ChannelType channelType);
+
+    /**
+     * 保存消息模板
+     * @param template 消息模板
+     * @return 保存结果
+     */
+    boolean save(MessageTemplate template);
+
+    /**
+     * 更新消息模板
+     * @param template 消息模板
+     * @return 更新结果
+     */
+    boolean update(MessageTemplate template);
+
+    /**
+     * 删除消息模板
+     * @param templateId 模板ID
+     * @return 删除结果
+     */
+    boolean delete(Long templateId);
+}
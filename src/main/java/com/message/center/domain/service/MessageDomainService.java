@@ -2,6 +2,9 @@ package com.message.center.domain.service;
 
 import com.message.center.domain.entity.Message;
 import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.vo.BatchSaveResult;
+
+import java.util.List;
 
 /**
  * 消息领域服务接口
@@ -10,11 +13,20 @@ public interface MessageDomainService {
 
     /**
      * 创建消息
+     * 保存失败时抛出异常
      * @param message 消息对象
      * @return 创建后的消息
      */
     Message createMessage(Message message);
 
+    /**
+     * 批量创建消息
+     * 已设置状态的消息保留原状态，未设置的置为待处理
+     * @param messages 消息列表
+     * @return 批量保存结果
+     */
+    BatchSaveResult batchCreateMessages(List<Message> messages);
+
     /**
      * 更新消息状态
      * @param messageId 消息ID
@@ -4,10 +4,12 @@ import com.message.center.domain.entity.Message;
 import com.message.center.domain.enums.MessageStatus;
 import com.message.center.domain.repository.MessageRepository;
 import com.message.center.domain.service.MessageDomainService;
+import com.message.center.domain.vo.BatchSaveResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 消息领域服务实现
@@ -25,10 +27,27 @@ public class MessageDomainServiceImpl implements MessageDomainService {
         message.setUpdateTime(LocalDateTime.now());
         message.setSuccessChannels(0);
         message.setFailedChannels(0);
-        messageRepository.save(message);
+        if (!messageRepository.save(message)) {
+            throw new IllegalStateException("保存消息失败，消息ID：" + message.getMessageId());
+        }
         return message;
     }
 
+    @Override
+    public BatchSaveResult batchCreateMessages(List<Message> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Message message : messages) {
+            if (message.getStatus() == null) {
+                message.setStatus(MessageStatus.PENDING);
+            }
+            message.setCreateTime(now);
+            message.setUpdateTime(now);
+            message.setSuccessChannels(0);
+            message.setFailedChannels(0);
+        }
+        return messageRepository.batchSave(messages);
+    }
+
     @Override
     public boolean updateMessageStatus(String messageId, MessageStatus status) {
         return messageRepository.updateStatus(messageId, status);
@@ -0,0 +1,85 @@
+package com.message.center.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量保存结果
+ * 按批次写入时，单个批次失败不影响其他批次，失败批次单独记录
+ */
+@Data
+public class BatchSaveResult {
+    /**
+     * 总记录数
+     */
+    private int totalCount;
+
+    /**
+     * 成功写入的记录数
+     */
+    private int savedCount;
+
+    /**
+     * 失败批次列表
+     */
+    private List<ChunkFailure> failures = new ArrayList<>();
+
+    /**
+     * 构造方法
+     * @param totalCount 总记录数
+     */
+    public BatchSaveResult(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * 记录成功写入的批次
+     * @param count 写入记录数
+     */
+    public void addSaved(int count) {
+        savedCount += count;
+    }
+
+    /**
+     * 记录失败的批次
+     * @param fromIndex 批次在原列表中的起始位置
+     * @param size 批次大小
+     * @param errorMessage 失败原因
+     */
+    public void addFailure(int fromIndex, int size, String errorMessage) {
+        failures.add(new ChunkFailure(fromIndex, size, errorMessage));
+    }
+
+    /**
+     * 是否全部写入成功
+     * @return 是否全部成功
+     */
+    public boolean isAllSaved() {
+        return failures.isEmpty() && savedCount == totalCount;
+    }
+
+    /**
+     * 失败批次
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ChunkFailure {
+        /**
+         * 批次在原列表中的起始位置
+         */
+        private int fromIndex;
+
+        /**
+         * 批次大小
+         */
+        private int size;
+
+        /**
+         * 失败原因
+         */
+        private String errorMessage;
+    }
+}
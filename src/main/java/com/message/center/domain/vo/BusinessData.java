@@ -0,0 +1,118 @@
+package com.message.center.domain.vo;
+
+import com.alibaba.fastjson2.JSON;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 业务数据解析视图
+ * 包装业务数据原文，首次访问时解析一次，之后责任链中的各处理器共用同一棵JSON树
+ * 根节点以只读Map暴露，嵌套节点不应被修改
+ */
+public final class BusinessData {
+
+    /** 业务数据原文 */
+    private final String raw;
+
+    /** 是否已解析 */
+    private boolean parsed;
+
+    /** 解析结果 */
+    private Object root;
+
+    /** 解析失败原因 */
+    private String parseError;
+
+    public BusinessData(String raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * 获取业务数据原文
+     * @return 业务数据原文
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    /**
+     * 是否为合法的JSON
+     * @return 原文为空或解析失败时返回false
+     */
+    public boolean isValid() {
+        parse();
+        return parseError == null && raw != null && !raw.isEmpty();
+    }
+
+    /**
+     * 获取解析失败原因
+     * @return 解析失败原因，解析成功时返回null
+     */
+    public String getParseError() {
+        parse();
+        return parseError;
+    }
+
+    /**
+     * 以Map形式获取业务数据
+     * @return 只读Map，根节点不是JSON对象或解析失败时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> asMap() {
+        parse();
+        return root instanceof Map<?, ?> ? (Map<String, Object>) root : null;
+    }
+
+    /**
+     * 按路径取值，路径以点分隔，数组下标直接写数字，如 order.items.0.name
+     * @param path 取值路径
+     * @return 取值结果，不存在时返回null
+     */
+    public Object get(String path) {
+        Object value = asMap();
+        int start = 0;
+        while (value != null && start <= path.length()) {
+            int end = path.indexOf('.', start);
+            String name = end < 0 ? path.substring(start) : path.substring(start, end);
+            value = child(value, name);
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return value;
+    }
+
+    private synchronized void parse() {
+        if (parsed) {
+            return;
+        }
+        parsed = true;
+        if (raw == null || raw.isEmpty()) {
+            return;
+        }
+        try {
+            Object value = JSON.parse(raw);
+            root = value instanceof Map<?, ?> map ? Collections.unmodifiableMap(map) : value;
+        } catch (Exception e) {
+            parseError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private static Object child(Object node, String name) {
+        if (node instanceof Map<?, ?> map) {
+            return map.get(name);
+        }
+        if (node instanceof List<?> list) {
+            try {
+                int index = Integer.parseInt(name);
+                return index >= 0 && index < list.size() ? list.get(index) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
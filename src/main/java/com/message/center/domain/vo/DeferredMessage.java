@@ -0,0 +1,59 @@
+package com.message.center.domain.vo;
+
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.enums.ChannelType;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 延后发送的消息
+ * 触发频次限制的消息按额度恢复时间暂存，到期后重新执行责任链
+ */
+@Data
+public class DeferredMessage {
+    /**
+     * 消息ID
+     */
+    private String messageId;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 门店ID
+     */
+    private Long storeId;
+
+    /**
+     * 业务类型
+     */
+    private String businessType;
+
+    /**
+     * 业务数据（JSON格式）
+     */
+    private String businessData;
+
+    /**
+     * 目标渠道列表
+     */
+    private List<ChannelType> targetChannels;
+
+    /**
+     * 延后渠道的渠道配置，重新发送时从频次控制处理器继续执行，不再重新路由
+     */
+    private ChannelConfig channelConfig;
+
+    /**
+     * 已延后次数
+     */
+    private int attempts;
+
+    /**
+     * 到期时间（毫秒时间戳）
+     */
+    private long dueTime;
+}
@@ -4,7 +4,9 @@ import com.message.center.domain.enums.ChannelType;
 import com.message.center.domain.entity.ChannelConfig;
 import com.message.center.domain.entity.ChannelTask;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -43,6 +45,13 @@ public class MessageContext {
      */
     private String businessData;
 
+    /**
+     * 业务数据解析视图，首次访问时创建，修改业务数据原文时重置
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BusinessData parsedBusinessData;
+
     /**
      * 目标渠道列表
      */
@@ -88,6 +97,26 @@ public class MessageContext {
         FAILED       // 处理失败
     }
 
+    /**
+     * 设置业务数据原文，同时丢弃已解析的视图
+     * @param businessData 业务数据(JSON)
+     */
+    public void setBusinessData(String businessData) {
+        this.businessData = businessData;
+        this.parsedBusinessData = null;
+    }
+
+    /**
+     * 获取业务数据解析视图，整条责任链共用同一次解析结果
+     * @return 业务数据解析视图
+     */
+    public BusinessData getParsedBusinessData() {
+        if (parsedBusinessData == null) {
+            parsedBusinessData = new BusinessData(businessData);
+        }
+        return parsedBusinessData;
+    }
+
     /**
      * 添加扩展属性
      * @param key 键
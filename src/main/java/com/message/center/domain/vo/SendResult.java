@@ -7,6 +7,11 @@ import lombok.Data;
  */
 @Data
 public class SendResult {
+    /**
+     * 超时错误码：渠道请求超时或执行器超时检测到期
+     */
+    public static final String TIMEOUT = "TIMEOUT";
+
     /**
      * 是否成功
      */
@@ -27,6 +32,11 @@ public class SendResult {
      */
     private String errorMessage;
 
+    /**
+     * 是否已延后发送：所有渠道触发频次限制，额度恢复后再发送
+     */
+    private boolean deferred;
+
     /**
      * 成功结果
      * @param messageId 消息ID
@@ -39,6 +49,17 @@ public class SendResult {
         return result;
     }
 
+    /**
+     * 延后发送结果，消息已受理但尚未发送
+     * @param messageId 消息ID
+     * @return 延后发送结果
+     */
+    public static SendResult deferred(String messageId) {
+        SendResult result = success(messageId);
+        result.setDeferred(true);
+        return result;
+    }
+
     /**
      * 失败结果
      * @param errorCode 错误码
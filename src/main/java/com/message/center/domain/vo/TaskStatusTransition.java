@@ -0,0 +1,89 @@
+package com.message.center.domain.vo;
+
+import com.message.center.domain.enums.TaskStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 渠道任务状态迁移
+ * 描述一次“当前状态属于expectedStatuses时才迁移到targetStatus”的条件更新，
+ * 由单条 UPDATE ... WHERE id = ? AND status IN (...) 完成，并发的重试线程只有一个能迁移成功
+ */
+@Data
+public class TaskStatusTransition {
+    /**
+     * 任务ID
+     */
+    private Long taskId;
+
+    /**
+     * 允许迁移的当前状态，为空表示不校验当前状态
+     */
+    private Set<TaskStatus> expectedStatuses;
+
+    /**
+     * 目标状态
+     */
+    private TaskStatus targetStatus;
+
+    /**
+     * 执行结果
+     */
+    private String resultMessage;
+
+    /**
+     * 是否写入完成时间
+     */
+    private boolean finish;
+
+    /**
+     * 已重试次数，为空表示不更新
+     */
+    private Integer retryCount;
+
+    /**
+     * 下次重试时间，为空表示不更新
+     */
+    private LocalDateTime nextRetryTime;
+
+    /**
+     * 创建状态迁移
+     * 目标状态为终态（SUCCESS/FAILED/CANCELLED）时自动写入完成时间
+     * @param taskId 任务ID
+     * @param targetStatus 目标状态
+     * @param resultMessage 执行结果
+     * @param expectedStatuses 允许迁移的当前状态
+     * @return 状态迁移
+     */
+    public static TaskStatusTransition of(Long taskId, TaskStatus targetStatus, String resultMessage,
+                                          TaskStatus... expectedStatuses) {
+        TaskStatusTransition transition = new TaskStatusTransition();
+        transition.setTaskId(taskId);
+        transition.setTargetStatus(targetStatus);
+        transition.setResultMessage(resultMessage);
+        transition.setFinish(targetStatus == TaskStatus.SUCCESS
+                || targetStatus == TaskStatus.FAILED
+                || targetStatus == TaskStatus.CANCELLED
+                || targetStatus == TaskStatus.RATE_LIMITED);
+        if (expectedStatuses.length > 0) {
+            transition.setExpectedStatuses(EnumSet.copyOf(Arrays.asList(expectedStatuses)));
+        }
+        return transition;
+    }
+
+    /**
+     * 同时更新重试信息
+     * @param retryCount 已重试次数
+     * @param nextRetryTime 下次重试时间
+     * @return 当前状态迁移
+     */
+    public TaskStatusTransition withRetry(Integer retryCount, LocalDateTime nextRetryTime) {
+        this.retryCount = retryCount;
+        this.nextRetryTime = nextRetryTime;
+        return this;
+    }
+}
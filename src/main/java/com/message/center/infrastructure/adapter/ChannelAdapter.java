@@ -4,6 +4,10 @@ import com.message.center.domain.entity.ChannelTask;
 import com.message.center.domain.enums.ChannelType;
 import com.message.center.domain.vo.SendResult;
 
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+
 /**
  * 渠道适配器接口
  * 定义了所有渠道适配器必须实现的方法
@@ -21,4 +25,31 @@ public interface ChannelAdapter {
      * @return 发送结果
      */
     SendResult send(ChannelTask task);
+
+    /**
+     * 在限定时间内发送消息
+     * 发起 HTTP 请求的适配器应以 timeoutMillis 作为连接和读取超时，超时返回 TIMEOUT 错误码；
+     * 默认忽略时限，由执行器的超时检测兜底
+     * @param task 渠道任务
+     * @param timeoutMillis 时限（毫秒）
+     * @return 发送结果
+     */
+    default SendResult send(ChannelTask task, int timeoutMillis) {
+        return send(task);
+    }
+
+    /**
+     * 判断异常是否由超时引起
+     * @param e 异常
+     * @return 异常链中包含超时异常时返回true
+     */
+    static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
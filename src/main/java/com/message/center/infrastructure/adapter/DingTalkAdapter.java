@@ -35,6 +35,11 @@ public class DingTalkAdapter implements ChannelAdapter {
 
     @Override
     public SendResult send(ChannelTask task) {
+        return send(task, -1);
+    }
+
+    @Override
+    public SendResult send(ChannelTask task, int timeoutMillis) {
         try {
             // 获取渠道配置
             ChannelConfig config = channelConfigRepository.getById(task.getChannelConfigId());
@@ -59,7 +64,7 @@ public class DingTalkAdapter implements ChannelAdapter {
             message.put("text", text);
 
             // 发送消息
-            String response = HttpUtil.post(webhook, JSON.toJSONString(message));
+            String response = HttpUtil.post(webhook, JSON.toJSONString(message), timeoutMillis);
             log.debug("钉钉消息发送响应：{}", response);
 
             // 解析响应
@@ -71,6 +76,10 @@ public class DingTalkAdapter implements ChannelAdapter {
                         "钉钉消息发送失败：" + result.getString("errmsg"));
             }
         } catch (Exception e) {
+            if (ChannelAdapter.isTimeout(e)) {
+                log.warn("钉钉消息发送超时，消息ID：{}，时限：{}ms", task.getMessageId(), timeoutMillis);
+                return SendResult.fail(SendResult.TIMEOUT, "钉钉消息发送超时：" + e.getMessage());
+            }
             log.error("钉钉消息发送失败，消息ID：{}", task.getMessageId(), e);
             return SendResult.fail("DINGTALK_SEND_ERROR", "钉钉消息发送失败：" + e.getMessage());
         }
@@ -35,6 +35,11 @@ public class WeChatWorkAdapter implements ChannelAdapter {
 
     @Override
     public SendResult send(ChannelTask task) {
+        return send(task, -1);
+    }
+
+    @Override
+    public SendResult send(ChannelTask task, int timeoutMillis) {
         try {
             // 获取渠道配置
             ChannelConfig config = channelConfigRepository.getById(task.getChannelConfigId());
@@ -58,7 +63,7 @@ public class WeChatWorkAdapter implements ChannelAdapter {
             message.put("text", text);
 
             // 发送消息
-            String response = HttpUtil.post(webhook, JSON.toJSONString(message));
+            String response = HttpUtil.post(webhook, JSON.toJSONString(message), timeoutMillis);
             log.debug("企业微信消息发送响应：{}", response);
 
             // 解析响应
@@ -70,6 +75,10 @@ public class WeChatWorkAdapter implements ChannelAdapter {
                         "企业微信消息发送失败：" + result.getString("errmsg"));
             }
         } catch (Exception e) {
+            if (ChannelAdapter.isTimeout(e)) {
+                log.warn("企业微信消息发送超时，消息ID：{}，时限：{}ms", task.getMessageId(), timeoutMillis);
+                return SendResult.fail(SendResult.TIMEOUT, "企业微信消息发送超时：" + e.getMessage());
+            }
             log.error("企业微信消息发送失败，消息ID：{}", task.getMessageId(), e);
             return SendResult.fail("WECHAT_WORK_SEND_ERROR", "企业微信消息发送失败：" + e.getMessage());
         }
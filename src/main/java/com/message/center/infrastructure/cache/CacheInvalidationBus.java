@@ -0,0 +1,36 @@
+package com.message.center.infrastructure.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效总线
+ * 负责在节点间传递失效事件，并维护每个缓存名称的全局版本号
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * 广播失效事件
+     * @param event 失效事件
+     */
+    void publish(CacheInvalidationEvent event);
+
+    /**
+     * 订阅失效事件
+     * @param listener 事件监听器
+     */
+    void subscribe(Consumer<CacheInvalidationEvent> listener);
+
+    /**
+     * 递增并返回缓存的全局版本号
+     * @param cacheName 缓存名称
+     * @return 新版本号
+     */
+    long nextVersion(String cacheName);
+
+    /**
+     * 查询缓存的全局版本号
+     * @param cacheName 缓存名称
+     * @return 当前版本号
+     */
+    long currentVersion(String cacheName);
+}
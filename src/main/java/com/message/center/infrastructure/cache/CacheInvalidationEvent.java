@@ -0,0 +1,40 @@
+package com.message.center.infrastructure.cache;
+
+import lombok.Data;
+
+/**
+ * 缓存失效事件
+ * 写操作所在节点发布，所有节点按缓存名称失效本地缓存
+ */
+@Data
+public class CacheInvalidationEvent {
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+
+    /**
+     * 被修改数据的ID
+     */
+    private Long id;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 门店ID
+     */
+    private Long storeId;
+
+    /**
+     * 版本号，同一缓存名称下全局递增
+     */
+    private long version;
+
+    /**
+     * 发布节点标识
+     */
+    private String sourceNode;
+}
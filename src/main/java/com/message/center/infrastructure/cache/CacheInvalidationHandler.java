@@ -0,0 +1,19 @@
+package com.message.center.infrastructure.cache;
+
+/**
+ * 本地缓存失效处理器
+ * 由各本地缓存实现并注册到 CacheInvalidationManager
+ */
+public interface CacheInvalidationHandler {
+
+    /**
+     * 按事件失效相关条目
+     * @param event 失效事件
+     */
+    void evict(CacheInvalidationEvent event);
+
+    /**
+     * 清空本地缓存，在检测到丢失事件时调用
+     */
+    void invalidateAll();
+}
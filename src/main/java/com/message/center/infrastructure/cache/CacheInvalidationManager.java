@@ -0,0 +1,170 @@
+package com.message.center.infrastructure.cache;
+
+import com.message.center.infrastructure.config.CacheInvalidationConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存失效管理器
+ * - 写操作所在节点调用 publish 生成新版本号并广播失效事件
+ * - 各节点收到事件后回调已注册的本地缓存失效处理器
+ * - 版本号不连续（事件丢失）或定时检查发现全局版本号领先时，清空对应的本地缓存
+ */
+@Component
+public class CacheInvalidationManager implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationManager.class);
+
+    /** 渠道配置缓存名称 */
+    public static final String CHANNEL_CONFIG = "channel_config";
+
+    /** 消息模板缓存名称 */
+    public static final String MESSAGE_TEMPLATE = "message_template";
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CacheInvalidationConfig invalidationConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** 当前节点标识 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** 已注册的本地缓存失效处理器，同一缓存名称可注册多个 */
+    private final Map<String, List<CacheInvalidationHandler>> handlers = new ConcurrentHashMap<>();
+
+    /** 各缓存已应用的版本号 */
+    private final Map<String, Long> appliedVersions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService versionChecker;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(this::onEvent);
+        versionChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-center-cache-version-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = invalidationConfig.getCheckIntervalSeconds();
+        versionChecker.scheduleWithFixedDelay(this::checkVersions, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 注册本地缓存失效处理器
+     * @param cacheName 缓存名称
+     * @param handler 失效处理器
+     */
+    public synchronized void register(String cacheName, CacheInvalidationHandler handler) {
+        handlers.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(handler);
+        appliedVersions.putIfAbsent(cacheName, currentVersionQuietly(cacheName));
+    }
+
+    /**
+     * 广播失效事件，调用方应已失效本节点的缓存
+     * @param cacheName 缓存名称
+     * @param id 被修改数据的ID
+     * @param tenantId 租户ID
+     * @param storeId 门店ID
+     */
+    public void publish(String cacheName, Long id, Long tenantId, Long storeId) {
+        try {
+            CacheInvalidationEvent event = new CacheInvalidationEvent();
+            event.setCacheName(cacheName);
+            event.setId(id);
+            event.setTenantId(tenantId);
+            event.setStoreId(storeId);
+            event.setSourceNode(nodeId);
+            event.setVersion(cacheInvalidationBus.nextVersion(cacheName));
+            cacheInvalidationBus.publish(event);
+            meterRegistry.counter("message.center.cache.invalidation.published", "cache", cacheName).increment();
+        } catch (Exception e) {
+            // 广播失败时其他节点依赖缓存过期时间兜底
+            log.error("广播缓存失效事件失败，缓存：{}，ID：{}", cacheName, id, e);
+        }
+    }
+
+    /**
+     * 处理失效事件
+     * @param event 失效事件
+     */
+    synchronized void onEvent(CacheInvalidationEvent event) {
+        List<CacheInvalidationHandler> cacheHandlers = handlers.get(event.getCacheName());
+        if (cacheHandlers == null) {
+            return;
+        }
+        long applied = appliedVersions.getOrDefault(event.getCacheName(), 0L);
+        if (event.getVersion() > applied + 1) {
+            // 中间有事件丢失，无法确定哪些条目过期，清空本地缓存
+            log.warn("缓存失效事件版本不连续，清空本地缓存，缓存：{}，已应用版本：{}，事件版本：{}",
+                    event.getCacheName(), applied, event.getVersion());
+            invalidateAll(event.getCacheName(), cacheHandlers, "gap");
+        } else if (!nodeId.equals(event.getSourceNode())) {
+            // 本节点发布的事件在发布前已失效本地缓存
+            cacheHandlers.forEach(handler -> handler.evict(event));
+        }
+        if (event.getVersion() > applied) {
+            appliedVersions.put(event.getCacheName(), event.getVersion());
+        }
+        meterRegistry.counter("message.center.cache.invalidation.received", "cache", event.getCacheName()).increment();
+    }
+
+    /**
+     * 定时检查全局版本号，发现落后时清空本地缓存
+     */
+    synchronized void checkVersions() {
+        for (Map.Entry<String, List<CacheInvalidationHandler>> entry : handlers.entrySet()) {
+            String cacheName = entry.getKey();
+            try {
+                long current = cacheInvalidationBus.currentVersion(cacheName);
+                long applied = appliedVersions.getOrDefault(cacheName, 0L);
+                if (current > applied) {
+                    log.warn("检测到丢失的缓存失效事件，清空本地缓存，缓存：{}，已应用版本：{}，全局版本：{}",
+                            cacheName, applied, current);
+                    invalidateAll(cacheName, entry.getValue(), "version_check");
+                    appliedVersions.put(cacheName, current);
+                }
+            } catch (Exception e) {
+                log.error("检查缓存版本失败，缓存：{}", cacheName, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (versionChecker != null) {
+            versionChecker.shutdownNow();
+        }
+    }
+
+    private void invalidateAll(String cacheName, List<CacheInvalidationHandler> cacheHandlers, String reason) {
+        cacheHandlers.forEach(CacheInvalidationHandler::invalidateAll);
+        meterRegistry.counter("message.center.cache.invalidation.full", "cache", cacheName, "reason", reason).increment();
+    }
+
+    private long currentVersionQuietly(String cacheName) {
+        try {
+            return cacheInvalidationBus.currentVersion(cacheName);
+        } catch (Exception e) {
+            log.warn("读取缓存版本失败，缓存：{}，原因：{}", cacheName, e.getMessage());
+            return 0L;
+        }
+    }
+}
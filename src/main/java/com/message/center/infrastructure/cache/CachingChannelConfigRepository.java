@@ -0,0 +1,306 @@
+package com.message.center.infrastructure.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.repository.ChannelConfigRepository;
+import com.message.center.infrastructure.config.ChannelConfigCacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带缓存的渠道配置仓库
+ * 包装 ChannelConfigRepositoryImpl，路由、时间窗口和渠道适配器的查询都经过缓存：
+ * - 一级：进程内 Guava 缓存，按（租户, 门店）及查询条件缓存，按过期时间和容量淘汰
+ * - 二级：可选的 Redis 缓存，Key 中带（租户, 门店）版本号，失效时递增版本号，旧 Key 随 TTL 过期
+ * 配置变更时由 ChannelConfigController 调用 evictConfig 主动失效，并通过 CacheInvalidationManager 广播到其他节点
+ */
+@Primary
+@Repository
+public class CachingChannelConfigRepository implements ChannelConfigRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingChannelConfigRepository.class);
+
+    private static final String REDIS_KEY_PREFIX = "mc:cache:channel_config:";
+
+    private static final String KIND_ENABLED = "ENABLED";
+
+    private static final String KIND_BUSINESS = "BIZ";
+
+    private static final String KIND_TYPE = "TYPE";
+
+    @Autowired
+    @Qualifier("channelConfigRepositoryImpl")
+    private ChannelConfigRepository delegate;
+
+    @Autowired
+    private ChannelConfigCacheConfig cacheConfig;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationManager cacheInvalidationManager;
+
+    /** 按配置ID缓存 */
+    private Cache<Long, Optional<ChannelConfig>> byIdCache;
+
+    /** 按（租户, 门店, 查询条件）缓存 */
+    private Cache<ConfigKey, List<ChannelConfig>> listCache;
+
+    private Counter redisHitCounter;
+
+    private Counter redisMissCounter;
+
+    @PostConstruct
+    public void init() {
+        byIdCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheConfig.getExpireSeconds(), TimeUnit.SECONDS)
+                .maximumSize(cacheConfig.getMaximumSize())
+                .recordStats()
+                .build();
+        listCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheConfig.getExpireSeconds(), TimeUnit.SECONDS)
+                .maximumSize(cacheConfig.getMaximumSize())
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, byIdCache, "channel_config_by_id");
+        GuavaCacheMetrics.monitor(meterRegistry, listCache, "channel_config_by_tenant_store");
+        redisHitCounter = Counter.builder("message.center.cache.redis")
+                .tag("cache", "channel_config").tag("result", "hit")
+                .register(meterRegistry);
+        redisMissCounter = Counter.builder("message.center.cache.redis")
+                .tag("cache", "channel_config").tag("result", "miss")
+                .register(meterRegistry);
+
+        // 其他节点修改配置时只失效本地缓存，Redis版本号已由修改方递增
+        cacheInvalidationManager.register(CacheInvalidationManager.CHANNEL_CONFIG, new CacheInvalidationHandler() {
+            @Override
+            public void evict(CacheInvalidationEvent event) {
+                evictLocal(event.getId(), event.getTenantId(), event.getStoreId());
+            }
+
+            @Override
+            public void invalidateAll() {
+                CachingChannelConfigRepository.this.invalidateAll();
+            }
+        });
+    }
+
+    @Override
+    public ChannelConfig getByTenantStoreAndType(Long tenantId, Long storeId, ChannelType channelType) {
+        if (!cacheConfig.isEnabled()) {
+            return delegate.getByTenantStoreAndType(tenantId, storeId, channelType);
+        }
+        List<ChannelConfig> configs = getList(new ConfigKey(tenantId, storeId, KIND_TYPE, String.valueOf(channelType)),
+                () -> {
+                    ChannelConfig config = delegate.getByTenantStoreAndType(tenantId, storeId, channelType);
+                    return config != null ? Collections.singletonList(config) : Collections.emptyList();
+                });
+        return configs.isEmpty() ? null : configs.get(0);
+    }
+
+    @Override
+    public ChannelConfig getById(Long id) {
+        if (!cacheConfig.isEnabled()) {
+            return delegate.getById(id);
+        }
+        return get(byIdCache, id, () -> Optional.ofNullable(loadById(id))).orElse(null);
+    }
+
+    @Override
+    public List<ChannelConfig> getEnabledConfigs(Long tenantId, Long storeId) {
+        if (!cacheConfig.isEnabled()) {
+            return delegate.getEnabledConfigs(tenantId, storeId);
+        }
+        return getList(new ConfigKey(tenantId, storeId, KIND_ENABLED, ""),
+                () -> delegate.getEnabledConfigs(tenantId, storeId));
+    }
+
+    @Override
+    public List<ChannelConfig> getConfigs(Long tenantId, Long storeId, String businessType) {
+        if (!cacheConfig.isEnabled()) {
+            return delegate.getConfigs(tenantId, storeId, businessType);
+        }
+        return getList(new ConfigKey(tenantId, storeId, KIND_BUSINESS, String.valueOf(businessType)),
+                () -> delegate.getConfigs(tenantId, storeId, businessType));
+    }
+
+    /**
+     * 失效指定配置相关的缓存：配置ID以及所属（租户, 门店）下的所有查询，并广播到其他节点
+     * 更新配置时新旧两份配置都需要失效，以覆盖租户或门店被修改的情况
+     * @param config 渠道配置，为空时忽略
+     */
+    public void evictConfig(ChannelConfig config) {
+        if (config == null) {
+            return;
+        }
+        evict(config.getId(), config.getTenantId(), config.getStoreId());
+    }
+
+    /**
+     * 失效指定配置ID的缓存，并广播到其他节点
+     * @param id 配置ID
+     */
+    public void evictById(Long id) {
+        evict(id, null, null);
+    }
+
+    /**
+     * 失效指定（租户, 门店）下的所有查询缓存，并广播到其他节点
+     * @param tenantId 租户ID
+     * @param storeId 门店ID
+     */
+    public void evictTenantStore(Long tenantId, Long storeId) {
+        evict(null, tenantId, storeId);
+    }
+
+    private void evict(Long id, Long tenantId, Long storeId) {
+        evictLocal(id, tenantId, storeId);
+        if (cacheConfig.isRedisEnabled()) {
+            if (id != null) {
+                runQuietly(() -> redisTemplate.delete(REDIS_KEY_PREFIX + "id:" + id));
+            }
+            if (tenantId != null) {
+                runQuietly(() -> redisTemplate.opsForValue().increment(versionKey(tenantId, storeId)));
+            }
+        }
+        cacheInvalidationManager.publish(CacheInvalidationManager.CHANNEL_CONFIG, id, tenantId, storeId);
+    }
+
+    /**
+     * 只失效本节点的进程内缓存
+     */
+    private void evictLocal(Long id, Long tenantId, Long storeId) {
+        if (id != null) {
+            byIdCache.invalidate(id);
+        }
+        if (tenantId != null) {
+            listCache.asMap().keySet().removeIf(key ->
+                    Objects.equals(key.tenantId(), tenantId) && Objects.equals(key.storeId(), storeId));
+        }
+    }
+
+    /**
+     * 清空进程内缓存
+     */
+    public void invalidateAll() {
+        byIdCache.invalidateAll();
+        listCache.invalidateAll();
+    }
+
+    private List<ChannelConfig> getList(ConfigKey key, Callable<List<ChannelConfig>> loader) {
+        return get(listCache, key, () -> {
+            List<ChannelConfig> configs = cacheConfig.isRedisEnabled() ? loadListFromRedis(key, loader) : loader.call();
+            return configs != null ? configs : Collections.emptyList();
+        });
+    }
+
+    private ChannelConfig loadById(Long id) {
+        if (!cacheConfig.isRedisEnabled()) {
+            return delegate.getById(id);
+        }
+        String redisKey = REDIS_KEY_PREFIX + "id:" + id;
+        String cached = getQuietly(redisKey);
+        if (cached != null) {
+            redisHitCounter.increment();
+            return JSON.parseObject(cached, ChannelConfig.class);
+        }
+        redisMissCounter.increment();
+        ChannelConfig config = delegate.getById(id);
+        if (config != null) {
+            setQuietly(redisKey, JSON.toJSONString(config));
+        }
+        return config;
+    }
+
+    private List<ChannelConfig> loadListFromRedis(ConfigKey key, Callable<List<ChannelConfig>> loader) throws Exception {
+        String version = getQuietly(versionKey(key.tenantId(), key.storeId()));
+        String redisKey = REDIS_KEY_PREFIX + key.tenantId() + ":" + key.storeId() + ":v" + (version != null ? version : "0")
+                + ":" + key.kind() + ":" + key.arg();
+        String cached = getQuietly(redisKey);
+        if (cached != null) {
+            redisHitCounter.increment();
+            return JSON.parseArray(cached, ChannelConfig.class);
+        }
+        redisMissCounter.increment();
+        List<ChannelConfig> configs = loader.call();
+        if (configs != null) {
+            setQuietly(redisKey, JSON.toJSONString(configs));
+        }
+        return configs;
+    }
+
+    private String versionKey(Long tenantId, Long storeId) {
+        return REDIS_KEY_PREFIX + "version:" + tenantId + ":" + storeId;
+    }
+
+    /**
+     * Redis不可用时降级为直接查库，不影响发送
+     */
+    private String getQuietly(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取渠道配置Redis缓存失败，Key：{}，原因：{}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void setQuietly(String key, String value) {
+        runQuietly(() -> redisTemplate.opsForValue().set(key, value, cacheConfig.getRedisExpireSeconds(), TimeUnit.SECONDS));
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("操作渠道配置Redis缓存失败，原因：{}", e.getMessage());
+        }
+    }
+
+    private static <K, V> V get(Cache<K, V> cache, K key, Callable<V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("加载渠道配置失败", cause);
+        }
+    }
+
+    /**
+     * 列表缓存键
+     * @param tenantId 租户ID
+     * @param storeId 门店ID
+     * @param kind 查询类型：ENABLED/BIZ/TYPE
+     * @param arg 查询参数
+     */
+    private record ConfigKey(Long tenantId, Long storeId, String kind, String arg) {
+    }
+}
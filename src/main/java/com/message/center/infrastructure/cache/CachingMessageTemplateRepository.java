@@ -0,0 +1,195 @@
+package com.message.center.infrastructure.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.repository.MessageTemplateRepository;
+import com.message.center.infrastructure.config.TemplateCacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带缓存的消息模板仓库
+ * 包装 MessageTemplateRepositoryImpl，按（租户, 业务类型, 渠道）缓存启用模板的查询结果：
+ * - 查到模板时按 expireSeconds 过期
+ * - 查不到模板时同样缓存，按更短的 negativeExpireSeconds 过期，避免没有配置模板的租户反复查库
+ * 模板写入后失效本节点缓存，并通过 CacheInvalidationManager 广播到其他节点
+ * 命中率和加载耗时通过 GuavaCacheMetrics 导出，缓存名称为 message_template_lookup
+ */
+@Primary
+@Repository
+public class CachingMessageTemplateRepository implements MessageTemplateRepository {
+
+    @Autowired
+    @Qualifier("messageTemplateRepositoryImpl")
+    private MessageTemplateRepository delegate;
+
+    @Autowired
+    private TemplateCacheConfig cacheConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationManager cacheInvalidationManager;
+
+    /** 时钟，用于判断查不到模板的缓存是否过期 */
+    private Ticker ticker = Ticker.systemTicker();
+
+    /** 按（租户, 业务类型, 渠道）缓存的查询结果 */
+    private Cache<TemplateKey, Lookup> lookupCache;
+
+    private Counter negativeHitCounter;
+
+    @PostConstruct
+    public void init() {
+        lookupCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheConfig.getExpireSeconds(), TimeUnit.SECONDS)
+                .maximumSize(cacheConfig.getMaximumSize())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, lookupCache, "message_template_lookup");
+        negativeHitCounter = Counter.builder("message.center.cache.negative")
+                .tag("cache", "message_template_lookup")
+                .register(meterRegistry);
+
+        // 其他节点修改模板时失效该租户下的所有查询
+        cacheInvalidationManager.register(CacheInvalidationManager.MESSAGE_TEMPLATE, new CacheInvalidationHandler() {
+            @Override
+            public void evict(CacheInvalidationEvent event) {
+                evictTenant(event.getTenantId());
+            }
+
+            @Override
+            public void invalidateAll() {
+                lookupCache.invalidateAll();
+            }
+        });
+    }
+
+    @Override
+    public MessageTemplate getById(Long templateId) {
+        return delegate.getById(templateId);
+    }
+
+    @Override
+    public MessageTemplate getTemplate(Long tenantId, String businessType, ChannelType channelType) {
+        if (!cacheConfig.isEnabled()) {
+            return delegate.getTemplate(tenantId, businessType, channelType);
+        }
+        TemplateKey key = new TemplateKey(tenantId, businessType, channelType);
+        Lookup lookup = lookupCache.getIfPresent(key);
+        if (lookup == null) {
+            return load(key).template();
+        }
+        if (lookup.template() == null) {
+            if (ticker.read() - lookup.loadNanos() >= TimeUnit.SECONDS.toNanos(cacheConfig.getNegativeExpireSeconds())) {
+                // 查不到模板的结果已过期，重新查询
+                lookupCache.asMap().remove(key, lookup);
+                lookup = load(key);
+            } else {
+                // 只统计由缓存返回的查不到结果
+                negativeHitCounter.increment();
+            }
+        }
+        return lookup.template();
+    }
+
+    @Override
+    public boolean save(MessageTemplate template) {
+        boolean result = delegate.save(template);
+        if (result) {
+            evict(template);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean update(MessageTemplate template) {
+        // 业务类型或渠道可能被修改，新旧两个查询都要失效
+        MessageTemplate previous = template.getId() != null ? delegate.getById(template.getId()) : null;
+        boolean result = delegate.update(template);
+        if (result) {
+            evict(previous);
+            evict(template);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean delete(Long templateId) {
+        MessageTemplate previous = delegate.getById(templateId);
+        boolean result = delegate.delete(templateId);
+        if (result && previous != null) {
+            evict(previous);
+        }
+        return result;
+    }
+
+    /**
+     * 失效模板对应的查询缓存，并广播到其他节点
+     * @param template 消息模板，为空时忽略
+     */
+    public void evict(MessageTemplate template) {
+        if (template == null) {
+            return;
+        }
+        lookupCache.invalidate(new TemplateKey(template.getTenantId(), template.getBusinessType(), template.getChannelType()));
+        cacheInvalidationManager.publish(CacheInvalidationManager.MESSAGE_TEMPLATE, template.getId(), template.getTenantId(), null);
+    }
+
+    /**
+     * 只失效本节点指定租户下的查询缓存
+     */
+    private void evictTenant(Long tenantId) {
+        if (tenantId == null) {
+            lookupCache.invalidateAll();
+            return;
+        }
+        lookupCache.asMap().keySet().removeIf(key -> Objects.equals(key.tenantId(), tenantId));
+    }
+
+    private Lookup load(TemplateKey key) {
+        try {
+            return lookupCache.get(key, () -> new Lookup(
+                    delegate.getTemplate(key.tenantId(), key.businessType(), key.channelType()), ticker.read()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("加载消息模板失败", cause);
+        }
+    }
+
+    /**
+     * 查询缓存键
+     * @param tenantId 租户ID
+     * @param businessType 业务类型
+     * @param channelType 渠道类型
+     */
+    private record TemplateKey(Long tenantId, String businessType, ChannelType channelType) {
+    }
+
+    /**
+     * 查询结果
+     * @param template 消息模板，查不到时为null
+     * @param loadNanos 加载时刻
+     */
+    private record Lookup(MessageTemplate template, long loadNanos) {
+    }
+}
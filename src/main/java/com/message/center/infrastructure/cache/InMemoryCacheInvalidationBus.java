@@ -0,0 +1,42 @@
+package com.message.center.infrastructure.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 进程内缓存失效总线
+ * 同步回调所有订阅者，适用于单机部署和测试；多个订阅者可模拟多个节点
+ */
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<CacheInvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(CacheInvalidationEvent event) {
+        for (Consumer<CacheInvalidationEvent> listener : listeners) {
+            listener.accept(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long nextVersion(String cacheName) {
+        return versions.computeIfAbsent(cacheName, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public long currentVersion(String cacheName) {
+        AtomicLong version = versions.get(cacheName);
+        return version != null ? version.get() : 0;
+    }
+}
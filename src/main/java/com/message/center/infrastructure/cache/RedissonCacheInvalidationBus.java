@@ -0,0 +1,48 @@
+package com.message.center.infrastructure.cache;
+
+import com.alibaba.fastjson2.JSON;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redisson 发布订阅的缓存失效总线
+ * 事件通过 Redis Topic 广播，版本号保存在 Redis 原子计数器中；
+ * 发布订阅不保证送达，丢失的事件由 CacheInvalidationManager 的定时版本检查兜底
+ */
+public class RedissonCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final String VERSION_KEY_PREFIX = "mc:cache:version:";
+
+    private final RedissonClient redissonClient;
+
+    private final RTopic topic;
+
+    public RedissonCacheInvalidationBus(RedissonClient redissonClient, String topicName) {
+        this.redissonClient = redissonClient;
+        this.topic = redissonClient.getTopic(topicName, StringCodec.INSTANCE);
+    }
+
+    @Override
+    public void publish(CacheInvalidationEvent event) {
+        topic.publish(JSON.toJSONString(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        topic.addListener(String.class, (channel, body) ->
+                listener.accept(JSON.parseObject(body, CacheInvalidationEvent.class)));
+    }
+
+    @Override
+    public long nextVersion(String cacheName) {
+        return redissonClient.getAtomicLong(VERSION_KEY_PREFIX + cacheName).incrementAndGet();
+    }
+
+    @Override
+    public long currentVersion(String cacheName) {
+        return redissonClient.getAtomicLong(VERSION_KEY_PREFIX + cacheName).get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.infrastructure.mq.InMemoryMessageQueue;
+import com.message.center.infrastructure.mq.MessageQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 异步发送配置
+ * 开启后接入层只投递消息并立即返回messageId，由消费线程执行责任链
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.async")
+public class AsyncSendConfig {
+
+    /** 是否开启异步发送 */
+    private boolean enabled = false;
+
+    /** 队列类型：MEMORY/ROCKETMQ */
+    private String queueType = "MEMORY";
+
+    /** 进程内队列容量 */
+    private int queueCapacity = 10000;
+
+    /** 进程内队列消费线程数 */
+    private int consumerThreads = 8;
+
+    /** RocketMQ Topic */
+    private String topic = "MESSAGE_CENTER_SEND";
+
+    /** RocketMQ消费者组 */
+    private String consumerGroup = "message-center-consumer-group";
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getQueueType() {
+        return queueType;
+    }
+
+    public void setQueueType(String queueType) {
+        this.queueType = queueType;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getConsumerThreads() {
+        return consumerThreads;
+    }
+
+    public void setConsumerThreads(int consumerThreads) {
+        this.consumerThreads = consumerThreads;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getConsumerGroup() {
+        return consumerGroup;
+    }
+
+    public void setConsumerGroup(String consumerGroup) {
+        this.consumerGroup = consumerGroup;
+    }
+
+    /**
+     * 进程内消息队列
+     * 未配置队列类型时默认使用
+     * @return 消息队列
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "message-center.async", name = "queue-type", havingValue = "MEMORY", matchIfMissing = true)
+    public MessageQueue inMemoryMessageQueue() {
+        return new InMemoryMessageQueue(queueCapacity, consumerThreads);
+    }
+}
@@ -0,0 +1,75 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.infrastructure.cache.CacheInvalidationBus;
+import com.message.center.infrastructure.cache.InMemoryCacheInvalidationBus;
+import com.message.center.infrastructure.cache.RedissonCacheInvalidationBus;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 缓存失效广播配置
+ * 多节点部署时通过Redis发布订阅同步本地缓存失效，单节点可使用进程内总线
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.cache.invalidation")
+public class CacheInvalidationConfig {
+
+    /** 总线类型：REDIS/MEMORY */
+    private String busType = "REDIS";
+
+    /** Redis Topic名称 */
+    private String topic = "mc:cache:invalidation";
+
+    /** 版本检查间隔（秒），用于发现丢失的失效事件 */
+    private long checkIntervalSeconds = 30;
+
+    // getter和setter方法
+    public String getBusType() {
+        return busType;
+    }
+
+    public void setBusType(String busType) {
+        this.busType = busType;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public long getCheckIntervalSeconds() {
+        return checkIntervalSeconds;
+    }
+
+    public void setCheckIntervalSeconds(long checkIntervalSeconds) {
+        this.checkIntervalSeconds = checkIntervalSeconds;
+    }
+
+    /**
+     * 基于Redis发布订阅的失效总线
+     * 未配置总线类型时默认使用
+     * @param redissonClient Redisson客户端
+     * @return 失效总线
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "message-center.cache.invalidation", name = "bus-type", havingValue = "REDIS", matchIfMissing = true)
+    public CacheInvalidationBus redissonCacheInvalidationBus(RedissonClient redissonClient) {
+        return new RedissonCacheInvalidationBus(redissonClient, topic);
+    }
+
+    /**
+     * 进程内失效总线
+     * @return 失效总线
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "message-center.cache.invalidation", name = "bus-type", havingValue = "MEMORY")
+    public CacheInvalidationBus inMemoryCacheInvalidationBus() {
+        return new InMemoryCacheInvalidationBus();
+    }
+}
@@ -0,0 +1,69 @@
+package com.message.center.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 渠道配置缓存配置
+ * 一级为进程内缓存，二级为可选的Redis缓存
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.cache.channel-config")
+public class ChannelConfigCacheConfig {
+
+    /** 是否开启缓存 */
+    private boolean enabled = true;
+
+    /** 进程内缓存过期时间（秒） */
+    private long expireSeconds = 300;
+
+    /** 进程内缓存最大条目数 */
+    private long maximumSize = 10000;
+
+    /** 是否开启Redis二级缓存 */
+    private boolean redisEnabled = false;
+
+    /** Redis缓存过期时间（秒） */
+    private long redisExpireSeconds = 1800;
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpireSeconds() {
+        return expireSeconds;
+    }
+
+    public void setExpireSeconds(long expireSeconds) {
+        this.expireSeconds = expireSeconds;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public boolean isRedisEnabled() {
+        return redisEnabled;
+    }
+
+    public void setRedisEnabled(boolean redisEnabled) {
+        this.redisEnabled = redisEnabled;
+    }
+
+    public long getRedisExpireSeconds() {
+        return redisExpireSeconds;
+    }
+
+    public void setRedisExpireSeconds(long redisExpireSeconds) {
+        this.redisExpireSeconds = redisExpireSeconds;
+    }
+}
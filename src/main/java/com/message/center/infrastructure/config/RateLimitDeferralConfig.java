@@ -0,0 +1,120 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.infrastructure.delay.DelayStore;
+import com.message.center.infrastructure.delay.InMemoryDelayStore;
+import com.message.center.infrastructure.delay.RedisDelayStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 频次限制延后发送配置
+ * 开启后触发频次限制的消息不再直接失败，而是按额度恢复时间暂存，到期后以受控速率重新发送
+ * 单节点可使用进程内存储，多节点部署时使用Redis有序集合共享
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.rate-limit.deferral")
+public class RateLimitDeferralConfig {
+
+    /** 是否开启延后发送 */
+    private boolean enabled = false;
+
+    /** 存储类型：MEMORY/REDIS */
+    private String storeType = "MEMORY";
+
+    /** Redis有序集合Key */
+    private String redisKey = "mc:rate_limit:deferred";
+
+    /** 进程内存储的容量上限，超出后按原方式直接失败 */
+    private int capacity = 100000;
+
+    /** 到期消息的拉取间隔（毫秒） */
+    private long pollIntervalMillis = 200;
+
+    /** 每次拉取最多重新发送的消息数，与拉取间隔共同决定释放速率 */
+    private int releaseBatchSize = 100;
+
+    /** 同一条消息最多延后的次数，超过后按原方式直接失败 */
+    private int maxAttempts = 10;
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getStoreType() {
+        return storeType;
+    }
+
+    public void setStoreType(String storeType) {
+        this.storeType = storeType;
+    }
+
+    public String getRedisKey() {
+        return redisKey;
+    }
+
+    public void setRedisKey(String redisKey) {
+        this.redisKey = redisKey;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public int getReleaseBatchSize() {
+        return releaseBatchSize;
+    }
+
+    public void setReleaseBatchSize(int releaseBatchSize) {
+        this.releaseBatchSize = releaseBatchSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * 进程内延后消息存储
+     * 未配置存储类型时默认使用
+     * @return 延后消息存储
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "message-center.rate-limit.deferral", name = "store-type", havingValue = "MEMORY", matchIfMissing = true)
+    public DelayStore inMemoryDelayStore() {
+        return new InMemoryDelayStore(capacity);
+    }
+
+    /**
+     * 基于Redis有序集合的延后消息存储
+     * @param redisTemplate Redis模板
+     * @return 延后消息存储
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "message-center.rate-limit.deferral", name = "store-type", havingValue = "REDIS")
+    public DelayStore redisDelayStore(RedisTemplate<String, String> redisTemplate) {
+        return new RedisDelayStore(redisTemplate, redisKey);
+    }
+}
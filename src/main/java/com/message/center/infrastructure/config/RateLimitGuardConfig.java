@@ -0,0 +1,161 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.RateLimitFailMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 频次限制 Redis 保护配置
+ * 开启后每次 Redis 调用有耗时上限，失败或超时比例过高时熔断，熔断期间按渠道配置的降级方式判定
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.rate-limit.guard")
+public class RateLimitGuardConfig {
+
+    /** 是否开启保护 */
+    private boolean enabled = false;
+
+    /** 单次 Redis 调用的耗时上限（毫秒），包括排队时间，超过后按失败处理并降级 */
+    private long latencyBudgetMillis = 50;
+
+    /** 执行 Redis 调用的线程数 */
+    private int threads = 32;
+
+    /** 等待执行的 Redis 调用上限，队列满时按失败处理 */
+    private int queueCapacity = 1000;
+
+    /** 统计失败比例的最近调用次数 */
+    private int windowSize = 100;
+
+    /** 最近调用次数达到该值后才计算失败比例 */
+    private int minimumCalls = 20;
+
+    /** 失败（含超时）比例达到该值时熔断 */
+    private double failureRateThreshold = 0.5;
+
+    /** 熔断持续时间（毫秒），之后放行少量探测调用 */
+    private long openMillis = 5000;
+
+    /** 半开状态下的探测调用次数，全部成功后恢复 */
+    private int halfOpenCalls = 5;
+
+    /** 集群节点数，本地限流按 额度/节点数 计算；0 表示从注册中心获取 */
+    private int nodeCount = 0;
+
+    /** 未单独配置的渠道的降级方式 */
+    private RateLimitFailMode defaultFailMode = RateLimitFailMode.LOCAL;
+
+    /** 各渠道的降级方式 */
+    private Map<ChannelType, RateLimitFailMode> failModes = new EnumMap<>(ChannelType.class);
+
+    /**
+     * 获取渠道的降级方式
+     * @param channelType 渠道类型，无法识别时为null
+     * @return 降级方式
+     */
+    public RateLimitFailMode failModeOf(ChannelType channelType) {
+        RateLimitFailMode failMode = channelType != null ? failModes.get(channelType) : null;
+        return failMode != null ? failMode : defaultFailMode;
+    }
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getLatencyBudgetMillis() {
+        return latencyBudgetMillis;
+    }
+
+    public void setLatencyBudgetMillis(long latencyBudgetMillis) {
+        this.latencyBudgetMillis = latencyBudgetMillis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public void setOpenMillis(long openMillis) {
+        this.openMillis = openMillis;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public RateLimitFailMode getDefaultFailMode() {
+        return defaultFailMode;
+    }
+
+    public void setDefaultFailMode(RateLimitFailMode defaultFailMode) {
+        this.defaultFailMode = defaultFailMode;
+    }
+
+    public Map<ChannelType, RateLimitFailMode> getFailModes() {
+        return failModes;
+    }
+
+    public void setFailModes(Map<ChannelType, RateLimitFailMode> failModes) {
+        this.failModes = failModes;
+    }
+}
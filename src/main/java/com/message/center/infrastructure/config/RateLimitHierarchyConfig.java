@@ -0,0 +1,142 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import com.message.center.domain.enums.RateLimitLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分层频次限制配置
+ * 开启后每个渠道依次检查全局、租户、门店、机器人四层额度，任一层不足即视为该渠道受限，
+ * 同一条消息各层的 Key 在一次判定中检查，全部满足时才计数
+ * 门店层使用渠道配置中的频次限制，其余各层按渠道在此配置，未配置的渠道不检查该层
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.rate-limit.hierarchy")
+public class RateLimitHierarchyConfig {
+
+    /** 是否开启分层频次限制，关闭时只检查门店层 */
+    private boolean enabled = false;
+
+    /** 检查顺序，多层同时不足时按此顺序报告第一层；不在列表中的层级不检查 */
+    private List<RateLimitLevel> precedence = new ArrayList<>(List.of(
+            RateLimitLevel.GLOBAL, RateLimitLevel.TENANT, RateLimitLevel.STORE, RateLimitLevel.WEBHOOK));
+
+    /** 全局层：平台内每个渠道的总限制 */
+    private Map<ChannelType, Quota> global = new EnumMap<>(ChannelType.class);
+
+    /** 租户层：每个租户在每个渠道的限制 */
+    private Map<ChannelType, Quota> tenant = new EnumMap<>(ChannelType.class);
+
+    /** 机器人层：每个 webhook 地址的限制，默认按钉钉、企业微信机器人每分钟 20 条 */
+    private Map<ChannelType, Quota> webhook = new EnumMap<>(ChannelType.class);
+
+    public RateLimitHierarchyConfig() {
+        webhook.put(ChannelType.DINGTALK, new Quota(20, 1, "MINUTE", RateLimitAlgorithm.SLIDING_LOG.getCode()));
+        webhook.put(ChannelType.WECHAT_WORK, new Quota(20, 1, "MINUTE", RateLimitAlgorithm.SLIDING_LOG.getCode()));
+    }
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<RateLimitLevel> getPrecedence() {
+        return precedence;
+    }
+
+    public void setPrecedence(List<RateLimitLevel> precedence) {
+        this.precedence = precedence;
+    }
+
+    public Map<ChannelType, Quota> getGlobal() {
+        return global;
+    }
+
+    public void setGlobal(Map<ChannelType, Quota> global) {
+        this.global = global;
+    }
+
+    public Map<ChannelType, Quota> getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(Map<ChannelType, Quota> tenant) {
+        this.tenant = tenant;
+    }
+
+    public Map<ChannelType, Quota> getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(Map<ChannelType, Quota> webhook) {
+        this.webhook = webhook;
+    }
+
+    /**
+     * 单层额度
+     */
+    public static class Quota {
+        /** 限制数量 */
+        private Integer count;
+        /** 时间窗口大小 */
+        private Integer window = 1;
+        /** 时间单位：SECOND/MINUTE/HOUR/DAY */
+        private String unit = "MINUTE";
+        /** 频次限制算法：FIXED_WINDOW/SLIDING_LOG/SLIDING_WINDOW_COUNTER，为空时使用固定窗口 */
+        private String algorithm;
+
+        public Quota() {
+        }
+
+        public Quota(Integer count, Integer window, String unit, String algorithm) {
+            this.count = count;
+            this.window = window;
+            this.unit = unit;
+            this.algorithm = algorithm;
+        }
+
+        // getter和setter方法
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public Integer getWindow() {
+            return window;
+        }
+
+        public void setWindow(Integer window) {
+            this.window = window;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public void setUnit(String unit) {
+            this.unit = unit;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+}
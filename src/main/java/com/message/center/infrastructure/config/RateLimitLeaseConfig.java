@@ -0,0 +1,70 @@
+package com.message.center.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 频次限制本地租约配置
+ * 开启后每个节点按块从 Redis 租借租户额度，在本地令牌桶中消费，用完再去 Redis 续租
+ * 误差上界：每个节点每个计数对象最多持有一块额度，全局误差不超过 节点数 × 块大小
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.rate-limit.lease")
+public class RateLimitLeaseConfig {
+
+    /** 是否开启本地租约 */
+    private boolean enabled = false;
+
+    /** 每次租借的额度占窗口限制的比例，同时决定租约有效期占窗口长度的比例 */
+    private double leaseRatio = 0.1;
+
+    /** 窗口限制小于该值时不租借，直接访问 Redis，避免小额度下误差过大 */
+    private long minLimit = 50;
+
+    /** 租约最长有效期（毫秒） */
+    private long maxLeaseMillis = 10000;
+
+    /** 过期租约的清理间隔（毫秒），未用完的额度退还 Redis */
+    private long sweepIntervalMillis = 1000;
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getLeaseRatio() {
+        return leaseRatio;
+    }
+
+    public void setLeaseRatio(double leaseRatio) {
+        this.leaseRatio = leaseRatio;
+    }
+
+    public long getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(long minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public long getMaxLeaseMillis() {
+        return maxLeaseMillis;
+    }
+
+    public void setMaxLeaseMillis(long maxLeaseMillis) {
+        this.maxLeaseMillis = maxLeaseMillis;
+    }
+
+    public long getSweepIntervalMillis() {
+        return sweepIntervalMillis;
+    }
+
+    public void setSweepIntervalMillis(long sweepIntervalMillis) {
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+}
@@ -0,0 +1,275 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.domain.enums.BackoffJitter;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.retry.BackoffPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 失败重试策略配置
+ * 顶层的 max-count、interval-seconds、backoff-multiplier 等为默认策略，
+ * 可按渠道（channels）和错误码（error-codes）覆盖，错误码策略优先，未配置的项沿用上一级
+ * 不可重试的错误码直接置为失败；重试预算限制每个渠道一段时间内重试占发送的比例，超出的失败不再重试
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.retry")
+public class RetryConfig {
+
+    /** 最大重试次数 */
+    private int maxCount = 3;
+
+    /** 初始重试间隔（秒） */
+    private int intervalSeconds = 60;
+
+    /** 退避倍数 */
+    private double backoffMultiplier = 2;
+
+    /** 最大重试间隔（秒） */
+    private int maxIntervalSeconds = 3600;
+
+    /** 抖动方式 */
+    private BackoffJitter jitter = BackoffJitter.DECORRELATED;
+
+    /** 各渠道的重试策略 */
+    private Map<ChannelType, Policy> channels = new EnumMap<>(ChannelType.class);
+
+    /** 各错误码的重试策略 */
+    private Map<String, Policy> errorCodes = new HashMap<>();
+
+    /** 不可重试的错误码，默认为各渠道的配置错误 */
+    private List<String> nonRetryableErrorCodes = new ArrayList<>(List.of(
+            "DINGTALK_CONFIG_ERROR", "WECHAT_WORK_CONFIG_ERROR"));
+
+    /** 重试预算 */
+    private Budget budget = new Budget();
+
+    /**
+     * 获取渠道和错误码对应的退避策略
+     * @param channelType 渠道类型
+     * @param errorCode 错误码，可为空
+     * @return 退避策略
+     */
+    public BackoffPolicy policyOf(ChannelType channelType, String errorCode) {
+        int count = maxCount;
+        long interval = intervalSeconds;
+        double multiplier = backoffMultiplier;
+        long maxInterval = maxIntervalSeconds;
+        BackoffJitter backoffJitter = jitter;
+        Policy channel = channels.get(channelType);
+        Policy error = errorCode != null ? errorCodes.get(errorCode) : null;
+        for (Policy policy : new Policy[]{channel, error}) {
+            if (policy == null) {
+                continue;
+            }
+            if (policy.getMaxCount() != null) {
+                count = policy.getMaxCount();
+            }
+            if (policy.getIntervalSeconds() != null) {
+                interval = policy.getIntervalSeconds();
+            }
+            if (policy.getBackoffMultiplier() != null) {
+                multiplier = policy.getBackoffMultiplier();
+            }
+            if (policy.getMaxIntervalSeconds() != null) {
+                maxInterval = policy.getMaxIntervalSeconds();
+            }
+            if (policy.getJitter() != null) {
+                backoffJitter = policy.getJitter();
+            }
+        }
+        return new BackoffPolicy(count, interval * 1000, multiplier, maxInterval * 1000, backoffJitter);
+    }
+
+    /**
+     * 判断错误码是否可重试
+     * @param errorCode 错误码，为空时视为可重试
+     * @return 是否可重试
+     */
+    public boolean isRetryable(String errorCode) {
+        return errorCode == null || !nonRetryableErrorCodes.contains(errorCode);
+    }
+
+    // getter和setter方法
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public void setMaxCount(int maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    public int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    public int getMaxIntervalSeconds() {
+        return maxIntervalSeconds;
+    }
+
+    public void setMaxIntervalSeconds(int maxIntervalSeconds) {
+        this.maxIntervalSeconds = maxIntervalSeconds;
+    }
+
+    public BackoffJitter getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(BackoffJitter jitter) {
+        this.jitter = jitter;
+    }
+
+    public Map<ChannelType, Policy> getChannels() {
+        return channels;
+    }
+
+    public void setChannels(Map<ChannelType, Policy> channels) {
+        this.channels = channels;
+    }
+
+    public Map<String, Policy> getErrorCodes() {
+        return errorCodes;
+    }
+
+    public void setErrorCodes(Map<String, Policy> errorCodes) {
+        this.errorCodes = errorCodes;
+    }
+
+    public List<String> getNonRetryableErrorCodes() {
+        return nonRetryableErrorCodes;
+    }
+
+    public void setNonRetryableErrorCodes(List<String> nonRetryableErrorCodes) {
+        this.nonRetryableErrorCodes = nonRetryableErrorCodes;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Budget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 渠道或错误码的重试策略，未配置的项沿用上一级
+     */
+    public static class Policy {
+        /** 最大重试次数 */
+        private Integer maxCount;
+        /** 初始重试间隔（秒） */
+        private Integer intervalSeconds;
+        /** 退避倍数 */
+        private Double backoffMultiplier;
+        /** 最大重试间隔（秒） */
+        private Integer maxIntervalSeconds;
+        /** 抖动方式 */
+        private BackoffJitter jitter;
+
+        // getter和setter方法
+        public Integer getMaxCount() {
+            return maxCount;
+        }
+
+        public void setMaxCount(Integer maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        public Integer getIntervalSeconds() {
+            return intervalSeconds;
+        }
+
+        public void setIntervalSeconds(Integer intervalSeconds) {
+            this.intervalSeconds = intervalSeconds;
+        }
+
+        public Double getBackoffMultiplier() {
+            return backoffMultiplier;
+        }
+
+        public void setBackoffMultiplier(Double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+        }
+
+        public Integer getMaxIntervalSeconds() {
+            return maxIntervalSeconds;
+        }
+
+        public void setMaxIntervalSeconds(Integer maxIntervalSeconds) {
+            this.maxIntervalSeconds = maxIntervalSeconds;
+        }
+
+        public BackoffJitter getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(BackoffJitter jitter) {
+            this.jitter = jitter;
+        }
+    }
+
+    /**
+     * 重试预算：每个渠道在窗口内的重试次数不超过 max(发送次数 * ratio, min-retries)
+     */
+    public static class Budget {
+        /** 是否开启重试预算 */
+        private boolean enabled = true;
+        /** 重试次数占发送次数的最大比例 */
+        private double ratio = 0.2;
+        /** 统计窗口（秒） */
+        private int windowSeconds = 60;
+        /** 窗口内始终允许的重试次数，发送量小时不受比例限制 */
+        private int minRetries = 10;
+
+        // getter和setter方法
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public int getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(int windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+
+        public int getMinRetries() {
+            return minRetries;
+        }
+
+        public void setMinRetries(int minRetries) {
+            this.minRetries = minRetries;
+        }
+    }
+}
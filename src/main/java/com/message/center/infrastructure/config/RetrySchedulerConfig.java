@@ -0,0 +1,106 @@
+package com.message.center.infrastructure.config;
+
+import com.message.center.domain.enums.ChannelType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 失败重试调度配置
+ * 调度器定时按渠道分页领取到期的待重试任务，经渠道适配器重新发送
+ * 每个渠道同时重试的任务数有上限，渠道线程池空闲容量不足时暂停领取
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.retry.scheduler")
+public class RetrySchedulerConfig {
+
+    /** 是否开启重试调度 */
+    private boolean enabled = true;
+
+    /** 到期任务的拉取间隔（毫秒） */
+    private long pollIntervalMillis = 1000;
+
+    /** 每个渠道每次最多领取的任务数 */
+    private int pageSize = 100;
+
+    /** 领取租约时长（秒），需大于任务在线程池中排队的时间，节点宕机时任务在租约到期后由其他节点重新领取 */
+    private int leaseSeconds = 60;
+
+    /** 未单独配置的渠道同时重试的任务数上限 */
+    private int defaultChannelConcurrency = 10;
+
+    /** 各渠道同时重试的任务数上限 */
+    private Map<ChannelType, Integer> channelConcurrency = new EnumMap<>(ChannelType.class);
+
+    /** 每个渠道线程池中为首次发送保留的空闲容量，空闲容量不超过该值时不再领取该渠道的重试任务 */
+    private int reservedExecutorCapacity = 100;
+
+    /**
+     * 获取渠道同时重试的任务数上限
+     * @param channelType 渠道类型
+     * @return 并发上限
+     */
+    public int concurrencyOf(ChannelType channelType) {
+        Integer concurrency = channelConcurrency.get(channelType);
+        return concurrency != null ? concurrency : defaultChannelConcurrency;
+    }
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(int leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int getDefaultChannelConcurrency() {
+        return defaultChannelConcurrency;
+    }
+
+    public void setDefaultChannelConcurrency(int defaultChannelConcurrency) {
+        this.defaultChannelConcurrency = defaultChannelConcurrency;
+    }
+
+    public Map<ChannelType, Integer> getChannelConcurrency() {
+        return channelConcurrency;
+    }
+
+    public void setChannelConcurrency(Map<ChannelType, Integer> channelConcurrency) {
+        this.channelConcurrency = channelConcurrency;
+    }
+
+    public int getReservedExecutorCapacity() {
+        return reservedExecutorCapacity;
+    }
+
+    public void setReservedExecutorCapacity(int reservedExecutorCapacity) {
+        this.reservedExecutorCapacity = reservedExecutorCapacity;
+    }
+}
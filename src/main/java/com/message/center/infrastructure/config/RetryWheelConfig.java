@@ -0,0 +1,92 @@
+package com.message.center.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 重试时间轮配置
+ * 近期到期的待重试任务预先加载到进程内时间轮，到期时立即领取发送；
+ * 开启后重试调度的拉取间隔改为 sweep-interval-millis，每轮领取已过期的任务并加载下一段时间内到期的任务
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.retry.wheel")
+public class RetryWheelConfig {
+
+    /** 是否开启时间轮 */
+    private boolean enabled = true;
+
+    /** 每格时长（毫秒），即重试的最大延迟误差 */
+    private long tickMillis = 100;
+
+    /** 槽数，向上取整为2的幂 */
+    private int wheelSize = 512;
+
+    /** 加载到时间轮的时间范围（秒），更晚到期的任务留在数据库中，临近时再加载 */
+    private int horizonSeconds = 600;
+
+    /** 领取过期任务和加载近期任务的间隔（毫秒），需小于 horizon-seconds */
+    private long sweepIntervalMillis = 10000;
+
+    /** 每个渠道每轮最多加载的任务数 */
+    private int preloadPageSize = 1000;
+
+    /** 时间轮中最多容纳的任务数，超过后不再加载，任务到期后由拉取领取 */
+    private int maxTimers = 100000;
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getHorizonSeconds() {
+        return horizonSeconds;
+    }
+
+    public void setHorizonSeconds(int horizonSeconds) {
+        this.horizonSeconds = horizonSeconds;
+    }
+
+    public long getSweepIntervalMillis() {
+        return sweepIntervalMillis;
+    }
+
+    public void setSweepIntervalMillis(long sweepIntervalMillis) {
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+
+    public int getPreloadPageSize() {
+        return preloadPageSize;
+    }
+
+    public void setPreloadPageSize(int preloadPageSize) {
+        this.preloadPageSize = preloadPageSize;
+    }
+
+    public int getMaxTimers() {
+        return maxTimers;
+    }
+
+    public void setMaxTimers(int maxTimers) {
+        this.maxTimers = maxTimers;
+    }
+}
@@ -0,0 +1,58 @@
+package com.message.center.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务状态写缓冲配置
+ * 开启后渠道任务抢占之后的状态迁移（成功、失败、待重试）按批次写库，抢占仍直接写库
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.status-buffer")
+public class StatusBufferConfig {
+
+    /** 是否开启写缓冲 */
+    private boolean enabled = false;
+
+    /** 缓冲任务数达到该值时立即刷新 */
+    private int maxBatchSize = 200;
+
+    /** 定时刷新间隔（毫秒） */
+    private long flushIntervalMillis = 500;
+
+    /** 终态（成功/失败）是否立即写库 */
+    private boolean flushOnTerminal = false;
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public boolean isFlushOnTerminal() {
+        return flushOnTerminal;
+    }
+
+    public void setFlushOnTerminal(boolean flushOnTerminal) {
+        this.flushOnTerminal = flushOnTerminal;
+    }
+}
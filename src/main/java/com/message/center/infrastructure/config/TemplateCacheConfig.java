@@ -0,0 +1,58 @@
+package com.message.center.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 消息模板查询缓存配置
+ * 查到模板和查不到模板分别使用不同的过期时间
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.cache.template")
+public class TemplateCacheConfig {
+
+    /** 是否开启缓存 */
+    private boolean enabled = true;
+
+    /** 查到模板时的缓存过期时间（秒） */
+    private long expireSeconds = 300;
+
+    /** 查不到模板时的缓存过期时间（秒） */
+    private long negativeExpireSeconds = 60;
+
+    /** 最大条目数 */
+    private long maximumSize = 10000;
+
+    // getter和setter方法
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpireSeconds() {
+        return expireSeconds;
+    }
+
+    public void setExpireSeconds(long expireSeconds) {
+        this.expireSeconds = expireSeconds;
+    }
+
+    public long getNegativeExpireSeconds() {
+        return negativeExpireSeconds;
+    }
+
+    public void setNegativeExpireSeconds(long negativeExpireSeconds) {
+        this.negativeExpireSeconds = negativeExpireSeconds;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+}
@@ -1,79 +1,131 @@
 package com.message.center.infrastructure.config;
 
+import com.message.center.domain.enums.BulkheadRejectionPolicy;
+import com.message.center.domain.enums.ChannelType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 线程池配置
+ * 渠道任务按渠道类型使用各自的隔离线程池（local、dingtalk、wechat-work）
  */
 @Configuration
 @ConfigurationProperties(prefix = "message-center.thread-pool")
 public class ThreadPoolConfig {
 
-    /** 核心线程数 */
-    private int coreSize = 10;
-
-    /** 最大线程数 */
-    private int maxSize = 50;
+    /** 本地消息渠道的隔离线程池 */
+    private Bulkhead local = new Bulkhead(4, 8, 1000);
 
-    /** 队列容量 */
-    private int queueCapacity = 1000;
+    /** 钉钉渠道的隔离线程池 */
+    private Bulkhead dingtalk = new Bulkhead(8, 20, 500);
 
-    /** 线程存活时间（秒） */
-    private int keepAliveSeconds = 60;
-
-    // getter和setter方法
-    public int getCoreSize() {
-        return coreSize;
-    }
+    /** 企业微信渠道的隔离线程池 */
+    private Bulkhead wechatWork = new Bulkhead(8, 20, 500);
 
-    public void setCoreSize(int coreSize) {
-        this.coreSize = coreSize;
+    /**
+     * 获取渠道的隔离线程池配置
+     * @param channelType 渠道类型
+     * @return 隔离线程池配置
+     */
+    public Bulkhead bulkheadOf(ChannelType channelType) {
+        switch (channelType) {
+            case DINGTALK:
+                return dingtalk;
+            case WECHAT_WORK:
+                return wechatWork;
+            default:
+                return local;
+        }
     }
 
-    public int getMaxSize() {
-        return maxSize;
+    // getter和setter方法
+    public Bulkhead getLocal() {
+        return local;
     }
 
-    public void setMaxSize(int maxSize) {
-        this.maxSize = maxSize;
+    public void setLocal(Bulkhead local) {
+        this.local = local;
     }
 
-    public int getQueueCapacity() {
-        return queueCapacity;
+    public Bulkhead getDingtalk() {
+        return dingtalk;
     }
 
-    public void setQueueCapacity(int queueCapacity) {
-        this.queueCapacity = queueCapacity;
+    public void setDingtalk(Bulkhead dingtalk) {
+        this.dingtalk = dingtalk;
     }
 
-    public int getKeepAliveSeconds() {
-        return keepAliveSeconds;
+    public Bulkhead getWechatWork() {
+        return wechatWork;
     }
 
-    public void setKeepAliveSeconds(int keepAliveSeconds) {
-        this.keepAliveSeconds = keepAliveSeconds;
+    public void setWechatWork(Bulkhead wechatWork) {
+        this.wechatWork = wechatWork;
     }
 
     /**
-     * 任务执行线程池
-     * @return 线程池
+     * 渠道隔离线程池配置
      */
-    @Bean("taskExecutor")
-    public ThreadPoolTaskExecutor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(coreSize);
-        executor.setMaxPoolSize(maxSize);
-        executor.setQueueCapacity(queueCapacity);
-        executor.setKeepAliveSeconds(keepAliveSeconds);
-        executor.setThreadNamePrefix("message-center-task-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
-        return executor;
+    public static class Bulkhead {
+        /** 核心线程数 */
+        private int coreSize;
+        /** 最大线程数，即该渠道同时发送的上限 */
+        private int maxSize;
+        /** 队列容量 */
+        private int queueCapacity;
+        /** 线程存活时间（秒） */
+        private int keepAliveSeconds = 60;
+        /** 线程和队列都已满时的拒绝策略 */
+        private BulkheadRejectionPolicy rejectionPolicy = BulkheadRejectionPolicy.REJECT;
+
+        public Bulkhead() {
+        }
+
+        public Bulkhead(int coreSize, int maxSize, int queueCapacity) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+        }
+
+        // getter和setter方法
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(int keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public BulkheadRejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(BulkheadRejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
     }
 }
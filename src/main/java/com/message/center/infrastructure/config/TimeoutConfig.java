@@ -0,0 +1,36 @@
+package com.message.center.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 渠道发送超时配置
+ * 单个渠道任务从开始发送起计时，一条消息的所有渠道任务从提交到任务线程池起计时，超时的任务按 TIMEOUT 错误码进入重试判定
+ */
+@Configuration
+@ConfigurationProperties(prefix = "message-center.timeout")
+public class TimeoutConfig {
+
+    /** 单个渠道任务的发送时限（秒），同时作为渠道 HTTP 请求的连接和读取超时 */
+    private int singleChannelSeconds = 30;
+
+    /** 一条消息所有渠道任务的总时限（秒），到期时仍在排队的任务不再发送 */
+    private int allChannelsSeconds = 120;
+
+    // getter和setter方法
+    public int getSingleChannelSeconds() {
+        return singleChannelSeconds;
+    }
+
+    public void setSingleChannelSeconds(int singleChannelSeconds) {
+        this.singleChannelSeconds = singleChannelSeconds;
+    }
+
+    public int getAllChannelsSeconds() {
+        return allChannelsSeconds;
+    }
+
+    public void setAllChannelsSeconds(int allChannelsSeconds) {
+        this.allChannelsSeconds = allChannelsSeconds;
+    }
+}
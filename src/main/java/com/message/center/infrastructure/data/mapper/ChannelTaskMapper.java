@@ -4,8 +4,13 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
 import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.vo.TaskStatusTransition;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -38,6 +43,46 @@ public interface ChannelTaskMapper extends BaseMapper<ChannelTask> {
                 .set(ChannelTask::getStatus, status));
     }
 
+    /**
+     * 条件迁移任务状态
+     * 单条UPDATE完成，当前状态不在期望状态内时不更新
+     * @param transition 状态迁移
+     * @param now 更新时间
+     * @return 更新记录数（0或1）
+     */
+    @Update("<script>" +
+            "UPDATE msg_channel_task SET " + TRANSITION_SET +
+            " WHERE id = #{t.taskId}" + TRANSITION_EXPECTED +
+            "</script>")
+    int transitionStatus(@Param("t") TaskStatusTransition transition, @Param("now") LocalDateTime now);
+
+    /**
+     * 批量条件迁移任务状态
+     * 同一迁移应用到多个任务，单条 UPDATE ... WHERE id IN (...) 完成
+     * @param ids 任务ID列表
+     * @param transition 状态迁移（taskId不使用）
+     * @param now 更新时间
+     * @return 更新记录数
+     */
+    @Update("<script>" +
+            "UPDATE msg_channel_task SET " + TRANSITION_SET +
+            " WHERE id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            TRANSITION_EXPECTED +
+            "</script>")
+    int transitionStatusBatch(@Param("ids") List<Long> ids, @Param("t") TaskStatusTransition transition,
+                              @Param("now") LocalDateTime now);
+
+    /** 状态迁移的SET子句 */
+    String TRANSITION_SET = "status = #{t.targetStatus}, result_message = #{t.resultMessage}, update_time = #{now}" +
+            "<if test='t.finish'>, finish_time = #{now}</if>" +
+            "<if test='t.retryCount != null'>, retry_count = #{t.retryCount}</if>" +
+            "<if test='t.nextRetryTime != null'>, next_retry_time = #{t.nextRetryTime}</if>";
+
+    /** 状态迁移的期望状态条件 */
+    String TRANSITION_EXPECTED = "<if test='t.expectedStatuses != null and t.expectedStatuses.size() > 0'>" +
+            " AND status IN <foreach collection='t.expectedStatuses' item='s' open='(' separator=',' close=')'>#{s}</foreach>" +
+            "</if>";
+
     /**
      * 查询待重试任务
      * @param currentTime 当前时间
@@ -49,18 +94,115 @@ public interface ChannelTaskMapper extends BaseMapper<ChannelTask> {
                 .le(ChannelTask::getNextRetryTime, currentTime));
     }
 
+    /**
+     * 查询某个渠道已到期的待重试任务ID，按下次重试时间升序，走 idx_next_retry 范围扫描
+     * @param channelType 渠道类型
+     * @param currentTime 当前时间
+     * @param limit 最多返回的数量
+     * @return 任务ID列表
+     */
+    default List<Long> selectDueRetryIds(ChannelType channelType, LocalDateTime currentTime, int limit) {
+        return selectList(new LambdaQueryWrapper<ChannelTask>()
+                .select(ChannelTask::getId)
+                .eq(ChannelTask::getStatus, TaskStatus.RETRY)
+                .eq(ChannelTask::getChannelType, channelType)
+                .le(ChannelTask::getNextRetryTime, currentTime)
+                .orderByAsc(ChannelTask::getNextRetryTime)
+                .last("LIMIT " + limit))
+                .stream().map(ChannelTask::getId).toList();
+    }
+
+    /**
+     * 领取待重试任务：仍处于待重试且已到期的任务写入租约持有者，下次重试时间推迟到租约到期
+     * 多个节点同时领取同一任务时只有一个节点的条件更新生效
+     * @param ids 任务ID列表
+     * @param owner 租约持有者
+     * @param leaseUntil 租约到期时间
+     * @param currentTime 当前时间
+     * @return 领取成功的任务数
+     */
+    default int claimRetryTasks(List<Long> ids, String owner, LocalDateTime leaseUntil, LocalDateTime currentTime) {
+        return update(null, new LambdaUpdateWrapper<ChannelTask>()
+                .in(ChannelTask::getId, ids)
+                .eq(ChannelTask::getStatus, TaskStatus.RETRY)
+                .le(ChannelTask::getNextRetryTime, currentTime)
+                .set(ChannelTask::getLeaseOwner, owner)
+                .set(ChannelTask::getNextRetryTime, leaseUntil)
+                .set(ChannelTask::getUpdateTime, currentTime));
+    }
+
+    /**
+     * 领取单个待重试任务：下次重试时间仍为期望值且已到期时写入租约
+     * @param id 任务ID
+     * @param expectedRetryTime 查询时的下次重试时间
+     * @param owner 租约持有者
+     * @param leaseUntil 租约到期时间
+     * @param currentTime 当前时间
+     * @return 领取成功的任务数（0或1）
+     */
+    default int claimRetryTask(Long id, LocalDateTime expectedRetryTime, String owner, LocalDateTime leaseUntil,
+                               LocalDateTime currentTime) {
+        return update(null, new LambdaUpdateWrapper<ChannelTask>()
+                .eq(ChannelTask::getId, id)
+                .eq(ChannelTask::getStatus, TaskStatus.RETRY)
+                .eq(ChannelTask::getNextRetryTime, expectedRetryTime)
+                .le(ChannelTask::getNextRetryTime, currentTime)
+                .set(ChannelTask::getLeaseOwner, owner)
+                .set(ChannelTask::getNextRetryTime, leaseUntil)
+                .set(ChannelTask::getUpdateTime, currentTime));
+    }
+
+    /**
+     * 查询某个渠道即将到期的待重试任务，按下次重试时间升序，走 idx_next_retry 范围扫描
+     * @param channelType 渠道类型
+     * @param from 起始时间（不含）
+     * @param until 截止时间（含）
+     * @param limit 最多返回的数量
+     * @return 渠道任务列表
+     */
+    default List<ChannelTask> selectUpcomingRetryTasks(ChannelType channelType, LocalDateTime from,
+                                                       LocalDateTime until, int limit) {
+        return selectList(new LambdaQueryWrapper<ChannelTask>()
+                .eq(ChannelTask::getStatus, TaskStatus.RETRY)
+                .eq(ChannelTask::getChannelType, channelType)
+                .gt(ChannelTask::getNextRetryTime, from)
+                .le(ChannelTask::getNextRetryTime, until)
+                .orderByAsc(ChannelTask::getNextRetryTime)
+                .last("LIMIT " + limit));
+    }
+
+    /**
+     * 查询本节点领取成功的待重试任务
+     * @param ids 任务ID列表
+     * @param owner 租约持有者
+     * @param leaseUntil 租约到期时间
+     * @return 渠道任务列表
+     */
+    default List<ChannelTask> selectClaimedRetryTasks(List<Long> ids, String owner, LocalDateTime leaseUntil) {
+        return selectList(new LambdaQueryWrapper<ChannelTask>()
+                .in(ChannelTask::getId, ids)
+                .eq(ChannelTask::getStatus, TaskStatus.RETRY)
+                .eq(ChannelTask::getLeaseOwner, owner)
+                .eq(ChannelTask::getNextRetryTime, leaseUntil));
+    }
+
     /**
      * 批量插入渠道任务
+     * 单条多行INSERT语句，一次往返写入整个列表，自增ID按顺序回填到每个任务
+     * 调用方负责控制列表大小，避免超过max_allowed_packet
      * @param tasks 渠道任务列表
-     * @return 插入结果
+     * @return 插入记录数
      */
-    default int batchInsert(List<ChannelTask> tasks) {
-        int count = 0;
-        for (ChannelTask task : tasks) {
-            if (insert(task) > 0) {
-                count++;
-            }
-        }
-        return count;
-    }
+    @Insert("<script>" +
+            "INSERT INTO msg_channel_task (message_id, channel_type, channel_config_id, rendered_content, " +
+            "status, retry_count, max_retry, next_retry_time, result_message, third_party_response, " +
+            "create_time, update_time, finish_time) VALUES " +
+            "<foreach collection='tasks' item='t' separator=','>" +
+            "(#{t.messageId}, #{t.channelType}, #{t.channelConfigId}, #{t.renderedContent}, " +
+            "#{t.status}, #{t.retryCount}, #{t.maxRetry}, #{t.nextRetryTime}, #{t.resultMessage}, #{t.thirdPartyResponse}, " +
+            "#{t.createTime}, #{t.updateTime}, #{t.finishTime})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "tasks.id", keyColumn = "id")
+    int batchInsert(@Param("tasks") List<ChannelTask> tasks);
 }
@@ -7,6 +7,8 @@ import com.message.center.domain.entity.Message;
 import com.message.center.domain.enums.MessageStatus;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 /**
  * 消息Mapper
  * 对应数据库表：msg_message
@@ -60,4 +62,21 @@ public interface MessageMapper extends BaseMapper<Message> {
     int updateChannelStats(@Param("messageId") String messageId,
                           @Param("successChannels") Integer successChannels,
                           @Param("failedChannels") Integer failedChannels);
+
+    /**
+     * 批量插入消息（多行VALUES，单条SQL）
+     * @param messages 消息列表
+     * @return 插入行数
+     */
+    @org.apache.ibatis.annotations.Insert("<script>" +
+            "INSERT INTO msg_message (message_id, tenant_id, store_id, business_type, business_data, " +
+            "target_channels, status, total_channels, success_channels, failed_channels, " +
+            "create_time, update_time, finish_time) VALUES " +
+            "<foreach collection='messages' item='m' separator=','>" +
+            "(#{m.messageId}, #{m.tenantId}, #{m.storeId}, #{m.businessType}, #{m.businessData}, " +
+            "#{m.targetChannels}, #{m.status}, #{m.totalChannels}, #{m.successChannels}, #{m.failedChannels}, " +
+            "#{m.createTime}, #{m.updateTime}, #{m.finishTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("messages") List<Message> messages);
 }
@@ -3,12 +3,20 @@ package com.message.center.infrastructure.data.repository;
 import com.message.center.domain.entity.ChannelTask;
 import com.message.center.domain.enums.TaskStatus;
 import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.vo.BatchSaveResult;
+import com.message.center.domain.vo.TaskStatusTransition;
 import com.message.center.infrastructure.data.mapper.ChannelTaskMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 渠道任务仓库实现
@@ -20,17 +28,35 @@ public class ChannelTaskRepositoryImpl implements ChannelTaskRepository {
     @Autowired
     private ChannelTaskMapper channelTaskMapper;
 
+    @Value("${message-center.persistence.batch-size:500}")
+    private int batchSize = 500;
+
     @Override
     public boolean batchSave(List<ChannelTask> tasks) {
-        try {
-            for (ChannelTask task : tasks) {
-                channelTaskMapper.insert(task);
+        return batchInsert(tasks).isAllSaved();
+    }
+
+    @Override
+    public BatchSaveResult batchInsert(List<ChannelTask> tasks) {
+        BatchSaveResult result = new BatchSaveResult(tasks.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (ChannelTask task : tasks) {
+            // 自定义SQL不经过自动填充，这里显式设置时间
+            if (task.getCreateTime() == null) {
+                task.setCreateTime(now);
+            }
+            task.setUpdateTime(now);
+        }
+        for (int from = 0; from < tasks.size(); from += batchSize) {
+            List<ChannelTask> chunk = tasks.subList(from, Math.min(from + batchSize, tasks.size()));
+            try {
+                result.addSaved(channelTaskMapper.batchInsert(chunk));
+            } catch (Exception e) {
+                log.error("批量保存渠道任务失败，批次起始位置：{}，批次大小：{}，原因：{}", from, chunk.size(), e.getMessage(), e);
+                result.addFailure(from, chunk.size(), e.getMessage());
             }
-            return true;
-        } catch (Exception e) {
-            log.error("批量保存渠道任务失败: {}", e.getMessage(), e);
-            return false;
         }
+        return result;
     }
 
     @Override
@@ -40,27 +66,43 @@ public class ChannelTaskRepositoryImpl implements ChannelTaskRepository {
 
     @Override
     public boolean updateStatus(String taskId, TaskStatus status, String result) {
+        return transitionStatus(TaskStatusTransition.of(Long.parseLong(taskId), status, result));
+    }
+
+    @Override
+    public boolean transitionStatus(TaskStatusTransition transition) {
         try {
-            ChannelTask task = channelTaskMapper.selectOne(
-                    new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<ChannelTask>()
-                            .eq(ChannelTask::getId, Long.parseLong(taskId))
-            );
-            if (task != null) {
-                task.setStatus(status);
-                task.setResultMessage(result);
-                task.setUpdateTime(java.time.LocalDateTime.now());
-                if (status == TaskStatus.SUCCESS || status == TaskStatus.FAILED) {
-                    task.setFinishTime(java.time.LocalDateTime.now());
-                }
-                return channelTaskMapper.updateById(task) > 0;
-            }
-            return false;
+            return channelTaskMapper.transitionStatus(transition, LocalDateTime.now()) > 0;
         } catch (Exception e) {
-            log.error("更新渠道任务状态失败: {}", e.getMessage(), e);
+            log.error("更新渠道任务状态失败，任务ID：{}，目标状态：{}，原因：{}",
+                    transition.getTaskId(), transition.getTargetStatus(), e.getMessage(), e);
             return false;
         }
     }
 
+    @Override
+    public int batchTransitionStatus(List<TaskStatusTransition> transitions) {
+        // 除任务ID外完全相同的迁移合并为一条 WHERE id IN (...) 更新
+        Map<TaskStatusTransition, List<Long>> groups = new LinkedHashMap<>();
+        for (TaskStatusTransition transition : transitions) {
+            TaskStatusTransition key = new TaskStatusTransition();
+            BeanUtils.copyProperties(transition, key);
+            key.setTaskId(null);
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(transition.getTaskId());
+        }
+
+        int updatedCount = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<TaskStatusTransition, List<Long>> group : groups.entrySet()) {
+            List<Long> ids = group.getValue();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                updatedCount += channelTaskMapper.transitionStatusBatch(chunk, group.getKey(), now);
+            }
+        }
+        return updatedCount;
+    }
+
     @Override
     public List<ChannelTask> getByMessageId(String messageId) {
         return channelTaskMapper.selectList(
@@ -3,11 +3,15 @@ package com.message.center.infrastructure.data.repository;
 import com.message.center.domain.entity.Message;
 import com.message.center.domain.enums.MessageStatus;
 import com.message.center.domain.repository.MessageRepository;
+import com.message.center.domain.vo.BatchSaveResult;
 import com.message.center.infrastructure.data.mapper.MessageMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * 消息仓库实现
  */
@@ -18,6 +22,10 @@ public class MessageRepositoryImpl implements MessageRepository {
     @Autowired
     private MessageMapper messageMapper;
 
+    /** 批量写入时每条SQL的最大行数 */
+    @Value("${message-center.persistence.batch-size:500}")
+    private int batchSize = 500;
+
     @Override
     public boolean save(Message message) {
         try {
@@ -28,6 +36,21 @@ public class MessageRepositoryImpl implements MessageRepository {
         }
     }
 
+    @Override
+    public BatchSaveResult batchSave(List<Message> messages) {
+        BatchSaveResult result = new BatchSaveResult(messages.size());
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<Message> chunk = messages.subList(from, Math.min(from + batchSize, messages.size()));
+            try {
+                result.addSaved(messageMapper.insertBatch(chunk));
+            } catch (Exception e) {
+                log.error("批量保存消息失败，批次起始位置：{}，批次大小：{}，原因：{}", from, chunk.size(), e.getMessage(), e);
+                result.addFailure(from, chunk.size(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
     @Override
     public Message getByMessageId(String messageId) {
         return messageMapper.selectByMessageId(messageId);
@@ -1,12 +1,15 @@
 package com.message.center.infrastructure.data.repository;
 
 import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
 import com.message.center.domain.repository.MessageTemplateRepository;
 import com.message.center.infrastructure.data.mapper.MessageTemplateMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 /**
  * 消息模板仓库实现
  */
@@ -21,4 +24,29 @@ public class MessageTemplateRepositoryImpl implements MessageTemplateRepository
     public MessageTemplate getById(Long templateId) {
         return messageTemplateMapper.selectById(templateId);
     }
-}
\ No newline at end of file
+
+    @Override
+    public MessageTemplate getTemplate(Long tenantId, String businessType, ChannelType channelType) {
+        return messageTemplateMapper.selectEnabledTemplate(tenantId, businessType, channelType);
+    }
+
+    @Override
+    public boolean save(MessageTemplate template) {
+        LocalDateTime now = LocalDateTime.now();
+        template.setCreateTime(now);
+        template.setUpdateTime(now);
+        return messageTemplateMapper.insert(template) > 0;
+    }
+
+    @Override
+    public boolean update(MessageTemplate template) {
+        // 更新时间参与模板编译缓存的Key，每次更新都要刷新
+        template.setUpdateTime(LocalDateTime.now());
+        return messageTemplateMapper.updateById(template) > 0;
+    }
+
+    @Override
+    public boolean delete(Long templateId) {
+        return messageTemplateMapper.deleteById(templateId) > 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.message.center.infrastructure.delay;
+
+import com.message.center.domain.vo.DeferredMessage;
+
+import java.util.List;
+
+/**
+ * 延后消息存储
+ * 按到期时间排序暂存消息，到期后由调度线程取出
+ */
+public interface DelayStore {
+
+    /**
+     * 暂存消息
+     * @param message 延后消息，按 dueTime 排序
+     * @return 是否暂存成功，存储已满时返回false
+     */
+    boolean offer(DeferredMessage message);
+
+    /**
+     * 取出已到期的消息，取出后即从存储中移除，多节点共享存储时同一条消息只会被一个节点取出
+     * @param nowMillis 当前时间（毫秒时间戳）
+     * @param maxCount 最多取出的数量
+     * @return 已到期的消息，按到期时间升序
+     */
+    List<DeferredMessage> pollDue(long nowMillis, int maxCount);
+
+    /**
+     * 查询暂存的消息数量
+     * @return 消息数量
+     */
+    long size();
+}
@@ -0,0 +1,66 @@
+package com.message.center.infrastructure.delay;
+
+import com.message.center.domain.vo.DeferredMessage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内延后消息存储
+ * 基于按到期时间排序的优先队列，有容量上限
+ * 注意：消息只保存在内存中，节点宕机会丢失未到期的消息，适用于单机部署
+ */
+public class InMemoryDelayStore implements DelayStore {
+
+    private final PriorityQueue<DeferredMessage> queue =
+            new PriorityQueue<>(Comparator.comparingLong(DeferredMessage::getDueTime));
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** 容量上限 */
+    private final int capacity;
+
+    public InMemoryDelayStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(DeferredMessage message) {
+        lock.lock();
+        try {
+            if (queue.size() >= capacity) {
+                return false;
+            }
+            return queue.offer(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<DeferredMessage> pollDue(long nowMillis, int maxCount) {
+        List<DeferredMessage> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (due.size() < maxCount && !queue.isEmpty() && queue.peek().getDueTime() <= nowMillis) {
+                due.add(queue.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    @Override
+    public long size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.message.center.infrastructure.delay;
+
+import com.alibaba.fastjson2.JSON;
+import com.message.center.domain.vo.DeferredMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于 Redis 有序集合的延后消息存储
+ * 分值为到期时间，成员为消息 JSON；到期消息由 Lua 脚本原子地读取并移除，多节点不会重复取出
+ * 注意：消息取出后即从 Redis 移除，取出节点在重新发送前宕机会丢失这部分消息
+ */
+public class RedisDelayStore implements DelayStore {
+
+    /**
+     * 取出到期消息
+     * KEYS[1] 有序集合；ARGV[1] 当前时间，ARGV[2] 最多取出数量
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POLL_DUE = new DefaultRedisScript<>(
+            "local items = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))\n"
+                    + "for i = 1, #items do\n"
+                    + "    redis.call('ZREM', KEYS[1], items[i])\n"
+                    + "end\n"
+                    + "return items\n",
+            List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /** 有序集合 Key */
+    private final String key;
+
+    public RedisDelayStore(RedisTemplate<String, String> redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public boolean offer(DeferredMessage message) {
+        Boolean added = redisTemplate.opsForZSet().add(key, JSON.toJSONString(message), message.getDueTime());
+        return Boolean.TRUE.equals(added);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DeferredMessage> pollDue(long nowMillis, int maxCount) {
+        List<String> items = redisTemplate.execute(POLL_DUE, List.of(key),
+                String.valueOf(nowMillis), String.valueOf(maxCount));
+        List<DeferredMessage> due = new ArrayList<>();
+        if (items != null) {
+            items.forEach(item -> due.add(JSON.parseObject(item, DeferredMessage.class)));
+        }
+        return due;
+    }
+
+    @Override
+    public long size() {
+        Long size = redisTemplate.opsForZSet().zCard(key);
+        return size != null ? size : 0L;
+    }
+}
@@ -0,0 +1,135 @@
+package com.message.center.infrastructure.executor;
+
+import com.message.center.domain.enums.BulkheadRejectionPolicy;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.config.ThreadPoolConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 渠道隔离线程池
+ * 每个渠道类型一个线程池，线程数、队列和拒绝策略按 message-center.thread-pool 下各渠道的配置，
+ * 某个渠道变慢时只占满本渠道的线程和队列，其他渠道照常发送
+ * 指标（按 channel 标签区分）：
+ * - message.center.bulkhead.active / pool.size / max：活跃线程数、当前线程数、最大线程数
+ * - message.center.bulkhead.utilization：活跃线程数 / 最大线程数
+ * - message.center.bulkhead.queue.size / queue.remaining：队列中的任务数和剩余容量
+ * - message.center.bulkhead.rejected：线程和队列都已满时被拒绝的任务数
+ */
+@Component
+public class ChannelBulkheads implements DisposableBean {
+
+    @Autowired
+    private ThreadPoolConfig threadPoolConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<ChannelType, ThreadPoolTaskExecutor> executors = new EnumMap<>(ChannelType.class);
+
+    @PostConstruct
+    public void init() {
+        for (ChannelType channelType : ChannelType.values()) {
+            executors.put(channelType, create(channelType, threadPoolConfig.bulkheadOf(channelType)));
+        }
+    }
+
+    /**
+     * 获取渠道的隔离线程池
+     * @param channelType 渠道类型
+     * @return 线程池
+     */
+    public ThreadPoolTaskExecutor executorOf(ChannelType channelType) {
+        return executors.get(channelType);
+    }
+
+    /**
+     * 提交任务，线程和队列都已满时直接拒绝，不按渠道配置的拒绝策略在调用线程上执行
+     * @param channelType 渠道类型
+     * @param task 任务
+     * @throws RejectedExecutionException 线程和队列都已满
+     */
+    public void executeOrReject(ChannelType channelType, Runnable task) {
+        executors.get(channelType).getThreadPoolExecutor().execute(new AbortOnReject(task));
+    }
+
+    /**
+     * 渠道线程池可立即接收的任务数：空闲线程 + 队列剩余容量
+     * @param channelType 渠道类型
+     * @return 任务数
+     */
+    public int freeCapacity(ChannelType channelType) {
+        ThreadPoolExecutor pool = executors.get(channelType).getThreadPoolExecutor();
+        int idleThreads = Math.max(0, pool.getMaximumPoolSize() - pool.getActiveCount());
+        return idleThreads + pool.getQueue().remainingCapacity();
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    private ThreadPoolTaskExecutor create(ChannelType channelType, ThreadPoolConfig.Bulkhead bulkhead) {
+        String channel = channelType.name();
+        Counter rejected = meterRegistry.counter("message.center.bulkhead.rejected", "channel", channel);
+        RejectedExecutionHandler policy = bulkhead.getRejectionPolicy() == BulkheadRejectionPolicy.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkhead.getCoreSize());
+        executor.setMaxPoolSize(bulkhead.getMaxSize());
+        executor.setQueueCapacity(bulkhead.getQueueCapacity());
+        executor.setKeepAliveSeconds(bulkhead.getKeepAliveSeconds());
+        executor.setThreadNamePrefix("message-center-" + channel.toLowerCase().replace('_', '-') + "-");
+        executor.setRejectedExecutionHandler((runnable, pool) -> {
+            rejected.increment();
+            if (runnable instanceof AbortOnReject) {
+                throw new RejectedExecutionException("渠道线程池已满：" + channel);
+            }
+            policy.rejectedExecution(runnable, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        Gauge.builder("message.center.bulkhead.active", pool, ThreadPoolExecutor::getActiveCount)
+                .tag("channel", channel).register(meterRegistry);
+        Gauge.builder("message.center.bulkhead.pool.size", pool, ThreadPoolExecutor::getPoolSize)
+                .tag("channel", channel).register(meterRegistry);
+        Gauge.builder("message.center.bulkhead.max", pool, ThreadPoolExecutor::getMaximumPoolSize)
+                .tag("channel", channel).register(meterRegistry);
+        Gauge.builder("message.center.bulkhead.utilization", pool,
+                        p -> (double) p.getActiveCount() / p.getMaximumPoolSize())
+                .tag("channel", channel).register(meterRegistry);
+        Gauge.builder("message.center.bulkhead.queue.size", pool, p -> p.getQueue().size())
+                .tag("channel", channel).register(meterRegistry);
+        Gauge.builder("message.center.bulkhead.queue.remaining", pool, p -> p.getQueue().remainingCapacity())
+                .tag("channel", channel).register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 被拒绝时不在调用线程上执行的任务
+     */
+    private record AbortOnReject(Runnable task) implements Runnable {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
@@ -5,65 +5,177 @@ import com.message.center.domain.entity.ChannelTask;
 import com.message.center.domain.enums.ChannelType;
 import com.message.center.domain.enums.TaskStatus;
 import com.message.center.domain.vo.SendResult;
-import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.vo.TaskStatusTransition;
+import com.message.center.infrastructure.config.TimeoutConfig;
+import com.message.center.infrastructure.retry.HashedTimingWheel;
+import com.message.center.infrastructure.retry.RetryBudget;
+import com.message.center.infrastructure.retry.RetryDecision;
+import com.message.center.infrastructure.retry.RetryPolicyEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * 渠道任务执行器
- * 支持多渠道并发执行，实现故障隔离
+ * 支持多渠道并发执行，实现故障隔离，并限制单个任务和整条消息的发送时长
  */
 @Component
-public class ChannelTaskExecutor {
+public class ChannelTaskExecutor implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(ChannelTaskExecutor.class);
 
+    /** 超时检测的精度（毫秒） */
+    private static final long TIMEOUT_TICK_MILLIS = 100;
+
+    /** 超时检测时间轮的槽数 */
+    private static final int TIMEOUT_WHEEL_SIZE = 512;
+
+    /** 渠道线程池已满被拒绝的错误码 */
+    public static final String BULKHEAD_REJECTED = "BULKHEAD_REJECTED";
+
     @Autowired
+    private List<ChannelAdapter> adapters;
+
     private Map<ChannelType, ChannelAdapter> adapterMap;
 
     @Autowired
-    private ChannelTaskRepository taskRepository;
+    private TaskStatusWriteBuffer statusWriteBuffer;
+
+    @Autowired
+    private ChannelBulkheads channelBulkheads;
+
+    @Autowired
+    private RetryPolicyEngine retryPolicyEngine;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    @Autowired
+    private TimeoutConfig timeoutConfig;
 
     @Autowired
-    private ThreadPoolTaskExecutor taskExecutor;
+    private MeterRegistry meterRegistry;
+
+    /** 发送时限检测 */
+    private HashedTimingWheel timeoutWheel;
+
+    /** 写回超时结果，不占用时间轮线程 */
+    private ExecutorService timeoutHandler;
+
+    @PostConstruct
+    public void init() {
+        // 按渠道类型索引适配器
+        adapterMap = new EnumMap<>(ChannelType.class);
+        for (ChannelAdapter adapter : adapters) {
+            adapterMap.put(adapter.getChannelType(), adapter);
+        }
+        timeoutWheel = new HashedTimingWheel("message-center-send-timeout", TIMEOUT_TICK_MILLIS, TIMEOUT_WHEEL_SIZE);
+        timeoutHandler = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-center-send-timeout-handler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        timeoutWheel.stop();
+        timeoutHandler.shutdown();
+    }
 
     /**
      * 并发执行所有渠道任务
-     * 每个任务独立执行，互不影响
+     * 每个任务独立执行，互不影响；不等待任务完成，时限由超时检测保证
      * @param tasks 渠道任务列表
      */
     public void executeAll(List<ChannelTask> tasks) {
-        // 使用CompletableFuture并发执行所有任务
-        List<CompletableFuture<Void>> futures = tasks.stream()
-                .map(task -> CompletableFuture.runAsync(() -> executeTask(task), taskExecutor))
-                .toList();
-
-        // 等待所有任务完成（可选择设置超时）
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .exceptionally(ex -> {
-                    log.error("部分渠道任务执行失败", ex);
-                    return null;
-                });
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutConfig.getAllChannelsSeconds());
+        long deadline = System.nanoTime() + timeoutNanos;
+        AtomicReferenceArray<Future<?>> futures = new AtomicReferenceArray<>(tasks.size());
+        // 任务开始执行和总时限到期只有一方生效
+        AtomicBoolean[] started = new AtomicBoolean[tasks.size()];
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        // 总时限到期时取消仍在排队的任务，全部任务结束时取消检测
+        HashedTimingWheel.Timeout fanOutTimeout = timeoutWheel.schedule(
+                () -> expireQueued(tasks, futures, started), timeoutNanos, TimeUnit.NANOSECONDS);
+        Runnable taskDone = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                fanOutTimeout.cancel();
+            }
+        };
+        for (int i = 0; i < tasks.size(); i++) {
+            ChannelTask task = tasks.get(i);
+            AtomicBoolean taskStarted = new AtomicBoolean();
+            started[i] = taskStarted;
+            try {
+                futures.set(i, channelBulkheads.executorOf(task.getChannelType()).submit(() -> {
+                    // 总时限已到仍在排队的任务不再发送，由总时限检测按排队超时处理
+                    if (System.nanoTime() - deadline >= 0 || !taskStarted.compareAndSet(false, true)) {
+                        return;
+                    }
+                    try {
+                        executeTask(task, deadline);
+                    } finally {
+                        taskDone.run();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // 本渠道线程池已满，不占用调用线程发送，任务未发送过不计入重试次数
+                log.warn("渠道线程池已满，任务重新排期，任务ID：{}，渠道：{}", task.getId(), task.getChannelType());
+                reschedule(task, BULKHEAD_REJECTED, "渠道线程池已满");
+                taskDone.run();
+            }
+        }
     }
 
     /**
      * 执行单个渠道任务
-     * 包含完整的错误处理和状态追踪
+     * 包含完整的错误处理和状态追踪，待重试任务由 RetryScheduler 直接调用
      * @param task 渠道任务
      */
-    private void executeTask(ChannelTask task) {
+    public void executeTask(ChannelTask task) {
+        executeTask(task, null);
+    }
+
+    /**
+     * 执行单个渠道任务
+     * @param task 渠道任务
+     * @param deadline 所在消息的总时限（System.nanoTime），为空时只受单个任务时限约束
+     */
+    private void executeTask(ChannelTask task, Long deadline) {
+        // 抢占任务：只有待发送/待重试的任务才能进入发送中，避免并发执行器重复发送
+        boolean claimed = statusWriteBuffer.claim(TaskStatusTransition.of(
+                task.getId(), TaskStatus.SENDING, "发送中", TaskStatus.PENDING, TaskStatus.RETRY));
+        if (!claimed) {
+            log.info("渠道任务已被其他执行器处理，跳过，任务ID：{}", task.getId());
+            return;
+        }
+        task.setStatus(TaskStatus.SENDING);
+
+        long timeoutMillis = timeoutMillis(deadline);
+        Execution execution = new Execution(Thread.currentThread());
+        HashedTimingWheel.Timeout watchdog = timeoutWheel.schedule(
+                () -> onSendTimeout(task, execution, timeoutMillis), timeoutMillis, TimeUnit.MILLISECONDS);
         try {
-            // 更新状态为发送中
-            task.setStatus(TaskStatus.SENDING);
-            taskRepository.updateStatus(String.valueOf(task.getId()), TaskStatus.SENDING, "发送中");
+            retryBudget.recordAttempt(task.getChannelType());
 
             // 获取对应的渠道适配器
             ChannelAdapter adapter = adapterMap.get(task.getChannelType());
@@ -72,43 +184,196 @@ public class ChannelTaskExecutor {
             }
 
             // 执行发送
-            SendResult result = adapter.send(task);
+            SendResult result = adapter.send(task, (int) timeoutMillis);
+            if (!execution.complete()) {
+                // 已按超时写回结果
+                return;
+            }
 
             // 更新发送结果
             if (result.isSuccess()) {
                 task.setStatus(TaskStatus.SUCCESS);
                 task.setResultMessage("发送成功");
                 task.setFinishTime(LocalDateTime.now());
-                taskRepository.updateStatus(String.valueOf(task.getId()), TaskStatus.SUCCESS, "发送成功");
+                completeTransition(task, TaskStatusTransition.of(
+                        task.getId(), TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
             } else {
-                handleFailure(task, result.getErrorMessage());
+                if (SendResult.TIMEOUT.equals(result.getErrorCode())) {
+                    recordTimeout(task, "send");
+                }
+                handleFailure(task, result.getErrorCode(), result.getErrorMessage());
             }
         } catch (Exception e) {
             // 异常处理 - 不影响其他渠道
-            handleFailure(task, e.getMessage());
+            if (execution.complete()) {
+                String errorCode = null;
+                if (ChannelAdapter.isTimeout(e)) {
+                    errorCode = SendResult.TIMEOUT;
+                    recordTimeout(task, "send");
+                }
+                handleFailure(task, errorCode, e.getMessage());
+            }
+        } finally {
+            watchdog.cancel();
+        }
+    }
+
+    /**
+     * 计算本次发送的时限：单个任务时限与所在消息剩余总时限中的较小值，至少1毫秒
+     */
+    private long timeoutMillis(Long deadline) {
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutConfig.getSingleChannelSeconds());
+        if (deadline != null) {
+            timeoutMillis = Math.min(timeoutMillis, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        }
+        return Math.max(1, Math.min(timeoutMillis, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 发送超时，在时间轮线程上执行：中断发送线程，由超时处理线程写回结果
+     */
+    private void onSendTimeout(ChannelTask task, Execution execution, long timeoutMillis) {
+        if (!execution.timeout()) {
+            return;
+        }
+        recordTimeout(task, "send");
+        log.warn("渠道任务发送超时，任务ID：{}，渠道：{}，时限：{}ms", task.getId(), task.getChannelType(), timeoutMillis);
+        timeoutHandler.execute(() -> handleFailure(task, SendResult.TIMEOUT,
+                "发送超时（" + timeoutMillis + "ms）", TaskStatus.SENDING));
+    }
+
+    /**
+     * 消息总时限到期，在时间轮线程上执行：仍在排队的任务取消发送，按超时写回结果
+     * 已开始发送的任务由各自的发送时限处理
+     */
+    private void expireQueued(List<ChannelTask> tasks, AtomicReferenceArray<Future<?>> futures,
+                              AtomicBoolean[] started) {
+        for (int i = 0; i < futures.length(); i++) {
+            Future<?> future = futures.get(i);
+            if (future == null || !started[i].compareAndSet(false, true)) {
+                continue;
+            }
+            future.cancel(false);
+            ChannelTask task = tasks.get(i);
+            recordTimeout(task, "queue");
+            timeoutHandler.execute(() -> handleFailure(task, SendResult.TIMEOUT,
+                    "等待发送超时（" + timeoutConfig.getAllChannelsSeconds() + "s）", TaskStatus.PENDING));
         }
     }
 
+    private void recordTimeout(ChannelTask task, String phase) {
+        meterRegistry.counter("message.center.channel.timeout",
+                "channel", task.getChannelType().name(), "phase", phase).increment();
+    }
+
+    /**
+     * 处理发送失败
+     * 是否重试及下次重试时间由 RetryPolicyEngine 按渠道、错误码和重试预算判定
+     * @param task 渠道任务
+     * @param errorCode 错误码，异常时为空
+     * @param errorMessage 错误信息
+     */
+    private void handleFailure(ChannelTask task, String errorCode, String errorMessage) {
+        handleFailure(task, errorCode, errorMessage, TaskStatus.SENDING);
+    }
+
     /**
      * 处理发送失败
      * @param task 渠道任务
+     * @param errorCode 错误码，异常时为空
      * @param errorMessage 错误信息
+     * @param expectedStatus 任务的当前状态，排队超时的任务为待发送
      */
-    private void handleFailure(ChannelTask task, String errorMessage) {
+    private void handleFailure(ChannelTask task, String errorCode, String errorMessage, TaskStatus expectedStatus) {
         task.setResultMessage(errorMessage);
 
-        // 判断是否需要重试
-        if (task.getRetryCount() < task.getMaxRetry()) {
+        RetryDecision decision = retryPolicyEngine.decide(task, errorCode);
+        if (decision.isRetry()) {
             task.setStatus(TaskStatus.RETRY);
             task.setRetryCount(task.getRetryCount() + 1);
-            // 计算下次重试时间（指数退避）
-            int delay = (int) Math.pow(2, task.getRetryCount()) * 60;
-            task.setNextRetryTime(LocalDateTime.now().plusSeconds(delay));
-            taskRepository.updateStatus(String.valueOf(task.getId()), TaskStatus.RETRY, errorMessage);
+            task.setNextRetryTime(LocalDateTime.now().plus(decision.getDelayMillis(), ChronoUnit.MILLIS));
+            completeTransition(task, TaskStatusTransition.of(
+                    task.getId(), TaskStatus.RETRY, errorMessage, expectedStatus)
+                    .withRetry(task.getRetryCount(), task.getNextRetryTime()));
         } else {
+            if (RetryDecision.BUDGET_EXHAUSTED.equals(decision.getOutcome())) {
+                errorMessage = "重试预算已用尽，不再重试：" + errorMessage;
+            }
             task.setStatus(TaskStatus.FAILED);
+            task.setResultMessage(errorMessage);
             task.setFinishTime(LocalDateTime.now());
-            taskRepository.updateStatus(String.valueOf(task.getId()), TaskStatus.FAILED, errorMessage);
+            completeTransition(task, TaskStatusTransition.of(
+                    task.getId(), TaskStatus.FAILED, errorMessage, expectedStatus));
+        }
+    }
+
+    /**
+     * 未发送即被拒绝的待发送任务转为待重试，重试次数不变
+     * @param task 渠道任务
+     * @param errorCode 错误码
+     * @param errorMessage 错误信息
+     */
+    private void reschedule(ChannelTask task, String errorCode, String errorMessage) {
+        long delayMillis = retryPolicyEngine.rescheduleDelayMillis(task, errorCode);
+        task.setStatus(TaskStatus.RETRY);
+        task.setResultMessage(errorMessage);
+        task.setNextRetryTime(LocalDateTime.now().plus(delayMillis, ChronoUnit.MILLIS));
+        completeTransition(task, TaskStatusTransition.of(
+                task.getId(), TaskStatus.RETRY, errorMessage, TaskStatus.PENDING)
+                .withRetry(task.getRetryCount(), task.getNextRetryTime()));
+    }
+
+    /**
+     * 写回发送结果，任务必须仍处于发送中
+     * @param task 渠道任务
+     * @param transition 状态迁移
+     */
+    private void completeTransition(ChannelTask task, TaskStatusTransition transition) {
+        if (!statusWriteBuffer.submit(transition)) {
+            log.warn("渠道任务状态写回失败，任务已不处于发送中，任务ID：{}，目标状态：{}",
+                    task.getId(), transition.getTargetStatus());
+        }
+    }
+
+    /**
+     * 一次发送的执行状态，发送结束和超时检测只有一方生效
+     */
+    private static final class Execution {
+
+        private final Thread worker;
+
+        private boolean finished;
+
+        private boolean timedOut;
+
+        Execution(Thread worker) {
+            this.worker = worker;
+        }
+
+        /**
+         * 发送结束
+         * @return 未超时返回true；已超时返回false，并清除超时检测设置的中断标记
+         */
+        synchronized boolean complete() {
+            if (timedOut) {
+                Thread.interrupted();
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+
+        /**
+         * 超时检测到期
+         * @return 发送尚未结束时中断发送线程并返回true
+         */
+        synchronized boolean timeout() {
+            if (finished) {
+                return false;
+            }
+            timedOut = true;
+            worker.interrupt();
+            return true;
         }
     }
 }
@@ -0,0 +1,183 @@
+package com.message.center.infrastructure.executor;
+
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.vo.TaskStatusTransition;
+import com.message.center.infrastructure.config.StatusBufferConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务状态写缓冲
+ * 只缓冲抢占之后的状态迁移（成功、失败、待重试），按数量或时间触发批量写库；抢占和未开启缓冲时直接写库
+ */
+@Component
+public class TaskStatusWriteBuffer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatusWriteBuffer.class);
+
+    @Autowired
+    private ChannelTaskRepository taskRepository;
+
+    @Autowired
+    private StatusBufferConfig statusBufferConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** 待写入的状态迁移，按任务ID索引 */
+    private final Map<Long, TaskStatusTransition> pending = new ConcurrentHashMap<>();
+
+    /** 刷新锁，保证同一任务的迁移按提交顺序落库 */
+    private final Object flushLock = new Object();
+
+    private ScheduledExecutorService flushScheduler;
+
+    private volatile boolean closed = false;
+
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("message.center.task.status.buffer.depth", pending, Map::size)
+                .description("任务状态写缓冲中待写入的任务数")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("message.center.task.status.buffer.flush")
+                .description("任务状态写缓冲单次刷新耗时")
+                .register(meterRegistry);
+
+        if (statusBufferConfig.isEnabled()) {
+            flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "message-center-status-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = statusBufferConfig.getFlushIntervalMillis();
+            flushScheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 抢占任务，直接写库并返回条件更新的结果
+     * 缓冲中还有该任务之前的迁移时先刷新，保证按提交顺序落库
+     * @param transition 迁移到发送中的状态迁移
+     * @return 是否抢占成功
+     */
+    public boolean claim(TaskStatusTransition transition) {
+        if (pending.containsKey(transition.getTaskId())) {
+            flushQuietly();
+        }
+        return taskRepository.transitionStatus(transition);
+    }
+
+    /**
+     * 提交抢占之后的状态迁移
+     * @param transition 状态迁移
+     * @return 未开启缓冲时返回是否迁移成功；开启缓冲时返回true表示已接收
+     */
+    public boolean submit(TaskStatusTransition transition) {
+        if (!statusBufferConfig.isEnabled() || closed) {
+            return taskRepository.transitionStatus(transition);
+        }
+
+        pending.merge(transition.getTaskId(), transition, TaskStatusWriteBuffer::merge);
+
+        if ((statusBufferConfig.isFlushOnTerminal() && isTerminal(transition.getTargetStatus()))
+                || pending.size() >= statusBufferConfig.getMaxBatchSize()) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * 将缓冲中的状态迁移批量写库
+     * 写库成功后才移出缓冲，写库失败时保留在缓冲中等待下次刷新
+     * @return 写入成功的任务数
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            List<TaskStatusTransition> transitions = new ArrayList<>(pending.values());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int updatedCount = taskRepository.batchTransitionStatus(transitions);
+            sample.stop(flushTimer);
+            for (TaskStatusTransition transition : transitions) {
+                // 刷新期间又合并了新迁移的任务保留在缓冲中
+                pending.remove(transition.getTaskId(), transition);
+            }
+            if (updatedCount < transitions.size()) {
+                log.warn("部分任务状态未写入，可能已被其他执行器迁移，提交数：{}，写入数：{}",
+                        transitions.size(), updatedCount);
+            }
+            return updatedCount;
+        }
+    }
+
+    /**
+     * 当前缓冲中的任务数
+     * @return 任务数
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+        }
+        // 停机时强制刷新，之后的迁移直接写库
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 定时刷新异常不能终止调度线程
+            log.error("刷新任务状态失败，缓冲任务数：{}", pending.size(), e);
+        }
+    }
+
+    /**
+     * 同一任务在刷新前再次提交迁移时合并为一次写入
+     * 数据库中的状态仍是较早迁移提交前的状态，因此保留较早迁移的期望状态
+     */
+    private static TaskStatusTransition merge(TaskStatusTransition older, TaskStatusTransition newer) {
+        TaskStatusTransition merged = new TaskStatusTransition();
+        BeanUtils.copyProperties(newer, merged);
+        merged.setExpectedStatuses(older.getExpectedStatuses());
+        merged.setFinish(older.isFinish() || newer.isFinish());
+        if (newer.getRetryCount() == null) {
+            merged.setRetryCount(older.getRetryCount());
+        }
+        if (newer.getNextRetryTime() == null) {
+            merged.setNextRetryTime(older.getNextRetryTime());
+        }
+        return merged;
+    }
+
+    private static boolean isTerminal(TaskStatus status) {
+        return status == TaskStatus.SUCCESS || status == TaskStatus.FAILED || status == TaskStatus.CANCELLED
+                || status == TaskStatus.RATE_LIMITED;
+    }
+}
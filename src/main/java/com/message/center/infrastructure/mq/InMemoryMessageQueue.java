@@ -0,0 +1,110 @@
+package com.message.center.infrastructure.mq;
+
+import com.message.center.domain.vo.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 进程内消息队列
+ * 基于有界阻塞队列和固定消费线程池实现，不依赖消息中间件
+ * 注意：消息只保存在内存中，节点宕机会丢失未消费的消息，适用于测试和单机部署
+ */
+public class InMemoryMessageQueue implements MessageQueue, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryMessageQueue.class);
+
+    /** 消费线程拉取消息的超时时间（毫秒） */
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    /** 停机时等待队列消费完成的时间（秒） */
+    private static final long AWAIT_TERMINATION_SECONDS = 60;
+
+    private final BlockingQueue<Message> queue;
+
+    private final int consumerThreads;
+
+    private volatile ExecutorService consumerPool;
+
+    private volatile boolean running = true;
+
+    public InMemoryMessageQueue(int capacity, int consumerThreads) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.consumerThreads = consumerThreads;
+    }
+
+    @Override
+    public boolean offer(Message message) {
+        if (!running) {
+            return false;
+        }
+        return queue.offer(message);
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<Message> consumer) {
+        if (consumerPool != null) {
+            throw new IllegalStateException("进程内消息队列只支持注册一个消费者");
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        consumerPool = Executors.newFixedThreadPool(consumerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "message-center-consumer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < consumerThreads; i++) {
+            consumerPool.execute(() -> consumeLoop(consumer));
+        }
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * 消费循环，停机后继续消费直到队列为空
+     * @param consumer 消息消费者
+     */
+    private void consumeLoop(Consumer<Message> consumer) {
+        while (running || !queue.isEmpty()) {
+            Message message;
+            try {
+                message = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (message == null) {
+                continue;
+            }
+            try {
+                consumer.accept(message);
+            } catch (Exception e) {
+                // 消费异常不能影响消费线程，只记录日志
+                log.error("消费消息失败，消息ID：{}", message.getMessageId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (consumerPool == null) {
+            return;
+        }
+        consumerPool.shutdown();
+        if (!consumerPool.awaitTermination(AWAIT_TERMINATION_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("进程内消息队列停机超时，剩余未消费消息数：{}", queue.size());
+            consumerPool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.message.center.infrastructure.mq;
+
+import com.message.center.domain.vo.Message;
+
+import java.util.function.Consumer;
+
+/**
+ * 消息投递队列接口
+ * 异步发送模式下，接入层只负责投递消息，由消费者线程执行责任链
+ * 实现方式：进程内队列（测试/单机）或 RocketMQ（生产环境）
+ */
+public interface MessageQueue {
+
+    /**
+     * 投递消息
+     * @param message 消息对象（messageId已生成）
+     * @return true表示投递成功，false表示队列已满或投递失败
+     */
+    boolean offer(Message message);
+
+    /**
+     * 注册消息消费者
+     * @param consumer 消息消费者
+     */
+    void subscribe(Consumer<Message> consumer);
+
+    /**
+     * 获取待消费消息数
+     * @return 待消费消息数，无法统计时返回-1
+     */
+    int size();
+}
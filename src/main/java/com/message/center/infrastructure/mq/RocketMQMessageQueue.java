@@ -0,0 +1,70 @@
+package com.message.center.infrastructure.mq;
+
+import com.alibaba.fastjson2.JSON;
+import com.message.center.domain.vo.Message;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * RocketMQ消息队列
+ * 投递端同步发送到Topic，消费端由RocketMQ监听容器回调，消息持久化在Broker中
+ * 只在开启异步发送时注册，避免没有消费者时监听容器反复重新投递；消费异常抛出后由Broker重新投递
+ */
+@Component
+@ConditionalOnExpression("${message-center.async.enabled:false} and '${message-center.async.queue-type:MEMORY}' == 'ROCKETMQ'")
+@RocketMQMessageListener(
+        topic = "${message-center.async.topic:MESSAGE_CENTER_SEND}",
+        consumerGroup = "${message-center.async.consumer-group:message-center-consumer-group}")
+public class RocketMQMessageQueue implements MessageQueue, RocketMQListener<String> {
+
+    private static final Logger log = LoggerFactory.getLogger(RocketMQMessageQueue.class);
+
+    @Autowired
+    private RocketMQTemplate rocketMQTemplate;
+
+    @Value("${message-center.async.topic:MESSAGE_CENTER_SEND}")
+    private String topic;
+
+    private volatile Consumer<Message> consumer;
+
+    @Override
+    public boolean offer(Message message) {
+        try {
+            org.apache.rocketmq.client.producer.SendResult sendResult =
+                    rocketMQTemplate.syncSend(topic, JSON.toJSONString(message));
+            return sendResult.getSendStatus() == SendStatus.SEND_OK;
+        } catch (Exception e) {
+            log.error("投递消息到RocketMQ失败，消息ID：{}", message.getMessageId(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Message> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public int size() {
+        return -1;
+    }
+
+    @Override
+    public void onMessage(String body) {
+        if (consumer == null) {
+            // 抛出异常让RocketMQ稍后重新投递，避免启动阶段消息丢失
+            throw new IllegalStateException("消息消费者尚未注册");
+        }
+        consumer.accept(JSON.parseObject(body, Message.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.message.center.infrastructure.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * 基于 Redis 脚本的频次限制算法基类
+ * 当前时间取自应用节点时钟并作为脚本参数传入，各节点需保持时钟同步
+ */
+public abstract class AbstractRedisRateLimiter implements RateLimiter {
+
+    @Autowired
+    protected RedisTemplate<String, String> redisTemplate;
+
+    /** 时钟 */
+    protected Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * 执行返回 {是否放行, 被拒绝的规则序号（从1开始）, 被拒绝规则的已用数量} 的判定脚本
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected RateLimitResult executeDecision(RedisScript<List> script, List<String> keys, String... args) {
+        List<Long> result = redisTemplate.execute(script, keys, (Object[]) args);
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("频次限制脚本未返回结果");
+        }
+        if (result.get(0) == 1L) {
+            return RateLimitResult.allow();
+        }
+        return RateLimitResult.reject(result.get(1).intValue() - 1, result.get(2));
+    }
+
+    @Override
+    public int acquireUpTo(RateLimitRule rule, int permits) {
+        return executeCount(acquireUpToCall(rule, permits));
+    }
+
+    @Override
+    public void release(RateLimitRule rule, int permits) {
+        executeCount(releaseCall(rule, permits));
+    }
+
+    /**
+     * 执行返回数量的脚本
+     */
+    protected int executeCount(ScriptCall call) {
+        Long count = redisTemplate.execute(call.getScript(), call.getKeys(), (Object[]) call.getArgs());
+        return count != null ? count.intValue() : 0;
+    }
+}
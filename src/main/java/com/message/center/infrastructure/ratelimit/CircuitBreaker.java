@@ -0,0 +1,173 @@
+package com.message.center.infrastructure.ratelimit;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于最近调用失败比例的熔断器
+ * - 关闭：正常调用，最近 windowSize 次调用中失败比例达到阈值时熔断
+ * - 打开：不再调用，openMillis 后进入半开
+ * - 半开：放行 halfOpenCalls 次探测调用，全部成功时关闭，任一失败时重新打开
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final double failureRateThreshold;
+
+    private final long openMillis;
+
+    private final int halfOpenCalls;
+
+    private final Clock clock;
+
+    /** 最近调用结果的环形缓冲区，true 表示失败 */
+    private final boolean[] outcomes;
+
+    private int position;
+
+    private int calls;
+
+    private int failures;
+
+    private volatile State state = State.CLOSED;
+
+    private volatile long openedAt;
+
+    /** 半开状态下已放行的探测调用 */
+    private final AtomicInteger probes = new AtomicInteger();
+
+    /** 半开状态下已成功的探测调用 */
+    private int probeSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openMillis, int halfOpenCalls, Clock clock) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+        this.outcomes = new boolean[this.windowSize];
+    }
+
+    /**
+     * 本次是否允许调用
+     * @return false 表示熔断中，调用方应直接降级
+     */
+    public boolean tryAcquirePermission() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (clock.millis() - openedAt < openMillis) {
+                return false;
+            }
+            toHalfOpen();
+        }
+        return probes.incrementAndGet() <= halfOpenCalls;
+    }
+
+    /**
+     * 记录一次成功调用
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probeSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 记录一次失败调用，包括超时
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED && record(true)) {
+            transition(State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 最近调用的失败比例
+     */
+    public synchronized double getFailureRate() {
+        return calls == 0 ? 0 : (double) failures / calls;
+    }
+
+    /**
+     * 状态变化回调，默认不处理
+     * @param from 原状态
+     * @param to 新状态
+     */
+    protected void onStateChange(State from, State to) {
+    }
+
+    private synchronized void toHalfOpen() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMillis) {
+            transition(State.HALF_OPEN);
+        }
+    }
+
+    /**
+     * 记录结果，返回是否达到熔断条件
+     */
+    private boolean record(boolean failed) {
+        if (calls == windowSize) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[position] = failed;
+        if (failed) {
+            failures++;
+        }
+        position = (position + 1) % windowSize;
+        return calls >= minimumCalls && (double) failures / calls >= failureRateThreshold;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        if (from == to) {
+            return;
+        }
+        if (to == State.OPEN) {
+            openedAt = clock.millis();
+        }
+        if (to == State.HALF_OPEN) {
+            probes.set(0);
+            probeSuccesses = 0;
+        }
+        if (to == State.CLOSED) {
+            calls = 0;
+            failures = 0;
+            position = 0;
+        }
+        state = to;
+        onStateChange(from, to);
+    }
+}
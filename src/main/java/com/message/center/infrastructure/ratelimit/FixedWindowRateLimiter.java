@@ -0,0 +1,74 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 固定窗口频次限制
+ * 按本地时区对齐的时间窗口计数，如按天限制时窗口从零点开始
+ * 实现简单、每条规则只占一个计数 Key，但窗口边界前后各发一批时，短时间内最多可达限制的两倍
+ */
+@Component
+public class FixedWindowRateLimiter extends AbstractRedisRateLimiter {
+
+    @Override
+    public RateLimitAlgorithm getAlgorithm() {
+        return RateLimitAlgorithm.FIXED_WINDOW;
+    }
+
+    @Override
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+        long now = localMillis();
+        List<String> keys = new ArrayList<>(rules.size());
+        String[] args = new String[1 + rules.size() * 2];
+        args[0] = String.valueOf(permits);
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            keys.add(windowKey(rule, now));
+            args[1 + i * 2] = String.valueOf(rule.getLimit());
+            args[2 + i * 2] = String.valueOf(rule.getWindowSeconds());
+        }
+        return executeDecision(RateLimitScripts.FIXED_WINDOW_ALL, keys, args);
+    }
+
+    @Override
+    public ScriptCall acquireUpToCall(RateLimitRule rule, int permits) {
+        return new ScriptCall(RateLimitScripts.FIXED_WINDOW_UP_TO, List.of(windowKey(rule, localMillis())),
+                String.valueOf(permits), String.valueOf(rule.getLimit()), String.valueOf(rule.getWindowSeconds()));
+    }
+
+    @Override
+    public ScriptCall releaseCall(RateLimitRule rule, int permits) {
+        return new ScriptCall(RateLimitScripts.RELEASE, List.of(windowKey(rule, localMillis())), String.valueOf(permits));
+    }
+
+    /**
+     * 固定窗口在下一个窗口开始时重新计数
+     */
+    @Override
+    public long nextAvailableAt(RateLimitRule rule) {
+        long window = rule.getWindowSeconds() * 1000;
+        long now = clock.millis();
+        long local = localMillis();
+        return (Math.floorDiv(local, window) + 1) * window - (local - now);
+    }
+
+    /**
+     * 当前窗口的计数 Key：{前缀}:{窗口序号}
+     */
+    static String windowKey(RateLimitRule rule, long localMillis) {
+        return RateLimitKeys.windowKey(rule.getKey(), Math.floorDiv(localMillis, rule.getWindowSeconds() * 1000));
+    }
+
+    /**
+     * 按本地时区偏移后的毫秒时间戳，使窗口与本地日历对齐
+     */
+    private long localMillis() {
+        Instant now = clock.instant();
+        return now.toEpochMilli() + clock.getZone().getRules().getOffset(now).getTotalSeconds() * 1000L;
+    }
+}
@@ -0,0 +1,336 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.RateLimitFailMode;
+import com.message.center.infrastructure.config.RateLimitGuardConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带保护的 Redis 频次限制器
+ * 位于 LeasedRateLimiter 与 RedisRateLimiter 之间，Redis 变慢或不可用时不再让每条消息失败：
+ * - 耗时上限：Redis 调用在独立线程池中执行，超过 latencyBudgetMillis（含排队）即按失败处理，调用方不再等待
+ * - 熔断：最近调用中失败比例达到阈值时熔断，熔断期间不访问 Redis，一段时间后放行少量探测调用
+ * - 降级：调用失败或熔断中按渠道配置的降级方式判定：本地限流（额度/节点数）、全部放行或全部拒绝
+ * 超时的调用可能仍在 Redis 中生效，降级期间的判定只会偏向少放；Redis 退还失败时只退还本地计数，Redis 中的计数等待窗口自然过期
+ * 未开启保护时直接调用 RedisRateLimiter，异常照常抛出
+ */
+@Component
+public class GuardedRateLimiter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(GuardedRateLimiter.class);
+
+    /** 从注册中心获取的节点数的缓存时间（毫秒） */
+    private static final long NODE_COUNT_REFRESH_MILLIS = 30_000;
+
+    @Autowired
+    private RedisRateLimiter redisRateLimiter;
+
+    @Autowired
+    private RateLimitGuardConfig guardConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private DiscoveryClient discoveryClient;
+
+    @Value("${spring.application.name:message-center}")
+    private String applicationName;
+
+    /** 时钟 */
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final LocalRateLimiter localRateLimiter = new LocalRateLimiter();
+
+    private CircuitBreaker circuitBreaker;
+
+    private ThreadPoolExecutor executor;
+
+    private volatile int cachedNodeCount = 1;
+
+    private volatile long nodeCountRefreshedAt = Long.MIN_VALUE;
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = new CircuitBreaker(guardConfig.getWindowSize(), guardConfig.getMinimumCalls(),
+                guardConfig.getFailureRateThreshold(), guardConfig.getOpenMillis(), guardConfig.getHalfOpenCalls(), clock) {
+            @Override
+            protected void onStateChange(State from, State to) {
+                log.warn("频次限制 Redis 熔断器状态变化：{} -> {}", from, to);
+                meterRegistry.counter("message.center.rate_limit.circuit", "state", to.name()).increment();
+            }
+        };
+        Gauge.builder("message.center.rate_limit.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("频次限制 Redis 熔断器状态：0关闭 1打开 2半开")
+                .register(meterRegistry);
+        if (!guardConfig.isEnabled()) {
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(guardConfig.getThreads(), guardConfig.getThreads(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(guardConfig.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "message-center-rate-limit-redis-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 同时检查多条规则，全部满足时各计数 permits，否则都不计数
+     * 降级时按各规则所属渠道的降级方式判定：拒绝的渠道直接判为超限，放行的渠道不计数，其余在本地计数
+     * @param rules 频次限制规则
+     * @param permits 申请数量
+     * @return 判定结果
+     */
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+        if (!guardConfig.isEnabled()) {
+            return redisRateLimiter.tryAcquire(rules, permits);
+        }
+        RateLimitResult result = call(() -> redisRateLimiter.tryAcquire(rules, permits));
+        return result != null ? result : fallbackTryAcquire(rules, permits);
+    }
+
+    /**
+     * 按剩余额度申请，最多获得 permits 个
+     * @param rule 频次限制规则
+     * @param permits 申请数量
+     * @return 实际获得的数量（0 ~ permits）
+     */
+    public int acquireUpTo(RateLimitRule rule, int permits) {
+        if (!guardConfig.isEnabled()) {
+            return redisRateLimiter.acquireUpTo(rule, permits);
+        }
+        Integer granted = call(() -> redisRateLimiter.acquireUpTo(rule, permits));
+        return granted != null ? granted : fallbackAcquireUpTo(rule, permits);
+    }
+
+    /**
+     * 批量按剩余额度申请，一次管道往返完成
+     * @param rules 频次限制规则
+     * @param permits 与规则一一对应的申请数量
+     * @return 与规则一一对应的实际获得数量
+     */
+    public int[] acquireUpTo(List<RateLimitRule> rules, int[] permits) {
+        if (!guardConfig.isEnabled()) {
+            return redisRateLimiter.acquireUpTo(rules, permits);
+        }
+        int[] granted = call(() -> redisRateLimiter.acquireUpTo(rules, permits));
+        if (granted != null) {
+            return granted;
+        }
+        granted = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            granted[i] = fallbackAcquireUpTo(rules.get(i), permits[i]);
+        }
+        return granted;
+    }
+
+    /**
+     * 退还未使用的额度
+     * @param rule 频次限制规则
+     * @param permits 退还数量
+     */
+    public void release(RateLimitRule rule, int permits) {
+        if (!guardConfig.isEnabled()) {
+            redisRateLimiter.release(rule, permits);
+            return;
+        }
+        if (call(() -> {
+            redisRateLimiter.release(rule, permits);
+            return Boolean.TRUE;
+        }) == null) {
+            localRateLimiter.release(rule, permits, clock.millis());
+        }
+    }
+
+    /**
+     * 批量退还未使用的额度，一次管道往返完成
+     * @param rules 频次限制规则
+     * @param permits 与规则一一对应的退还数量
+     */
+    public void release(List<RateLimitRule> rules, int[] permits) {
+        if (!guardConfig.isEnabled()) {
+            redisRateLimiter.release(rules, permits);
+            return;
+        }
+        if (call(() -> {
+            redisRateLimiter.release(rules, permits);
+            return Boolean.TRUE;
+        }) == null) {
+            long now = clock.millis();
+            for (int i = 0; i < rules.size(); i++) {
+                localRateLimiter.release(rules.get(i), permits[i], now);
+            }
+        }
+    }
+
+    /**
+     * 估算计数对象下一次有可用额度的时间，降级时按本地窗口结束时间估算
+     * @param rule 频次限制规则
+     * @return 毫秒时间戳
+     */
+    public long nextAvailableAt(RateLimitRule rule) {
+        if (!guardConfig.isEnabled()) {
+            return redisRateLimiter.nextAvailableAt(rule);
+        }
+        Long nextAvailableAt = call(() -> redisRateLimiter.nextAvailableAt(rule));
+        return nextAvailableAt != null ? nextAvailableAt : localRateLimiter.nextAvailableAt(rule, clock.millis());
+    }
+
+    /**
+     * 是否处于降级状态
+     * @return true 表示熔断器未关闭，部分或全部判定在本地完成
+     */
+    public boolean isDegraded() {
+        return guardConfig.isEnabled() && circuitBreaker.getState() != CircuitBreaker.State.CLOSED;
+    }
+
+    public boolean isEnabled() {
+        return guardConfig.isEnabled();
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    public double getFailureRate() {
+        return circuitBreaker.getFailureRate();
+    }
+
+    /**
+     * 本地限流使用的集群节点数
+     * @return 节点数，至少为1
+     */
+    public int nodeCount() {
+        if (guardConfig.getNodeCount() > 0) {
+            return guardConfig.getNodeCount();
+        }
+        if (discoveryClient == null) {
+            return 1;
+        }
+        long now = clock.millis();
+        if (now - nodeCountRefreshedAt >= NODE_COUNT_REFRESH_MILLIS) {
+            nodeCountRefreshedAt = now;
+            try {
+                cachedNodeCount = Math.max(1, discoveryClient.getInstances(applicationName).size());
+            } catch (Exception e) {
+                log.warn("从注册中心获取节点数失败，沿用{}，原因：{}", cachedNodeCount, e.getMessage());
+            }
+        }
+        return cachedNodeCount;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 在耗时上限内执行 Redis 调用
+     * @return 调用结果，熔断中、超时或失败时返回null
+     */
+    private <T> T call(Callable<T> action) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            meterRegistry.counter("message.center.rate_limit.guard", "result", "not_permitted").increment();
+            return null;
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(action);
+        } catch (RejectedExecutionException e) {
+            onFailure("rejected", e);
+            return null;
+        }
+        try {
+            T result = future.get(guardConfig.getLatencyBudgetMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            meterRegistry.counter("message.center.rate_limit.guard", "result", "success").increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            onFailure("timeout", e);
+        } catch (ExecutionException e) {
+            onFailure("error", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            onFailure("error", e);
+        }
+        return null;
+    }
+
+    private void onFailure(String result, Throwable cause) {
+        circuitBreaker.onFailure();
+        meterRegistry.counter("message.center.rate_limit.guard", "result", result).increment();
+        log.debug("频次限制 Redis 调用失败，结果：{}，原因：{}", result, cause != null ? cause.getMessage() : null);
+    }
+
+    private RateLimitResult fallbackTryAcquire(List<RateLimitRule> rules, int permits) {
+        // 拒绝的渠道直接判为超限，放行的渠道不计数，其余规则在本地整体判定
+        List<Integer> localIndexes = new ArrayList<>(rules.size());
+        List<RateLimitRule> localRules = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            RateLimitFailMode failMode = failModeOf(rule);
+            if (failMode == RateLimitFailMode.CLOSED) {
+                return RateLimitResult.reject(i, rule.getLimit());
+            }
+            if (failMode == RateLimitFailMode.LOCAL) {
+                localIndexes.add(i);
+                localRules.add(rule);
+            }
+        }
+        if (localRules.isEmpty()) {
+            return RateLimitResult.allow();
+        }
+        RateLimitResult result = localRateLimiter.tryAcquire(localRules, permits, nodeCount(), clock.millis());
+        if (!result.isAllowed()) {
+            return RateLimitResult.reject(localIndexes.get(result.getRejectedIndex()), result.getCurrentCount());
+        }
+        return result;
+    }
+
+    private int fallbackAcquireUpTo(RateLimitRule rule, int permits) {
+        return switch (failModeOf(rule)) {
+            case OPEN -> permits;
+            case CLOSED -> 0;
+            case LOCAL -> localRateLimiter.acquireUpTo(rule, permits, nodeCount(), clock.millis());
+        };
+    }
+
+    /**
+     * 按规则所属渠道获取降级方式，并记录降级判定次数
+     */
+    private RateLimitFailMode failModeOf(RateLimitRule rule) {
+        ChannelType channelType = RateLimitKeys.channelOf(rule.getKey());
+        RateLimitFailMode failMode = guardConfig.failModeOf(channelType);
+        meterRegistry.counter("message.center.rate_limit.fallback",
+                "channel", channelType != null ? channelType.name() : "UNKNOWN", "mode", failMode.name()).increment();
+        return failMode;
+    }
+}
@@ -0,0 +1,451 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import com.message.center.infrastructure.config.RateLimitLeaseConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地租约频次限制器
+ * 位于 GuardedRateLimiter 之前：每个节点按块（窗口限制 × leaseRatio）从 Redis 租借额度，
+ * 放入本地令牌桶后以 CAS 扣减，桶空或租约到期时再去 Redis 续租，Redis 调用次数约降为原来的 1/块大小
+ * - 同一计数对象同一时刻只有一个线程续租，其余线程本次直接访问 Redis 判定，不阻塞等待
+ * - 租约到期后未用完的额度退还 Redis；固定窗口和滑动窗口计数的租约不跨越窗口边界，窗口已切换时不再退还
+ * - 窗口限制小于 minLimit 的规则不租借，直接访问 Redis
+ * 误差上界：
+ * - 少放：其他节点持有未用完的额度，全局最多少放 节点数 × 块大小
+ * - 多放：滑动算法在租借时即计入窗口，额度在之后的租约有效期内才被使用，任一窗口内每个节点最多多放一块；固定窗口不会多放
+ */
+@Component
+public class LeasedRateLimiter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedRateLimiter.class);
+
+    @Autowired
+    private GuardedRateLimiter guardedRateLimiter;
+
+    @Autowired
+    private RateLimitLeaseConfig leaseConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** 时钟 */
+    private Clock clock = Clock.systemDefaultZone();
+
+    /** 计数 Key 前缀与租约槽位的映射 */
+    private final Map<String, LeaseSlot> slots = new ConcurrentHashMap<>();
+
+    private Counter localCounter;
+
+    private Counter refillCounter;
+
+    private Counter directCounter;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void init() {
+        localCounter = meterRegistry.counter("message.center.rate_limit.lease", "result", "local");
+        refillCounter = meterRegistry.counter("message.center.rate_limit.lease", "result", "refill");
+        directCounter = meterRegistry.counter("message.center.rate_limit.lease", "result", "direct");
+        if (!leaseConfig.isEnabled()) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-center-rate-limit-lease-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = leaseConfig.getSweepIntervalMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 同时检查多条规则，全部满足时各计数 permits，否则都不计数
+     * @param rules 频次限制规则，Key 需位于同一哈希槽
+     * @param permits 申请数量
+     * @return 判定结果
+     */
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+        if (!leaseConfig.isEnabled() || rules.isEmpty() || permits <= 0) {
+            return guardedRateLimiter.tryAcquire(rules, permits);
+        }
+        Instant now = clock.instant();
+        List<Lease> taken = new ArrayList<>(rules.size());
+        List<Integer> directIndexes = new ArrayList<>(0);
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            if (rule.getLimit() < leaseConfig.getMinLimit()) {
+                directIndexes.add(i);
+                continue;
+            }
+            LocalResult localResult = acquireLocal(rule, permits, now, taken);
+            if (localResult == LocalResult.EXHAUSTED) {
+                giveBack(taken, permits);
+                return RateLimitResult.reject(i, rule.getLimit());
+            }
+            if (localResult == LocalResult.DIRECT) {
+                directIndexes.add(i);
+            }
+        }
+        if (directIndexes.isEmpty()) {
+            return RateLimitResult.allow();
+        }
+
+        // 不租借或正在续租的规则由 Redis 判定
+        directCounter.increment(directIndexes.size());
+        List<RateLimitRule> directRules = new ArrayList<>(directIndexes.size());
+        directIndexes.forEach(index -> directRules.add(rules.get(index)));
+        RateLimitResult result;
+        try {
+            result = guardedRateLimiter.tryAcquire(directRules, permits);
+        } catch (RuntimeException e) {
+            giveBack(taken, permits);
+            throw e;
+        }
+        if (!result.isAllowed()) {
+            giveBack(taken, permits);
+            return RateLimitResult.reject(directIndexes.get(result.getRejectedIndex()), result.getCurrentCount());
+        }
+        return RateLimitResult.allow();
+    }
+
+    /**
+     * 逐条判定多条规则，各规则互不影响，未超限的规则各计数 permits
+     * @param rules 频次限制规则，Key 需位于同一哈希槽
+     * @param permits 申请数量
+     * @return 与规则一一对应的判定结果
+     */
+    public List<RateLimitResult> tryAcquireEach(List<RateLimitRule> rules, int permits) {
+        List<List<RateLimitRule>> groups = new ArrayList<>(rules.size());
+        rules.forEach(rule -> groups.add(List.of(rule)));
+        List<RateLimitResult> results = tryAcquireGroups(groups, permits);
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isAllowed()) {
+                results.set(i, RateLimitResult.reject(i, results.get(i).getCurrentCount()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 逐组判定多组规则，组内全部满足时各计数 permits，否则整组都不计数，各组互不影响
+     * 先按全部满足判定一次，有规则被拒绝时去掉所在的组后对剩余的组重新判定，没有规则超限时只需一次判定
+     * @param groups 频次限制规则分组，如每个渠道的各层规则
+     * @param permits 申请数量
+     * @return 与分组一一对应的判定结果，被拒绝时 rejectedIndex 为组内被拒绝规则的序号
+     */
+    public List<RateLimitResult> tryAcquireGroups(List<List<RateLimitRule>> groups, int permits) {
+        RateLimitResult[] results = new RateLimitResult[groups.size()];
+        List<Integer> pending = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            pending.add(i);
+        }
+        while (!pending.isEmpty()) {
+            List<RateLimitRule> batch = new ArrayList<>();
+            for (int index : pending) {
+                batch.addAll(groups.get(index));
+            }
+            RateLimitResult result = tryAcquire(batch, permits);
+            if (result.isAllowed()) {
+                pending.forEach(index -> results[index] = RateLimitResult.allow());
+                break;
+            }
+            // 将被拒绝规则在本次判定中的序号换算为所在的组和组内序号
+            int offset = result.getRejectedIndex();
+            for (int i = 0; i < pending.size(); i++) {
+                int group = pending.get(i);
+                if (offset < groups.get(group).size()) {
+                    results[group] = RateLimitResult.reject(offset, result.getCurrentCount());
+                    pending.remove(i);
+                    break;
+                }
+                offset -= groups.get(group).size();
+            }
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * 按剩余额度申请，最多获得 permits 个
+     * 批量申请本身已按组合并计数，直接访问 Redis
+     * @param rule 频次限制规则
+     * @param permits 申请数量
+     * @return 实际获得的数量（0 ~ permits）
+     */
+    public int acquireUpTo(RateLimitRule rule, int permits) {
+        return guardedRateLimiter.acquireUpTo(rule, permits);
+    }
+
+    /**
+     * 退还未使用的额度
+     * @param rule 频次限制规则
+     * @param permits 退还数量
+     */
+    public void release(RateLimitRule rule, int permits) {
+        guardedRateLimiter.release(rule, permits);
+    }
+
+    /**
+     * 批量按剩余额度申请，一次管道往返完成，直接访问 Redis
+     * @param rules 频次限制规则
+     * @param permits 与规则一一对应的申请数量
+     * @return 与规则一一对应的实际获得数量
+     */
+    public int[] acquireUpTo(List<RateLimitRule> rules, int[] permits) {
+        return guardedRateLimiter.acquireUpTo(rules, permits);
+    }
+
+    /**
+     * 批量退还未使用的额度，一次管道往返完成
+     * @param rules 频次限制规则
+     * @param permits 与规则一一对应的退还数量
+     */
+    public void release(List<RateLimitRule> rules, int[] permits) {
+        guardedRateLimiter.release(rules, permits);
+    }
+
+    /**
+     * 估算计数对象下一次有可用额度的时间
+     * @param rule 频次限制规则
+     * @return 毫秒时间戳
+     */
+    public long nextAvailableAt(RateLimitRule rule) {
+        return guardedRateLimiter.nextAvailableAt(rule);
+    }
+
+    /**
+     * 清理过期租约，未用完的额度退还 Redis
+     */
+    void sweep() {
+        Instant now = clock.instant();
+        for (Map.Entry<String, LeaseSlot> entry : slots.entrySet()) {
+            LeaseSlot slot = entry.getValue();
+            Lease lease = slot.current;
+            if (lease != null && !lease.isExpired(now.toEpochMilli())) {
+                continue;
+            }
+            if (!slot.refilling.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                retire(slot.current, now);
+                slot.current = null;
+                // 极少数情况下其他线程仍持有被移除的槽位并在其中续租，该租约的剩余额度只会少放，不会多放
+                slots.remove(entry.getKey(), slot);
+            } finally {
+                slot.refilling.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        Instant now = clock.instant();
+        slots.values().forEach(slot -> retire(slot.current, now));
+        slots.clear();
+    }
+
+    /**
+     * 从本地租约扣减额度，租约不可用时续租
+     */
+    private LocalResult acquireLocal(RateLimitRule rule, int permits, Instant now, List<Lease> taken) {
+        LeaseSlot slot = slots.computeIfAbsent(rule.getKey(), key -> new LeaseSlot());
+        Lease current = slot.current;
+        if (tryTake(current, rule, permits, now)) {
+            taken.add(current);
+            return LocalResult.TAKEN;
+        }
+        if (!slot.refilling.compareAndSet(false, true)) {
+            return LocalResult.DIRECT;
+        }
+        try {
+            // 获得续租权后再检查一次，其他线程可能刚完成续租
+            Lease lease = slot.current;
+            if (tryTake(lease, rule, permits, now)) {
+                taken.add(lease);
+                return LocalResult.TAKEN;
+            }
+            retire(lease, now);
+            int granted = guardedRateLimiter.acquireUpTo(rule, blockSize(rule, permits));
+            refillCounter.increment();
+            Lease fresh = new Lease(rule, granted, expiresAt(rule, now), windowIndex(rule, now));
+            slot.current = fresh;
+            if (fresh.take(permits)) {
+                taken.add(fresh);
+                localCounter.increment();
+                return LocalResult.TAKEN;
+            }
+            return LocalResult.EXHAUSTED;
+        } finally {
+            slot.refilling.set(false);
+        }
+    }
+
+    private boolean tryTake(Lease lease, RateLimitRule rule, int permits, Instant now) {
+        if (lease == null || !lease.rule.equals(rule) || lease.isExpired(now.toEpochMilli()) || !lease.take(permits)) {
+            return false;
+        }
+        localCounter.increment();
+        return true;
+    }
+
+    /**
+     * 作废租约，剩余额度仍属于当前窗口时退还 Redis
+     */
+    private void retire(Lease lease, Instant now) {
+        if (lease == null) {
+            return;
+        }
+        long remaining = lease.tokens.getAndSet(0);
+        if (remaining <= 0) {
+            return;
+        }
+        RateLimitAlgorithm algorithm = algorithmOf(lease.rule);
+        if (algorithm != RateLimitAlgorithm.SLIDING_LOG && windowIndex(lease.rule, now) != lease.windowIndex) {
+            return;
+        }
+        try {
+            guardedRateLimiter.release(lease.rule, (int) remaining);
+        } catch (Exception e) {
+            // 退还失败只会少放，等待窗口自然过期
+            log.warn("退还租约额度失败，Key：{}，数量：{}，原因：{}", lease.rule.getKey(), remaining, e.getMessage());
+        }
+    }
+
+    private static void giveBack(List<Lease> taken, int permits) {
+        taken.forEach(lease -> lease.tokens.addAndGet(permits));
+    }
+
+    /**
+     * 每次租借的额度，向上取整且不少于本次申请数量
+     */
+    private int blockSize(RateLimitRule rule, int permits) {
+        long block = (long) Math.ceil(rule.getLimit() * leaseConfig.getLeaseRatio());
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(block, permits));
+    }
+
+    /**
+     * 租约到期时间：租约有效期与窗口结束时间取较早者，滑动日志没有窗口边界
+     */
+    private long expiresAt(RateLimitRule rule, Instant now) {
+        long windowMillis = rule.getWindowSeconds() * 1000;
+        long ttl = Math.max(1L, Math.min((long) (windowMillis * leaseConfig.getLeaseRatio()),
+                leaseConfig.getMaxLeaseMillis()));
+        long expiresAt = now.toEpochMilli() + ttl;
+        if (algorithmOf(rule) == RateLimitAlgorithm.SLIDING_LOG) {
+            return expiresAt;
+        }
+        long offset = timelineMillis(rule, now) - now.toEpochMilli();
+        long windowEnd = (windowIndex(rule, now) + 1) * windowMillis - offset;
+        return Math.min(expiresAt, windowEnd);
+    }
+
+    /**
+     * 当前窗口序号，与对应算法生成窗口 Key 的方式一致
+     */
+    private long windowIndex(RateLimitRule rule, Instant now) {
+        return Math.floorDiv(timelineMillis(rule, now), rule.getWindowSeconds() * 1000);
+    }
+
+    /**
+     * 算法划分窗口所用的时间轴：固定窗口按本地时区对齐，其余按 UTC
+     */
+    private long timelineMillis(RateLimitRule rule, Instant now) {
+        if (algorithmOf(rule) == RateLimitAlgorithm.FIXED_WINDOW) {
+            return now.toEpochMilli() + clock.getZone().getRules().getOffset(now).getTotalSeconds() * 1000L;
+        }
+        return now.toEpochMilli();
+    }
+
+    private static RateLimitAlgorithm algorithmOf(RateLimitRule rule) {
+        return rule.getAlgorithm() != null ? rule.getAlgorithm() : RateLimitAlgorithm.FIXED_WINDOW;
+    }
+
+    /**
+     * 本地扣减结果
+     */
+    private enum LocalResult {
+        /** 已从本地租约扣减 */
+        TAKEN,
+        /** Redis 中的额度已用完 */
+        EXHAUSTED,
+        /** 其他线程正在续租，本次直接访问 Redis */
+        DIRECT
+    }
+
+    /**
+     * 租约槽位，同一计数 Key 共用
+     */
+    private static class LeaseSlot {
+
+        /** 当前租约 */
+        private volatile Lease current;
+
+        /** 是否有线程正在续租 */
+        private final AtomicBoolean refilling = new AtomicBoolean();
+    }
+
+    /**
+     * 一次从 Redis 租借的额度
+     */
+    private static class Lease {
+
+        private final RateLimitRule rule;
+
+        /** 剩余令牌 */
+        private final AtomicLong tokens;
+
+        /** 到期时间（毫秒时间戳） */
+        private final long expiresAt;
+
+        /** 租借时的窗口序号 */
+        private final long windowIndex;
+
+        Lease(RateLimitRule rule, long tokens, long expiresAt, long windowIndex) {
+            this.rule = rule;
+            this.tokens = new AtomicLong(tokens);
+            this.expiresAt = expiresAt;
+            this.windowIndex = windowIndex;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAt;
+        }
+
+        boolean take(int permits) {
+            while (true) {
+                long current = tokens.get();
+                if (current < permits) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - permits)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
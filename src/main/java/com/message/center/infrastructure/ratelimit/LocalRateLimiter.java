@@ -0,0 +1,153 @@
+package com.message.center.infrastructure.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内近似频次限制器
+ * Redis 不可用时的降级实现：每个节点按 窗口限制/节点数 在本地固定窗口中计数，不与其他节点协调
+ * - 所有算法都按固定窗口近似，窗口按 UTC 时间划分
+ * - 节点负载不均衡时全局可能少放；节点数变化后新窗口才按新的份额计算
+ */
+public class LocalRateLimiter {
+
+    /** 计数对象上限，超过后清理已过期的窗口 */
+    private static final int MAX_WINDOWS = 100_000;
+
+    /** 计数 Key 前缀 -> 当前窗口 */
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 同时检查多条规则，全部满足时各计数 permits，否则都不计数
+     * @param rules 频次限制规则
+     * @param permits 申请数量
+     * @param nodeCount 集群节点数
+     * @param nowMillis 当前时间
+     * @return 判定结果
+     */
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits, int nodeCount, long nowMillis) {
+        List<Window> taken = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            Window window = window(rule, nodeCount, nowMillis);
+            if (!window.take(permits)) {
+                taken.forEach(w -> w.give(permits));
+                return RateLimitResult.reject(i, rule.getLimit());
+            }
+            taken.add(window);
+        }
+        return RateLimitResult.allow();
+    }
+
+    /**
+     * 按剩余额度申请，最多获得 permits 个
+     * @param rule 频次限制规则
+     * @param permits 申请数量
+     * @param nodeCount 集群节点数
+     * @param nowMillis 当前时间
+     * @return 实际获得的数量（0 ~ permits）
+     */
+    public int acquireUpTo(RateLimitRule rule, int permits, int nodeCount, long nowMillis) {
+        return window(rule, nodeCount, nowMillis).takeUpTo(permits);
+    }
+
+    /**
+     * 退还额度，只退还到本地当前窗口，计数不低于0
+     * @param rule 频次限制规则
+     * @param permits 退还数量
+     * @param nowMillis 当前时间
+     */
+    public void release(RateLimitRule rule, int permits, long nowMillis) {
+        Window window = windows.get(rule.getKey());
+        if (window != null && window.index == windowIndex(rule, nowMillis)) {
+            window.give(permits);
+        }
+    }
+
+    /**
+     * 估算下一次有可用额度的时间，本地窗口结束时一定恢复
+     * @param rule 频次限制规则
+     * @param nowMillis 当前时间
+     * @return 毫秒时间戳
+     */
+    public long nextAvailableAt(RateLimitRule rule, long nowMillis) {
+        return (windowIndex(rule, nowMillis) + 1) * windowMillis(rule);
+    }
+
+    /**
+     * 本地计数对象数量
+     */
+    int size() {
+        return windows.size();
+    }
+
+    private Window window(RateLimitRule rule, int nodeCount, long nowMillis) {
+        long index = windowIndex(rule, nowMillis);
+        Window window = windows.get(rule.getKey());
+        if (window != null && window.index == index) {
+            return window;
+        }
+        if (window == null && windows.size() >= MAX_WINDOWS) {
+            windows.values().removeIf(w -> w.index < index);
+        }
+        long share = (rule.getLimit() + Math.max(nodeCount, 1) - 1) / Math.max(nodeCount, 1);
+        Window fresh = new Window(index, share);
+        // 多个线程同时切换窗口时只保留一个
+        return windows.compute(rule.getKey(), (key, current) ->
+                current != null && current.index >= index ? current : fresh);
+    }
+
+    private static long windowIndex(RateLimitRule rule, long nowMillis) {
+        return Math.floorDiv(nowMillis, windowMillis(rule));
+    }
+
+    private static long windowMillis(RateLimitRule rule) {
+        return Math.max(1L, rule.getWindowSeconds() * 1000);
+    }
+
+    /**
+     * 本节点某个计数对象在一个窗口内的剩余额度
+     */
+    private static class Window {
+
+        private final long index;
+
+        private final long limit;
+
+        private final AtomicLong used = new AtomicLong();
+
+        Window(long index, long limit) {
+            this.index = index;
+            this.limit = limit;
+        }
+
+        boolean take(int permits) {
+            while (true) {
+                long current = used.get();
+                if (current + permits > limit) {
+                    return false;
+                }
+                if (used.compareAndSet(current, current + permits)) {
+                    return true;
+                }
+            }
+        }
+
+        int takeUpTo(int permits) {
+            while (true) {
+                long current = used.get();
+                int granted = (int) Math.max(0, Math.min(permits, limit - current));
+                if (granted == 0 || used.compareAndSet(current, current + granted)) {
+                    return granted;
+                }
+            }
+        }
+
+        void give(int permits) {
+            used.accumulateAndGet(permits, (current, released) -> Math.max(0, current - released));
+        }
+    }
+}
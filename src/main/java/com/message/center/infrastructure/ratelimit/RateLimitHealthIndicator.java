@@ -0,0 +1,34 @@
+package com.message.center.infrastructure.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * 频次限制健康检查
+ * 熔断器未关闭时返回 DEGRADED：消息仍可发送，但频次限制在本地近似判定或按渠道直接放行、拒绝
+ */
+@Component
+public class RateLimitHealthIndicator implements HealthIndicator {
+
+    /** 降级状态，需在 management.endpoint.health.status.order 中排在 UP 之前 */
+    public static final Status DEGRADED = new Status("DEGRADED", "Redis不可用，频次限制已降级");
+
+    @Autowired
+    private GuardedRateLimiter guardedRateLimiter;
+
+    @Override
+    public Health health() {
+        if (!guardedRateLimiter.isEnabled()) {
+            return Health.up().withDetail("guard", "disabled").build();
+        }
+        Health.Builder builder = guardedRateLimiter.isDegraded() ? Health.status(DEGRADED) : Health.up();
+        return builder
+                .withDetail("circuit", guardedRateLimiter.getState().name())
+                .withDetail("failureRate", guardedRateLimiter.getFailureRate())
+                .withDetail("nodeCount", guardedRateLimiter.nodeCount())
+                .build();
+    }
+}
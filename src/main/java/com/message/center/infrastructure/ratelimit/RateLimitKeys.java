@@ -0,0 +1,256 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.ChannelType;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 频次限制 Key 生成器
+ * 每条消息的每个渠道都要生成 Key，高并发下 String.format 的格式解析和窗口序号转字符串是主要的临时对象来源：
+ * - Key 前缀按（租户, 门店, 渠道）以及全局、租户、机器人各层缓存，同一前缀始终返回同一个字符串对象
+ * - 窗口 Key 按前缀缓存最近一个窗口序号的结果，窗口序号只在窗口边界变化，同一窗口内不再拼接字符串
+ * - 缓存条目数超过上限后不再缓存新条目，直接拼接，避免租户数量异常时无限增长
+ */
+public final class RateLimitKeys {
+
+    /** 缓存条目上限 */
+    static final int MAX_CACHED_ENTRIES = 100_000;
+
+    /** 无门店时的门店标识 */
+    private static final String NO_STORE = "null";
+
+    private static final ChannelType[] CHANNEL_TYPES = ChannelType.values();
+
+    /** 租户ID -> 该租户下的 Key 前缀 */
+    private static final ConcurrentHashMap<Long, TenantPrefixes> PREFIXES = new ConcurrentHashMap<>();
+
+    /** 全局层 Key 前缀，按渠道序号存放 */
+    private static final String[] GLOBAL_PREFIXES = new String[ChannelType.values().length];
+
+    /** webhook 标识 -> 机器人层 Key 前缀 */
+    private static final ConcurrentHashMap<String, String[]> WEBHOOK_PREFIXES = new ConcurrentHashMap<>();
+
+    /** Key 前缀 -> 最近一个窗口的 Key */
+    private static final ConcurrentHashMap<String, WindowKeys> WINDOW_KEYS = new ConcurrentHashMap<>();
+
+    /** Key 前缀 -> 滑动日志 Key */
+    private static final ConcurrentHashMap<String, String> LOG_KEYS = new ConcurrentHashMap<>();
+
+    private RateLimitKeys() {
+    }
+
+    /**
+     * 获取频次限制 Key 前缀：rate_limit:{tenantId:storeId}:{channelType}
+     * 大括号为哈希标签，保证同一租户门店的 Key 位于同一哈希槽
+     * @param tenantId 租户ID
+     * @param storeId 门店ID，可为空
+     * @param channelType 渠道类型
+     * @return Key 前缀
+     */
+    public static String prefix(Long tenantId, Long storeId, ChannelType channelType) {
+        if (tenantId == null) {
+            return buildPrefix(null, storeId, channelType);
+        }
+        TenantPrefixes tenant = PREFIXES.get(tenantId);
+        if (tenant == null) {
+            if (PREFIXES.size() >= MAX_CACHED_ENTRIES) {
+                return buildPrefix(tenantId, storeId, channelType);
+            }
+            tenant = PREFIXES.computeIfAbsent(tenantId, id -> new TenantPrefixes());
+        }
+        String[] prefixes = storeId == null ? tenant.noStore : tenant.stores.get(storeId);
+        if (prefixes == null) {
+            if (storeId != null && tenant.stores.size() >= MAX_CACHED_ENTRIES) {
+                return buildPrefix(tenantId, storeId, channelType);
+            }
+            prefixes = tenant.prefixes(storeId);
+        }
+        String prefix = prefixes[channelType.ordinal()];
+        if (prefix == null) {
+            // 多线程同时写入时结果相同，重复计算无害
+            prefix = buildPrefix(tenantId, storeId, channelType);
+            prefixes[channelType.ordinal()] = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取全局层 Key 前缀：rate_limit:{global}:{channelType}
+     * @param channelType 渠道类型
+     * @return Key 前缀
+     */
+    public static String globalPrefix(ChannelType channelType) {
+        String prefix = GLOBAL_PREFIXES[channelType.ordinal()];
+        if (prefix == null) {
+            prefix = "rate_limit:{global}:" + channelType.name();
+            GLOBAL_PREFIXES[channelType.ordinal()] = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取租户层 Key 前缀：rate_limit:{tenantId}:{channelType}
+     * @param tenantId 租户ID
+     * @param channelType 渠道类型
+     * @return Key 前缀
+     */
+    public static String tenantPrefix(Long tenantId, ChannelType channelType) {
+        if (tenantId == null) {
+            return "rate_limit:{null}:" + channelType.name();
+        }
+        TenantPrefixes tenant = PREFIXES.get(tenantId);
+        if (tenant == null) {
+            if (PREFIXES.size() >= MAX_CACHED_ENTRIES) {
+                return "rate_limit:{" + tenantId + "}:" + channelType.name();
+            }
+            tenant = PREFIXES.computeIfAbsent(tenantId, id -> new TenantPrefixes());
+        }
+        String prefix = tenant.tenantLevel[channelType.ordinal()];
+        if (prefix == null) {
+            prefix = "rate_limit:{" + tenantId + "}:" + channelType.name();
+            tenant.tenantLevel[channelType.ordinal()] = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取机器人层 Key 前缀：rate_limit:{webhook:webhookId}:{channelType}
+     * @param webhookId webhook 标识
+     * @param channelType 渠道类型
+     * @return Key 前缀
+     */
+    public static String webhookPrefix(String webhookId, ChannelType channelType) {
+        String[] prefixes = WEBHOOK_PREFIXES.get(webhookId);
+        if (prefixes == null) {
+            if (WEBHOOK_PREFIXES.size() >= MAX_CACHED_ENTRIES) {
+                return "rate_limit:{webhook:" + webhookId + "}:" + channelType.name();
+            }
+            prefixes = WEBHOOK_PREFIXES.computeIfAbsent(webhookId, id -> new String[ChannelType.values().length]);
+        }
+        String prefix = prefixes[channelType.ordinal()];
+        if (prefix == null) {
+            prefix = "rate_limit:{webhook:" + webhookId + "}:" + channelType.name();
+            prefixes[channelType.ordinal()] = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取窗口计数 Key：{前缀}:{窗口序号}
+     * @param prefix Key 前缀
+     * @param windowIndex 窗口序号
+     * @return 窗口 Key
+     */
+    public static String windowKey(String prefix, long windowIndex) {
+        return windowKeys(prefix, windowIndex).current;
+    }
+
+    /**
+     * 获取上一个窗口的计数 Key：{前缀}:{窗口序号 - 1}
+     * @param prefix Key 前缀
+     * @param windowIndex 当前窗口序号
+     * @return 上一个窗口的 Key
+     */
+    public static String previousWindowKey(String prefix, long windowIndex) {
+        return windowKeys(prefix, windowIndex).previous;
+    }
+
+    /**
+     * 获取滑动日志 Key：{前缀}:log
+     * @param prefix Key 前缀
+     * @return 日志 Key
+     */
+    public static String logKey(String prefix) {
+        String key = LOG_KEYS.get(prefix);
+        if (key != null) {
+            return key;
+        }
+        if (LOG_KEYS.size() >= MAX_CACHED_ENTRIES) {
+            return prefix + ":log";
+        }
+        return LOG_KEYS.computeIfAbsent(prefix, p -> p + ":log");
+    }
+
+    /**
+     * 从 Key 前缀中解析渠道类型，各层前缀都以 :{channelType} 结尾
+     * @param prefix Key 前缀
+     * @return 渠道类型，无法识别时返回null
+     */
+    public static ChannelType channelOf(String prefix) {
+        int index = prefix.lastIndexOf(':');
+        if (index < 0) {
+            return null;
+        }
+        String name = prefix.substring(index + 1);
+        for (ChannelType channelType : CHANNEL_TYPES) {
+            if (channelType.name().equals(name)) {
+                return channelType;
+            }
+        }
+        return null;
+    }
+
+    private static WindowKeys windowKeys(String prefix, long windowIndex) {
+        WindowKeys cached = WINDOW_KEYS.get(prefix);
+        if (cached != null && cached.index == windowIndex) {
+            return cached;
+        }
+        WindowKeys keys = new WindowKeys(prefix, windowIndex, cached);
+        if (cached != null || WINDOW_KEYS.size() < MAX_CACHED_ENTRIES) {
+            WINDOW_KEYS.put(prefix, keys);
+        }
+        return keys;
+    }
+
+    private static String buildPrefix(Long tenantId, Long storeId, ChannelType channelType) {
+        StringBuilder builder = new StringBuilder(48).append("rate_limit:{").append(tenantId).append(':');
+        if (storeId != null) {
+            builder.append(storeId.longValue());
+        } else {
+            builder.append(NO_STORE);
+        }
+        return builder.append("}:").append(channelType.name()).toString();
+    }
+
+    private static String concat(String prefix, long windowIndex) {
+        return new StringBuilder(prefix.length() + 21).append(prefix).append(':').append(windowIndex).toString();
+    }
+
+    /**
+     * 某个租户下各门店、各渠道的 Key 前缀，按渠道序号存放
+     */
+    private static final class TenantPrefixes {
+
+        private final String[] tenantLevel = new String[ChannelType.values().length];
+
+        private final String[] noStore = new String[ChannelType.values().length];
+
+        private final ConcurrentHashMap<Long, String[]> stores = new ConcurrentHashMap<>();
+
+        String[] prefixes(Long storeId) {
+            if (storeId == null) {
+                return noStore;
+            }
+            return stores.computeIfAbsent(storeId, id -> new String[ChannelType.values().length]);
+        }
+    }
+
+    /**
+     * 某个前缀最近一个窗口的 Key 和上一个窗口的 Key，不可变，整体替换保证读到的两个 Key 一致
+     */
+    private static final class WindowKeys {
+
+        private final long index;
+
+        private final String current;
+
+        private final String previous;
+
+        WindowKeys(String prefix, long index, WindowKeys last) {
+            this.index = index;
+            this.current = concat(prefix, index);
+            // 窗口前进一格时，上一个窗口的 Key 就是原来的当前 Key
+            this.previous = last != null && last.index == index - 1 ? last.current : concat(prefix, index - 1);
+        }
+    }
+}
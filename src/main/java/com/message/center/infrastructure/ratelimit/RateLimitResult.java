@@ -0,0 +1,39 @@
+package com.message.center.infrastructure.ratelimit;
+
+import lombok.Data;
+
+/**
+ * 频次限制判定结果
+ */
+@Data
+public class RateLimitResult {
+
+    /**
+     * 是否放行
+     */
+    private boolean allowed;
+
+    /**
+     * 被拒绝的规则下标（从0开始），放行时为-1
+     */
+    private int rejectedIndex = -1;
+
+    /**
+     * 被拒绝规则在当前窗口内的已用数量
+     */
+    private long currentCount;
+
+    public static RateLimitResult allow() {
+        RateLimitResult result = new RateLimitResult();
+        result.setAllowed(true);
+        return result;
+    }
+
+    public static RateLimitResult reject(int rejectedIndex, long currentCount) {
+        RateLimitResult result = new RateLimitResult();
+        result.setAllowed(false);
+        result.setRejectedIndex(rejectedIndex);
+        result.setCurrentCount(currentCount);
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 频次限制规则
+ * 描述一个计数对象在滑动或固定时间窗口内的限制，具体的窗口 Key 由各算法根据当前时间生成
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitRule {
+
+    /**
+     * 计数 Key 前缀，不含时间窗口标识
+     */
+    private String key;
+
+    /**
+     * 窗口内允许的数量
+     */
+    private long limit;
+
+    /**
+     * 时间窗口长度（秒）
+     */
+    private long windowSeconds;
+
+    /**
+     * 频次限制算法
+     */
+    private RateLimitAlgorithm algorithm;
+
+    public RateLimitRule(String key, long limit, long windowSeconds) {
+        this(key, limit, windowSeconds, RateLimitAlgorithm.FIXED_WINDOW);
+    }
+}
@@ -0,0 +1,176 @@
+package com.message.center.infrastructure.ratelimit;
+
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * 频次限制 Lua 脚本
+ * 计数、设置过期时间和比较在 Redis 端一次执行，避免多次往返，也避免计数后进程退出导致 Key 永不过期
+ * 脚本中的 Key 必须落在同一个哈希槽，调用方通过 Key 中的哈希标签保证
+ * 判定类脚本统一返回 {是否放行, 被拒绝的规则序号（从1开始）, 被拒绝规则的已用数量}
+ */
+public final class RateLimitScripts {
+
+    private RateLimitScripts() {
+    }
+
+    /**
+     * 固定窗口，多个 Key 全部满足时才计数
+     * KEYS[i]：计数 Key；ARGV[1]：申请数量；ARGV[2i]、ARGV[2i+1]：第 i 个 Key 的限制数量和过期秒数
+     * 返回 {是否放行, 被拒绝的Key序号（从1开始）, 被拒绝Key的已用数量}
+     */
+    @SuppressWarnings("rawtypes")
+    public static final RedisScript<List> FIXED_WINDOW_ALL = RedisScript.of(
+            "local permits = tonumber(ARGV[1])\n"
+                    + "for i = 1, #KEYS do\n"
+                    + "    local current = tonumber(redis.call('GET', KEYS[i]) or '0')\n"
+                    + "    if current + permits > tonumber(ARGV[2 * i]) then\n"
+                    + "        return {0, i, current}\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "for i = 1, #KEYS do\n"
+                    + "    redis.call('INCRBY', KEYS[i], permits)\n"
+                    + "    if redis.call('TTL', KEYS[i]) < 0 then\n"
+                    + "        redis.call('EXPIRE', KEYS[i], ARGV[2 * i + 1])\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "return {1, 0, 0}\n",
+            List.class);
+
+    /**
+     * 固定窗口，按剩余额度部分放行
+     * KEYS[1]：计数 Key；ARGV[1]：申请数量；ARGV[2]：限制数量；ARGV[3]：过期秒数
+     * 返回实际获得的数量
+     */
+    public static final RedisScript<Long> FIXED_WINDOW_UP_TO = RedisScript.of(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n"
+                    + "local granted = math.min(tonumber(ARGV[1]), math.max(0, tonumber(ARGV[2]) - current))\n"
+                    + "if granted > 0 then\n"
+                    + "    redis.call('INCRBY', KEYS[1], granted)\n"
+                    + "    if redis.call('TTL', KEYS[1]) < 0 then\n"
+                    + "        redis.call('EXPIRE', KEYS[1], ARGV[3])\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "return granted\n",
+            Long.class);
+
+    /**
+     * 退还额度，Key 已过期时不处理，计数不会小于0
+     * KEYS[1]：计数 Key；ARGV[1]：退还数量
+     * 返回实际退还的数量
+     */
+    public static final RedisScript<Long> RELEASE = RedisScript.of(
+            "local current = tonumber(redis.call('GET', KEYS[1]))\n"
+                    + "if not current then\n"
+                    + "    return 0\n"
+                    + "end\n"
+                    + "local released = math.min(current, tonumber(ARGV[1]))\n"
+                    + "if released > 0 then\n"
+                    + "    redis.call('DECRBY', KEYS[1], released)\n"
+                    + "end\n"
+                    + "return released\n",
+            Long.class);
+
+    /**
+     * 滑动日志，每次放行在有序集合中记录一条以时间戳为分值的成员
+     * KEYS[i]：日志 Key；ARGV[1]：申请数量；ARGV[2]：当前时间（毫秒）；ARGV[3]：本次调用的成员前缀；
+     * ARGV[2i+2]、ARGV[2i+3]：第 i 个 Key 的限制数量和窗口长度（毫秒）
+     */
+    @SuppressWarnings("rawtypes")
+    public static final RedisScript<List> SLIDING_LOG_ALL = RedisScript.of(
+            "local permits = tonumber(ARGV[1])\n"
+                    + "local now = tonumber(ARGV[2])\n"
+                    + "for i = 1, #KEYS do\n"
+                    + "    redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - tonumber(ARGV[2 * i + 3]))\n"
+                    + "    local current = redis.call('ZCARD', KEYS[i])\n"
+                    + "    if current + permits > tonumber(ARGV[2 * i + 2]) then\n"
+                    + "        return {0, i, current}\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "for i = 1, #KEYS do\n"
+                    + "    for j = 1, permits do\n"
+                    + "        redis.call('ZADD', KEYS[i], now, ARGV[3] .. ':' .. j)\n"
+                    + "    end\n"
+                    + "    redis.call('PEXPIRE', KEYS[i], ARGV[2 * i + 3])\n"
+                    + "end\n"
+                    + "return {1, 0, 0}\n",
+            List.class);
+
+    /**
+     * 滑动日志，按剩余额度部分放行
+     * KEYS[1]：日志 Key；ARGV[1]：申请数量；ARGV[2]：当前时间（毫秒）；ARGV[3]：成员前缀；ARGV[4]：限制数量；ARGV[5]：窗口长度（毫秒）
+     * 返回实际获得的数量
+     */
+    public static final RedisScript<Long> SLIDING_LOG_UP_TO = RedisScript.of(
+            "local now = tonumber(ARGV[2])\n"
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[5]))\n"
+                    + "local current = redis.call('ZCARD', KEYS[1])\n"
+                    + "local granted = math.min(tonumber(ARGV[1]), math.max(0, tonumber(ARGV[4]) - current))\n"
+                    + "for j = 1, granted do\n"
+                    + "    redis.call('ZADD', KEYS[1], now, ARGV[3] .. ':' .. j)\n"
+                    + "end\n"
+                    + "if granted > 0 then\n"
+                    + "    redis.call('PEXPIRE', KEYS[1], ARGV[5])\n"
+                    + "end\n"
+                    + "return granted\n",
+            Long.class);
+
+    /**
+     * 滑动日志退还额度，移除最近的 N 条记录
+     * KEYS[1]：日志 Key；ARGV[1]：退还数量
+     * 返回实际退还的数量
+     */
+    public static final RedisScript<Long> SLIDING_LOG_RELEASE = RedisScript.of(
+            "local released = math.min(redis.call('ZCARD', KEYS[1]), tonumber(ARGV[1]))\n"
+                    + "if released > 0 then\n"
+                    + "    redis.call('ZREMRANGEBYRANK', KEYS[1], -released, -1)\n"
+                    + "end\n"
+                    + "return released\n",
+            Long.class);
+
+    /**
+     * 滑动窗口计数，按上一个窗口计数的剩余权重加当前窗口计数估算滑动窗口内的数量
+     * KEYS[2i-1]、KEYS[2i]：第 i 条规则当前窗口和上一个窗口的计数 Key；ARGV[1]：申请数量；
+     * ARGV[3i-1]、ARGV[3i]、ARGV[3i+1]：第 i 条规则的限制数量、上一个窗口的权重（0~1）和过期秒数
+     */
+    @SuppressWarnings("rawtypes")
+    public static final RedisScript<List> SLIDING_WINDOW_COUNTER_ALL = RedisScript.of(
+            "local permits = tonumber(ARGV[1])\n"
+                    + "local rules = #KEYS / 2\n"
+                    + "for i = 1, rules do\n"
+                    + "    local current = tonumber(redis.call('GET', KEYS[2 * i - 1]) or '0')\n"
+                    + "    local previous = tonumber(redis.call('GET', KEYS[2 * i]) or '0')\n"
+                    + "    local estimated = math.floor(previous * tonumber(ARGV[3 * i]) + current)\n"
+                    + "    if estimated + permits > tonumber(ARGV[3 * i - 1]) then\n"
+                    + "        return {0, i, estimated}\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "for i = 1, rules do\n"
+                    + "    redis.call('INCRBY', KEYS[2 * i - 1], permits)\n"
+                    + "    if redis.call('TTL', KEYS[2 * i - 1]) < 0 then\n"
+                    + "        redis.call('EXPIRE', KEYS[2 * i - 1], ARGV[3 * i + 1])\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "return {1, 0, 0}\n",
+            List.class);
+
+    /**
+     * 滑动窗口计数，按剩余额度部分放行
+     * KEYS[1]、KEYS[2]：当前窗口和上一个窗口的计数 Key；ARGV[1]：申请数量；ARGV[2]：限制数量；ARGV[3]：上一个窗口的权重；ARGV[4]：过期秒数
+     * 返回实际获得的数量
+     */
+    public static final RedisScript<Long> SLIDING_WINDOW_COUNTER_UP_TO = RedisScript.of(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n"
+                    + "local previous = tonumber(redis.call('GET', KEYS[2]) or '0')\n"
+                    + "local estimated = math.floor(previous * tonumber(ARGV[3]) + current)\n"
+                    + "local granted = math.min(tonumber(ARGV[1]), math.max(0, tonumber(ARGV[2]) - estimated))\n"
+                    + "if granted > 0 then\n"
+                    + "    redis.call('INCRBY', KEYS[1], granted)\n"
+                    + "    if redis.call('TTL', KEYS[1]) < 0 then\n"
+                    + "        redis.call('EXPIRE', KEYS[1], ARGV[4])\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "return granted\n",
+            Long.class);
+}
@@ -0,0 +1,64 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+
+import java.util.List;
+
+/**
+ * 频次限制算法
+ * 每种算法的一次判定对应一次 Redis 脚本调用
+ */
+public interface RateLimiter {
+
+    /**
+     * 获取算法类型
+     * @return 频次限制算法
+     */
+    RateLimitAlgorithm getAlgorithm();
+
+    /**
+     * 同时检查多条规则，全部满足时各计数 permits，否则都不计数
+     * @param rules 频次限制规则，Key 需位于同一哈希槽
+     * @param permits 申请数量
+     * @return 判定结果
+     */
+    RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits);
+
+    /**
+     * 按剩余额度申请，最多获得 permits 个
+     * @param rule 频次限制规则
+     * @param permits 申请数量
+     * @return 实际获得的数量（0 ~ permits）
+     */
+    int acquireUpTo(RateLimitRule rule, int permits);
+
+    /**
+     * 退还未使用的额度
+     * @param rule 频次限制规则
+     * @param permits 退还数量
+     */
+    void release(RateLimitRule rule, int permits);
+
+    /**
+     * 生成按剩余额度申请的脚本调用，供批量申请时放入管道执行
+     * @param rule 频次限制规则
+     * @param permits 申请数量
+     * @return 返回实际获得数量的脚本调用
+     */
+    ScriptCall acquireUpToCall(RateLimitRule rule, int permits);
+
+    /**
+     * 生成退还额度的脚本调用，供批量退还时放入管道执行
+     * @param rule 频次限制规则
+     * @param permits 退还数量
+     * @return 返回实际退还数量的脚本调用
+     */
+    ScriptCall releaseCall(RateLimitRule rule, int permits);
+
+    /**
+     * 估算计数对象下一次有可用额度的时间，用于延后被限制的消息
+     * @param rule 频次限制规则
+     * @return 毫秒时间戳
+     */
+    long nextAvailableAt(RateLimitRule rule);
+}
@@ -0,0 +1,183 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Redis Lua 脚本的频次限制器
+ * 按规则上配置的算法分派到对应的 RateLimiter，每种算法的一次判定只执行一次脚本调用
+ * 批量申请和退还时，所有规则的脚本调用放入同一个管道，一次往返完成
+ */
+@Component
+public class RedisRateLimiter {
+
+    @Autowired
+    private List<RateLimiter> rateLimiters;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    /** 算法与实现的映射 */
+    private final Map<RateLimitAlgorithm, RateLimiter> limiterMap = new EnumMap<>(RateLimitAlgorithm.class);
+
+    @PostConstruct
+    public void init() {
+        for (RateLimiter rateLimiter : rateLimiters) {
+            limiterMap.put(rateLimiter.getAlgorithm(), rateLimiter);
+        }
+    }
+
+    /**
+     * 同时检查多条规则，全部满足时各计数 permits，否则都不计数
+     * 同一算法的规则在一次脚本调用中原子判定；规则使用多种算法时按算法依次判定，后面的算法拒绝时退还前面已获得的额度
+     * @param rules 频次限制规则，Key 需位于同一哈希槽
+     * @param permits 申请数量
+     * @return 判定结果
+     */
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+        if (rules.isEmpty() || permits <= 0) {
+            return RateLimitResult.allow();
+        }
+        Map<RateLimitAlgorithm, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            groups.computeIfAbsent(algorithmOf(rules.get(i)), algorithm -> new ArrayList<>()).add(i);
+        }
+        List<RateLimitRule> acquired = new ArrayList<>();
+        for (Map.Entry<RateLimitAlgorithm, List<Integer>> group : groups.entrySet()) {
+            List<RateLimitRule> groupRules = new ArrayList<>(group.getValue().size());
+            group.getValue().forEach(index -> groupRules.add(rules.get(index)));
+            RateLimitResult result = getLimiter(group.getKey()).tryAcquire(groupRules, permits);
+            if (!result.isAllowed()) {
+                acquired.forEach(rule -> release(rule, permits));
+                return RateLimitResult.reject(group.getValue().get(result.getRejectedIndex()), result.getCurrentCount());
+            }
+            acquired.addAll(groupRules);
+        }
+        return RateLimitResult.allow();
+    }
+
+    /**
+     * 按剩余额度申请，最多获得 permits 个
+     * @param rule 频次限制规则
+     * @param permits 申请数量
+     * @return 实际获得的数量（0 ~ permits）
+     */
+    public int acquireUpTo(RateLimitRule rule, int permits) {
+        if (permits <= 0) {
+            return 0;
+        }
+        return getLimiter(algorithmOf(rule)).acquireUpTo(rule, permits);
+    }
+
+    /**
+     * 退还未使用的额度
+     * @param rule 频次限制规则
+     * @param permits 退还数量
+     */
+    public void release(RateLimitRule rule, int permits) {
+        if (permits <= 0) {
+            return;
+        }
+        getLimiter(algorithmOf(rule)).release(rule, permits);
+    }
+
+    /**
+     * 批量按剩余额度申请，每条规则最多获得对应的 permits 个
+     * 各规则的脚本在同一个管道中执行，只有一次网络往返；规则之间互不影响，Key 不要求位于同一哈希槽
+     * @param rules 频次限制规则
+     * @param permits 与规则一一对应的申请数量
+     * @return 与规则一一对应的实际获得数量
+     */
+    public int[] acquireUpTo(List<RateLimitRule> rules, int[] permits) {
+        int[] granted = new int[rules.size()];
+        List<ScriptCall> calls = new ArrayList<>(rules.size());
+        List<Integer> indexes = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            if (permits[i] > 0) {
+                calls.add(getLimiter(algorithmOf(rules.get(i))).acquireUpToCall(rules.get(i), permits[i]));
+                indexes.add(i);
+            }
+        }
+        List<Object> results = executePipelined(calls);
+        for (int i = 0; i < indexes.size(); i++) {
+            Object result = results.get(i);
+            granted[indexes.get(i)] = result instanceof Number number ? number.intValue() : 0;
+        }
+        return granted;
+    }
+
+    /**
+     * 批量退还未使用的额度，各规则的脚本在同一个管道中执行
+     * @param rules 频次限制规则
+     * @param permits 与规则一一对应的退还数量
+     */
+    public void release(List<RateLimitRule> rules, int[] permits) {
+        List<ScriptCall> calls = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            if (permits[i] > 0) {
+                calls.add(getLimiter(algorithmOf(rules.get(i))).releaseCall(rules.get(i), permits[i]));
+            }
+        }
+        executePipelined(calls);
+    }
+
+    /**
+     * 估算计数对象下一次有可用额度的时间
+     * @param rule 频次限制规则
+     * @return 毫秒时间戳
+     */
+    public long nextAvailableAt(RateLimitRule rule) {
+        return getLimiter(algorithmOf(rule)).nextAvailableAt(rule);
+    }
+
+    /**
+     * 在一个管道中执行多次脚本调用
+     * 使用 EVAL 而不是 EVALSHA，管道中无法按调用处理脚本未缓存的错误；脚本较短，多传的字节可以忽略
+     */
+    private List<Object> executePipelined(List<ScriptCall> calls) {
+        if (calls.isEmpty()) {
+            return List.of();
+        }
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (ScriptCall call : calls) {
+                byte[][] keysAndArgs = new byte[call.getKeys().size() + call.getArgs().length][];
+                int i = 0;
+                for (String key : call.getKeys()) {
+                    keysAndArgs[i++] = serializer.serialize(key);
+                }
+                for (String arg : call.getArgs()) {
+                    keysAndArgs[i++] = serializer.serialize(arg);
+                }
+                connection.scriptingCommands().eval(call.getScript().getScriptAsString().getBytes(StandardCharsets.UTF_8),
+                        ReturnType.INTEGER, call.getKeys().size(), keysAndArgs);
+            }
+            return null;
+        });
+    }
+
+    private RateLimiter getLimiter(RateLimitAlgorithm algorithm) {
+        RateLimiter rateLimiter = limiterMap.get(algorithm);
+        if (rateLimiter == null) {
+            throw new IllegalStateException("不支持的频次限制算法：" + algorithm);
+        }
+        return rateLimiter;
+    }
+
+    private static RateLimitAlgorithm algorithmOf(RateLimitRule rule) {
+        return rule.getAlgorithm() != null ? rule.getAlgorithm() : RateLimitAlgorithm.FIXED_WINDOW;
+    }
+}
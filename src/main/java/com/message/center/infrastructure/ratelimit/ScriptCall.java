@@ -0,0 +1,35 @@
+package com.message.center.infrastructure.ratelimit;
+
+import lombok.Getter;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * 一次返回数量的脚本调用
+ * 由各算法生成 Key 和参数，RedisRateLimiter 可以将多次调用放入同一个管道，一次往返执行
+ */
+@Getter
+public class ScriptCall {
+
+    /**
+     * Lua 脚本
+     */
+    private final RedisScript<Long> script;
+
+    /**
+     * 脚本的 Key
+     */
+    private final List<String> keys;
+
+    /**
+     * 脚本参数
+     */
+    private final String[] args;
+
+    public ScriptCall(RedisScript<Long> script, List<String> keys, String... args) {
+        this.script = script;
+        this.keys = keys;
+        this.args = args;
+    }
+}
@@ -0,0 +1,73 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 滑动日志频次限制
+ * 每次放行在 Redis 有序集合中记录一条时间戳，判定时先清理窗口外的记录再计数，任意连续窗口内都不会超过限制
+ * 精确但每条记录占用内存，适合限制数量较小的渠道（如机器人每分钟 20 条）
+ */
+@Component
+public class SlidingLogRateLimiter extends AbstractRedisRateLimiter {
+
+    @Override
+    public RateLimitAlgorithm getAlgorithm() {
+        return RateLimitAlgorithm.SLIDING_LOG;
+    }
+
+    @Override
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+        List<String> keys = new ArrayList<>(rules.size());
+        String[] args = new String[3 + rules.size() * 2];
+        args[0] = String.valueOf(permits);
+        args[1] = String.valueOf(clock.millis());
+        args[2] = UUID.randomUUID().toString();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            keys.add(logKey(rule));
+            args[3 + i * 2] = String.valueOf(rule.getLimit());
+            args[4 + i * 2] = String.valueOf(rule.getWindowSeconds() * 1000);
+        }
+        return executeDecision(RateLimitScripts.SLIDING_LOG_ALL, keys, args);
+    }
+
+    @Override
+    public ScriptCall acquireUpToCall(RateLimitRule rule, int permits) {
+        return new ScriptCall(RateLimitScripts.SLIDING_LOG_UP_TO, List.of(logKey(rule)),
+                String.valueOf(permits), String.valueOf(clock.millis()), UUID.randomUUID().toString(),
+                String.valueOf(rule.getLimit()), String.valueOf(rule.getWindowSeconds() * 1000));
+    }
+
+    @Override
+    public ScriptCall releaseCall(RateLimitRule rule, int permits) {
+        return new ScriptCall(RateLimitScripts.SLIDING_LOG_RELEASE, List.of(logKey(rule)), String.valueOf(permits));
+    }
+
+    /**
+     * 滑动日志在最早一条记录滑出窗口时释放额度
+     */
+    @Override
+    public long nextAvailableAt(RateLimitRule rule) {
+        long now = clock.millis();
+        Set<ZSetOperations.TypedTuple<String>> oldest = redisTemplate.opsForZSet().rangeWithScores(logKey(rule), 0, 0);
+        if (oldest == null || oldest.isEmpty()) {
+            return now;
+        }
+        Double score = oldest.iterator().next().getScore();
+        return score != null ? Math.max(now, score.longValue() + rule.getWindowSeconds() * 1000) : now;
+    }
+
+    /**
+     * 日志 Key：{前缀}:log
+     */
+    static String logKey(RateLimitRule rule) {
+        return RateLimitKeys.logKey(rule.getKey());
+    }
+}
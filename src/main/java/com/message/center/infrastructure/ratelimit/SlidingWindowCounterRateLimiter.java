@@ -0,0 +1,76 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 滑动窗口计数频次限制
+ * 保留当前和上一个固定窗口的计数，按滑动窗口与上一个窗口重叠的比例加权估算：
+ * 估算值 = 上一个窗口计数 × (1 - 当前窗口已过时间 / 窗口长度) + 当前窗口计数
+ * 每条规则只占两个计数 Key，边界处不会出现两倍突发，误差来自假设上一个窗口内请求均匀分布
+ */
+@Component
+public class SlidingWindowCounterRateLimiter extends AbstractRedisRateLimiter {
+
+    @Override
+    public RateLimitAlgorithm getAlgorithm() {
+        return RateLimitAlgorithm.SLIDING_WINDOW_COUNTER;
+    }
+
+    @Override
+    public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+        long now = clock.millis();
+        List<String> keys = new ArrayList<>(rules.size() * 2);
+        String[] args = new String[1 + rules.size() * 3];
+        args[0] = String.valueOf(permits);
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            long window = rule.getWindowSeconds() * 1000;
+            long index = Math.floorDiv(now, window);
+            keys.add(RateLimitKeys.windowKey(rule.getKey(), index));
+            keys.add(RateLimitKeys.previousWindowKey(rule.getKey(), index));
+            args[1 + i * 3] = String.valueOf(rule.getLimit());
+            args[2 + i * 3] = previousWeight(now, window);
+            args[3 + i * 3] = String.valueOf(rule.getWindowSeconds() * 2);
+        }
+        return executeDecision(RateLimitScripts.SLIDING_WINDOW_COUNTER_ALL, keys, args);
+    }
+
+    @Override
+    public ScriptCall acquireUpToCall(RateLimitRule rule, int permits) {
+        long now = clock.millis();
+        long window = rule.getWindowSeconds() * 1000;
+        long index = Math.floorDiv(now, window);
+        return new ScriptCall(RateLimitScripts.SLIDING_WINDOW_COUNTER_UP_TO,
+                List.of(RateLimitKeys.windowKey(rule.getKey(), index), RateLimitKeys.previousWindowKey(rule.getKey(), index)),
+                String.valueOf(permits), String.valueOf(rule.getLimit()), previousWeight(now, window),
+                String.valueOf(rule.getWindowSeconds() * 2));
+    }
+
+    @Override
+    public ScriptCall releaseCall(RateLimitRule rule, int permits) {
+        long index = Math.floorDiv(clock.millis(), rule.getWindowSeconds() * 1000);
+        return new ScriptCall(RateLimitScripts.RELEASE, List.of(RateLimitKeys.windowKey(rule.getKey(), index)),
+                String.valueOf(permits));
+    }
+
+    /**
+     * 滑动窗口计数随上一个窗口的权重衰减逐步释放额度，按平均每条额度的释放间隔估算
+     */
+    @Override
+    public long nextAvailableAt(RateLimitRule rule) {
+        long window = rule.getWindowSeconds() * 1000;
+        return clock.millis() + Math.max(1L, window / Math.max(1L, rule.getLimit()));
+    }
+
+    /**
+     * 上一个窗口计数的权重，即滑动窗口与上一个窗口重叠部分的比例
+     */
+    private static String previousWeight(long now, long window) {
+        long elapsed = Math.floorMod(now, window);
+        return String.valueOf(1.0 - (double) elapsed / window);
+    }
+}
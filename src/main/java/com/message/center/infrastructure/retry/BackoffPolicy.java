@@ -0,0 +1,85 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.enums.BackoffJitter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 重试退避策略
+ * 由默认策略、渠道策略、错误码策略逐级覆盖得到，创建后不可变
+ */
+public final class BackoffPolicy {
+
+    /** 最大重试次数 */
+    private final int maxCount;
+
+    /** 初始间隔（毫秒） */
+    private final long intervalMillis;
+
+    /** 退避倍数 */
+    private final double multiplier;
+
+    /** 最大间隔（毫秒） */
+    private final long maxIntervalMillis;
+
+    /** 抖动方式 */
+    private final BackoffJitter jitter;
+
+    public BackoffPolicy(int maxCount, long intervalMillis, double multiplier, long maxIntervalMillis,
+                         BackoffJitter jitter) {
+        this.maxCount = maxCount;
+        this.intervalMillis = intervalMillis;
+        this.multiplier = multiplier;
+        this.maxIntervalMillis = Math.max(intervalMillis, maxIntervalMillis);
+        this.jitter = jitter != null ? jitter : BackoffJitter.NONE;
+    }
+
+    /**
+     * 计算第 retryCount 次重试前的等待时间
+     * 去相关抖动需要上一次的实际间隔，任务表不保存该值，按上一次的指数退避间隔代替
+     * @param retryCount 重试次数（从1开始）
+     * @return 等待时间（毫秒）
+     */
+    public long delayMillis(int retryCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (jitter) {
+            case FULL:
+                return random.nextLong(exponential(retryCount) + 1);
+            case DECORRELATED:
+                long previous = retryCount <= 1 ? intervalMillis : exponential(retryCount - 1);
+                long upper = Math.min(maxIntervalMillis, Math.max(intervalMillis, previous * 3));
+                return upper > intervalMillis ? random.nextLong(intervalMillis, upper + 1) : intervalMillis;
+            default:
+                return exponential(retryCount);
+        }
+    }
+
+    /**
+     * 指数退避间隔：初始间隔 * 倍数^(次数-1)，不超过最大间隔
+     */
+    long exponential(int retryCount) {
+        double delay = intervalMillis * Math.pow(multiplier, Math.max(0, retryCount - 1));
+        return delay >= maxIntervalMillis ? maxIntervalMillis : (long) delay;
+    }
+
+    // getter方法
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public long getMaxIntervalMillis() {
+        return maxIntervalMillis;
+    }
+
+    public BackoffJitter getJitter() {
+        return jitter;
+    }
+}
@@ -0,0 +1,57 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.data.mapper.ChannelTaskMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 基于渠道任务表的待重试任务存储
+ * 每页三次往返：按 idx_next_retry 查询到期任务ID、条件更新写入租约、按租约持有者查回领取成功的任务
+ * 时间轮领取单个任务只需一次条件更新
+ */
+@Component
+public class DatabaseRetryTaskStore implements RetryTaskStore {
+
+    @Autowired
+    private ChannelTaskMapper channelTaskMapper;
+
+    @Override
+    public List<ChannelTask> claimDue(ChannelType channelType, LocalDateTime now, int limit, String owner,
+                                      LocalDateTime leaseUntil) {
+        List<Long> ids = channelTaskMapper.selectDueRetryIds(channelType, now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // datetime 字段精度为秒，租约时间截断后才能按值查回
+        LocalDateTime lease = leaseUntil.truncatedTo(ChronoUnit.SECONDS);
+        if (channelTaskMapper.claimRetryTasks(ids, owner, lease, now) == 0) {
+            return List.of();
+        }
+        List<ChannelTask> claimed = channelTaskMapper.selectClaimedRetryTasks(ids, owner, lease);
+        claimed.sort(Comparator.comparingInt(task -> ids.indexOf(task.getId())));
+        return claimed;
+    }
+
+    @Override
+    public List<ChannelTask> findUpcoming(ChannelType channelType, LocalDateTime from, LocalDateTime until, int limit) {
+        return channelTaskMapper.selectUpcomingRetryTasks(channelType, from, until, limit);
+    }
+
+    @Override
+    public boolean claim(ChannelTask task, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        LocalDateTime lease = leaseUntil.truncatedTo(ChronoUnit.SECONDS);
+        if (channelTaskMapper.claimRetryTask(task.getId(), task.getNextRetryTime(), owner, lease, now) == 0) {
+            return false;
+        }
+        task.setLeaseOwner(owner);
+        task.setNextRetryTime(lease);
+        return true;
+    }
+}
@@ -0,0 +1,324 @@
+package com.message.center.infrastructure.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 哈希时间轮
+ * 时间轮有 wheelSize 个槽，工作线程每 tick 推进一格；定时任务按到期的格数落入对应槽，超过一圈的记录剩余圈数
+ * - 添加和取消只入队，调用方 O(1)；工作线程在每一格开始时批量把新任务放入槽、把已取消的任务从槽中摘除
+ * - 槽内为双向链表，到期扫描只访问当前槽
+ * - 到期任务在工作线程上执行，任务本身只应做转交，不做阻塞操作
+ * 精度为一个 tick，任务不会提前执行，最多推迟一个 tick
+ */
+public class HashedTimingWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    /** 每一格最多从待加入队列转入槽的任务数，一次加入大量任务时不推迟当前格到期任务的执行 */
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_STOPPED = 2;
+
+    private final long tickNanos;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final Thread worker;
+
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+    /** 新加入的任务，由工作线程转入槽 */
+    private final Queue<Timeout> pendingAdds = new ConcurrentLinkedQueue<>();
+
+    /** 已取消的任务，由工作线程从槽中摘除 */
+    private final Queue<Timeout> pendingCancels = new ConcurrentLinkedQueue<>();
+
+    /** 未到期且未取消的任务数 */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** 工作线程启动时刻（System.nanoTime），任务到期时间相对该时刻计算 */
+    private volatile long startNanos;
+
+    /** 当前格序号，只由工作线程读写 */
+    private long tick;
+
+    /**
+     * @param name 工作线程名称
+     * @param tickMillis 每格时长（毫秒）
+     * @param wheelSize 槽数，向上取整为2的幂
+     */
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis必须大于0");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize必须在1到2^30之间");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(wheelSize - 1 > 0 ? (wheelSize - 1) << 1 : 1);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * 添加定时任务，首次添加时启动工作线程
+     * @param task 到期后执行的任务
+     * @param delay 延迟时长，小于等于0时在下一格执行
+     * @param unit 时间单位
+     * @return 定时任务句柄，可用于取消
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        start();
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startNanos;
+        if (deadline < 0) {
+            // 延迟过大导致溢出
+            deadline = Long.MAX_VALUE;
+        }
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        pendingAdds.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 启动工作线程，重复调用无影响
+     */
+    public void start() {
+        switch (state.get()) {
+            case STATE_INIT:
+                if (state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+                    startNanos = System.nanoTime();
+                    worker.start();
+                }
+                break;
+            case STATE_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("时间轮已停止");
+        }
+    }
+
+    /**
+     * 停止工作线程，未到期的任务不再执行
+     */
+    public void stop() {
+        if (state.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 获取未到期且未取消的任务数
+     * @return 任务数
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (state.get() == STATE_STARTED) {
+            long now = waitForNextTick();
+            if (now < 0) {
+                break;
+            }
+            removeCancelled();
+            transferAdds();
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+    }
+
+    /**
+     * 等待到下一格开始
+     * @return 相对启动时刻的当前时间（纳秒），停止时返回-1
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            long sleepMillis = TimeUnit.NANOSECONDS.toMillis(deadline - now + 999_999);
+            if (sleepMillis <= 0) {
+                return now;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (state.get() == STATE_STOPPED) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = pendingCancels.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferAdds() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pendingAdds.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.ST_INIT) {
+                continue;
+            }
+            long expectedTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expectedTick - tick) / wheel.length;
+            // 已错过的任务放入当前格
+            long ticks = Math.max(expectedTick, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedTimingWheel timingWheel;
+
+        private final Runnable task;
+
+        /** 相对时间轮启动时刻的到期时间（纳秒） */
+        private final long deadline;
+
+        private volatile int state = ST_INIT;
+
+        /** 剩余圈数，只由工作线程读写 */
+        private long remainingRounds;
+
+        private Timeout next;
+
+        private Timeout prev;
+
+        private Bucket bucket;
+
+        private Timeout(HashedTimingWheel timingWheel, Runnable task, long deadline) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务，已到期或已取消时返回false
+         * @return 是否取消成功
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timingWheel.pending.decrementAndGet();
+            timingWheel.pendingCancels.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timingWheel.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("时间轮任务执行异常，原因：{}", t.getMessage(), t);
+            }
+        }
+    }
+
+    /**
+     * 槽，双向链表，只由工作线程访问
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 执行本槽中剩余圈数为0的任务，其余任务圈数减一
+         * @param now 相对启动时刻的当前时间（纳秒）
+         */
+        void expire(long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.state == Timeout.ST_INIT) {
+                    if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                        remove(timeout);
+                        timeout.expire();
+                    } else {
+                        timeout.remainingRounds--;
+                    }
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.config.RetryConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 重试预算
+ * 按渠道统计最近 window-seconds 秒内的发送次数和重试次数，重试次数不超过 max(发送次数 * ratio, min-retries)
+ * 渠道大面积故障时，超出预算的失败不再重试，避免重试流量放大故障
+ * 统计为本节点内存计数，按秒分桶滑动
+ */
+@Component
+public class RetryBudget {
+
+    @Autowired
+    private RetryConfig retryConfig;
+
+    /** 时钟 */
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final Map<ChannelType, Window> windows = new EnumMap<>(ChannelType.class);
+
+    public RetryBudget() {
+        for (ChannelType channelType : ChannelType.values()) {
+            windows.put(channelType, new Window());
+        }
+    }
+
+    /**
+     * 记录一次发送（首次发送和重试发送都计入）
+     * @param channelType 渠道类型
+     */
+    public void recordAttempt(ChannelType channelType) {
+        RetryConfig.Budget budget = retryConfig.getBudget();
+        if (budget.isEnabled()) {
+            windows.get(channelType).recordAttempt(currentSecond(), budget.getWindowSeconds());
+        }
+    }
+
+    /**
+     * 占用一次重试预算
+     * @param channelType 渠道类型
+     * @return 预算内返回true并计数，超出预算返回false
+     */
+    public boolean tryAcquire(ChannelType channelType) {
+        RetryConfig.Budget budget = retryConfig.getBudget();
+        if (!budget.isEnabled()) {
+            return true;
+        }
+        return windows.get(channelType).tryAcquireRetry(currentSecond(), budget.getWindowSeconds(),
+                budget.getRatio(), budget.getMinRetries());
+    }
+
+    private long currentSecond() {
+        return clock.millis() / 1000;
+    }
+
+    /**
+     * 单个渠道的滑动窗口，每秒一个桶
+     */
+    private static final class Window {
+
+        private long[] seconds = new long[0];
+
+        private long[] attempts = new long[0];
+
+        private long[] retries = new long[0];
+
+        synchronized void recordAttempt(long second, int windowSeconds) {
+            // bucket 可能重建数组，先取下标再读取数组
+            int current = bucket(second, windowSeconds);
+            attempts[current]++;
+        }
+
+        synchronized boolean tryAcquireRetry(long second, int windowSeconds, double ratio, int minRetries) {
+            int current = bucket(second, windowSeconds);
+            long attemptSum = 0;
+            long retrySum = 0;
+            for (int i = 0; i < seconds.length; i++) {
+                if (second - seconds[i] < windowSeconds) {
+                    attemptSum += attempts[i];
+                    retrySum += retries[i];
+                }
+            }
+            if (retrySum >= Math.max((long) (attemptSum * ratio), minRetries)) {
+                return false;
+            }
+            retries[current]++;
+            return true;
+        }
+
+        /**
+         * 定位当前秒的桶，过期的桶清零；窗口长度变化时重建
+         */
+        private int bucket(long second, int windowSeconds) {
+            int size = Math.max(1, windowSeconds);
+            if (seconds.length != size) {
+                seconds = new long[size];
+                attempts = new long[size];
+                retries = new long[size];
+            }
+            int index = (int) Math.floorMod(second, (long) size);
+            if (seconds[index] != second) {
+                seconds[index] = second;
+                attempts[index] = 0;
+                retries[index] = 0;
+            }
+            return index;
+        }
+    }
+}
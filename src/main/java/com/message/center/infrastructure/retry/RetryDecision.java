@@ -0,0 +1,60 @@
+package com.message.center.infrastructure.retry;
+
+/**
+ * 重试判定结果
+ */
+public final class RetryDecision {
+
+    /** 重试 */
+    public static final String RETRY = "retry";
+
+    /** 已达到最大重试次数 */
+    public static final String EXHAUSTED = "exhausted";
+
+    /** 错误不可重试，如渠道配置错误 */
+    public static final String NON_RETRYABLE = "non_retryable";
+
+    /** 渠道重试预算已用尽 */
+    public static final String BUDGET_EXHAUSTED = "budget_exhausted";
+
+    /** 未发送即被拒绝，重新排期且不计入重试次数 */
+    public static final String RESCHEDULED = "rescheduled";
+
+    private final String outcome;
+
+    private final long delayMillis;
+
+    private RetryDecision(String outcome, long delayMillis) {
+        this.outcome = outcome;
+        this.delayMillis = delayMillis;
+    }
+
+    public static RetryDecision retry(long delayMillis) {
+        return new RetryDecision(RETRY, delayMillis);
+    }
+
+    public static RetryDecision giveUp(String outcome) {
+        return new RetryDecision(outcome, 0);
+    }
+
+    /**
+     * 是否重试
+     */
+    public boolean isRetry() {
+        return RETRY.equals(outcome);
+    }
+
+    /**
+     * 判定结果：retry/exhausted/non_retryable/budget_exhausted/rescheduled
+     */
+    public String getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * 距下次重试的等待时间（毫秒），不重试时为0
+     */
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.config.RetryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 失败重试判定
+ * 渠道任务发送失败后依次判断：错误码是否可重试、是否达到该渠道和错误码策略的最大重试次数、渠道重试预算是否充足，
+ * 均满足时按退避策略计算下次重试的等待时间
+ */
+@Component
+public class RetryPolicyEngine {
+
+    @Autowired
+    private RetryConfig retryConfig;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 判定失败任务是否重试
+     * @param task 渠道任务，retryCount 为已重试次数
+     * @param errorCode 错误码，异常时为空
+     * @return 重试判定
+     */
+    public RetryDecision decide(ChannelTask task, String errorCode) {
+        ChannelType channelType = task.getChannelType();
+        RetryDecision decision;
+        if (!retryConfig.isRetryable(errorCode)) {
+            decision = RetryDecision.giveUp(RetryDecision.NON_RETRYABLE);
+        } else {
+            BackoffPolicy policy = retryConfig.policyOf(channelType, errorCode);
+            int retryCount = task.getRetryCount() != null ? task.getRetryCount() : 0;
+            if (retryCount >= policy.getMaxCount()) {
+                decision = RetryDecision.giveUp(RetryDecision.EXHAUSTED);
+            } else if (!retryBudget.tryAcquire(channelType)) {
+                decision = RetryDecision.giveUp(RetryDecision.BUDGET_EXHAUSTED);
+            } else {
+                decision = RetryDecision.retry(policy.delayMillis(retryCount + 1));
+            }
+        }
+        meterRegistry.counter("message.center.retry.decision",
+                "channel", channelType.name(), "outcome", decision.getOutcome()).increment();
+        return decision;
+    }
+
+    /**
+     * 计算未发送即被拒绝的任务重新排期的等待时间，不占用重试次数和重试预算
+     * @param task 渠道任务，retryCount 为已重试次数
+     * @param errorCode 错误码
+     * @return 等待时间（毫秒）
+     */
+    public long rescheduleDelayMillis(ChannelTask task, String errorCode) {
+        ChannelType channelType = task.getChannelType();
+        int retryCount = task.getRetryCount() != null ? task.getRetryCount() : 0;
+        meterRegistry.counter("message.center.retry.decision",
+                "channel", channelType.name(), "outcome", RetryDecision.RESCHEDULED).increment();
+        return retryConfig.policyOf(channelType, errorCode).delayMillis(retryCount + 1);
+    }
+}
@@ -0,0 +1,294 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.config.RetrySchedulerConfig;
+import com.message.center.infrastructure.config.RetryWheelConfig;
+import com.message.center.infrastructure.executor.ChannelBulkheads;
+import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 失败重试调度器
+ * 定时从 RetryTaskStore 按渠道领取到期的待重试任务，提交到该渠道的隔离线程池经渠道适配器重新发送：
+ * - 领取带租约，多个节点同时运行时同一任务只被一个节点领取；执行时仍由 ChannelTaskExecutor 以 待重试 -> 发送中 的条件迁移抢占
+ * - 每个渠道同时重试的任务数有上限，某个渠道持续失败或变慢时不会占满线程池
+ * - 背压：每轮按渠道线程池的空闲容量（扣除为首次发送保留的部分）决定领取数量，线程池繁忙时暂停领取该渠道，已到期的任务留在存储中
+ * 开启时间轮时，每轮还会把近期到期的任务加载到进程内时间轮，到期时逐个领取发送，拉取间隔随之放宽；
+ * 更晚到期的任务留在数据库中，临近时再加载，重启后由数据库恢复
+ * 调度器独立运行，不依赖外部任务调度平台
+ */
+@Component
+public class RetryScheduler implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryScheduler.class);
+
+    @Autowired
+    private RetrySchedulerConfig schedulerConfig;
+
+    @Autowired
+    private RetryWheelConfig wheelConfig;
+
+    @Autowired(required = false)
+    private RetryTaskStore retryTaskStore;
+
+    @Autowired
+    private ChannelTaskExecutor channelTaskExecutor;
+
+    @Autowired
+    private ChannelBulkheads channelBulkheads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** 时钟 */
+    private Clock clock = Clock.systemDefaultZone();
+
+    /** 本节点的租约持有者标识 */
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + ":"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    /** 各渠道的重试并发许可 */
+    private final Map<ChannelType, Semaphore> permits = new EnumMap<>(ChannelType.class);
+
+    /** 已加载到时间轮的任务及其到期时间，同一到期时间不重复加载 */
+    private final Map<Long, LocalDateTime> wheelDue = new ConcurrentHashMap<>();
+
+    private HashedTimingWheel timingWheel;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        for (ChannelType channelType : ChannelType.values()) {
+            int concurrency = schedulerConfig.concurrencyOf(channelType);
+            Semaphore semaphore = new Semaphore(concurrency);
+            permits.put(channelType, semaphore);
+            Gauge.builder("message.center.retry.in_flight", semaphore, s -> concurrency - s.availablePermits())
+                    .tag("channel", channelType.name())
+                    .register(meterRegistry);
+        }
+        if (wheelConfig.isEnabled()) {
+            // 首次加载任务时才启动工作线程
+            timingWheel = new HashedTimingWheel("message-center-retry-wheel",
+                    wheelConfig.getTickMillis(), wheelConfig.getWheelSize());
+            Gauge.builder("message.center.retry.wheel.pending", timingWheel, HashedTimingWheel::pending)
+                    .register(meterRegistry);
+        }
+        if (!schedulerConfig.isEnabled() || retryTaskStore == null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-center-retry-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = timingWheel != null ? wheelConfig.getSweepIntervalMillis() : schedulerConfig.getPollIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 领取已到期的任务，并把近期到期的任务加载到时间轮
+     */
+    private void sweep() {
+        try {
+            dispatchDue();
+            if (timingWheel != null) {
+                preload();
+            }
+        } catch (Exception e) {
+            log.error("重试调度异常，原因：{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 领取并重新发送已到期的待重试任务
+     * @return 本轮提交的任务数
+     */
+    int dispatchDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime leaseUntil = now.plusSeconds(schedulerConfig.getLeaseSeconds());
+        int submitted = 0;
+        for (ChannelType channelType : ChannelType.values()) {
+            int capacity = freeCapacity(channelType);
+            if (capacity <= 0) {
+                meterRegistry.counter("message.center.retry.backpressure", "reason", "executor",
+                        "channel", channelType.name()).increment();
+                continue;
+            }
+            Semaphore semaphore = permits.get(channelType);
+            int limit = Math.min(schedulerConfig.getPageSize(), Math.min(capacity, semaphore.availablePermits()));
+            if (limit <= 0) {
+                meterRegistry.counter("message.center.retry.backpressure", "reason", "channel",
+                        "channel", channelType.name()).increment();
+                continue;
+            }
+            // 先占用许可再领取，领取数量不会超过可同时执行的数量
+            if (!semaphore.tryAcquire(limit)) {
+                continue;
+            }
+            List<ChannelTask> claimed;
+            try {
+                claimed = retryTaskStore.claimDue(channelType, now, limit, owner, leaseUntil);
+            } catch (Exception e) {
+                semaphore.release(limit);
+                log.error("领取待重试任务失败，渠道：{}，原因：{}", channelType, e.getMessage(), e);
+                continue;
+            }
+            if (claimed.size() < limit) {
+                semaphore.release(limit - claimed.size());
+            }
+            if (!claimed.isEmpty()) {
+                meterRegistry.counter("message.center.retry.claimed", "channel", channelType.name())
+                        .increment(claimed.size());
+            }
+            submitted += submit(claimed, semaphore);
+        }
+        return submitted;
+    }
+
+    /**
+     * 把 horizon-seconds 内到期的待重试任务加载到时间轮
+     * 只查询不领取，多个节点可能加载同一任务，到期时由领取的条件更新决定哪个节点发送
+     * @return 本轮新加载的任务数
+     */
+    int preload() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime until = now.plusSeconds(wheelConfig.getHorizonSeconds());
+        int loaded = 0;
+        for (ChannelType channelType : ChannelType.values()) {
+            int room = wheelConfig.getMaxTimers() - timingWheel.pending();
+            if (room <= 0) {
+                meterRegistry.counter("message.center.retry.backpressure", "reason", "wheel", "channel", "ALL").increment();
+                break;
+            }
+            List<ChannelTask> upcoming;
+            try {
+                upcoming = retryTaskStore.findUpcoming(channelType, now, until,
+                        Math.min(wheelConfig.getPreloadPageSize(), room));
+            } catch (Exception e) {
+                log.error("加载待重试任务失败，渠道：{}，原因：{}", channelType, e.getMessage(), e);
+                continue;
+            }
+            for (ChannelTask task : upcoming) {
+                LocalDateTime due = task.getNextRetryTime();
+                if (due.equals(wheelDue.put(task.getId(), due))) {
+                    continue;
+                }
+                timingWheel.schedule(() -> fire(task, due), Duration.between(now, due).toMillis(), TimeUnit.MILLISECONDS);
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (timingWheel != null) {
+            timingWheel.stop();
+        }
+    }
+
+    /**
+     * 时间轮到期，在时间轮线程上执行：占用渠道许可后转交任务线程池领取并发送
+     * 渠道许可或线程池容量不足时不发送，任务留在数据库中由下一轮拉取领取
+     */
+    private void fire(ChannelTask task, LocalDateTime due) {
+        wheelDue.remove(task.getId(), due);
+        ChannelType channelType = task.getChannelType();
+        Semaphore semaphore = permits.get(channelType);
+        if (!semaphore.tryAcquire()) {
+            meterRegistry.counter("message.center.retry.backpressure", "reason", "channel",
+                    "channel", channelType.name()).increment();
+            return;
+        }
+        if (freeCapacity(channelType) <= 0) {
+            semaphore.release();
+            meterRegistry.counter("message.center.retry.backpressure", "reason", "executor",
+                    "channel", channelType.name()).increment();
+            return;
+        }
+        try {
+            channelBulkheads.executeOrReject(channelType, () -> {
+                try {
+                    // 时间轮按单调时钟到期，与系统时钟有偏差时以到期时间为准
+                    LocalDateTime now = LocalDateTime.now(clock);
+                    if (now.isBefore(due)) {
+                        now = due;
+                    }
+                    if (retryTaskStore.claim(task, owner, now, now.plusSeconds(schedulerConfig.getLeaseSeconds()))) {
+                        meterRegistry.counter("message.center.retry.claimed", "channel", channelType.name()).increment();
+                        channelTaskExecutor.executeTask(task);
+                    }
+                } catch (Exception e) {
+                    log.error("领取待重试任务失败，任务ID：{}，原因：{}", task.getId(), e.getMessage(), e);
+                } finally {
+                    semaphore.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            semaphore.release();
+            meterRegistry.counter("message.center.retry.backpressure", "reason", "rejected",
+                    "channel", channelType.name()).increment();
+        }
+    }
+
+    /**
+     * 提交任务，每个任务执行结束后归还渠道许可
+     * 线程池拒绝时未提交的任务归还许可，留待租约到期后重新领取
+     * @return 提交成功的任务数
+     */
+    private int submit(List<ChannelTask> tasks, Semaphore semaphore) {
+        for (int i = 0; i < tasks.size(); i++) {
+            ChannelTask task = tasks.get(i);
+            try {
+                channelBulkheads.executeOrReject(task.getChannelType(), () -> {
+                    try {
+                        channelTaskExecutor.executeTask(task);
+                    } finally {
+                        semaphore.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                semaphore.release(tasks.size() - i);
+                meterRegistry.counter("message.center.retry.backpressure", "reason", "rejected",
+                        "channel", task.getChannelType().name()).increment();
+                log.warn("渠道线程池已满，{}个待重试任务在租约到期后重新领取", tasks.size() - i);
+                return i;
+            }
+        }
+        return tasks.size();
+    }
+
+    /**
+     * 渠道线程池可用于重试的任务数：空闲线程 + 队列剩余容量 - 保留容量
+     */
+    private int freeCapacity(ChannelType channelType) {
+        return channelBulkheads.freeCapacity(channelType) - schedulerConfig.getReservedExecutorCapacity();
+    }
+}
@@ -0,0 +1,49 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 待重试任务存储
+ * 按渠道分页领取已到期的待重试任务，领取时加租约，租约到期前其他节点不会再领取同一任务
+ * 也可只查询即将到期的任务，由时间轮在到期时逐个领取
+ */
+public interface RetryTaskStore {
+
+    /**
+     * 领取某个渠道已到期的待重试任务
+     * 领取成功的任务下次重试时间推迟到租约到期，节点在租约内未能发出时任务到期后可被重新领取
+     * @param channelType 渠道类型
+     * @param now 当前时间
+     * @param limit 最多领取的数量
+     * @param owner 租约持有者（节点标识）
+     * @param leaseUntil 租约到期时间
+     * @return 本次领取成功的任务，按下次重试时间升序
+     */
+    List<ChannelTask> claimDue(ChannelType channelType, LocalDateTime now, int limit, String owner, LocalDateTime leaseUntil);
+
+    /**
+     * 查询某个渠道即将到期的待重试任务，不领取
+     * @param channelType 渠道类型
+     * @param from 起始时间（不含）
+     * @param until 截止时间（含）
+     * @param limit 最多返回的数量
+     * @return 待重试任务，按下次重试时间升序
+     */
+    List<ChannelTask> findUpcoming(ChannelType channelType, LocalDateTime from, LocalDateTime until, int limit);
+
+    /**
+     * 领取单个到期的待重试任务
+     * 任务仍处于待重试、下次重试时间与查询时一致且已到期时才领取成功，任务在查询后被其他节点领取或重新失败时不会重复发送
+     * 领取成功后任务的租约持有者和下次重试时间更新为租约值
+     * @param task 待重试任务
+     * @param owner 租约持有者（节点标识）
+     * @param now 当前时间
+     * @param leaseUntil 租约到期时间
+     * @return 是否领取成功
+     */
+    boolean claim(ChannelTask task, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+}
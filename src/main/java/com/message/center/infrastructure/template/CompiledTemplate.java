@@ -0,0 +1,155 @@
+package com.message.center.infrastructure.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的消息模板
+ * 模板内容只扫描一次，拆分为字面量、变量和嵌套路径三类片段，渲染时按顺序追加到 StringBuilder
+ * 占位符格式为 ${name} 或 ${a.b.c}，变量不存在或值为 null 时保留原占位符
+ */
+public final class CompiledTemplate {
+
+    private static final String PLACEHOLDER_PREFIX = "${";
+
+    private static final char PLACEHOLDER_SUFFIX = '}';
+
+    /** 模板原文 */
+    private final String source;
+
+    /** 模板片段 */
+    private final Segment[] segments;
+
+    /** 字面量总长度，用于预估渲染结果长度 */
+    private final int literalLength;
+
+    private CompiledTemplate(String source, Segment[] segments, int literalLength) {
+        this.source = source;
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * 编译模板
+     * @param source 模板内容
+     * @return 编译后的模板
+     */
+    public static CompiledTemplate compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+        while (position < source.length()) {
+            int start = source.indexOf(PLACEHOLDER_PREFIX, position);
+            int end = start < 0 ? -1 : source.indexOf(PLACEHOLDER_SUFFIX, start + PLACEHOLDER_PREFIX.length());
+            if (start < 0 || end < 0) {
+                break;
+            }
+            if (start > position) {
+                segments.add(new Literal(source.substring(position, start)));
+                literalLength += start - position;
+            }
+            String placeholder = source.substring(start, end + 1);
+            String name = source.substring(start + PLACEHOLDER_PREFIX.length(), end);
+            segments.add(name.indexOf('.') < 0
+                    ? new Variable(name, placeholder)
+                    : new Path(name.split("\\."), placeholder));
+            position = end + 1;
+        }
+        if (position < source.length()) {
+            segments.add(new Literal(source.substring(position)));
+            literalLength += source.length() - position;
+        }
+        return new CompiledTemplate(source, segments.toArray(new Segment[0]), literalLength);
+    }
+
+    /**
+     * 渲染模板
+     * @param data 业务数据
+     * @return 渲染后的内容
+     */
+    public String render(Map<String, Object> data) {
+        StringBuilder builder = new StringBuilder(literalLength + 16 * segments.length);
+        renderTo(builder, data);
+        return builder.toString();
+    }
+
+    /**
+     * 渲染模板并追加到指定的 StringBuilder
+     * @param builder 输出缓冲区
+     * @param data 业务数据
+     */
+    public void renderTo(StringBuilder builder, Map<String, Object> data) {
+        for (Segment segment : segments) {
+            segment.appendTo(builder, data);
+        }
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    /**
+     * 模板片段
+     */
+    private interface Segment {
+        void appendTo(StringBuilder builder, Map<String, Object> data);
+    }
+
+    /**
+     * 字面量片段
+     */
+    private record Literal(String text) implements Segment {
+        @Override
+        public void appendTo(StringBuilder builder, Map<String, Object> data) {
+            builder.append(text);
+        }
+    }
+
+    /**
+     * 变量片段：${name}
+     */
+    private record Variable(String name, String placeholder) implements Segment {
+        @Override
+        public void appendTo(StringBuilder builder, Map<String, Object> data) {
+            Object value = data.get(name);
+            builder.append(value != null ? value : placeholder);
+        }
+    }
+
+    /**
+     * 嵌套路径片段：${a.b.c}，中间节点为对象或数组
+     */
+    private record Path(String[] names, String placeholder) implements Segment {
+        @Override
+        public void appendTo(StringBuilder builder, Map<String, Object> data) {
+            Object value = data;
+            for (String name : names) {
+                value = child(value, name);
+                if (value == null) {
+                    break;
+                }
+            }
+            builder.append(value != null ? value : placeholder);
+        }
+
+        private static Object child(Object node, String name) {
+            if (node instanceof Map<?, ?> map) {
+                return map.get(name);
+            }
+            if (node instanceof List<?> list) {
+                try {
+                    int index = Integer.parseInt(name);
+                    return index >= 0 && index < list.size() ? list.get(index) : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+}
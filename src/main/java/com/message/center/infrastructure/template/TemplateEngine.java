@@ -0,0 +1,95 @@
+package com.message.center.infrastructure.template;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.message.center.domain.entity.MessageTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 模板引擎
+ * - 模板按（模板ID, 更新时间）编译一次并缓存，命中时再比对模板原文，模板被修改后自动重新编译
+ * - 业务数据由 MessageContext 中的 BusinessData 每条消息解析一次，多个渠道共用
+ * - 每个线程复用一个 StringBuilder 作为渲染缓冲区
+ */
+@Component
+public class TemplateEngine {
+
+    /** 编译缓存最大条目数 */
+    private static final long MAXIMUM_SIZE = 10000;
+
+    /** 复用缓冲区的最大容量，超过后丢弃，避免长期占用大块内存 */
+    private static final int MAX_BUFFER_CAPACITY = 8 * 1024;
+
+    private final Cache<Long, Entry> compiledTemplates = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * 渲染模板
+     * @param template 消息模板，模板内容不能为空
+     * @param data 已解析的业务数据
+     * @return 渲染后的内容
+     */
+    public String render(MessageTemplate template, Map<String, Object> data) {
+        CompiledTemplate compiled = getCompiled(template);
+        StringBuilder builder = buffers.get();
+        builder.setLength(0);
+        compiled.renderTo(builder, data);
+        String result = builder.toString();
+        if (builder.capacity() > MAX_BUFFER_CAPACITY) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    /**
+     * 获取编译后的模板
+     * @param template 消息模板
+     * @return 编译后的模板
+     */
+    public CompiledTemplate getCompiled(MessageTemplate template) {
+        String content = template.getTemplateContent();
+        if (template.getId() == null) {
+            return CompiledTemplate.compile(content);
+        }
+        Entry entry = compiledTemplates.getIfPresent(template.getId());
+        if (entry != null && Objects.equals(entry.updateTime(), template.getUpdateTime())
+                && entry.compiled().getSource().equals(content)) {
+            return entry.compiled();
+        }
+        CompiledTemplate compiled = CompiledTemplate.compile(content);
+        compiledTemplates.put(template.getId(), new Entry(template.getUpdateTime(), compiled));
+        return compiled;
+    }
+
+    /**
+     * 失效指定模板的编译结果
+     * @param templateId 模板ID
+     */
+    public void evict(Long templateId) {
+        if (templateId != null) {
+            compiledTemplates.invalidate(templateId);
+        }
+    }
+
+    /**
+     * 清空编译缓存
+     */
+    public void invalidateAll() {
+        compiledTemplates.invalidateAll();
+    }
+
+    /**
+     * 编译缓存条目
+     * @param updateTime 模板更新时间
+     * @param compiled 编译后的模板
+     */
+    private record Entry(LocalDateTime updateTime, CompiledTemplate compiled) {
+    }
+}
@@ -65,12 +65,19 @@ public interface ChannelConfigService {
         private Integer window;
         /** 时间单位：SECOND/MINUTE/HOUR/DAY */
         private String unit;
+        /** 频次限制算法：FIXED_WINDOW/SLIDING_LOG/SLIDING_WINDOW_COUNTER，为空时使用固定窗口 */
+        private String algorithm;
 
         // 构造方法
         public RateLimitConfig(Integer count, Integer window, String unit) {
+            this(count, window, unit, null);
+        }
+
+        public RateLimitConfig(Integer count, Integer window, String unit, String algorithm) {
             this.count = count;
             this.window = window;
             this.unit = unit;
+            this.algorithm = algorithm;
         }
 
         // getter和setter方法
@@ -97,5 +104,13 @@ public interface ChannelConfigService {
         public void setUnit(String unit) {
             this.unit = unit;
         }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
     }
 }
@@ -3,6 +3,8 @@ package com.message.center.interfaces.dubbo.api;
 import com.message.center.domain.entity.MessageTemplate;
 import com.message.center.domain.enums.ChannelType;
 
+import java.util.Map;
+
 /**
  * 消息模板服务
  */
@@ -51,4 +53,14 @@ public interface MessageTemplateService {
      * @return 渲染后的消息内容
      */
     String renderTemplate(MessageTemplate template, String businessData);
+
+    /**
+     * 使用已解析的业务数据渲染消息模板
+     * 同一条消息渲染多个渠道时，业务数据只需解析一次
+     * @param template 消息模板
+     * @param data 已解析的业务数据
+     * @param businessData 业务数据原文，模板为空或数据为空时原样返回
+     * @return 渲染后的消息内容
+     */
+    String renderTemplate(MessageTemplate template, Map<String, Object> data, String businessData);
 }
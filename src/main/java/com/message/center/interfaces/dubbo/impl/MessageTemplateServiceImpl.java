@@ -0,0 +1,103 @@
+package com.message.center.interfaces.dubbo.impl;
+
+import org.apache.dubbo.config.annotation.DubboService;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.vo.BusinessData;
+import com.message.center.domain.repository.MessageTemplateRepository;
+import com.message.center.infrastructure.cache.CacheInvalidationEvent;
+import com.message.center.infrastructure.cache.CacheInvalidationHandler;
+import com.message.center.infrastructure.cache.CacheInvalidationManager;
+import com.message.center.infrastructure.template.TemplateEngine;
+import com.message.center.interfaces.dubbo.api.MessageTemplateService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+/**
+ * 消息模板Dubbo服务实现
+ * 模板渲染由 TemplateEngine 完成：模板编译一次后缓存，业务数据每条消息解析一次
+ */
+@DubboService
+public class MessageTemplateServiceImpl implements MessageTemplateService {
+
+    @Autowired
+    private MessageTemplateRepository messageTemplateRepository;
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private CacheInvalidationManager cacheInvalidationManager;
+
+    @PostConstruct
+    public void init() {
+        // 模板被修改或删除时丢弃编译结果
+        cacheInvalidationManager.register(CacheInvalidationManager.MESSAGE_TEMPLATE, new CacheInvalidationHandler() {
+            @Override
+            public void evict(CacheInvalidationEvent event) {
+                templateEngine.evict(event.getId());
+            }
+
+            @Override
+            public void invalidateAll() {
+                templateEngine.invalidateAll();
+            }
+        });
+    }
+
+    @Override
+    public MessageTemplate getById(Long id) {
+        return messageTemplateRepository.getById(id);
+    }
+
+    @Override
+    public boolean save(MessageTemplate template) {
+        return messageTemplateRepository.save(template);
+    }
+
+    @Override
+    public boolean update(MessageTemplate template) {
+        boolean result = messageTemplateRepository.update(template);
+        if (result) {
+            templateEngine.evict(template.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        boolean result = messageTemplateRepository.delete(id);
+        if (result) {
+            templateEngine.evict(id);
+        }
+        return result;
+    }
+
+    @Override
+    public MessageTemplate getTemplate(Long tenantId, String businessType, ChannelType channelType) {
+        return messageTemplateRepository.getTemplate(tenantId, businessType, channelType);
+    }
+
+    @Override
+    public String renderTemplate(MessageTemplate template, String businessData) {
+        if (!hasContent(template)) {
+            return businessData;
+        }
+        return renderTemplate(template, new BusinessData(businessData).asMap(), businessData);
+    }
+
+    @Override
+    public String renderTemplate(MessageTemplate template, Map<String, Object> data, String businessData) {
+        // 模板为空或业务数据无法解析时，直接发送业务数据原文
+        if (!hasContent(template) || data == null) {
+            return businessData;
+        }
+        return templateEngine.render(template, data);
+    }
+
+    private static boolean hasContent(MessageTemplate template) {
+        return template != null && template.getTemplateContent() != null && !template.getTemplateContent().isEmpty();
+    }
+}
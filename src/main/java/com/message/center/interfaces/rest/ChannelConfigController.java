@@ -1,6 +1,7 @@
 package com.message.center.interfaces.rest;
 
 import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.infrastructure.cache.CachingChannelConfigRepository;
 import com.message.center.interfaces.dubbo.api.ChannelConfigService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -20,6 +21,9 @@ public class ChannelConfigController {
     @Autowired
     private ChannelConfigService channelConfigService;
 
+    @Autowired
+    private CachingChannelConfigRepository channelConfigCache;
+
     /**
      * 创建渠道配置
      * @param config 渠道配置
@@ -30,6 +34,7 @@ public class ChannelConfigController {
         try {
             boolean result = channelConfigService.save(config);
             if (result) {
+                channelConfigCache.evictConfig(config);
                 return ResponseEntity.status(HttpStatus.CREATED)
                         .body(new MessageController.ApiResponse<>(HttpStatus.CREATED.value(), "创建成功", config));
             } else {
@@ -52,8 +57,12 @@ public class ChannelConfigController {
     public ResponseEntity<MessageController.ApiResponse<ChannelConfig>> updateChannelConfig(@PathVariable Long id, @RequestBody ChannelConfig config) {
         try {
             config.setId(id);
+            ChannelConfig previous = channelConfigCache.getById(id);
             boolean result = channelConfigService.update(config);
             if (result) {
+                // 新旧配置都失效，覆盖租户或门店被修改的情况
+                channelConfigCache.evictConfig(previous);
+                channelConfigCache.evictConfig(config);
                 return ResponseEntity.ok(new MessageController.ApiResponse<>(HttpStatus.OK.value(), "更新成功", config));
             } else {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -73,8 +82,14 @@ public class ChannelConfigController {
     @DeleteMapping("/{id}")
     public ResponseEntity<MessageController.ApiResponse<Boolean>> deleteChannelConfig(@PathVariable Long id) {
         try {
+            ChannelConfig previous = channelConfigCache.getById(id);
             boolean result = channelConfigService.delete(id);
             if (result) {
+                if (previous != null) {
+                    channelConfigCache.evictConfig(previous);
+                } else {
+                    channelConfigCache.evictById(id);
+                }
                 return ResponseEntity.ok(new MessageController.ApiResponse<>(HttpStatus.OK.value(), "删除成功", true));
             } else {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * 消息模板控制器
- * 处理消息模板的CRUD操作
+ * 处理消息模板的CRUD操作，写入后由 CachingMessageTemplateRepository 失效模板缓存并广播到其他节点
  */
 @RestController
 @RequestMapping("/api/templates")
@@ -22,6 +22,7 @@ CREATE TABLE IF NOT EXISTS msg_channel_config (
   `rate_limit_count` int(11) DEFAULT '100' COMMENT '频次限制数量',
   `rate_limit_window` int(11) DEFAULT '60' COMMENT '频次限制时间窗口（秒）',
   `rate_limit_unit` varchar(10) DEFAULT 'SECOND' COMMENT '时间单位：SECOND/MINUTE/HOUR/DAY',
+  `rate_limit_algorithm` varchar(32) DEFAULT 'FIXED_WINDOW' COMMENT '频次限制算法：FIXED_WINDOW/SLIDING_LOG/SLIDING_WINDOW_COUNTER',
   `time_window_enabled` tinyint(4) DEFAULT '0' COMMENT '是否启用时间窗口限制',
   `time_window_start_hour` int(11) DEFAULT '0' COMMENT '允许发送开始时间（小时，0-23）',
   `time_window_end_hour` int(11) DEFAULT '23' COMMENT '允许发送结束时间（小时，0-23）',
@@ -59,7 +60,7 @@ CREATE TABLE IF NOT EXISTS msg_message (
   `business_type` varchar(64) NOT NULL COMMENT '业务类型',
   `business_data` json NOT NULL COMMENT '业务数据JSON',
   `target_channels` varchar(255) DEFAULT NULL COMMENT '目标渠道列表',
-  `status` varchar(20) NOT NULL DEFAULT 'PENDING' COMMENT '消息状态：PENDING/PROCESSING/SUCCESS/PARTIAL_SUCCESS/FAILED',
+  `status` varchar(20) NOT NULL DEFAULT 'PENDING' COMMENT '消息状态：PENDING/PROCESSING/DEFERRED/SUCCESS/PARTIAL_SUCCESS/FAILED',
   `total_channels` int(11) DEFAULT '0' COMMENT '总渠道数',
   `success_channels` int(11) DEFAULT '0' COMMENT '成功渠道数',
   `failed_channels` int(11) DEFAULT '0' COMMENT '失败渠道数',
@@ -96,10 +97,11 @@ CREATE TABLE IF NOT EXISTS msg_channel_task (
   `channel_type` varchar(32) NOT NULL COMMENT '渠道类型',
   `channel_config_id` bigint(20) NOT NULL COMMENT '渠道配置ID',
   `rendered_content` text DEFAULT NULL COMMENT '渲染后的消息内容',
-  `status` varchar(20) NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING/SENDING/SUCCESS/FAILED/RETRY',
+  `status` varchar(20) NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING/SENDING/SUCCESS/FAILED/RETRY/CANCELLED/RATE_LIMITED',
   `retry_count` int(11) DEFAULT '0' COMMENT '已重试次数',
   `max_retry` int(11) DEFAULT '3' COMMENT '最大重试次数',
-  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重试时间',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重试时间（领取后为租约到期时间）',
+  `lease_owner` varchar(64) DEFAULT NULL COMMENT '重试租约持有节点',
   `result_message` varchar(500) DEFAULT NULL COMMENT '发送结果消息',
   `third_party_response` text DEFAULT NULL COMMENT '第三方响应内容',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间（分区键）',
@@ -127,6 +129,12 @@ PARTITION BY RANGE (TO_DAYS(create_time)) (
   PARTITION p_future VALUES LESS THAN MAXVALUE
 );
 
+-- 已有库升级：补充频次限制算法字段（字段已存在时报错，由初始化器忽略）
+ALTER TABLE msg_channel_config ADD COLUMN `rate_limit_algorithm` varchar(32) DEFAULT 'FIXED_WINDOW' COMMENT '频次限制算法：FIXED_WINDOW/SLIDING_LOG/SLIDING_WINDOW_COUNTER' AFTER `rate_limit_unit`;
+
+-- 已有库升级：补充重试租约字段
+ALTER TABLE msg_channel_task ADD COLUMN `lease_owner` varchar(64) DEFAULT NULL COMMENT '重试租约持有节点' AFTER `next_retry_time`;
+
 -- 初始化基础数据
 
 -- 1. 初始化渠道配置
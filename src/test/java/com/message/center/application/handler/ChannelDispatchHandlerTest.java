@@ -0,0 +1,242 @@
+package com.message.center.application.handler;
+
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.vo.BatchSaveResult;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.domain.vo.HandlerResult;
+import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 渠道分发处理器单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ChannelDispatchHandlerTest {
+
+    @Mock
+    private ChannelTaskExecutor channelTaskExecutor;
+
+    @Mock
+    private ChannelTaskRepository channelTaskRepository;
+
+    @InjectMocks
+    private ChannelDispatchHandler channelDispatchHandler;
+
+    private MessageContext mockContext;
+    private List<ChannelConfig> mockChannelConfigs;
+
+    @BeforeEach
+    void setUp() {
+        // 构建模拟上下文
+        mockContext = new MessageContext();
+        mockContext.setMessageId("MSG202312060001");
+        mockContext.setTenantId(1001L);
+        mockContext.setBusinessType("ORDER_NOTIFY");
+        mockContext.setBusinessData("{\"orderId\":\"ORD123456\"}");
+        mockContext.setRenderedMessages(Map.of(
+                ChannelType.LOCAL, "本地消息内容",
+                ChannelType.DINGTALK, "钉钉消息内容"
+        ));
+
+        // 构建模拟渠道配置
+        mockChannelConfigs = new ArrayList<>();
+        ChannelConfig localConfig = new ChannelConfig();
+        localConfig.setId(1L);
+        localConfig.setChannelType(ChannelType.LOCAL);
+        localConfig.setChannelName("本地消息");
+        localConfig.setEnabled(true);
+        localConfig.setPriority(1);
+        mockChannelConfigs.add(localConfig);
+
+        ChannelConfig dingTalkConfig = new ChannelConfig();
+        dingTalkConfig.setId(2L);
+        dingTalkConfig.setChannelType(ChannelType.DINGTALK);
+        dingTalkConfig.setChannelName("钉钉机器人");
+        dingTalkConfig.setEnabled(true);
+        dingTalkConfig.setPriority(1);
+        mockChannelConfigs.add(dingTalkConfig);
+
+        mockContext.setChannelConfigs(mockChannelConfigs);
+    }
+
+    /**
+     * 测试渠道分发成功的情况
+     */
+    @Test
+    void testHandle_Success() {
+        // 模拟写入成功并回填ID
+        when(channelTaskRepository.batchInsert(anyList())).then(invocation -> saveAll(invocation.getArgument(0)));
+
+        // 执行测试
+        HandlerResult result = channelDispatchHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertTrue(result.isContinueChain());
+        assertNull(result.getErrorCode());
+        assertNull(result.getErrorMessage());
+
+        // 验证任务先落库再分发
+        InOrder inOrder = inOrder(channelTaskRepository, channelTaskExecutor);
+        inOrder.verify(channelTaskRepository).batchInsert(anyList());
+        inOrder.verify(channelTaskExecutor, times(1)).executeAll(anyList());
+
+        // 验证上下文已设置渠道任务
+        assertNotNull(mockContext.getChannelTasks());
+        assertEquals(2, mockContext.getChannelTasks().size());
+    }
+
+    /**
+     * 测试部分批次写入失败时只分发已落库的任务
+     */
+    @Test
+    void testHandle_PartialSaveFailure() {
+        // 模拟只有第一个任务写入成功
+        when(channelTaskRepository.batchInsert(anyList())).then(invocation -> {
+            List<ChannelTask> tasks = invocation.getArgument(0);
+            tasks.get(0).setId(100L);
+            BatchSaveResult saveResult = new BatchSaveResult(tasks.size());
+            saveResult.addSaved(1);
+            saveResult.addFailure(1, 1, "Data too long");
+            return saveResult;
+        });
+
+        // 执行测试
+        HandlerResult result = channelDispatchHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        ArgumentCaptor<List<ChannelTask>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelTaskExecutor).executeAll(tasksCaptor.capture());
+        assertEquals(1, tasksCaptor.getValue().size());
+        assertEquals(100L, tasksCaptor.getValue().get(0).getId());
+    }
+
+    /**
+     * 测试频次受限的渠道记录为频次受限任务，只落库不执行
+     */
+    @Test
+    void testHandle_RateLimitedChannel() {
+        // 准备测试数据
+        mockContext.setChannelConfigs(List.of(mockChannelConfigs.get(0)));
+        mockContext.addAttribute(RateLimitHandler.RATE_LIMITED_CONFIGS_ATTRIBUTE, List.of(mockChannelConfigs.get(1)));
+        when(channelTaskRepository.batchInsert(anyList())).then(invocation -> saveAll(invocation.getArgument(0)));
+
+        // 执行测试
+        HandlerResult result = channelDispatchHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertEquals(2, mockContext.getChannelTasks().size());
+        ChannelTask rateLimitedTask = mockContext.getChannelTasks().get(1);
+        assertEquals(ChannelType.DINGTALK, rateLimitedTask.getChannelType());
+        assertEquals(TaskStatus.RATE_LIMITED, rateLimitedTask.getStatus());
+        assertNotNull(rateLimitedTask.getFinishTime());
+        assertNull(rateLimitedTask.getRenderedContent());
+
+        ArgumentCaptor<List<ChannelTask>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelTaskExecutor).executeAll(tasksCaptor.capture());
+        assertEquals(1, tasksCaptor.getValue().size());
+        assertEquals(ChannelType.LOCAL, tasksCaptor.getValue().get(0).getChannelType());
+    }
+
+    /**
+     * 测试任务全部写入失败时返回失败，以便责任链退还频次额度
+     */
+    @Test
+    void testHandle_AllSaveFailed() {
+        // 模拟所有任务写入失败
+        when(channelTaskRepository.batchInsert(anyList())).then(invocation -> {
+            List<ChannelTask> tasks = invocation.getArgument(0);
+            BatchSaveResult saveResult = new BatchSaveResult(tasks.size());
+            saveResult.addFailure(0, tasks.size(), "Connection refused");
+            return saveResult;
+        });
+
+        // 执行测试
+        HandlerResult result = channelDispatchHandler.handle(mockContext);
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        assertFalse(result.isContinueChain());
+        assertEquals("DISPATCH_FAILED", result.getErrorCode());
+        verify(channelTaskExecutor, never()).executeAll(anyList());
+    }
+
+    /**
+     * 测试渠道配置为空的情况
+     */
+    @Test
+    void testHandle_Fail_ChannelConfigsEmpty() {
+        // 清空渠道配置
+        mockContext.setChannelConfigs(new ArrayList<>());
+
+        // 执行测试
+        HandlerResult result = channelDispatchHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertTrue(result.isContinueChain());
+
+        // 验证未写库且任务执行器未被调用
+        verify(channelTaskRepository, never()).batchInsert(anyList());
+        verify(channelTaskExecutor, never()).executeAll(anyList());
+    }
+
+    /**
+     * 测试获取处理器顺序
+     */
+    @Test
+    void testGetOrder() {
+        assertEquals(600, channelDispatchHandler.getOrder());
+    }
+
+    /**
+     * 测试获取处理器名称
+     */
+    @Test
+    void testGetName() {
+        assertEquals("渠道分发处理器", channelDispatchHandler.getName());
+    }
+
+    /**
+     * 测试支持处理的情况
+     */
+    @Test
+    void testSupports() {
+        // 有渠道配置的情况
+        assertTrue(channelDispatchHandler.supports(mockContext));
+
+        // 无渠道配置的情况
+        mockContext.setChannelConfigs(new ArrayList<>());
+        assertFalse(channelDispatchHandler.supports(mockContext));
+    }
+
+    private BatchSaveResult saveAll(List<ChannelTask> tasks) {
+        long id = 1L;
+        for (ChannelTask task : tasks) {
+            task.setId(id++);
+        }
+        BatchSaveResult saveResult = new BatchSaveResult(tasks.size());
+        saveResult.addSaved(tasks.size());
+        return saveResult;
+    }
+}
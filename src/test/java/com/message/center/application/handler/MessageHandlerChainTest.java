@@ -0,0 +1,129 @@
+package com.message.center.application.handler;
+
+import com.message.center.domain.vo.HandlerResult;
+import com.message.center.domain.vo.MessageContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 责任链执行器单元测试
+ */
+class MessageHandlerChainTest {
+
+    private MessageHandler first;
+
+    private MessageHandler second;
+
+    private MessageHandler third;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MessageHandlerChain messageHandlerChain;
+
+    private MessageContext context;
+
+    @BeforeEach
+    void setUp() {
+        first = handler(100);
+        second = handler(200);
+        third = handler(300);
+        meterRegistry = new SimpleMeterRegistry();
+        messageHandlerChain = new MessageHandlerChain();
+        ReflectionTestUtils.setField(messageHandlerChain, "handlers", new ArrayList<>(Arrays.asList(third, first, second)));
+        ReflectionTestUtils.setField(messageHandlerChain, "meterRegistry", meterRegistry);
+        messageHandlerChain.init();
+
+        context = new MessageContext();
+        context.setMessageId("MSG202312060001");
+    }
+
+    /**
+     * 测试全部成功时不回调补偿
+     */
+    @Test
+    void testExecute_Success() {
+        // 执行测试
+        MessageHandlerChain.ChainResult result = messageHandlerChain.execute(context);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        verify(first, never()).onChainAborted(any());
+        verify(second, never()).onChainAborted(any());
+    }
+
+    /**
+     * 测试处理器失败时按逆序回调已执行处理器的补偿，失败的处理器本身不回调
+     */
+    @Test
+    void testExecute_FailureCompensatesInReverseOrder() {
+        // 准备测试数据
+        when(third.handle(context)).thenReturn(HandlerResult.fail("DISPATCH_FAILED", "渠道任务写入失败"));
+
+        // 执行测试
+        MessageHandlerChain.ChainResult result = messageHandlerChain.execute(context);
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        InOrder inOrder = inOrder(first, second);
+        inOrder.verify(second).onChainAborted(context);
+        inOrder.verify(first).onChainAborted(context);
+        verify(third, never()).onChainAborted(any());
+        assertEquals(1.0, meterRegistry.get("message.center.chain.aborted").counter().count());
+    }
+
+    /**
+     * 测试处理器抛出异常时同样补偿，且单个补偿失败不影响其他处理器
+     */
+    @Test
+    void testExecute_ExceptionCompensates() {
+        // 准备测试数据
+        when(third.handle(context)).thenThrow(new IllegalStateException("模板渲染失败"));
+        doThrow(new IllegalStateException("Redis不可用")).when(second).onChainAborted(context);
+
+        // 执行测试
+        MessageHandlerChain.ChainResult result = messageHandlerChain.execute(context);
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        verify(first).onChainAborted(context);
+        assertEquals(1.0, meterRegistry.get("message.center.chain.compensation.failed").counter().count());
+    }
+
+    /**
+     * 测试成功终止责任链时不补偿
+     */
+    @Test
+    void testExecute_StopWithoutFailure() {
+        // 准备测试数据：第二个处理器成功但不继续执行
+        HandlerResult stop = HandlerResult.success();
+        stop.setContinueChain(false);
+        when(second.handle(context)).thenReturn(stop);
+
+        // 执行测试
+        MessageHandlerChain.ChainResult result = messageHandlerChain.execute(context);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        verify(first, never()).onChainAborted(any());
+        verify(third, never()).handle(any());
+    }
+
+    private static MessageHandler handler(int order) {
+        MessageHandler handler = mock(MessageHandler.class);
+        lenient().when(handler.getOrder()).thenReturn(order);
+        lenient().when(handler.getName()).thenReturn("处理器" + order);
+        lenient().when(handler.supports(any())).thenReturn(true);
+        lenient().when(handler.handle(any())).thenReturn(HandlerResult.success());
+        return handler;
+    }
+}
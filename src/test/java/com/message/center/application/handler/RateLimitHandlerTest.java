@@ -0,0 +1,406 @@
+package com.message.center.application.handler;
+
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import com.message.center.domain.enums.TimeUnitEnum;
+import com.message.center.domain.vo.DeferredMessage;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.domain.vo.HandlerResult;
+import com.message.center.infrastructure.config.RateLimitDeferralConfig;
+import com.message.center.infrastructure.config.RateLimitHierarchyConfig;
+import com.message.center.infrastructure.delay.DelayStore;
+import com.message.center.infrastructure.ratelimit.LeasedRateLimiter;
+import com.message.center.infrastructure.ratelimit.RateLimitResult;
+import com.message.center.infrastructure.ratelimit.RateLimitRule;
+import com.message.center.interfaces.dubbo.api.ChannelConfigService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 频次控制处理器单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitHandlerTest {
+
+    @Mock
+    private LeasedRateLimiter rateLimiter;
+
+    @Mock
+    private ChannelConfigService channelConfigService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RateLimitDeferralConfig deferralConfig = new RateLimitDeferralConfig();
+
+    @Spy
+    private RateLimitHierarchyConfig hierarchyConfig = new RateLimitHierarchyConfig();
+
+    @Mock
+    private DelayStore delayStore;
+
+    @InjectMocks
+    private RateLimitHandler rateLimitHandler;
+
+    private MessageContext mockContext;
+
+    @BeforeEach
+    void setUp() {
+        // 构建模拟上下文
+        mockContext = new MessageContext();
+        mockContext.setMessageId("MSG202312060001");
+        mockContext.setTenantId(1001L);
+        mockContext.setStoreId(2001L);
+        mockContext.setBusinessType("ORDER_NOTIFY");
+        mockContext.setTargetChannels(List.of(ChannelType.LOCAL, ChannelType.DINGTALK));
+
+        // 模拟渠道配置服务返回频次限制配置
+        ChannelConfigService.RateLimitConfig rateLimitConfig = new ChannelConfigService.RateLimitConfig(100, 60, TimeUnitEnum.SECOND.getCode());
+        lenient().when(channelConfigService.getRateLimitConfig(anyLong(), any(), any(ChannelType.class))).thenReturn(rateLimitConfig);
+    }
+
+    /**
+     * 测试频次控制通过的情况，所有渠道在一次调用中判定
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHandle_Success() {
+        // 模拟限制器放行
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.allow(), RateLimitResult.allow()));
+
+        // 执行测试
+        HandlerResult result = rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertTrue(result.isContinueChain());
+        assertNull(result.getErrorCode());
+        assertNull(result.getErrorMessage());
+
+        // 验证只调用一次限制器，且每个渠道一条规则
+        ArgumentCaptor<List<List<RateLimitRule>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter, times(1)).tryAcquireGroups(captor.capture(), eq(1));
+        List<List<RateLimitRule>> groups = captor.getValue();
+        assertEquals(2, groups.size());
+        assertEquals(1, groups.get(0).size());
+        assertEquals("rate_limit:{1001:2001}:LOCAL", groups.get(0).get(0).getKey());
+        assertEquals("rate_limit:{1001:2001}:DINGTALK", groups.get(1).get(0).getKey());
+        assertEquals(100, groups.get(0).get(0).getLimit());
+        assertEquals(60, groups.get(0).get(0).getWindowSeconds());
+        assertEquals(RateLimitAlgorithm.FIXED_WINDOW, groups.get(0).get(0).getAlgorithm());
+    }
+
+    /**
+     * 测试按渠道配置选择频次限制算法
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHandle_AlgorithmFromConfig() {
+        // 模拟渠道配置滑动日志算法
+        when(channelConfigService.getRateLimitConfig(1001L, 2001L, ChannelType.DINGTALK))
+                .thenReturn(new ChannelConfigService.RateLimitConfig(20, 1, TimeUnitEnum.MINUTE.getCode(),
+                        RateLimitAlgorithm.SLIDING_LOG.getCode()));
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.allow(), RateLimitResult.allow()));
+
+        // 执行测试
+        rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        ArgumentCaptor<List<List<RateLimitRule>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter).tryAcquireGroups(captor.capture(), eq(1));
+        assertEquals(RateLimitAlgorithm.FIXED_WINDOW, captor.getValue().get(0).get(0).getAlgorithm());
+        assertEquals(RateLimitAlgorithm.SLIDING_LOG, captor.getValue().get(1).get(0).getAlgorithm());
+        assertEquals(60, captor.getValue().get(1).get(0).getWindowSeconds());
+    }
+
+    /**
+     * 测试全部渠道超过限制时整条消息失败
+     */
+    @Test
+    void testHandle_Fail_RateLimited() {
+        // 模拟全部渠道超过限制
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.reject(0, 100), RateLimitResult.reject(0, 100)));
+
+        // 执行测试
+        HandlerResult result = rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        assertFalse(result.isContinueChain());
+        assertEquals("RATE_LIMITED", result.getErrorCode());
+        assertTrue(result.getErrorMessage().contains(ChannelType.LOCAL.getName()));
+    }
+
+    /**
+     * 测试部分渠道超过限制时，其余渠道继续发送，受限渠道记录到上下文
+     */
+    @Test
+    void testHandle_PartiallyRateLimited() {
+        // 准备测试数据
+        mockContext.setChannelConfigs(List.of(channelConfig(ChannelType.LOCAL), channelConfig(ChannelType.DINGTALK)));
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1)))
+                .thenReturn(List.of(RateLimitResult.allow(), RateLimitResult.reject(0, 100)));
+
+        // 执行测试
+        HandlerResult result = rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertTrue(result.isContinueChain());
+        assertEquals(List.of(ChannelType.LOCAL), mockContext.getTargetChannels());
+        assertEquals(1, mockContext.getChannelConfigs().size());
+        assertEquals(ChannelType.LOCAL, mockContext.getChannelConfigs().get(0).getChannelType());
+        List<ChannelConfig> rateLimitedConfigs = mockContext.getAttribute(RateLimitHandler.RATE_LIMITED_CONFIGS_ATTRIBUTE);
+        assertEquals(1, rateLimitedConfigs.size());
+        assertEquals(ChannelType.DINGTALK, rateLimitedConfigs.get(0).getChannelType());
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.rejected").tag("channel", "DINGTALK").tag("level", "STORE").counter().count());
+
+        // 责任链中止时只退还已放行渠道的额度
+        rateLimitHandler.onChainAborted(mockContext);
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter).release(captor.capture(), eq(1));
+        assertEquals("rate_limit:{1001:2001}:LOCAL", captor.getValue().getKey());
+    }
+
+    /**
+     * 测试开启延后发送时按额度恢复时间暂存消息，并成功终止责任链
+     */
+    @Test
+    void testHandle_Deferred() {
+        // 准备测试数据
+        deferralConfig.setEnabled(true);
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.reject(0, 100), RateLimitResult.reject(0, 100)));
+        when(rateLimiter.nextAvailableAt(any(RateLimitRule.class))).thenReturn(1_700_000_060_000L);
+        when(delayStore.offer(any())).thenReturn(true);
+
+        // 执行测试
+        HandlerResult result = rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertFalse(result.isContinueChain());
+        assertEquals("RATE_LIMIT_DEFERRED", result.getErrorCode());
+        assertTrue(RateLimitHandler.isDeferred(mockContext));
+        ArgumentCaptor<DeferredMessage> captor = ArgumentCaptor.forClass(DeferredMessage.class);
+        verify(delayStore, times(2)).offer(captor.capture());
+        assertEquals("MSG202312060001", captor.getValue().getMessageId());
+        assertEquals(List.of(ChannelType.LOCAL), captor.getAllValues().get(0).getTargetChannels());
+        assertEquals(List.of(ChannelType.DINGTALK), captor.getAllValues().get(1).getTargetChannels());
+        assertEquals(1, captor.getValue().getAttempts());
+        assertEquals(1_700_000_060_000L, captor.getValue().getDueTime());
+    }
+
+    /**
+     * 测试超过最大延后次数时按原方式失败
+     */
+    @Test
+    void testHandle_DeferAttemptsExhausted() {
+        // 准备测试数据
+        deferralConfig.setEnabled(true);
+        deferralConfig.setMaxAttempts(2);
+        mockContext.addAttribute(RateLimitHandler.DEFER_ATTEMPTS_ATTRIBUTE, 2);
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.reject(0, 100), RateLimitResult.reject(0, 100)));
+
+        // 执行测试
+        HandlerResult result = rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        assertEquals("RATE_LIMITED", result.getErrorCode());
+        verify(delayStore, never()).offer(any());
+    }
+
+    /**
+     * 测试责任链中止时退还已占用的额度，且只退还一次
+     */
+    @Test
+    void testOnChainAborted_Refund() {
+        // 准备测试数据
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.allow(), RateLimitResult.allow()));
+        rateLimitHandler.handle(mockContext);
+
+        // 执行测试
+        rateLimitHandler.onChainAborted(mockContext);
+        rateLimitHandler.onChainAborted(mockContext);
+
+        // 验证结果
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter, times(2)).release(captor.capture(), eq(1));
+        assertEquals("rate_limit:{1001:2001}:LOCAL", captor.getAllValues().get(0).getKey());
+        assertEquals("rate_limit:{1001:2001}:DINGTALK", captor.getAllValues().get(1).getKey());
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.refunded").tag("channel", "DINGTALK").counter().count());
+    }
+
+    /**
+     * 测试被频次限制拒绝的消息中止时不退还额度
+     */
+    @Test
+    void testOnChainAborted_NothingReserved() {
+        // 准备测试数据
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.reject(0, 100), RateLimitResult.reject(0, 100)));
+        rateLimitHandler.handle(mockContext);
+
+        // 执行测试
+        rateLimitHandler.onChainAborted(mockContext);
+
+        // 验证结果
+        verify(rateLimiter, never()).release(any(), anyInt());
+    }
+
+    /**
+     * 测试批量申请额度
+     */
+    @Test
+    void testAcquire() {
+        // 模拟限制器部分放行
+        when(rateLimiter.acquireUpTo(anyList(), any(int[].class))).thenReturn(new int[]{3});
+
+        // 执行测试
+        int granted = rateLimitHandler.acquire(1001L, 2001L, ChannelType.LOCAL, 5);
+
+        // 验证结果
+        assertEquals(3, granted);
+    }
+
+    /**
+     * 测试批量申请额度时所有申请在一次调用中完成
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAcquireBatch() {
+        // 准备测试数据
+        when(rateLimiter.acquireUpTo(anyList(), any(int[].class))).thenReturn(new int[]{3, 1});
+        List<RateLimitHandler.Demand> demands = List.of(
+                new RateLimitHandler.Demand(1001L, 2001L, ChannelType.DINGTALK, 5),
+                new RateLimitHandler.Demand(1002L, null, ChannelType.LOCAL, 1));
+
+        // 执行测试
+        int[] granted = rateLimitHandler.acquire(demands);
+
+        // 验证结果
+        assertArrayEquals(new int[]{3, 1}, granted);
+        ArgumentCaptor<List<RateLimitRule>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter, times(1)).acquireUpTo(captor.capture(), eq(new int[]{5, 1}));
+        assertEquals("rate_limit:{1001:2001}:DINGTALK", captor.getValue().get(0).getKey());
+        assertEquals("rate_limit:{1002:null}:LOCAL", captor.getValue().get(1).getKey());
+    }
+
+    /**
+     * 测试渠道未配置频次限制时批量申请不受限制
+     */
+    @Test
+    void testAcquireBatch_NoRateLimitConfig() {
+        // 准备测试数据
+        when(channelConfigService.getRateLimitConfig(1001L, 2001L, ChannelType.WECHAT_WORK)).thenReturn(null);
+
+        // 执行测试
+        int[] granted = rateLimitHandler.acquire(List.of(
+                new RateLimitHandler.Demand(1001L, 2001L, ChannelType.WECHAT_WORK, 5)));
+
+        // 验证结果
+        assertArrayEquals(new int[]{5}, granted);
+    }
+
+    /**
+     * 测试开启分层额度时按检查顺序构建各层规则，机器人层不足时按机器人层报告
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHandle_HierarchyRejectedByWebhook() {
+        // 准备测试数据
+        hierarchyConfig.setEnabled(true);
+        hierarchyConfig.getGlobal().put(ChannelType.DINGTALK,
+                new RateLimitHierarchyConfig.Quota(100000, 1, TimeUnitEnum.MINUTE.getCode(), null));
+        ChannelConfig config = channelConfig(ChannelType.DINGTALK);
+        config.setConfigJson("{\"webhook\":\"https://oapi.dingtalk.com/robot/send?access_token=abc\"}");
+        mockContext.setTargetChannels(List.of(ChannelType.DINGTALK));
+        mockContext.setChannelConfigs(List.of(config));
+        when(rateLimiter.tryAcquireGroups(anyList(), eq(1))).thenReturn(List.of(RateLimitResult.reject(2, 20)));
+
+        // 执行测试
+        HandlerResult result = rateLimitHandler.handle(mockContext);
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        assertEquals("RATE_LIMITED", result.getErrorCode());
+        assertTrue(result.getErrorMessage().contains("机器人"));
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.rejected")
+                .tag("channel", "DINGTALK").tag("level", "WEBHOOK").counter().count());
+        ArgumentCaptor<List<List<RateLimitRule>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter).tryAcquireGroups(captor.capture(), eq(1));
+        List<RateLimitRule> rules = captor.getValue().get(0);
+        assertEquals(3, rules.size());
+        assertEquals("rate_limit:{global}:DINGTALK", rules.get(0).getKey());
+        assertEquals("rate_limit:{1001:2001}:DINGTALK", rules.get(1).getKey());
+        assertEquals("rate_limit:{webhook:" + RateLimitHandler.webhookId(config) + "}:DINGTALK", rules.get(2).getKey());
+        assertEquals(20, rules.get(2).getLimit());
+        assertEquals(RateLimitAlgorithm.SLIDING_LOG, rules.get(2).getAlgorithm());
+    }
+
+    /**
+     * 测试分层时批量申请按各层中最少的额度发放，其余层多占用的额度退还
+     */
+    @Test
+    void testAcquireBatch_Hierarchy() {
+        // 准备测试数据
+        hierarchyConfig.setEnabled(true);
+        hierarchyConfig.getTenant().put(ChannelType.DINGTALK,
+                new RateLimitHierarchyConfig.Quota(5000, 1, TimeUnitEnum.MINUTE.getCode(), null));
+        when(rateLimiter.acquireUpTo(anyList(), any(int[].class))).thenReturn(new int[]{5, 3});
+
+        // 执行测试
+        int[] granted = rateLimitHandler.acquire(List.of(new RateLimitHandler.Demand(1001L, 2001L, ChannelType.DINGTALK, 5)));
+
+        // 验证结果
+        assertArrayEquals(new int[]{3}, granted);
+        verify(rateLimiter).acquireUpTo(anyList(), eq(new int[]{5, 5}));
+        verify(rateLimiter).release(anyList(), eq(new int[]{2, 0}));
+    }
+
+    /**
+     * 测试获取处理器顺序
+     */
+    @Test
+    void testGetOrder() {
+        assertEquals(400, rateLimitHandler.getOrder());
+    }
+
+    /**
+     * 测试获取处理器名称
+     */
+    @Test
+    void testGetName() {
+        assertEquals("频次控制处理器", rateLimitHandler.getName());
+    }
+
+    /**
+     * 测试支持处理的情况
+     */
+    @Test
+    void testSupports() {
+        // 有渠道配置的情况
+        mockContext.setChannelConfigs(List.of(new ChannelConfig()));
+        assertTrue(rateLimitHandler.supports(mockContext));
+    }
+
+    private static ChannelConfig channelConfig(ChannelType channelType) {
+        ChannelConfig config = new ChannelConfig();
+        config.setChannelType(channelType);
+        return config;
+    }
+}
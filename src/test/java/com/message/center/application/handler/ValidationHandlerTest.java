@@ -1,5 +1,6 @@
-package com.message.center.handler;
+package com.message.center.application.handler;
 
+import com.message.center.domain.vo.BusinessData;
 import com.message.center.domain.vo.MessageContext;
 import com.message.center.domain.vo.HandlerResult;
 import org.junit.jupiter.api.BeforeEach;
@@ -124,6 +125,49 @@ class ValidationHandlerTest {
         assertEquals("业务数据必须是有效的JSON格式", result.getErrorMessage());
     }
 
+    /**
+     * 测试验证通过后解析结果保留在上下文中，后续读取不再重复解析
+     */
+    @Test
+    void testHandle_KeepsParsedBusinessData() {
+        // 构建测试上下文
+        MessageContext context = new MessageContext();
+        context.setTenantId(1001L);
+        context.setBusinessType("ORDER_NOTIFY");
+        context.setBusinessData("{\"order\":{\"id\":\"ORD123456\",\"items\":[{\"name\":\"拿铁\"}]}}");
+
+        // 执行测试
+        HandlerResult result = validationHandler.handle(context);
+        BusinessData parsed = context.getParsedBusinessData();
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertSame(parsed, context.getParsedBusinessData());
+        assertSame(parsed.asMap(), context.getParsedBusinessData().asMap());
+        assertEquals("ORD123456", parsed.get("order.id"));
+        assertEquals("拿铁", parsed.get("order.items.0.name"));
+        assertNull(parsed.get("order.missing"));
+        assertThrows(UnsupportedOperationException.class, () -> parsed.asMap().put("key", "value"));
+    }
+
+    /**
+     * 测试修改业务数据原文后重新解析
+     */
+    @Test
+    void testSetBusinessData_ResetsParsedView() {
+        // 构建测试上下文
+        MessageContext context = new MessageContext();
+        context.setBusinessData("{\"orderId\":\"ORD1\"}");
+        BusinessData first = context.getParsedBusinessData();
+
+        // 执行测试
+        context.setBusinessData("{\"orderId\":\"ORD2\"}");
+
+        // 验证结果
+        assertNotSame(first, context.getParsedBusinessData());
+        assertEquals("ORD2", context.getParsedBusinessData().get("orderId"));
+    }
+
     /**
      * 测试获取处理器顺序
      */
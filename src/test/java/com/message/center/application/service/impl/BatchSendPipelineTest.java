@@ -0,0 +1,384 @@
+package com.message.center.application.service.impl;
+
+import com.message.center.application.handler.ChannelDispatchHandler;
+import com.message.center.application.handler.RateLimitHandler;
+import com.message.center.application.handler.TimeWindowHandler;
+import com.message.center.application.handler.ValidationHandler;
+import com.message.center.application.service.MessageSendApplicationService.BatchSendResult;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.ChannelConfigRepository;
+import com.message.center.domain.service.MessageDomainService;
+import com.message.center.domain.vo.BatchSaveResult;
+import com.message.center.domain.vo.HandlerResult;
+import com.message.center.domain.vo.Message;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import com.message.center.interfaces.dubbo.api.MessageTemplateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 批量发送流水线单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchSendPipelineTest {
+
+    @Spy
+    private ValidationHandler validationHandler = new ValidationHandler();
+
+    @Mock
+    private TimeWindowHandler timeWindowHandler;
+
+    @Mock
+    private RateLimitHandler rateLimitHandler;
+
+    @Mock
+    private ChannelConfigRepository channelConfigRepository;
+
+    @Mock
+    private MessageTemplateService messageTemplateService;
+
+    @Mock
+    private MessageDomainService messageDomainService;
+
+    @Mock
+    private ChannelDispatchHandler channelDispatchHandler;
+
+    @Mock
+    private ChannelTaskExecutor channelTaskExecutor;
+
+    @InjectMocks
+    private BatchSendPipeline batchSendPipeline;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(timeWindowHandler.handle(any())).thenReturn(HandlerResult.success());
+        lenient().when(messageTemplateService.renderTemplate(any(), any(), anyString())).thenReturn("rendered");
+        lenient().when(channelDispatchHandler.saveChannelTasks(anyList())).then(invocation -> invocation.getArgument(0));
+        lenient().when(messageDomainService.batchCreateMessages(anyList())).then(invocation -> {
+            BatchSaveResult saveResult = new BatchSaveResult(invocation.getArgument(0, List.class).size());
+            saveResult.addSaved(saveResult.getTotalCount());
+            return saveResult;
+        });
+    }
+
+    /**
+     * 测试同组消息只查询一次渠道配置和模板，并合并申请额度
+     */
+    @Test
+    void testExecuteResolvesConfigOncePerGroup() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 3)))).thenReturn(new int[]{3});
+        List<Message> messages = messages(3);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(3, result.getSuccessCount());
+        verify(channelConfigRepository, times(1)).getConfigs(1L, 10L, "ORDER");
+        verify(messageTemplateService, times(1)).getTemplate(1L, "ORDER", ChannelType.DINGTALK);
+        verify(timeWindowHandler, times(1)).handle(any());
+        verify(rateLimitHandler).release(List.of());
+
+        ArgumentCaptor<List<ChannelTask>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelDispatchHandler).saveChannelTasks(tasksCaptor.capture());
+        assertEquals(3, tasksCaptor.getValue().size());
+        verify(channelTaskExecutor).executeAll(tasksCaptor.getValue());
+    }
+
+    /**
+     * 测试额度不足时按提交顺序分配，超出部分失败且落库为失败状态
+     */
+    @Test
+    void testExecutePartiallyRateLimited() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 3)))).thenReturn(new int[]{2});
+        List<Message> messages = messages(3);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(1, result.getFailedCount());
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertEquals("RATE_LIMITED", result.getResults().get(2).getErrorCode());
+        assertEquals("MSG2", result.getResults().get(2).getMessageId());
+
+        ArgumentCaptor<List<com.message.center.domain.entity.Message>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(messageDomainService).batchCreateMessages(messagesCaptor.capture());
+        assertEquals(MessageStatus.PROCESSING, messagesCaptor.getValue().get(0).getStatus());
+        assertEquals(MessageStatus.FAILED, messagesCaptor.getValue().get(2).getStatus());
+        verify(rateLimitHandler, never()).defer(any(), anyList());
+    }
+
+    /**
+     * 测试开启延后发送时额度不足的消息被延后，视为受理成功、结果标记为延后，先落库为延后发送状态再暂存
+     */
+    @Test
+    void testExecuteRateLimitedDeferred() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 2)))).thenReturn(new int[]{1});
+        when(rateLimitHandler.isDeferralEnabled()).thenReturn(true);
+        when(rateLimitHandler.defer(any(), eq(List.of(ChannelType.DINGTALK)))).then(invocation -> {
+            MessageContext context = invocation.getArgument(0);
+            context.addAttribute(RateLimitHandler.DEFERRED_ATTRIBUTE, true);
+            return List.of();
+        });
+        List<Message> messages = messages(2);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(2, result.getSuccessCount());
+        assertEquals("MSG1", result.getResults().get(1).getMessageId());
+        assertFalse(result.getResults().get(0).isDeferred());
+        assertTrue(result.getResults().get(1).isDeferred());
+        ArgumentCaptor<List<ChannelTask>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelDispatchHandler).saveChannelTasks(tasksCaptor.capture());
+        assertEquals(1, tasksCaptor.getValue().size());
+
+        ArgumentCaptor<List<com.message.center.domain.entity.Message>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(messageDomainService).batchCreateMessages(messagesCaptor.capture());
+        assertEquals(MessageStatus.PROCESSING, messagesCaptor.getValue().get(0).getStatus());
+        assertEquals(MessageStatus.DEFERRED, messagesCaptor.getValue().get(1).getStatus());
+        InOrder inOrder = inOrder(messageDomainService, rateLimitHandler);
+        inOrder.verify(messageDomainService).batchCreateMessages(anyList());
+        inOrder.verify(rateLimitHandler).defer(any(), eq(List.of(ChannelType.DINGTALK)));
+    }
+
+    /**
+     * 测试全部渠道都未能延后的消息在落库后置为失败
+     */
+    @Test
+    void testExecuteDeferralFailed() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 1)))).thenReturn(new int[]{0});
+        when(rateLimitHandler.isDeferralEnabled()).thenReturn(true);
+        when(rateLimitHandler.defer(any(), eq(List.of(ChannelType.DINGTALK)))).thenReturn(List.of(ChannelType.DINGTALK));
+        List<Message> messages = messages(1);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(0, result.getSuccessCount());
+        assertEquals("RATE_LIMITED", result.getResults().get(0).getErrorCode());
+        verify(messageDomainService).updateMessageStatus("MSG0", MessageStatus.FAILED);
+    }
+
+    /**
+     * 测试只有部分渠道额度不足时，其余渠道照常发送，受限渠道记录为频次受限任务且不执行
+     */
+    @Test
+    void testExecuteChannelRateLimited() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(List.of(channelConfig(ChannelType.LOCAL), channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.LOCAL, 1), demand(ChannelType.DINGTALK, 1))))
+                .thenReturn(new int[]{1, 0});
+        when(rateLimitHandler.isDeferralEnabled()).thenReturn(true);
+        when(rateLimitHandler.defer(any(), eq(List.of(ChannelType.DINGTALK)))).thenReturn(List.of(ChannelType.DINGTALK));
+        List<Message> messages = messages(1);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(1, result.getSuccessCount());
+        ArgumentCaptor<List<ChannelTask>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelDispatchHandler).saveChannelTasks(savedCaptor.capture());
+        assertEquals(2, savedCaptor.getValue().size());
+        assertEquals(TaskStatus.PENDING, savedCaptor.getValue().get(0).getStatus());
+        assertEquals(ChannelType.DINGTALK, savedCaptor.getValue().get(1).getChannelType());
+        assertEquals(TaskStatus.RATE_LIMITED, savedCaptor.getValue().get(1).getStatus());
+
+        ArgumentCaptor<List<ChannelTask>> executedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelTaskExecutor).executeAll(executedCaptor.capture());
+        assertEquals(1, executedCaptor.getValue().size());
+        assertEquals(ChannelType.LOCAL, executedCaptor.getValue().get(0).getChannelType());
+    }
+
+    /**
+     * 测试多个分组的额度在一次调用中申请，未分配的额度在一次调用中退还
+     */
+    @Test
+    void testExecuteAcquiresAllGroupsAtOnce() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(anyLong(), eq(10L), eq("ORDER")))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        List<Message> messages = messages(3);
+        messages.get(2).setTenantId(2L);
+        when(rateLimitHandler.acquire(anyList())).thenReturn(new int[]{5, 1});
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(3, result.getSuccessCount());
+        ArgumentCaptor<List<RateLimitHandler.Demand>> acquireCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimitHandler, times(1)).acquire(acquireCaptor.capture());
+        assertEquals(List.of(demand(ChannelType.DINGTALK, 2),
+                new RateLimitHandler.Demand(2L, 10L, ChannelType.DINGTALK, 1)), acquireCaptor.getValue());
+        verify(rateLimitHandler, times(1)).release(List.of(demand(ChannelType.DINGTALK, 3)));
+    }
+
+    /**
+     * 测试消息写入失败的批次置为失败，其渠道任务不写入也不分发
+     */
+    @Test
+    void testExecuteMessageSaveFailure() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 3)))).thenReturn(new int[]{3});
+        when(messageDomainService.batchCreateMessages(anyList())).then(invocation -> {
+            BatchSaveResult saveResult = new BatchSaveResult(3);
+            saveResult.addSaved(2);
+            saveResult.addFailure(2, 1, "连接超时");
+            return saveResult;
+        });
+        List<Message> messages = messages(3);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(2, result.getSuccessCount());
+        assertEquals("SYSTEM_ERROR", result.getResults().get(2).getErrorCode());
+        assertEquals("MSG2", result.getResults().get(2).getMessageId());
+        ArgumentCaptor<List<ChannelTask>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelDispatchHandler).saveChannelTasks(tasksCaptor.capture());
+        assertEquals(2, tasksCaptor.getValue().size());
+        assertTrue(tasksCaptor.getValue().stream().noneMatch(task -> "MSG2".equals(task.getMessageId())));
+        verify(rateLimitHandler).release(List.of(demand(ChannelType.DINGTALK, 1)));
+    }
+
+    /**
+     * 测试写入失败的消息不再延后
+     */
+    @Test
+    void testExecuteUnsavedMessageNotDeferred() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 2)))).thenReturn(new int[]{1});
+        when(rateLimitHandler.isDeferralEnabled()).thenReturn(true);
+        when(messageDomainService.batchCreateMessages(anyList())).then(invocation -> {
+            BatchSaveResult saveResult = new BatchSaveResult(2);
+            saveResult.addSaved(1);
+            saveResult.addFailure(1, 1, "连接超时");
+            return saveResult;
+        });
+        List<Message> messages = messages(2);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(1, result.getSuccessCount());
+        assertEquals("SYSTEM_ERROR", result.getResults().get(1).getErrorCode());
+        verify(rateLimitHandler, never()).defer(any(), anyList());
+    }
+
+    /**
+     * 测试分组中途渲染失败时整组失败，已分配的额度全部退还
+     */
+    @Test
+    void testExecuteRenderFailureRefundsGroup() {
+        // 准备测试数据
+        when(channelConfigRepository.getConfigs(1L, 10L, "ORDER"))
+                .thenReturn(Collections.singletonList(channelConfig(ChannelType.DINGTALK)));
+        when(rateLimitHandler.acquire(List.of(demand(ChannelType.DINGTALK, 2)))).thenReturn(new int[]{2});
+        when(messageTemplateService.renderTemplate(any(), any(), anyString()))
+                .thenReturn("rendered")
+                .thenThrow(new IllegalStateException("模板错误"));
+        List<Message> messages = messages(2);
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(0, result.getSuccessCount());
+        assertEquals("SYSTEM_ERROR", result.getResults().get(0).getErrorCode());
+        verify(rateLimitHandler).release(List.of(demand(ChannelType.DINGTALK, 2)));
+        ArgumentCaptor<List<ChannelTask>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(channelDispatchHandler).saveChannelTasks(tasksCaptor.capture());
+        assertTrue(tasksCaptor.getValue().isEmpty());
+    }
+
+    /**
+     * 测试校验失败的消息不进入分组也不落库
+     */
+    @Test
+    void testExecuteValidationFailure() {
+        // 准备测试数据
+        List<Message> messages = messages(1);
+        messages.get(0).setBusinessData("not json");
+
+        // 执行测试
+        BatchSendResult result = batchSendPipeline.execute(messages);
+
+        // 验证结果
+        assertEquals(0, result.getSuccessCount());
+        assertEquals("VALIDATION_ERROR", result.getResults().get(0).getErrorCode());
+        verify(channelConfigRepository, never()).getConfigs(anyLong(), anyLong(), anyString());
+        verify(messageDomainService).batchCreateMessages(Collections.emptyList());
+        verify(channelTaskExecutor, never()).executeAll(anyList());
+    }
+
+    private List<Message> messages(int count) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Message message = new Message();
+            message.setMessageId("MSG" + i);
+            message.setTenantId(1L);
+            message.setStoreId(10L);
+            message.setBusinessType("ORDER");
+            message.setBusinessData("{\"orderNo\":\"" + i + "\"}");
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private RateLimitHandler.Demand demand(ChannelType channelType, int permits) {
+        return new RateLimitHandler.Demand(1L, 10L, channelType, permits);
+    }
+
+    private ChannelConfig channelConfig(ChannelType channelType) {
+        ChannelConfig config = new ChannelConfig();
+        config.setId(1L);
+        config.setChannelType(channelType);
+        config.setEnabled(true);
+        return config;
+    }
+}
@@ -0,0 +1,175 @@
+package com.message.center.application.service.impl;
+
+import com.message.center.application.handler.ChannelDispatchHandler;
+import com.message.center.application.handler.MessageHandlerChain;
+import com.message.center.application.handler.RateLimitHandler;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.MessageRepository;
+import com.message.center.domain.vo.DeferredMessage;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.infrastructure.config.RateLimitDeferralConfig;
+import com.message.center.infrastructure.delay.DelayStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 延后消息调度器单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class DeferredMessageDispatcherTest {
+
+    @Spy
+    private RateLimitDeferralConfig deferralConfig = new RateLimitDeferralConfig();
+
+    @Mock
+    private DelayStore delayStore;
+
+    @Mock
+    private MessageHandlerChain messageHandlerChain;
+
+    @Mock
+    private RateLimitHandler rateLimitHandler;
+
+    @Mock
+    private ChannelDispatchHandler channelDispatchHandler;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DeferredMessageDispatcher deferredMessageDispatcher;
+
+    /**
+     * 测试到期消息按批次上限取出，并携带已延后次数重新执行责任链
+     */
+    @Test
+    void testDispatchDue() {
+        // 准备测试数据
+        deferralConfig.setReleaseBatchSize(50);
+        DeferredMessage deferred = deferred(null);
+        when(delayStore.pollDue(anyLong(), eq(50))).thenReturn(List.of(deferred));
+        when(messageHandlerChain.execute(any(MessageContext.class))).thenReturn(new MessageHandlerChain.ChainResult());
+
+        // 执行测试
+        deferredMessageDispatcher.dispatchDue();
+
+        // 验证结果
+        ArgumentCaptor<MessageContext> captor = ArgumentCaptor.forClass(MessageContext.class);
+        verify(messageHandlerChain).execute(captor.capture());
+        MessageContext context = captor.getValue();
+        assertEquals("MSG202312060001", context.getMessageId());
+        assertEquals(1001L, context.getTenantId());
+        assertEquals(2, (Integer) context.getAttribute(RateLimitHandler.DEFER_ATTEMPTS_ATTRIBUTE));
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.deferral.released")
+                .tag("result", "sent").counter().count());
+    }
+
+    /**
+     * 测试携带渠道配置的消息从频次控制处理器继续执行，不再校验和路由
+     */
+    @Test
+    void testDispatchDueResumesAtRateLimit() {
+        // 准备测试数据
+        ChannelConfig config = channelConfig();
+        when(delayStore.pollDue(anyLong(), anyInt())).thenReturn(List.of(deferred(config)));
+        when(rateLimitHandler.getOrder()).thenReturn(400);
+        when(messageHandlerChain.execute(any(MessageContext.class), eq(400)))
+                .thenReturn(new MessageHandlerChain.ChainResult());
+
+        // 执行测试
+        deferredMessageDispatcher.dispatchDue();
+
+        // 验证结果
+        ArgumentCaptor<MessageContext> captor = ArgumentCaptor.forClass(MessageContext.class);
+        verify(messageHandlerChain).execute(captor.capture(), eq(400));
+        assertEquals(List.of(config), captor.getValue().getChannelConfigs());
+        assertEquals(List.of(ChannelType.DINGTALK), captor.getValue().getTargetChannels());
+        verify(messageHandlerChain, never()).execute(any(MessageContext.class));
+    }
+
+    /**
+     * 测试超过最大延后次数仍受限时记录频次受限任务，消息没有其他渠道发出时置为失败
+     */
+    @Test
+    void testDispatchDueFinallyRateLimited() {
+        // 准备测试数据
+        when(delayStore.pollDue(anyLong(), anyInt())).thenReturn(List.of(deferred(channelConfig())));
+        when(rateLimitHandler.getOrder()).thenReturn(400);
+        MessageHandlerChain.ChainResult chainResult = new MessageHandlerChain.ChainResult();
+        chainResult.setSuccess(false);
+        chainResult.setErrorCode("RATE_LIMITED");
+        chainResult.setErrorMessage("渠道钉钉触发门店频次限制");
+        when(messageHandlerChain.execute(any(MessageContext.class), eq(400))).thenReturn(chainResult);
+        com.message.center.domain.entity.Message message = new com.message.center.domain.entity.Message();
+        message.setStatus(MessageStatus.DEFERRED);
+        when(messageRepository.getByMessageId("MSG202312060001")).thenReturn(message);
+
+        // 执行测试
+        deferredMessageDispatcher.dispatchDue();
+
+        // 验证结果
+        ArgumentCaptor<List<ChannelTask>> captor = ArgumentCaptor.forClass(List.class);
+        verify(channelDispatchHandler).saveChannelTasks(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(TaskStatus.RATE_LIMITED, captor.getValue().get(0).getStatus());
+        assertEquals("MSG202312060001", captor.getValue().get(0).getMessageId());
+        verify(messageRepository).updateStatus("MSG202312060001", MessageStatus.FAILED);
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.deferral.released")
+                .tag("result", "failed").counter().count());
+    }
+
+    /**
+     * 测试拉取失败时不影响调度线程
+     */
+    @Test
+    void testDispatchDuePollFailure() {
+        // 准备测试数据
+        when(delayStore.pollDue(anyLong(), anyInt())).thenThrow(new IllegalStateException("Redis不可用"));
+
+        // 执行测试
+        assertDoesNotThrow(() -> deferredMessageDispatcher.dispatchDue());
+
+        // 验证结果
+        verify(messageHandlerChain, never()).execute(any());
+    }
+
+    private DeferredMessage deferred(ChannelConfig config) {
+        DeferredMessage deferred = new DeferredMessage();
+        deferred.setMessageId("MSG202312060001");
+        deferred.setTenantId(1001L);
+        deferred.setStoreId(2001L);
+        deferred.setBusinessType("ORDER_NOTIFY");
+        deferred.setBusinessData("{\"orderNo\":\"NO1\"}");
+        deferred.setTargetChannels(List.of(ChannelType.DINGTALK));
+        deferred.setChannelConfig(config);
+        deferred.setAttempts(2);
+        return deferred;
+    }
+
+    private ChannelConfig channelConfig() {
+        ChannelConfig config = new ChannelConfig();
+        config.setId(1L);
+        config.setChannelType(ChannelType.DINGTALK);
+        config.setEnabled(true);
+        return config;
+    }
+}
@@ -0,0 +1,253 @@
+package com.message.center.application.service.impl;
+
+import com.message.center.application.handler.MessageHandlerChain;
+import com.message.center.application.handler.RateLimitHandler;
+import com.message.center.domain.enums.MessageStatus;
+import com.message.center.domain.repository.MessageRepository;
+import com.message.center.domain.service.MessageDomainService;
+import com.message.center.domain.vo.Message;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.domain.vo.SendResult;
+import com.message.center.infrastructure.config.AsyncSendConfig;
+import com.message.center.infrastructure.mq.InMemoryMessageQueue;
+import com.message.center.infrastructure.mq.MessageQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 消息发送应用服务单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageSendApplicationServiceImplTest {
+
+    @Mock
+    private MessageDomainService messageDomainService;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageHandlerChain messageHandlerChain;
+
+    @InjectMocks
+    private MessageSendApplicationServiceImpl messageSendApplicationService;
+
+    private AsyncSendConfig asyncSendConfig;
+
+    private InMemoryMessageQueue messageQueue;
+
+    @BeforeEach
+    void setUp() {
+        asyncSendConfig = new AsyncSendConfig();
+        ReflectionTestUtils.setField(messageSendApplicationService, "asyncSendConfig", asyncSendConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (messageQueue != null) {
+            messageQueue.destroy();
+        }
+    }
+
+    /**
+     * 测试同步模式在调用线程上执行责任链
+     */
+    @Test
+    void testSendMessage_Sync() {
+        when(messageHandlerChain.execute(any(MessageContext.class))).thenReturn(new MessageHandlerChain.ChainResult());
+        messageSendApplicationService.init();
+
+        // 执行测试
+        SendResult result = messageSendApplicationService.sendMessage(buildMessage());
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertNotNull(result.getMessageId());
+        verify(messageDomainService, times(1)).createMessage(any());
+        verify(messageHandlerChain, times(1)).execute(any(MessageContext.class));
+    }
+
+    /**
+     * 测试所有渠道延后发送时结果标记为延后，消息状态置为延后发送
+     */
+    @Test
+    void testSendMessage_Deferred() {
+        when(messageHandlerChain.execute(any(MessageContext.class))).thenAnswer(invocation -> {
+            MessageContext context = invocation.getArgument(0);
+            context.addAttribute(RateLimitHandler.DEFERRED_ATTRIBUTE, true);
+            return new MessageHandlerChain.ChainResult();
+        });
+        messageSendApplicationService.init();
+
+        // 执行测试
+        SendResult result = messageSendApplicationService.sendMessage(buildMessage());
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertTrue(result.isDeferred());
+        verify(messageDomainService).updateMessageStatus(result.getMessageId(), MessageStatus.DEFERRED);
+    }
+
+    /**
+     * 测试异步模式立即返回messageId，由消费线程执行责任链
+     */
+    @Test
+    void testSendMessage_Async() throws Exception {
+        enableAsync(16);
+        CountDownLatch latch = new CountDownLatch(1);
+        when(messageHandlerChain.execute(any(MessageContext.class))).thenAnswer(invocation -> {
+            latch.countDown();
+            return new MessageHandlerChain.ChainResult();
+        });
+
+        // 执行测试
+        SendResult result = messageSendApplicationService.sendMessage(buildMessage());
+
+        // 验证结果
+        assertTrue(result.isSuccess());
+        assertNotNull(result.getMessageId());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        ArgumentCaptor<MessageContext> contextCaptor = ArgumentCaptor.forClass(MessageContext.class);
+        verify(messageHandlerChain).execute(contextCaptor.capture());
+        assertEquals(result.getMessageId(), contextCaptor.getValue().getMessageId());
+        verify(messageDomainService, times(1)).createMessage(any());
+    }
+
+    /**
+     * 测试异步模式下保存消息失败时消费异常抛出，由消息队列重新投递
+     */
+    @Test
+    void testConsumeMessage_RethrowsSystemFailure() {
+        asyncSendConfig.setEnabled(true);
+        MessageQueue queue = mock(MessageQueue.class);
+        ReflectionTestUtils.setField(messageSendApplicationService, "messageQueue", queue);
+        messageSendApplicationService.init();
+        ArgumentCaptor<Consumer<Message>> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(queue).subscribe(consumerCaptor.capture());
+        Message message = buildMessage();
+        message.setMessageId("MSG1");
+        when(messageDomainService.createMessage(any())).thenThrow(new IllegalStateException("保存消息失败，消息ID：MSG1"));
+
+        // 执行测试与验证结果
+        assertThrows(IllegalStateException.class, () -> consumerCaptor.getValue().accept(message));
+        verify(messageHandlerChain, never()).execute(any(MessageContext.class));
+    }
+
+    /**
+     * 测试重复投递已落库但未处理的消息时不再保存，只重新执行责任链
+     */
+    @Test
+    void testConsumeMessage_RedeliveredPendingMessage() {
+        // 准备测试数据
+        Consumer<Message> consumer = subscribeMockQueue();
+        Message message = buildMessage();
+        message.setMessageId("MSG1");
+        when(messageRepository.getByMessageId("MSG1")).thenReturn(savedMessage(MessageStatus.PENDING));
+        when(messageHandlerChain.execute(any(MessageContext.class))).thenReturn(new MessageHandlerChain.ChainResult());
+
+        // 执行测试
+        consumer.accept(message);
+
+        // 验证结果
+        verify(messageDomainService, never()).createMessage(any());
+        verify(messageHandlerChain).execute(any(MessageContext.class));
+    }
+
+    /**
+     * 测试重复投递已开始处理的消息时直接忽略
+     */
+    @Test
+    void testConsumeMessage_RedeliveredProcessedMessage() {
+        // 准备测试数据
+        Consumer<Message> consumer = subscribeMockQueue();
+        Message message = buildMessage();
+        message.setMessageId("MSG1");
+        when(messageRepository.getByMessageId("MSG1")).thenReturn(savedMessage(MessageStatus.PROCESSING));
+
+        // 执行测试
+        consumer.accept(message);
+
+        // 验证结果
+        verify(messageDomainService, never()).createMessage(any());
+        verify(messageHandlerChain, never()).execute(any(MessageContext.class));
+    }
+
+    /**
+     * 测试异步模式下队列已满时返回失败
+     */
+    @Test
+    void testSendMessage_AsyncQueueFull() throws Exception {
+        enableAsync(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        when(messageHandlerChain.execute(any(MessageContext.class))).thenAnswer(invocation -> {
+            blocker.await(5, TimeUnit.SECONDS);
+            return new MessageHandlerChain.ChainResult();
+        });
+
+        // 执行测试：第一条被消费线程取走并阻塞，第二条占满队列，第三条被拒绝
+        messageSendApplicationService.sendMessage(buildMessage());
+        waitUntilEmpty();
+        messageSendApplicationService.sendMessage(buildMessage());
+        SendResult result = messageSendApplicationService.sendMessage(buildMessage());
+        blocker.countDown();
+
+        // 验证结果
+        assertFalse(result.isSuccess());
+        assertEquals("QUEUE_FULL", result.getErrorCode());
+    }
+
+    private void enableAsync(int capacity) {
+        asyncSendConfig.setEnabled(true);
+        messageQueue = new InMemoryMessageQueue(capacity, 1);
+        ReflectionTestUtils.setField(messageSendApplicationService, "messageQueue", messageQueue);
+        messageSendApplicationService.init();
+    }
+
+    private Consumer<Message> subscribeMockQueue() {
+        asyncSendConfig.setEnabled(true);
+        MessageQueue queue = mock(MessageQueue.class);
+        ReflectionTestUtils.setField(messageSendApplicationService, "messageQueue", queue);
+        messageSendApplicationService.init();
+        ArgumentCaptor<Consumer<Message>> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(queue).subscribe(consumerCaptor.capture());
+        return consumerCaptor.getValue();
+    }
+
+    private com.message.center.domain.entity.Message savedMessage(MessageStatus status) {
+        com.message.center.domain.entity.Message saved = new com.message.center.domain.entity.Message();
+        saved.setMessageId("MSG1");
+        saved.setStatus(status);
+        return saved;
+    }
+
+    private void waitUntilEmpty() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (messageQueue.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Message buildMessage() {
+        Message message = new Message();
+        message.setTenantId(1001L);
+        message.setBusinessType("ORDER_NOTIFY");
+        message.setBusinessData("{\"orderId\":\"ORD123456\"}");
+        return message;
+    }
+}
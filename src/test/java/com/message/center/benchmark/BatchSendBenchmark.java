@@ -0,0 +1,253 @@
+package com.message.center.benchmark;
+
+import com.message.center.application.handler.ChannelDispatchHandler;
+import com.message.center.application.handler.ChannelRouterHandler;
+import com.message.center.application.handler.MessageHandler;
+import com.message.center.application.handler.MessageHandlerChain;
+import com.message.center.application.handler.RateLimitHandler;
+import com.message.center.application.handler.StatusTrackingHandler;
+import com.message.center.application.handler.TemplateRenderHandler;
+import com.message.center.application.handler.TimeWindowHandler;
+import com.message.center.application.handler.ValidationHandler;
+import com.message.center.application.service.impl.BatchSendPipeline;
+import com.message.center.application.service.impl.MessageSendApplicationServiceImpl;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.repository.ChannelConfigRepository;
+import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.repository.MessageRepository;
+import com.message.center.domain.service.impl.MessageDomainServiceImpl;
+import com.message.center.domain.vo.BatchSaveResult;
+import com.message.center.domain.vo.Message;
+import com.message.center.domain.vo.SendResult;
+import com.message.center.infrastructure.config.AsyncSendConfig;
+import com.message.center.infrastructure.config.RateLimitDeferralConfig;
+import com.message.center.infrastructure.config.RateLimitHierarchyConfig;
+import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import com.message.center.infrastructure.ratelimit.LeasedRateLimiter;
+import com.message.center.infrastructure.ratelimit.RateLimitResult;
+import com.message.center.interfaces.dubbo.api.ChannelConfigService;
+import com.message.center.interfaces.dubbo.api.MessageTemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 批量发送基准测试
+ * 对比逐条执行责任链与批量流水线处理同一批消息的耗时
+ * 数据库和Redis调用以固定延迟模拟一次网络往返，结果反映的是往返次数的差异
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main BatchSendBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchSendBenchmark {
+
+    /** 批量大小 */
+    private static final int BATCH_SIZE = 500;
+
+    /** 模拟一次数据库/Redis往返的延迟（纳秒） */
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    /** 单个租户下的门店数，决定批量流水线的分组数 */
+    private static final int STORE_COUNT = 5;
+
+    private MessageSendApplicationServiceImpl messageSendApplicationService;
+
+    private List<Message> messages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 1. 模拟外部依赖，每次调用计一次往返
+        ChannelConfigRepository channelConfigRepository = mock(ChannelConfigRepository.class);
+        List<ChannelConfig> configs = Arrays.asList(
+                channelConfig(1L, ChannelType.DINGTALK), channelConfig(2L, ChannelType.WECHAT_WORK));
+        when(channelConfigRepository.getEnabledConfigs(anyLong(), anyLong())).then(roundTrip(configs));
+        when(channelConfigRepository.getConfigs(anyLong(), anyLong(), anyString())).then(roundTrip(configs));
+
+        MessageTemplateService messageTemplateService = mock(MessageTemplateService.class);
+        MessageTemplate template = new MessageTemplate();
+        template.setTemplateContent("订单${orderNo}已创建");
+        when(messageTemplateService.getTemplate(anyLong(), anyString(), any())).then(roundTrip(template));
+        when(messageTemplateService.renderTemplate(any(), any(), anyString())).thenReturn("订单已创建");
+
+        ChannelConfigService channelConfigService = mock(ChannelConfigService.class);
+        when(channelConfigService.getRateLimitConfig(anyLong(), anyLong(), any()))
+                .thenReturn(new ChannelConfigService.RateLimitConfig(Integer.MAX_VALUE, 1, "DAY"));
+
+        AtomicLong taskId = new AtomicLong();
+        LeasedRateLimiter rateLimiter = mock(LeasedRateLimiter.class);
+        when(rateLimiter.tryAcquireGroups(anyList(), anyInt())).then(invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return Collections.nCopies(invocation.getArgument(0, List.class).size(), RateLimitResult.allow());
+        });
+        when(rateLimiter.acquireUpTo(any(), anyInt())).then(invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return invocation.getArgument(1);
+        });
+        when(rateLimiter.acquireUpTo(anyList(), any(int[].class))).then(invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return invocation.getArgument(1, int[].class).clone();
+        });
+        doAnswer(roundTrip(null)).when(rateLimiter).release(any(), anyInt());
+        doAnswer(roundTrip(null)).when(rateLimiter).release(anyList(), any(int[].class));
+
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.save(any())).then(roundTrip(true));
+        when(messageRepository.batchSave(anyList())).then(invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            BatchSaveResult result = new BatchSaveResult(invocation.getArgument(0, List.class).size());
+            result.addSaved(result.getTotalCount());
+            return result;
+        });
+        when(messageRepository.updateStatus(anyString(), any())).then(roundTrip(true));
+
+        ChannelTaskRepository channelTaskRepository = mock(ChannelTaskRepository.class);
+        when(channelTaskRepository.batchInsert(anyList())).then(invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            List<ChannelTask> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(taskId.incrementAndGet()));
+            BatchSaveResult result = new BatchSaveResult(tasks.size());
+            result.addSaved(tasks.size());
+            return result;
+        });
+
+        // 渠道发送在两种方式下相同，不计入对比
+        ChannelTaskExecutor channelTaskExecutor = mock(ChannelTaskExecutor.class);
+
+        // 2. 组装处理器
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ValidationHandler validationHandler = new ValidationHandler();
+        TimeWindowHandler timeWindowHandler = new TimeWindowHandler();
+        ReflectionTestUtils.setField(timeWindowHandler, "channelConfigRepository", channelConfigRepository);
+        ChannelRouterHandler channelRouterHandler = new ChannelRouterHandler();
+        ReflectionTestUtils.setField(channelRouterHandler, "channelConfigRepository", channelConfigRepository);
+        RateLimitHandler rateLimitHandler = new RateLimitHandler();
+        ReflectionTestUtils.setField(rateLimitHandler, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(rateLimitHandler, "channelConfigService", channelConfigService);
+        ReflectionTestUtils.setField(rateLimitHandler, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimitHandler, "deferralConfig", new RateLimitDeferralConfig());
+        ReflectionTestUtils.setField(rateLimitHandler, "hierarchyConfig", new RateLimitHierarchyConfig());
+        TemplateRenderHandler templateRenderHandler = new TemplateRenderHandler();
+        ReflectionTestUtils.setField(templateRenderHandler, "messageTemplateService", messageTemplateService);
+        ChannelDispatchHandler channelDispatchHandler = new ChannelDispatchHandler();
+        ReflectionTestUtils.setField(channelDispatchHandler, "channelTaskExecutor", channelTaskExecutor);
+        ReflectionTestUtils.setField(channelDispatchHandler, "channelTaskRepository", channelTaskRepository);
+        StatusTrackingHandler statusTrackingHandler = new StatusTrackingHandler();
+        ReflectionTestUtils.setField(statusTrackingHandler, "messageRepository", messageRepository);
+
+        MessageHandlerChain messageHandlerChain = new MessageHandlerChain();
+        List<MessageHandler> handlers = new ArrayList<>(Arrays.asList(validationHandler, timeWindowHandler,
+                channelRouterHandler, rateLimitHandler, templateRenderHandler, channelDispatchHandler,
+                statusTrackingHandler));
+        ReflectionTestUtils.setField(messageHandlerChain, "handlers", handlers);
+        ReflectionTestUtils.setField(messageHandlerChain, "meterRegistry", meterRegistry);
+        messageHandlerChain.init();
+
+        MessageDomainServiceImpl messageDomainService = new MessageDomainServiceImpl();
+        ReflectionTestUtils.setField(messageDomainService, "messageRepository", messageRepository);
+
+        BatchSendPipeline batchSendPipeline = new BatchSendPipeline();
+        ReflectionTestUtils.setField(batchSendPipeline, "validationHandler", validationHandler);
+        ReflectionTestUtils.setField(batchSendPipeline, "timeWindowHandler", timeWindowHandler);
+        ReflectionTestUtils.setField(batchSendPipeline, "rateLimitHandler", rateLimitHandler);
+        ReflectionTestUtils.setField(batchSendPipeline, "channelConfigRepository", channelConfigRepository);
+        ReflectionTestUtils.setField(batchSendPipeline, "messageTemplateService", messageTemplateService);
+        ReflectionTestUtils.setField(batchSendPipeline, "messageDomainService", messageDomainService);
+        ReflectionTestUtils.setField(batchSendPipeline, "channelDispatchHandler", channelDispatchHandler);
+        ReflectionTestUtils.setField(batchSendPipeline, "channelTaskExecutor", channelTaskExecutor);
+
+        // 3. 组装应用服务（同步模式）
+        messageSendApplicationService = new MessageSendApplicationServiceImpl();
+        ReflectionTestUtils.setField(messageSendApplicationService, "messageDomainService", messageDomainService);
+        ReflectionTestUtils.setField(messageSendApplicationService, "messageHandlerChain", messageHandlerChain);
+        ReflectionTestUtils.setField(messageSendApplicationService, "asyncSendConfig", new AsyncSendConfig());
+        ReflectionTestUtils.setField(messageSendApplicationService, "batchSendPipeline", batchSendPipeline);
+
+        // 4. 准备消息：同一租户、同一业务类型，分布在多个门店
+        messages = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Message message = new Message();
+            message.setTenantId(1L);
+            message.setStoreId((long) (i % STORE_COUNT));
+            message.setBusinessType("ORDER_CREATED");
+            message.setBusinessData("{\"orderNo\":\"NO" + i + "\"}");
+            messages.add(message);
+        }
+    }
+
+    /**
+     * 逐条执行责任链
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sendOneByOne(Blackhole blackhole) {
+        for (Message message : messages) {
+            SendResult result = messageSendApplicationService.sendMessage(message);
+            blackhole.consume(result);
+        }
+    }
+
+    /**
+     * 批量流水线
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sendInBatch(Blackhole blackhole) {
+        blackhole.consume(messageSendApplicationService.batchSendMessages(messages));
+    }
+
+    private static ChannelConfig channelConfig(Long id, ChannelType channelType) {
+        ChannelConfig config = new ChannelConfig();
+        config.setId(id);
+        config.setChannelType(channelType);
+        config.setEnabled(true);
+        config.setTimeWindowEnabled(false);
+        return config;
+    }
+
+    private static <T> Answer<T> roundTrip(T value) {
+        return invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return value;
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BatchSendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
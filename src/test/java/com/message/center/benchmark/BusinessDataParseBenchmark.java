@@ -0,0 +1,118 @@
+package com.message.center.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.vo.MessageContext;
+import com.message.center.infrastructure.template.TemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务数据解析基准测试
+ * 对比验证阶段和每个渠道渲染时各自解析一次业务数据，与整条责任链共用一次解析结果的耗时
+ * 每次调用模拟一条消息经过验证并渲染到三个渠道，业务数据分别为 1KB、10KB、100KB
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main BusinessDataParseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusinessDataParseBenchmark {
+
+    /** 渲染渠道数 */
+    private static final int CHANNEL_COUNT = 3;
+
+    /** 业务数据大小（字节） */
+    @Param({"1024", "10240", "102400"})
+    private int payloadSize;
+
+    private String businessData;
+
+    private MessageTemplate template;
+
+    private TemplateEngine templateEngine;
+
+    @Setup
+    public void setup() {
+        businessData = buildPayload(payloadSize);
+        templateEngine = new TemplateEngine();
+        template = new MessageTemplate();
+        template.setId(1L);
+        template.setChannelType(ChannelType.DINGTALK);
+        template.setTemplateContent("订单${orderId}，客户${customerName}，首件商品${items.0.name}");
+        template.setUpdateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    /**
+     * 验证和每个渠道渲染时各自解析
+     */
+    @Benchmark
+    public void parsePerUse(Blackhole blackhole) {
+        blackhole.consume(JSON.parse(businessData));
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            JSONObject data = JSON.parseObject(businessData);
+            blackhole.consume(templateEngine.render(template, data));
+        }
+    }
+
+    /**
+     * 验证阶段解析一次，渲染阶段共用
+     */
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        MessageContext context = new MessageContext();
+        context.setBusinessData(businessData);
+        blackhole.consume(context.getParsedBusinessData().isValid());
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            Map<String, Object> data = context.getParsedBusinessData().asMap();
+            blackhole.consume(templateEngine.render(template, data));
+        }
+    }
+
+    /**
+     * 构造指定大小的订单业务数据，商品明细数量随大小增长
+     */
+    private static String buildPayload(int size) {
+        StringBuilder builder = new StringBuilder(size + 128);
+        builder.append("{\"orderId\":\"ORD20240101000123\",\"customerName\":\"张三\",\"amount\":199.0,\"items\":[");
+        int index = 0;
+        while (builder.length() < size) {
+            if (index > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"sku\":\"SKU").append(index).append("\",\"name\":\"商品").append(index)
+                    .append("\",\"quantity\":").append(index % 5 + 1)
+                    .append(",\"price\":").append(10 + index % 90).append(".5,\"remark\":\"少冰少糖\"}");
+            index++;
+        }
+        builder.append("]}");
+        return builder.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BusinessDataParseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.message.center.benchmark;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.message.center.infrastructure.ratelimit.FixedWindowRateLimiter;
+import com.message.center.infrastructure.ratelimit.RateLimitRule;
+import com.message.center.infrastructure.ratelimit.RedisRateLimiter;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量频次额度申请基准测试
+ * 一批 1000 条消息分布在 tenants 个租户上，对比三种申请方式每秒能完成的批次数：
+ * - perMessage：每条消息一次脚本调用，1000 次往返
+ * - perDemand：每个租户合并后一次脚本调用，tenants 次往返
+ * - pipelined：所有租户的脚本调用放入一个管道，1 次往返
+ * Redis 使用 jedis-mock 启动的本地实例，结果反映的是往返次数的差异，不代表真实 Redis 的脚本执行耗时
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main RateLimitBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitBatchBenchmark {
+
+    /** 每批消息数 */
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1", "10", "100"})
+    private int tenants;
+
+    private RedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisRateLimiter redisRateLimiter;
+
+    private List<RateLimitRule> rules;
+
+    private int[] permits;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        FixedWindowRateLimiter fixedWindowRateLimiter = new FixedWindowRateLimiter();
+        ReflectionTestUtils.setField(fixedWindowRateLimiter, "redisTemplate", redisTemplate);
+        redisRateLimiter = new RedisRateLimiter();
+        ReflectionTestUtils.setField(redisRateLimiter, "rateLimiters", List.of(fixedWindowRateLimiter));
+        ReflectionTestUtils.setField(redisRateLimiter, "redisTemplate", redisTemplate);
+        redisRateLimiter.init();
+
+        // 限制足够大，每次申请都能全部获得
+        rules = new ArrayList<>(tenants);
+        for (int i = 0; i < tenants; i++) {
+            rules.add(new RateLimitRule("rate_limit:{" + i + ":1}:DINGTALK", Integer.MAX_VALUE, 86400));
+        }
+        permits = new int[tenants];
+        Arrays.fill(permits, BATCH_SIZE / tenants);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public int perMessage() {
+        int granted = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            granted += redisRateLimiter.acquireUpTo(rules.get(i % tenants), 1);
+        }
+        return granted;
+    }
+
+    @Benchmark
+    public int perDemand() {
+        int granted = 0;
+        for (int i = 0; i < tenants; i++) {
+            granted += redisRateLimiter.acquireUpTo(rules.get(i), permits[i]);
+        }
+        return granted;
+    }
+
+    @Benchmark
+    public int[] pipelined() {
+        return redisRateLimiter.acquireUpTo(rules, permits);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitBatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,148 @@
+package com.message.center.benchmark;
+
+import com.message.center.infrastructure.config.RateLimitGuardConfig;
+import com.message.center.infrastructure.config.RateLimitLeaseConfig;
+import com.message.center.infrastructure.ratelimit.GuardedRateLimiter;
+import com.message.center.infrastructure.ratelimit.LeasedRateLimiter;
+import com.message.center.infrastructure.ratelimit.RateLimitResult;
+import com.message.center.infrastructure.ratelimit.RateLimitRule;
+import com.message.center.infrastructure.ratelimit.RedisRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 频次限制并发基准测试
+ * 对比 1、8、64 个线程争用同一计数对象时，本地租约与每条消息访问 Redis 的吞吐量
+ * Redis 调用以固定延迟模拟一次网络往返，且不做限制，结果反映的是往返次数和本地扣减争用的差异
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main RateLimitContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitContentionBenchmark {
+
+    /** 模拟一次Redis往返的延迟（纳秒） */
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    private LeasedRateLimiter leasedRateLimiter;
+
+    private RedisRateLimiter redisRateLimiter;
+
+    private List<RateLimitRule> rules;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisRateLimiter = new RoundTripRateLimiter();
+
+        RateLimitLeaseConfig leaseConfig = new RateLimitLeaseConfig();
+        leaseConfig.setEnabled(true);
+        // 未开启 Redis 保护，直接调用
+        GuardedRateLimiter guardedRateLimiter = new GuardedRateLimiter();
+        ReflectionTestUtils.setField(guardedRateLimiter, "redisRateLimiter", redisRateLimiter);
+        ReflectionTestUtils.setField(guardedRateLimiter, "guardConfig", new RateLimitGuardConfig());
+        ReflectionTestUtils.setField(guardedRateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        guardedRateLimiter.init();
+
+        leasedRateLimiter = new LeasedRateLimiter();
+        ReflectionTestUtils.setField(leasedRateLimiter, "guardedRateLimiter", guardedRateLimiter);
+        ReflectionTestUtils.setField(leasedRateLimiter, "leaseConfig", leaseConfig);
+        ReflectionTestUtils.setField(leasedRateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        leasedRateLimiter.init();
+
+        // 每分钟 10000 条，每次租借 1000 条
+        rules = List.of(new RateLimitRule("rate_limit:{1001:2001}:DINGTALK", 10_000, 60));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        leasedRateLimiter.destroy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RateLimitResult leased1() {
+        return leasedRateLimiter.tryAcquire(rules, 1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RateLimitResult leased8() {
+        return leasedRateLimiter.tryAcquire(rules, 1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RateLimitResult leased64() {
+        return leasedRateLimiter.tryAcquire(rules, 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RateLimitResult redis1() {
+        return redisRateLimiter.tryAcquire(rules, 1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RateLimitResult redis8() {
+        return redisRateLimiter.tryAcquire(rules, 1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RateLimitResult redis64() {
+        return redisRateLimiter.tryAcquire(rules, 1);
+    }
+
+    /**
+     * 每次调用等待一次往返后放行的限制器，不记录调用，避免长时间压测占用内存
+     */
+    private static class RoundTripRateLimiter extends RedisRateLimiter {
+
+        @Override
+        public RateLimitResult tryAcquire(List<RateLimitRule> rules, int permits) {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return RateLimitResult.allow();
+        }
+
+        @Override
+        public int acquireUpTo(RateLimitRule rule, int permits) {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return permits;
+        }
+
+        @Override
+        public void release(RateLimitRule rule, int permits) {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
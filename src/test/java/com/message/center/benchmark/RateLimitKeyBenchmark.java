@@ -0,0 +1,71 @@
+package com.message.center.benchmark;
+
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.ratelimit.RateLimitKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 频次限制Key生成基准测试
+ * 对比 String.format 拼接前缀再追加窗口序号的原实现，与 RateLimitKeys 缓存前缀和窗口 Key 的实现
+ * 每次调用生成一个渠道的固定窗口 Key 和滑动窗口计数的两个 Key，
+ * 结合 GC 分析器输出的 gc.alloc.rate.norm 查看每次调用分配的字节数
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main RateLimitKeyBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitKeyBenchmark {
+
+    /** 窗口长度（毫秒） */
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final Long tenantId = 1001L;
+
+    private final Long storeId = 2001L;
+
+    private final ChannelType channelType = ChannelType.DINGTALK;
+
+    private final long now = System.currentTimeMillis();
+
+    @Benchmark
+    public int formatted() {
+        String prefix = String.format("rate_limit:{%d:%s}:%s", tenantId, String.valueOf(storeId), channelType);
+        long index = Math.floorDiv(now, WINDOW_MILLIS);
+        String current = prefix + ":" + index;
+        String previous = prefix + ":" + (index - 1);
+        return current.length() + previous.length();
+    }
+
+    @Benchmark
+    public int cached() {
+        String prefix = RateLimitKeys.prefix(tenantId, storeId, channelType);
+        long index = Math.floorDiv(now, WINDOW_MILLIS);
+        String current = RateLimitKeys.windowKey(prefix, index);
+        String previous = RateLimitKeys.previousWindowKey(prefix, index);
+        return current.length() + previous.length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
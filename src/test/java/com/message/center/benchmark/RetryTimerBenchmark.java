@@ -0,0 +1,95 @@
+package com.message.center.benchmark;
+
+import com.message.center.infrastructure.retry.HashedTimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重试定时器基准测试
+ * 预先放入 1000000 个 10 分钟内到期的定时任务，对比哈希时间轮与 ScheduledThreadPoolExecutor（取消即移除）
+ * 每次调用添加一个随机延迟的定时任务并立即取消，待到期任务数保持不变
+ * 时间轮的添加和取消只入队，与待到期任务数无关；延迟队列为二叉堆，添加和移除随任务数对数增长且需加锁
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main RetryTimerBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RetryTimerBenchmark {
+
+    /** 定时任务的最大延迟（毫秒） */
+    private static final long HORIZON_MILLIS = 600_000;
+
+    private static final Runnable NOOP = () -> { };
+
+    @Param({"1000000"})
+    private int pendingTimers;
+
+    private HashedTimingWheel timingWheel;
+
+    private ScheduledThreadPoolExecutor delayQueue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timingWheel = new HashedTimingWheel("benchmark-wheel", 100, 512);
+        delayQueue = new ScheduledThreadPoolExecutor(1);
+        delayQueue.setRemoveOnCancelPolicy(true);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < pendingTimers; i++) {
+            long delay = HORIZON_MILLIS / 2 + random.nextLong(HORIZON_MILLIS / 2);
+            timingWheel.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+            delayQueue.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timingWheel.stop();
+        delayQueue.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean timingWheel() {
+        HashedTimingWheel.Timeout timeout = timingWheel.schedule(NOOP, delay(), TimeUnit.MILLISECONDS);
+        return timeout.cancel();
+    }
+
+    @Benchmark
+    public boolean delayQueue() {
+        ScheduledFuture<?> future = delayQueue.schedule(NOOP, delay(), TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+
+    private static long delay() {
+        return ThreadLocalRandom.current().nextLong(1, HORIZON_MILLIS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RetryTimerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
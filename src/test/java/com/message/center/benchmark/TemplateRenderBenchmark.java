@@ -0,0 +1,128 @@
+package com.message.center.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.vo.BusinessData;
+import com.message.center.infrastructure.template.TemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 模板渲染基准测试
+ * 对比每次调用都正则扫描模板、重新解析业务数据的做法与编译模板、每条消息解析一次业务数据的做法
+ * 每次调用模拟一条消息渲染到三个渠道
+ * 运行方式：执行main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main TemplateRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    private static final String BUSINESS_DATA = "{\"orderId\":\"ORD20240101000123\",\"customerName\":\"张三\","
+            + "\"amount\":199.0,\"storeName\":\"人民广场店\",\"pickupCode\":\"A0123\","
+            + "\"items\":[{\"name\":\"拿铁\",\"quantity\":2},{\"name\":\"可颂\",\"quantity\":1}]}";
+
+    private MessageTemplate[] templates;
+
+    private TemplateEngine templateEngine;
+
+    @Setup
+    public void setup() {
+        templateEngine = new TemplateEngine();
+        templates = new MessageTemplate[]{
+                template(1L, ChannelType.DINGTALK, "### 新订单提醒\n订单号：${orderId}\n客户：${customerName}\n"
+                        + "金额：${amount}元\n门店：${storeName}\n取餐码：${pickupCode}"),
+                template(2L, ChannelType.WECHAT_WORK, "您有一笔新订单：${orderId}，客户：${customerName}，"
+                        + "金额：${amount}元，首件商品：${items.0.name}"),
+                template(3L, ChannelType.LOCAL, "【${storeName}】订单${orderId}已创建，取餐码${pickupCode}")
+        };
+    }
+
+    /**
+     * 正则替换：每个渠道都重新解析业务数据、重新扫描模板
+     */
+    @Benchmark
+    public void regexReplace(Blackhole blackhole) {
+        for (MessageTemplate template : templates) {
+            JSONObject data = JSON.parseObject(BUSINESS_DATA);
+            Matcher matcher = PLACEHOLDER.matcher(template.getTemplateContent());
+            StringBuilder builder = new StringBuilder();
+            while (matcher.find()) {
+                Object value = resolve(data, matcher.group(1));
+                matcher.appendReplacement(builder, Matcher.quoteReplacement(
+                        value != null ? String.valueOf(value) : matcher.group()));
+            }
+            matcher.appendTail(builder);
+            blackhole.consume(builder.toString());
+        }
+    }
+
+    /**
+     * 编译模板：业务数据每条消息解析一次，模板编译结果复用
+     */
+    @Benchmark
+    public void compiledTemplate(Blackhole blackhole) {
+        Map<String, Object> data = new BusinessData(BUSINESS_DATA).asMap();
+        for (MessageTemplate template : templates) {
+            blackhole.consume(templateEngine.render(template, data));
+        }
+    }
+
+    private static Object resolve(JSONObject data, String name) {
+        Object value = data;
+        for (String part : name.split("\\.")) {
+            if (value instanceof JSONObject object) {
+                value = object.get(part);
+            } else if (value instanceof List<?> list) {
+                value = list.get(Integer.parseInt(part));
+            } else {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    private static MessageTemplate template(Long id, ChannelType channelType, String content) {
+        MessageTemplate template = new MessageTemplate();
+        template.setId(id);
+        template.setTenantId(1001L);
+        template.setBusinessType("ORDER_NOTIFY");
+        template.setChannelType(channelType);
+        template.setTemplateContent(content);
+        template.setUpdateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+        template.setEnabled(true);
+        return template;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TemplateRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.message.center.infrastructure.cache;
+
+import com.message.center.infrastructure.config.CacheInvalidationConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 缓存失效管理器单元测试
+ * 两个管理器共享同一个进程内总线，模拟两个节点
+ */
+class CacheInvalidationManagerTest {
+
+    private InMemoryCacheInvalidationBus bus;
+
+    private CacheInvalidationManager nodeA;
+
+    private CacheInvalidationManager nodeB;
+
+    private CacheInvalidationHandler handlerA;
+
+    private CacheInvalidationHandler handlerB;
+
+    @BeforeEach
+    void setUp() {
+        bus = new InMemoryCacheInvalidationBus();
+        nodeA = createNode();
+        nodeB = createNode();
+        handlerA = mock(CacheInvalidationHandler.class);
+        handlerB = mock(CacheInvalidationHandler.class);
+        nodeA.register(CacheInvalidationManager.CHANNEL_CONFIG, handlerA);
+        nodeB.register(CacheInvalidationManager.CHANNEL_CONFIG, handlerB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.destroy();
+        nodeB.destroy();
+    }
+
+    /**
+     * 测试一个节点发布的事件被其他节点应用
+     */
+    @Test
+    void testPublishAppliedOnOtherNode() {
+        // 执行测试
+        nodeA.publish(CacheInvalidationManager.CHANNEL_CONFIG, 1L, 1001L, 2001L);
+
+        // 验证结果
+        ArgumentCaptor<CacheInvalidationEvent> captor = ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+        verify(handlerB).evict(captor.capture());
+        assertEquals(1L, captor.getValue().getId());
+        assertEquals(1001L, captor.getValue().getTenantId());
+        assertEquals(1L, captor.getValue().getVersion());
+        verify(handlerB, never()).invalidateAll();
+    }
+
+    /**
+     * 测试未注册的缓存名称不回调处理器
+     */
+    @Test
+    void testUnregisteredCacheIgnored() {
+        // 执行测试
+        nodeA.publish(CacheInvalidationManager.MESSAGE_TEMPLATE, 1L, 1001L, null);
+
+        // 验证结果
+        verify(handlerB, never()).evict(any());
+    }
+
+    /**
+     * 测试同一缓存名称注册的多个处理器都被回调
+     */
+    @Test
+    void testMultipleHandlersForSameCache() {
+        // 准备测试数据
+        CacheInvalidationHandler another = mock(CacheInvalidationHandler.class);
+        nodeB.register(CacheInvalidationManager.CHANNEL_CONFIG, another);
+
+        // 执行测试
+        nodeA.publish(CacheInvalidationManager.CHANNEL_CONFIG, 1L, 1001L, 2001L);
+
+        // 验证结果
+        verify(handlerB).evict(any());
+        verify(another).evict(any());
+    }
+
+    /**
+     * 测试事件版本不连续时清空本地缓存
+     */
+    @Test
+    void testVersionGapInvalidatesAll() {
+        // 准备测试数据：模拟一个丢失的事件
+        bus.nextVersion(CacheInvalidationManager.CHANNEL_CONFIG);
+
+        // 执行测试
+        nodeA.publish(CacheInvalidationManager.CHANNEL_CONFIG, 1L, 1001L, 2001L);
+
+        // 验证结果
+        verify(handlerB).invalidateAll();
+        verify(handlerB, never()).evict(any());
+    }
+
+    /**
+     * 测试定时版本检查发现丢失事件时清空本地缓存，且只清空一次
+     */
+    @Test
+    void testVersionCheckCatchesLostEvent() {
+        // 准备测试数据：版本号已递增但事件未送达
+        bus.nextVersion(CacheInvalidationManager.CHANNEL_CONFIG);
+
+        // 执行测试
+        nodeB.checkVersions();
+        nodeB.checkVersions();
+
+        // 验证结果
+        verify(handlerB, times(1)).invalidateAll();
+    }
+
+    private CacheInvalidationManager createNode() {
+        CacheInvalidationConfig config = new CacheInvalidationConfig();
+        config.setCheckIntervalSeconds(3600);
+        CacheInvalidationManager manager = new CacheInvalidationManager();
+        ReflectionTestUtils.setField(manager, "cacheInvalidationBus", bus);
+        ReflectionTestUtils.setField(manager, "invalidationConfig", config);
+        ReflectionTestUtils.setField(manager, "meterRegistry", new SimpleMeterRegistry());
+        manager.init();
+        return manager;
+    }
+}
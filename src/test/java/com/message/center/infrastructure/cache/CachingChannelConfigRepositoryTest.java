@@ -0,0 +1,188 @@
+package com.message.center.infrastructure.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.message.center.domain.entity.ChannelConfig;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.repository.ChannelConfigRepository;
+import com.message.center.infrastructure.config.ChannelConfigCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 带缓存的渠道配置仓库单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingChannelConfigRepositoryTest {
+
+    @Mock
+    private ChannelConfigRepository delegate;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private CacheInvalidationManager cacheInvalidationManager;
+
+    private ChannelConfigCacheConfig cacheConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingChannelConfigRepository repository;
+
+    private ChannelConfig config;
+
+    @BeforeEach
+    void setUp() {
+        cacheConfig = new ChannelConfigCacheConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingChannelConfigRepository();
+        ReflectionTestUtils.setField(repository, "delegate", delegate);
+        ReflectionTestUtils.setField(repository, "cacheConfig", cacheConfig);
+        ReflectionTestUtils.setField(repository, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(repository, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(repository, "cacheInvalidationManager", cacheInvalidationManager);
+
+        config = new ChannelConfig();
+        config.setId(1L);
+        config.setTenantId(1001L);
+        config.setStoreId(2001L);
+        config.setChannelType(ChannelType.DINGTALK);
+        config.setEnabled(true);
+    }
+
+    /**
+     * 测试重复查询命中进程内缓存
+     */
+    @Test
+    void testGetEnabledConfigsCached() {
+        // 准备测试数据
+        repository.init();
+        when(delegate.getEnabledConfigs(1001L, 2001L)).thenReturn(Collections.singletonList(config));
+
+        // 执行测试
+        List<ChannelConfig> first = repository.getEnabledConfigs(1001L, 2001L);
+        List<ChannelConfig> second = repository.getEnabledConfigs(1001L, 2001L);
+
+        // 验证结果
+        assertEquals(1, first.size());
+        assertSame(first, second);
+        verify(delegate, times(1)).getEnabledConfigs(1001L, 2001L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "channel_config_by_tenant_store")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    /**
+     * 测试失效配置后重新加载所属租户门店的查询和配置ID查询
+     */
+    @Test
+    void testEvictConfig() {
+        // 准备测试数据
+        repository.init();
+        when(delegate.getConfigs(1001L, 2001L, "ORDER")).thenReturn(Collections.singletonList(config));
+        when(delegate.getById(1L)).thenReturn(config);
+        repository.getConfigs(1001L, 2001L, "ORDER");
+        repository.getById(1L);
+
+        // 执行测试
+        repository.evictConfig(config);
+        repository.getConfigs(1001L, 2001L, "ORDER");
+        repository.getById(1L);
+
+        // 验证结果
+        verify(delegate, times(2)).getConfigs(1001L, 2001L, "ORDER");
+        verify(delegate, times(2)).getById(1L);
+        verify(cacheInvalidationManager).publish(CacheInvalidationManager.CHANNEL_CONFIG, 1L, 1001L, 2001L);
+    }
+
+    /**
+     * 测试不存在的配置也会被缓存，避免反复查库
+     */
+    @Test
+    void testGetByIdMissingCached() {
+        // 准备测试数据
+        repository.init();
+        when(delegate.getById(99L)).thenReturn(null);
+
+        // 执行测试
+        assertNull(repository.getById(99L));
+        assertNull(repository.getById(99L));
+
+        // 验证结果
+        verify(delegate, times(1)).getById(99L);
+    }
+
+    /**
+     * 测试Redis二级缓存命中时不查库
+     */
+    @Test
+    void testRedisTierHit() {
+        // 准备测试数据
+        cacheConfig.setRedisEnabled(true);
+        repository.init();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("mc:cache:channel_config:version:1001:2001")).thenReturn("3");
+        when(valueOperations.get("mc:cache:channel_config:1001:2001:v3:ENABLED:"))
+                .thenReturn(JSON.toJSONString(Collections.singletonList(config)));
+
+        // 执行测试
+        List<ChannelConfig> configs = repository.getEnabledConfigs(1001L, 2001L);
+
+        // 验证结果
+        assertEquals(1, configs.size());
+        assertEquals(ChannelType.DINGTALK, configs.get(0).getChannelType());
+        verify(delegate, never()).getEnabledConfigs(anyLong(), anyLong());
+        assertEquals(1.0, meterRegistry.get("message.center.cache.redis").tag("result", "hit").counter().count());
+    }
+
+    /**
+     * 测试失效时递增Redis版本号
+     */
+    @Test
+    void testEvictIncrementsRedisVersion() {
+        // 准备测试数据
+        cacheConfig.setRedisEnabled(true);
+        repository.init();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // 执行测试
+        repository.evictTenantStore(1001L, 2001L);
+
+        // 验证结果
+        verify(valueOperations).increment("mc:cache:channel_config:version:1001:2001");
+    }
+
+    /**
+     * 测试关闭缓存时直接查库
+     */
+    @Test
+    void testDisabled() {
+        // 准备测试数据
+        cacheConfig.setEnabled(false);
+        repository.init();
+        when(delegate.getEnabledConfigs(1001L, 2001L)).thenReturn(Collections.singletonList(config));
+
+        // 执行测试
+        repository.getEnabledConfigs(1001L, 2001L);
+        repository.getEnabledConfigs(1001L, 2001L);
+
+        // 验证结果
+        verify(delegate, times(2)).getEnabledConfigs(1001L, 2001L);
+    }
+}
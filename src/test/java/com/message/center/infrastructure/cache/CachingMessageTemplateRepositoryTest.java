@@ -0,0 +1,193 @@
+package com.message.center.infrastructure.cache;
+
+import com.google.common.base.Ticker;
+import com.message.center.domain.entity.MessageTemplate;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.repository.MessageTemplateRepository;
+import com.message.center.infrastructure.config.TemplateCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 带缓存的消息模板仓库单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingMessageTemplateRepositoryTest {
+
+    @Mock
+    private MessageTemplateRepository delegate;
+
+    @Mock
+    private CacheInvalidationManager cacheInvalidationManager;
+
+    private TemplateCacheConfig cacheConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AtomicLong nanos;
+
+    private CachingMessageTemplateRepository repository;
+
+    private MessageTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        cacheConfig = new TemplateCacheConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        repository = new CachingMessageTemplateRepository();
+        ReflectionTestUtils.setField(repository, "delegate", delegate);
+        ReflectionTestUtils.setField(repository, "cacheConfig", cacheConfig);
+        ReflectionTestUtils.setField(repository, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(repository, "cacheInvalidationManager", cacheInvalidationManager);
+        ReflectionTestUtils.setField(repository, "ticker", new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+
+        template = new MessageTemplate();
+        template.setId(1L);
+        template.setTenantId(1001L);
+        template.setBusinessType("ORDER_NOTIFY");
+        template.setChannelType(ChannelType.DINGTALK);
+        template.setTemplateContent("订单：${orderId}");
+        template.setEnabled(true);
+    }
+
+    /**
+     * 测试重复查询命中缓存，命中率通过缓存指标导出
+     */
+    @Test
+    void testGetTemplateCached() {
+        // 准备测试数据
+        repository.init();
+        when(delegate.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK)).thenReturn(template);
+
+        // 执行测试
+        MessageTemplate first = repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+        MessageTemplate second = repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+
+        // 验证结果
+        assertSame(template, first);
+        assertSame(first, second);
+        verify(delegate, times(1)).getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "message_template_lookup")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    /**
+     * 测试查不到模板的结果也被缓存，并按单独的过期时间重新查询
+     */
+    @Test
+    void testNegativeLookupCachedWithOwnExpiry() {
+        // 准备测试数据
+        cacheConfig.setNegativeExpireSeconds(60);
+        repository.init();
+        when(delegate.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.LOCAL)).thenReturn(null);
+
+        // 执行测试
+        assertNull(repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.LOCAL));
+        assertNull(repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.LOCAL));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertNull(repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.LOCAL));
+
+        // 验证结果
+        verify(delegate, times(2)).getTemplate(1001L, "ORDER_NOTIFY", ChannelType.LOCAL);
+        assertEquals(1.0, meterRegistry.get("message.center.cache.negative").counter().count());
+    }
+
+    /**
+     * 测试查到模板的结果不受查不到模板的过期时间影响
+     */
+    @Test
+    void testPositiveLookupKeepsLongerExpiry() {
+        // 准备测试数据
+        repository.init();
+        when(delegate.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK)).thenReturn(template);
+
+        // 执行测试
+        repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+
+        // 验证结果
+        verify(delegate, times(1)).getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+    }
+
+    /**
+     * 测试新建模板后失效查不到模板的缓存并广播
+     */
+    @Test
+    void testSaveEvictsNegativeLookup() {
+        // 准备测试数据
+        repository.init();
+        when(delegate.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK)).thenReturn(null, template);
+        when(delegate.save(template)).thenReturn(true);
+        assertNull(repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK));
+
+        // 执行测试
+        repository.save(template);
+        MessageTemplate result = repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+
+        // 验证结果
+        assertSame(template, result);
+        verify(cacheInvalidationManager).publish(CacheInvalidationManager.MESSAGE_TEMPLATE, 1L, 1001L, null);
+    }
+
+    /**
+     * 测试修改模板的业务类型后新旧两个查询都失效
+     */
+    @Test
+    void testUpdateEvictsPreviousAndCurrentKeys() {
+        // 准备测试数据
+        repository.init();
+        MessageTemplate previous = new MessageTemplate();
+        previous.setId(1L);
+        previous.setTenantId(1001L);
+        previous.setBusinessType("ORDER_CREATED");
+        previous.setChannelType(ChannelType.DINGTALK);
+        when(delegate.getTemplate(1001L, "ORDER_CREATED", ChannelType.DINGTALK)).thenReturn(previous);
+        when(delegate.getById(1L)).thenReturn(previous);
+        when(delegate.update(template)).thenReturn(true);
+        repository.getTemplate(1001L, "ORDER_CREATED", ChannelType.DINGTALK);
+
+        // 执行测试
+        repository.update(template);
+        repository.getTemplate(1001L, "ORDER_CREATED", ChannelType.DINGTALK);
+
+        // 验证结果
+        verify(delegate, times(2)).getTemplate(1001L, "ORDER_CREATED", ChannelType.DINGTALK);
+        verify(cacheInvalidationManager, times(2)).publish(CacheInvalidationManager.MESSAGE_TEMPLATE, 1L, 1001L, null);
+    }
+
+    /**
+     * 测试关闭缓存时直接查库
+     */
+    @Test
+    void testDisabled() {
+        // 准备测试数据
+        cacheConfig.setEnabled(false);
+        repository.init();
+        when(delegate.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK)).thenReturn(template);
+
+        // 执行测试
+        repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+        repository.getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+
+        // 验证结果
+        verify(delegate, times(2)).getTemplate(1001L, "ORDER_NOTIFY", ChannelType.DINGTALK);
+    }
+}
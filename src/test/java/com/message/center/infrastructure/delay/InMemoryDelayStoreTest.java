@@ -0,0 +1,78 @@
+package com.message.center.infrastructure.delay;
+
+import com.message.center.domain.vo.DeferredMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 进程内延后消息存储单元测试
+ */
+class InMemoryDelayStoreTest {
+
+    /**
+     * 测试只取出已到期的消息，且按到期时间升序
+     */
+    @Test
+    void testPollDueInOrder() {
+        // 准备测试数据
+        InMemoryDelayStore store = new InMemoryDelayStore(10);
+        store.offer(deferred("MSG3", 3000));
+        store.offer(deferred("MSG1", 1000));
+        store.offer(deferred("MSG2", 2000));
+
+        // 执行测试
+        List<DeferredMessage> due = store.pollDue(2000, 10);
+
+        // 验证结果
+        assertEquals(2, due.size());
+        assertEquals("MSG1", due.get(0).getMessageId());
+        assertEquals("MSG2", due.get(1).getMessageId());
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * 测试每次取出数量不超过上限
+     */
+    @Test
+    void testPollDueLimit() {
+        // 准备测试数据
+        InMemoryDelayStore store = new InMemoryDelayStore(10);
+        for (int i = 0; i < 5; i++) {
+            store.offer(deferred("MSG" + i, 1000));
+        }
+
+        // 执行测试
+        List<DeferredMessage> due = store.pollDue(1000, 3);
+
+        // 验证结果
+        assertEquals(3, due.size());
+        assertEquals(2, store.size());
+    }
+
+    /**
+     * 测试超过容量时拒绝暂存
+     */
+    @Test
+    void testCapacity() {
+        // 准备测试数据
+        InMemoryDelayStore store = new InMemoryDelayStore(1);
+
+        // 执行测试
+        boolean first = store.offer(deferred("MSG1", 1000));
+        boolean second = store.offer(deferred("MSG2", 1000));
+
+        // 验证结果
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    private static DeferredMessage deferred(String messageId, long dueTime) {
+        DeferredMessage message = new DeferredMessage();
+        message.setMessageId(messageId);
+        message.setDueTime(dueTime);
+        return message;
+    }
+}
@@ -0,0 +1,114 @@
+package com.message.center.infrastructure.delay;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.vo.DeferredMessage;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis延后消息存储单元测试
+ * 使用 jedis-mock 启动的内存 Redis 执行 Lua 脚本
+ */
+class RedisDelayStoreTest {
+
+    private static final String KEY = "mc:rate_limit:deferred";
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisDelayStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(KEY);
+        store = new RedisDelayStore(redisTemplate, KEY);
+    }
+
+    /**
+     * 测试取出到期消息后从有序集合中移除，未到期的保留
+     */
+    @Test
+    void testPollDueRemoves() {
+        // 准备测试数据
+        store.offer(deferred("MSG1", 1000));
+        store.offer(deferred("MSG2", 2000));
+        store.offer(deferred("MSG3", 3000));
+
+        // 执行测试
+        List<DeferredMessage> first = store.pollDue(2000, 10);
+        List<DeferredMessage> second = store.pollDue(2000, 10);
+
+        // 验证结果
+        assertEquals(2, first.size());
+        assertEquals("MSG1", first.get(0).getMessageId());
+        assertEquals(List.of(ChannelType.DINGTALK), first.get(0).getTargetChannels());
+        assertEquals("MSG2", first.get(1).getMessageId());
+        assertTrue(second.isEmpty());
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * 测试每次取出数量不超过上限
+     */
+    @Test
+    void testPollDueLimit() {
+        // 准备测试数据
+        for (int i = 0; i < 5; i++) {
+            store.offer(deferred("MSG" + i, 1000 + i));
+        }
+
+        // 执行测试
+        List<DeferredMessage> due = store.pollDue(5000, 2);
+
+        // 验证结果
+        assertEquals(2, due.size());
+        assertEquals("MSG0", due.get(0).getMessageId());
+        assertEquals(3, store.size());
+    }
+
+    private static DeferredMessage deferred(String messageId, long dueTime) {
+        DeferredMessage message = new DeferredMessage();
+        message.setMessageId(messageId);
+        message.setTenantId(1001L);
+        message.setBusinessType("ORDER_NOTIFY");
+        message.setTargetChannels(List.of(ChannelType.DINGTALK));
+        message.setAttempts(1);
+        message.setDueTime(dueTime);
+        return message;
+    }
+}
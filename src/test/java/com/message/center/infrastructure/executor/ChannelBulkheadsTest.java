@@ -0,0 +1,135 @@
+package com.message.center.infrastructure.executor;
+
+import com.message.center.domain.enums.BulkheadRejectionPolicy;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.config.ThreadPoolConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 渠道隔离线程池单元测试
+ */
+class ChannelBulkheadsTest {
+
+    private ThreadPoolConfig threadPoolConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ChannelBulkheads channelBulkheads;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        threadPoolConfig = new ThreadPoolConfig();
+        for (ChannelType channelType : ChannelType.values()) {
+            ThreadPoolConfig.Bulkhead bulkhead = threadPoolConfig.bulkheadOf(channelType);
+            bulkhead.setCoreSize(1);
+            bulkhead.setMaxSize(1);
+            bulkhead.setQueueCapacity(1);
+        }
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        channelBulkheads.destroy();
+    }
+
+    /**
+     * 测试一个渠道的线程和队列占满后拒绝该渠道的任务，其他渠道照常执行
+     */
+    @Test
+    void testChannelIsolation() throws InterruptedException {
+        // 准备测试数据
+        init();
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block);
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block);
+        CountDownLatch otherChannel = new CountDownLatch(1);
+
+        // 执行测试
+        assertThrows(RejectedExecutionException.class,
+                () -> channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block));
+        channelBulkheads.executorOf(ChannelType.WECHAT_WORK).execute(otherChannel::countDown);
+
+        // 验证结果
+        assertTrue(otherChannel.await(2, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("message.center.bulkhead.rejected")
+                .tag("channel", "DINGTALK").counter().count());
+        assertEquals(0.0, meterRegistry.get("message.center.bulkhead.rejected")
+                .tag("channel", "WECHAT_WORK").counter().count());
+        assertEquals(1.0, meterRegistry.get("message.center.bulkhead.queue.size")
+                .tag("channel", "DINGTALK").gauge().value());
+        assertEquals(0.0, meterRegistry.get("message.center.bulkhead.queue.remaining")
+                .tag("channel", "DINGTALK").gauge().value());
+    }
+
+    /**
+     * 测试调用线程执行策略下，占满后的任务由提交线程执行
+     */
+    @Test
+    void testCallerRuns() {
+        // 准备测试数据
+        threadPoolConfig.getDingtalk().setRejectionPolicy(BulkheadRejectionPolicy.CALLER_RUNS);
+        init();
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block);
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // 执行测试
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(() -> runner.set(Thread.currentThread()));
+
+        // 验证结果
+        assertSame(Thread.currentThread(), runner.get());
+        assertEquals(1.0, meterRegistry.get("message.center.bulkhead.rejected")
+                .tag("channel", "DINGTALK").counter().count());
+    }
+
+    /**
+     * 测试调用线程执行策略下，executeOrReject 提交的任务占满后仍被拒绝，不在提交线程执行
+     */
+    @Test
+    void testExecuteOrRejectIgnoresCallerRuns() {
+        // 准备测试数据
+        threadPoolConfig.getDingtalk().setRejectionPolicy(BulkheadRejectionPolicy.CALLER_RUNS);
+        init();
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block);
+        channelBulkheads.executorOf(ChannelType.DINGTALK).execute(this::block);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // 执行测试
+        assertThrows(RejectedExecutionException.class, () -> channelBulkheads.executeOrReject(
+                ChannelType.DINGTALK, () -> runner.set(Thread.currentThread())));
+
+        // 验证结果
+        assertNull(runner.get());
+        assertEquals(1.0, meterRegistry.get("message.center.bulkhead.rejected")
+                .tag("channel", "DINGTALK").counter().count());
+    }
+
+    private void init() {
+        channelBulkheads = new ChannelBulkheads();
+        ReflectionTestUtils.setField(channelBulkheads, "threadPoolConfig", threadPoolConfig);
+        ReflectionTestUtils.setField(channelBulkheads, "meterRegistry", meterRegistry);
+        channelBulkheads.init();
+    }
+
+    private void block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.message.center.infrastructure.executor;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.vo.SendResult;
+import com.message.center.domain.vo.TaskStatusTransition;
+import com.message.center.infrastructure.adapter.ChannelAdapter;
+import com.message.center.infrastructure.config.ThreadPoolConfig;
+import com.message.center.infrastructure.config.TimeoutConfig;
+import com.message.center.infrastructure.retry.RetryBudget;
+import com.message.center.infrastructure.retry.RetryDecision;
+import com.message.center.infrastructure.retry.RetryPolicyEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 渠道任务执行器单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ChannelTaskExecutorTest {
+
+    @Mock
+    private TaskStatusWriteBuffer statusWriteBuffer;
+
+    @Mock
+    private ChannelAdapter dingTalkAdapter;
+
+    @Mock
+    private RetryPolicyEngine retryPolicyEngine;
+
+    @Mock
+    private RetryBudget retryBudget;
+
+    @InjectMocks
+    private ChannelTaskExecutor channelTaskExecutor;
+
+    private ChannelTask task;
+
+    private TimeoutConfig timeoutConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dingTalkAdapter.getChannelType()).thenReturn(ChannelType.DINGTALK);
+        ReflectionTestUtils.setField(channelTaskExecutor, "adapters", Collections.singletonList(dingTalkAdapter));
+        timeoutConfig = new TimeoutConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(channelTaskExecutor, "timeoutConfig", timeoutConfig);
+        ReflectionTestUtils.setField(channelTaskExecutor, "meterRegistry", meterRegistry);
+        channelTaskExecutor.init();
+
+        task = new ChannelTask();
+        task.setId(1L);
+        task.setChannelType(ChannelType.DINGTALK);
+        task.setStatus(TaskStatus.PENDING);
+        task.setRetryCount(0);
+        task.setMaxRetry(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channelTaskExecutor.destroy();
+    }
+
+    /**
+     * 测试发送成功时先从待发送迁移到发送中，再从发送中迁移到成功
+     */
+    @Test
+    void testExecuteTaskSuccess() {
+        // 准备测试数据
+        when(statusWriteBuffer.claim(any())).thenReturn(true);
+        when(statusWriteBuffer.submit(any())).thenReturn(true);
+        when(dingTalkAdapter.send(eq(task), anyInt())).thenReturn(SendResult.success("MSG1"));
+
+        // 执行测试
+        ReflectionTestUtils.invokeMethod(channelTaskExecutor, "executeTask", task);
+
+        // 验证结果
+        ArgumentCaptor<TaskStatusTransition> claimCaptor = ArgumentCaptor.forClass(TaskStatusTransition.class);
+        verify(statusWriteBuffer).claim(claimCaptor.capture());
+        assertEquals(TaskStatus.SENDING, claimCaptor.getValue().getTargetStatus());
+        assertEquals(EnumSet.of(TaskStatus.PENDING, TaskStatus.RETRY), claimCaptor.getValue().getExpectedStatuses());
+        ArgumentCaptor<TaskStatusTransition> captor = ArgumentCaptor.forClass(TaskStatusTransition.class);
+        verify(statusWriteBuffer).submit(captor.capture());
+        assertEquals(TaskStatus.SUCCESS, captor.getValue().getTargetStatus());
+        assertEquals(EnumSet.of(TaskStatus.SENDING), captor.getValue().getExpectedStatuses());
+        assertTrue(captor.getValue().isFinish());
+    }
+
+    /**
+     * 测试任务已被其他执行器抢占时不发送
+     */
+    @Test
+    void testExecuteTaskAlreadyClaimed() {
+        // 准备测试数据
+        when(statusWriteBuffer.claim(any())).thenReturn(false);
+
+        // 执行测试
+        ReflectionTestUtils.invokeMethod(channelTaskExecutor, "executeTask", task);
+
+        // 验证结果
+        verify(dingTalkAdapter, never()).send(any(), anyInt());
+        verify(statusWriteBuffer, never()).submit(any());
+    }
+
+    /**
+     * 测试发送失败时写回重试次数和下次重试时间
+     */
+    @Test
+    void testExecuteTaskRetry() {
+        // 准备测试数据
+        when(statusWriteBuffer.claim(any())).thenReturn(true);
+        when(statusWriteBuffer.submit(any())).thenReturn(true);
+        when(dingTalkAdapter.send(eq(task), anyInt())).thenReturn(SendResult.fail("SEND_ERROR", "网络异常"));
+        when(retryPolicyEngine.decide(task, "SEND_ERROR")).thenReturn(RetryDecision.retry(30_000));
+
+        // 执行测试
+        ReflectionTestUtils.invokeMethod(channelTaskExecutor, "executeTask", task);
+
+        // 验证结果
+        ArgumentCaptor<TaskStatusTransition> captor = ArgumentCaptor.forClass(TaskStatusTransition.class);
+        verify(statusWriteBuffer).submit(captor.capture());
+        TaskStatusTransition retry = captor.getValue();
+        assertEquals(TaskStatus.RETRY, retry.getTargetStatus());
+        assertEquals(1, retry.getRetryCount());
+        assertNotNull(retry.getNextRetryTime());
+        assertFalse(retry.isFinish());
+        verify(retryBudget).recordAttempt(ChannelType.DINGTALK);
+    }
+
+    /**
+     * 测试不可重试的错误直接置为失败
+     */
+    @Test
+    void testExecuteTaskNonRetryable() {
+        // 准备测试数据
+        when(statusWriteBuffer.claim(any())).thenReturn(true);
+        when(statusWriteBuffer.submit(any())).thenReturn(true);
+        when(dingTalkAdapter.send(eq(task), anyInt())).thenReturn(SendResult.fail("DINGTALK_CONFIG_ERROR", "钉钉渠道配置不存在"));
+        when(retryPolicyEngine.decide(task, "DINGTALK_CONFIG_ERROR"))
+                .thenReturn(RetryDecision.giveUp(RetryDecision.NON_RETRYABLE));
+
+        // 执行测试
+        channelTaskExecutor.executeTask(task);
+
+        // 验证结果
+        ArgumentCaptor<TaskStatusTransition> captor = ArgumentCaptor.forClass(TaskStatusTransition.class);
+        verify(statusWriteBuffer).submit(captor.capture());
+        TaskStatusTransition failed = captor.getValue();
+        assertEquals(TaskStatus.FAILED, failed.getTargetStatus());
+        assertEquals(0, task.getRetryCount());
+        assertTrue(failed.isFinish());
+    }
+
+    /**
+     * 测试发送超过单个任务时限时中断发送线程，按超时进入重试，发送线程之后返回的结果不再写回
+     */
+    @Test
+    void testSendTimeout() {
+        // 准备测试数据
+        timeoutConfig.setSingleChannelSeconds(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(statusWriteBuffer.claim(any())).thenReturn(true);
+        when(statusWriteBuffer.submit(any())).thenReturn(true);
+        when(dingTalkAdapter.send(eq(task), anyInt())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return SendResult.success("MSG1");
+        });
+        when(retryPolicyEngine.decide(task, SendResult.TIMEOUT)).thenReturn(RetryDecision.retry(30_000));
+
+        // 执行测试
+        channelTaskExecutor.executeTask(task);
+
+        // 验证结果
+        assertTrue(interrupted.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        ArgumentCaptor<TaskStatusTransition> captor = ArgumentCaptor.forClass(TaskStatusTransition.class);
+        verify(statusWriteBuffer, timeout(1000)).submit(captor.capture());
+        TaskStatusTransition retry = captor.getValue();
+        assertEquals(TaskStatus.RETRY, retry.getTargetStatus());
+        assertEquals(EnumSet.of(TaskStatus.SENDING), retry.getExpectedStatuses());
+        assertEquals(1.0, meterRegistry.get("message.center.channel.timeout")
+                .tag("channel", "DINGTALK").tag("phase", "send").counter().count());
+    }
+
+    /**
+     * 测试消息总时限到期时，仍在排队的任务不再发送，从待发送按超时进入重试，已开始发送的任务不受影响
+     */
+    @Test
+    void testQueuedTimeout() throws InterruptedException {
+        // 准备测试数据
+        timeoutConfig.setAllChannelsSeconds(1);
+        ChannelBulkheads bulkheads = bulkheads(1, 10);
+        ChannelTask queued = new ChannelTask();
+        queued.setId(2L);
+        queued.setChannelType(ChannelType.DINGTALK);
+        queued.setStatus(TaskStatus.PENDING);
+        queued.setRetryCount(0);
+        queued.setMaxRetry(3);
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().when(statusWriteBuffer.claim(any())).thenReturn(true);
+        when(statusWriteBuffer.submit(any())).thenReturn(true);
+        when(dingTalkAdapter.send(eq(task), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return SendResult.success("MSG1");
+        });
+        when(retryPolicyEngine.decide(any(), eq(SendResult.TIMEOUT))).thenReturn(RetryDecision.retry(30_000));
+
+        // 执行测试
+        channelTaskExecutor.executeAll(List.of(task, queued));
+
+        // 验证结果
+        verify(statusWriteBuffer, timeout(3000)).submit(argThat(transition -> transition.getTaskId() == 2L
+                && transition.getTargetStatus() == TaskStatus.RETRY
+                && transition.getExpectedStatuses().equals(EnumSet.of(TaskStatus.PENDING))));
+        release.countDown();
+        verify(dingTalkAdapter, never()).send(eq(queued), anyInt());
+        verify(statusWriteBuffer, never()).submit(argThat(transition -> transition.getTaskId() == 1L
+                && transition.getExpectedStatuses().equals(EnumSet.of(TaskStatus.PENDING))));
+        assertEquals(1.0, meterRegistry.get("message.center.channel.timeout")
+                .tag("channel", "DINGTALK").tag("phase", "queue").counter().count());
+        bulkheads.destroy();
+    }
+
+    /**
+     * 测试渠道线程池已满时不占用调用线程，被拒绝的任务从待发送重新排期且不计入重试次数
+     */
+    @Test
+    void testBulkheadRejected() throws InterruptedException {
+        // 准备测试数据
+        ChannelBulkheads bulkheads = bulkheads(1, 1);
+        ChannelTask queued = new ChannelTask();
+        queued.setId(2L);
+        queued.setChannelType(ChannelType.DINGTALK);
+        queued.setStatus(TaskStatus.PENDING);
+        queued.setRetryCount(0);
+        queued.setMaxRetry(3);
+        ChannelTask rejected = new ChannelTask();
+        rejected.setId(3L);
+        rejected.setChannelType(ChannelType.DINGTALK);
+        rejected.setStatus(TaskStatus.PENDING);
+        rejected.setRetryCount(0);
+        rejected.setMaxRetry(3);
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().when(statusWriteBuffer.claim(any())).thenReturn(true);
+        when(statusWriteBuffer.submit(any())).thenReturn(true);
+        lenient().when(dingTalkAdapter.send(any(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return SendResult.success("MSG1");
+        });
+        when(retryPolicyEngine.rescheduleDelayMillis(rejected, ChannelTaskExecutor.BULKHEAD_REJECTED))
+                .thenReturn(30_000L);
+        Thread caller = Thread.currentThread();
+        AtomicBoolean sentOnCaller = new AtomicBoolean();
+        lenient().doAnswer(invocation -> {
+            sentOnCaller.set(Thread.currentThread() == caller);
+            return null;
+        }).when(retryBudget).recordAttempt(ChannelType.DINGTALK);
+
+        // 执行测试
+        channelTaskExecutor.executeAll(List.of(task, queued, rejected));
+
+        // 验证结果
+        verify(statusWriteBuffer).submit(argThat(transition -> transition.getTaskId() == 3L
+                && transition.getTargetStatus() == TaskStatus.RETRY
+                && transition.getExpectedStatuses().equals(EnumSet.of(TaskStatus.PENDING))
+                && transition.getRetryCount() == 0));
+        verify(retryPolicyEngine, never()).decide(eq(rejected), any());
+        assertEquals(0, rejected.getRetryCount());
+        assertFalse(sentOnCaller.get());
+        assertEquals(1.0, meterRegistry.get("message.center.bulkhead.rejected")
+                .tag("channel", "DINGTALK").counter().count());
+        release.countDown();
+        bulkheads.destroy();
+    }
+
+    private ChannelBulkheads bulkheads(int threads, int queueCapacity) {
+        ThreadPoolConfig threadPoolConfig = new ThreadPoolConfig();
+        threadPoolConfig.getDingtalk().setCoreSize(threads);
+        threadPoolConfig.getDingtalk().setMaxSize(threads);
+        threadPoolConfig.getDingtalk().setQueueCapacity(queueCapacity);
+        ChannelBulkheads bulkheads = new ChannelBulkheads();
+        ReflectionTestUtils.setField(bulkheads, "threadPoolConfig", threadPoolConfig);
+        ReflectionTestUtils.setField(bulkheads, "meterRegistry", meterRegistry);
+        bulkheads.init();
+        ReflectionTestUtils.setField(channelTaskExecutor, "channelBulkheads", bulkheads);
+        return bulkheads;
+    }
+}
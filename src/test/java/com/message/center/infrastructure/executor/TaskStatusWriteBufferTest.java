@@ -0,0 +1,230 @@
+package com.message.center.infrastructure.executor;
+
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.domain.repository.ChannelTaskRepository;
+import com.message.center.domain.vo.TaskStatusTransition;
+import com.message.center.infrastructure.config.StatusBufferConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 任务状态写缓冲单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskStatusWriteBufferTest {
+
+    @Mock
+    private ChannelTaskRepository taskRepository;
+
+    private StatusBufferConfig statusBufferConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TaskStatusWriteBuffer statusWriteBuffer;
+
+    @BeforeEach
+    void setUp() {
+        statusBufferConfig = new StatusBufferConfig();
+        statusBufferConfig.setEnabled(true);
+        // 定时刷新间隔足够长，测试中只由显式调用或阈值触发刷新
+        statusBufferConfig.setFlushIntervalMillis(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+
+        statusWriteBuffer = new TaskStatusWriteBuffer();
+        ReflectionTestUtils.setField(statusWriteBuffer, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(statusWriteBuffer, "statusBufferConfig", statusBufferConfig);
+        ReflectionTestUtils.setField(statusWriteBuffer, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statusWriteBuffer.destroy();
+    }
+
+    /**
+     * 测试抢占之后的状态迁移缓冲后批量写入，写入后移出缓冲
+     */
+    @Test
+    void testBatchWrite() {
+        // 准备测试数据
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList())).thenReturn(2);
+
+        // 执行测试
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
+        statusWriteBuffer.submit(TaskStatusTransition.of(2L, TaskStatus.FAILED, "发送失败", TaskStatus.SENDING));
+        assertEquals(2, statusWriteBuffer.size());
+        assertEquals(2.0, meterRegistry.get("message.center.task.status.buffer.depth").gauge().value());
+        statusWriteBuffer.flush();
+
+        // 验证结果
+        ArgumentCaptor<List<TaskStatusTransition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).batchTransitionStatus(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(0, statusWriteBuffer.size());
+        assertEquals(1, meterRegistry.get("message.center.task.status.buffer.flush").timer().count());
+        verify(taskRepository, never()).transitionStatus(any());
+    }
+
+    /**
+     * 测试同一任务在刷新前再次提交时合并为一次写入，并保留较早的期望状态
+     */
+    @Test
+    void testMergeSameTask() {
+        // 准备测试数据
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList())).thenReturn(1);
+
+        // 执行测试
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.RETRY, "发送失败", TaskStatus.SENDING)
+                .withRetry(1, null));
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.FAILED, "发送失败", TaskStatus.RETRY));
+        statusWriteBuffer.flush();
+
+        // 验证结果
+        ArgumentCaptor<List<TaskStatusTransition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).batchTransitionStatus(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        TaskStatusTransition merged = captor.getValue().get(0);
+        assertEquals(TaskStatus.FAILED, merged.getTargetStatus());
+        assertEquals(EnumSet.of(TaskStatus.SENDING), merged.getExpectedStatuses());
+        assertEquals(1, merged.getRetryCount());
+    }
+
+    /**
+     * 测试缓冲任务数达到阈值时立即刷新
+     */
+    @Test
+    void testFlushOnBatchSize() {
+        // 准备测试数据
+        statusBufferConfig.setMaxBatchSize(2);
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList())).thenReturn(2);
+
+        // 执行测试
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
+        statusWriteBuffer.submit(TaskStatusTransition.of(2L, TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
+
+        // 验证结果
+        verify(taskRepository, times(1)).batchTransitionStatus(anyList());
+        assertEquals(0, statusWriteBuffer.size());
+    }
+
+    /**
+     * 测试配置终态立即写库时，终态提交触发刷新
+     */
+    @Test
+    void testFlushOnTerminal() {
+        // 准备测试数据
+        statusBufferConfig.setFlushOnTerminal(true);
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList())).thenReturn(1);
+
+        // 执行测试
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.RETRY, "发送失败", TaskStatus.SENDING));
+        verify(taskRepository, never()).batchTransitionStatus(anyList());
+        statusWriteBuffer.submit(TaskStatusTransition.of(2L, TaskStatus.FAILED, "发送失败", TaskStatus.SENDING));
+
+        // 验证结果
+        verify(taskRepository, times(1)).batchTransitionStatus(anyList());
+    }
+
+    /**
+     * 测试抢占直接写库并返回条件更新的结果，缓冲中该任务之前的迁移先刷新
+     */
+    @Test
+    void testClaimWritesThrough() {
+        // 准备测试数据
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList())).thenReturn(1);
+        when(taskRepository.transitionStatus(any())).thenReturn(false);
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.RETRY, "发送失败", TaskStatus.SENDING));
+
+        // 执行测试
+        boolean claimed = statusWriteBuffer.claim(TaskStatusTransition.of(1L, TaskStatus.SENDING, "发送中",
+                TaskStatus.PENDING, TaskStatus.RETRY));
+
+        // 验证结果
+        assertFalse(claimed);
+        InOrder inOrder = inOrder(taskRepository);
+        inOrder.verify(taskRepository).batchTransitionStatus(anyList());
+        inOrder.verify(taskRepository).transitionStatus(any());
+        assertEquals(0, statusWriteBuffer.size());
+    }
+
+    /**
+     * 测试写库失败时迁移保留在缓冲中，下次刷新再写入
+     */
+    @Test
+    void testFlushFailureKeepsTransitions() {
+        // 准备测试数据
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList()))
+                .thenThrow(new IllegalStateException("数据库不可用"))
+                .thenReturn(1);
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
+
+        // 执行测试
+        assertThrows(IllegalStateException.class, () -> statusWriteBuffer.flush());
+        assertEquals(1, statusWriteBuffer.size());
+        int updatedCount = statusWriteBuffer.flush();
+
+        // 验证结果
+        assertEquals(1, updatedCount);
+        assertEquals(0, statusWriteBuffer.size());
+        verify(taskRepository, times(2)).batchTransitionStatus(anyList());
+    }
+
+    /**
+     * 测试未开启缓冲时直接写库并返回迁移结果
+     */
+    @Test
+    void testDisabledWritesThrough() {
+        // 准备测试数据
+        statusBufferConfig.setEnabled(false);
+        statusWriteBuffer.init();
+        when(taskRepository.transitionStatus(any())).thenReturn(false);
+
+        // 执行测试
+        boolean result = statusWriteBuffer.submit(
+                TaskStatusTransition.of(1L, TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
+
+        // 验证结果
+        assertFalse(result);
+        assertEquals(0, statusWriteBuffer.size());
+    }
+
+    /**
+     * 测试停机时强制刷新
+     */
+    @Test
+    void testFlushOnDestroy() {
+        // 准备测试数据
+        statusWriteBuffer.init();
+        when(taskRepository.batchTransitionStatus(anyList())).thenReturn(1);
+        statusWriteBuffer.submit(TaskStatusTransition.of(1L, TaskStatus.SUCCESS, "发送成功", TaskStatus.SENDING));
+
+        // 执行测试
+        statusWriteBuffer.destroy();
+
+        // 验证结果
+        verify(taskRepository, times(1)).batchTransitionStatus(anyList());
+        assertEquals(0, statusWriteBuffer.size());
+    }
+}
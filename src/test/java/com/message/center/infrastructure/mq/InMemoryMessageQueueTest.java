@@ -0,0 +1,120 @@
+package com.message.center.infrastructure.mq;
+
+import com.message.center.domain.vo.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 进程内消息队列单元测试
+ */
+class InMemoryMessageQueueTest {
+
+    private InMemoryMessageQueue messageQueue;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (messageQueue != null) {
+            messageQueue.destroy();
+        }
+    }
+
+    /**
+     * 测试投递的消息被消费者处理
+     */
+    @Test
+    void testOfferAndConsume() throws Exception {
+        messageQueue = new InMemoryMessageQueue(10, 2);
+        CountDownLatch latch = new CountDownLatch(3);
+        List<String> consumed = new CopyOnWriteArrayList<>();
+        messageQueue.subscribe(message -> {
+            consumed.add(message.getMessageId());
+            latch.countDown();
+        });
+
+        // 执行测试
+        assertTrue(messageQueue.offer(buildMessage("MSG1")));
+        assertTrue(messageQueue.offer(buildMessage("MSG2")));
+        assertTrue(messageQueue.offer(buildMessage("MSG3")));
+
+        // 验证结果
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(3, consumed.size());
+        assertTrue(consumed.containsAll(List.of("MSG1", "MSG2", "MSG3")));
+    }
+
+    /**
+     * 测试队列已满时投递失败
+     */
+    @Test
+    void testOffer_QueueFull() {
+        // 未注册消费者，消息只会堆积在队列中
+        messageQueue = new InMemoryMessageQueue(2, 1);
+
+        // 执行测试
+        assertTrue(messageQueue.offer(buildMessage("MSG1")));
+        assertTrue(messageQueue.offer(buildMessage("MSG2")));
+        boolean result = messageQueue.offer(buildMessage("MSG3"));
+
+        // 验证结果
+        assertFalse(result);
+        assertEquals(2, messageQueue.size());
+    }
+
+    /**
+     * 测试消费异常不影响后续消息
+     */
+    @Test
+    void testConsume_ExceptionIsolated() throws Exception {
+        messageQueue = new InMemoryMessageQueue(10, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        messageQueue.subscribe(message -> {
+            if ("BAD".equals(message.getMessageId())) {
+                throw new IllegalStateException("模拟消费异常");
+            }
+            latch.countDown();
+        });
+
+        // 执行测试
+        messageQueue.offer(buildMessage("BAD"));
+        messageQueue.offer(buildMessage("GOOD"));
+
+        // 验证结果
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 测试停机时消费完剩余消息，并拒绝新消息
+     */
+    @Test
+    void testDestroy_DrainsQueue() throws Exception {
+        messageQueue = new InMemoryMessageQueue(100, 1);
+        List<String> consumed = new CopyOnWriteArrayList<>();
+        messageQueue.subscribe(message -> consumed.add(message.getMessageId()));
+        for (int i = 0; i < 50; i++) {
+            messageQueue.offer(buildMessage("MSG" + i));
+        }
+
+        // 执行测试
+        messageQueue.destroy();
+
+        // 验证结果
+        assertEquals(50, consumed.size());
+        assertFalse(messageQueue.offer(buildMessage("MSG_AFTER_SHUTDOWN")));
+    }
+
+    private Message buildMessage(String messageId) {
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setTenantId(1001L);
+        message.setBusinessType("ORDER_NOTIFY");
+        message.setBusinessData("{\"orderId\":\"ORD123456\"}");
+        return message;
+    }
+}
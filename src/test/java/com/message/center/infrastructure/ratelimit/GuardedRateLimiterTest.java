@@ -0,0 +1,225 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.RateLimitFailMode;
+import com.message.center.infrastructure.config.RateLimitGuardConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 带保护的 Redis 频次限制器单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class GuardedRateLimiterTest {
+
+    @Mock
+    private RedisRateLimiter redisRateLimiter;
+
+    private RateLimitGuardConfig guardConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GuardedRateLimiter guardedRateLimiter;
+
+    private RateLimitRule dingTalk;
+
+    private RateLimitRule local;
+
+    @BeforeEach
+    void setUp() {
+        guardConfig = new RateLimitGuardConfig();
+        guardConfig.setEnabled(true);
+        guardConfig.setLatencyBudgetMillis(200);
+        guardConfig.setThreads(2);
+        guardConfig.setWindowSize(10);
+        guardConfig.setMinimumCalls(2);
+        guardConfig.setNodeCount(2);
+        meterRegistry = new SimpleMeterRegistry();
+
+        dingTalk = new RateLimitRule("rate_limit:{1001:2001}:DINGTALK", 4, 3600);
+        local = new RateLimitRule("rate_limit:{1001:2001}:LOCAL", 4, 3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (guardedRateLimiter != null) {
+            guardedRateLimiter.destroy();
+        }
+    }
+
+    /**
+     * 测试 Redis 正常时直接返回 Redis 的判定结果
+     */
+    @Test
+    void testRedisHealthy() {
+        // 准备测试数据
+        init();
+        when(redisRateLimiter.tryAcquire(List.of(dingTalk), 1)).thenReturn(RateLimitResult.reject(0, 4));
+
+        // 执行测试
+        RateLimitResult result = guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+
+        // 验证结果
+        assertFalse(result.isAllowed());
+        assertFalse(guardedRateLimiter.isDegraded());
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.guard").tag("result", "success").counter().count());
+    }
+
+    /**
+     * 测试 Redis 异常时降级为本地限流，额度按节点数均分
+     */
+    @Test
+    void testFallbackToLocal() {
+        // 准备测试数据
+        guardConfig.setMinimumCalls(10);
+        init();
+        when(redisRateLimiter.tryAcquire(anyList(), anyInt())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // 执行测试
+        RateLimitResult first = guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+        RateLimitResult second = guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+        RateLimitResult third = guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+
+        // 验证结果
+        assertTrue(first.isAllowed());
+        assertTrue(second.isAllowed());
+        assertFalse(third.isAllowed());
+        assertEquals(3.0, meterRegistry.get("message.center.rate_limit.guard").tag("result", "error").counter().count());
+        assertEquals(3.0, meterRegistry.get("message.center.rate_limit.fallback")
+                .tag("channel", "DINGTALK").tag("mode", "LOCAL").counter().count());
+    }
+
+    /**
+     * 测试 Redis 调用超过耗时上限时不再等待，按超时降级
+     */
+    @Test
+    void testLatencyBudget() {
+        // 准备测试数据
+        guardConfig.setLatencyBudgetMillis(20);
+        init();
+        when(redisRateLimiter.acquireUpTo(dingTalk, 3)).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return 3;
+        });
+
+        // 执行测试
+        long start = System.nanoTime();
+        int granted = guardedRateLimiter.acquireUpTo(dingTalk, 3);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 验证结果
+        assertEquals(2, granted);
+        assertTrue(elapsedMillis < 500);
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.guard").tag("result", "timeout").counter().count());
+    }
+
+    /**
+     * 测试失败比例达到阈值后熔断，熔断期间不访问 Redis
+     */
+    @Test
+    void testCircuitOpens() {
+        // 准备测试数据
+        init();
+        when(redisRateLimiter.tryAcquire(anyList(), anyInt())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // 执行测试
+        for (int i = 0; i < 4; i++) {
+            guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+        }
+
+        // 验证结果
+        verify(redisRateLimiter, times(2)).tryAcquire(anyList(), anyInt());
+        assertTrue(guardedRateLimiter.isDegraded());
+        assertEquals(CircuitBreaker.State.OPEN, guardedRateLimiter.getState());
+        assertEquals(2.0, meterRegistry.get("message.center.rate_limit.guard").tag("result", "not_permitted").counter().count());
+        assertEquals(1.0, meterRegistry.get("message.center.rate_limit.circuit").tag("state", "OPEN").counter().count());
+    }
+
+    /**
+     * 测试熔断时间过后探测调用成功即恢复
+     */
+    @Test
+    void testHalfOpenRecovers() {
+        // 准备测试数据
+        guardConfig.setOpenMillis(0);
+        guardConfig.setHalfOpenCalls(1);
+        init();
+        when(redisRateLimiter.tryAcquire(anyList(), anyInt()))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(RateLimitResult.allow());
+        guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+        guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+        assertEquals(CircuitBreaker.State.OPEN, guardedRateLimiter.getState());
+
+        // 执行测试
+        RateLimitResult result = guardedRateLimiter.tryAcquire(List.of(dingTalk), 1);
+
+        // 验证结果
+        assertTrue(result.isAllowed());
+        assertEquals(CircuitBreaker.State.CLOSED, guardedRateLimiter.getState());
+        assertFalse(guardedRateLimiter.isDegraded());
+    }
+
+    /**
+     * 测试按渠道配置的降级方式：拒绝的渠道判为超限，放行的渠道不计数
+     */
+    @Test
+    void testFailModePerChannel() {
+        // 准备测试数据
+        guardConfig.setMinimumCalls(10);
+        guardConfig.getFailModes().put(ChannelType.DINGTALK, RateLimitFailMode.CLOSED);
+        guardConfig.getFailModes().put(ChannelType.LOCAL, RateLimitFailMode.OPEN);
+        init();
+        when(redisRateLimiter.tryAcquire(anyList(), anyInt())).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisRateLimiter.acquireUpTo(anyList(), any(int[].class))).thenThrow(new RedisConnectionFailureException("down"));
+
+        // 执行测试
+        RateLimitResult mixed = guardedRateLimiter.tryAcquire(List.of(local, dingTalk), 1);
+        int[] granted = guardedRateLimiter.acquireUpTo(List.of(local, dingTalk), new int[]{10, 10});
+
+        // 验证结果
+        assertFalse(mixed.isAllowed());
+        assertEquals(1, mixed.getRejectedIndex());
+        assertArrayEquals(new int[]{10, 0}, granted);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(guardedRateLimiter.tryAcquire(List.of(local), 1).isAllowed());
+        }
+    }
+
+    /**
+     * 测试未开启保护时直接调用 Redis，异常照常抛出
+     */
+    @Test
+    void testDisabled() {
+        // 准备测试数据
+        guardConfig.setEnabled(false);
+        init();
+        when(redisRateLimiter.tryAcquire(anyList(), anyInt())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // 执行测试 & 验证结果
+        assertThrows(RedisConnectionFailureException.class, () -> guardedRateLimiter.tryAcquire(List.of(dingTalk), 1));
+        assertFalse(guardedRateLimiter.isDegraded());
+    }
+
+    private void init() {
+        guardedRateLimiter = new GuardedRateLimiter();
+        ReflectionTestUtils.setField(guardedRateLimiter, "redisRateLimiter", redisRateLimiter);
+        ReflectionTestUtils.setField(guardedRateLimiter, "guardConfig", guardConfig);
+        ReflectionTestUtils.setField(guardedRateLimiter, "meterRegistry", meterRegistry);
+        guardedRateLimiter.init();
+    }
+}
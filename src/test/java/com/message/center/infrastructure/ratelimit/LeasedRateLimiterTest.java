@@ -0,0 +1,265 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import com.message.center.infrastructure.config.RateLimitLeaseConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 本地租约频次限制器单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class LeasedRateLimiterTest {
+
+    /** 一分钟窗口的起点 */
+    private static final long WINDOW_START = 28_333_333L * 60_000;
+
+    @Mock
+    private GuardedRateLimiter guardedRateLimiter;
+
+    private RateLimitLeaseConfig leaseConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LeasedRateLimiter leasedRateLimiter;
+
+    private RateLimitRule rule;
+
+    @BeforeEach
+    void setUp() {
+        leaseConfig = new RateLimitLeaseConfig();
+        leaseConfig.setEnabled(true);
+        leaseConfig.setSweepIntervalMillis(3600_000);
+        meterRegistry = new SimpleMeterRegistry();
+        leasedRateLimiter = new LeasedRateLimiter();
+        ReflectionTestUtils.setField(leasedRateLimiter, "guardedRateLimiter", guardedRateLimiter);
+        ReflectionTestUtils.setField(leasedRateLimiter, "leaseConfig", leaseConfig);
+        ReflectionTestUtils.setField(leasedRateLimiter, "meterRegistry", meterRegistry);
+        setTime(WINDOW_START);
+        leasedRateLimiter.init();
+
+        rule = new RateLimitRule("rate_limit:{1001:2001}:DINGTALK", 1000, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leasedRateLimiter.destroy();
+    }
+
+    /**
+     * 测试一次租借的额度在本地消费，只访问一次 Redis
+     */
+    @Test
+    void testLeaseConsumedLocally() {
+        // 准备测试数据
+        when(guardedRateLimiter.acquireUpTo(rule, 100)).thenReturn(100);
+
+        // 执行测试
+        for (int i = 0; i < 100; i++) {
+            assertTrue(leasedRateLimiter.tryAcquire(List.of(rule), 1).isAllowed());
+        }
+
+        // 验证结果
+        verify(guardedRateLimiter, times(1)).acquireUpTo(rule, 100);
+        verify(guardedRateLimiter, never()).tryAcquire(anyList(), anyInt());
+        assertEquals(100.0, meterRegistry.get("message.center.rate_limit.lease").tag("result", "local").counter().count());
+    }
+
+    /**
+     * 测试本地额度用完后续租
+     */
+    @Test
+    void testRefillWhenEmpty() {
+        // 准备测试数据
+        when(guardedRateLimiter.acquireUpTo(rule, 100)).thenReturn(100, 30);
+
+        // 执行测试
+        for (int i = 0; i < 130; i++) {
+            assertTrue(leasedRateLimiter.tryAcquire(List.of(rule), 1).isAllowed());
+        }
+
+        // 验证结果
+        verify(guardedRateLimiter, times(2)).acquireUpTo(rule, 100);
+    }
+
+    /**
+     * 测试 Redis 额度用完时拒绝
+     */
+    @Test
+    void testRejectWhenExhausted() {
+        // 准备测试数据
+        when(guardedRateLimiter.acquireUpTo(rule, 100)).thenReturn(0);
+
+        // 执行测试
+        RateLimitResult result = leasedRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 验证结果
+        assertFalse(result.isAllowed());
+        assertEquals(0, result.getRejectedIndex());
+        assertEquals(1000, result.getCurrentCount());
+    }
+
+    /**
+     * 测试限制较小的规则不租借，直接由 Redis 判定，且被拒绝时退还已在本地扣减的额度
+     */
+    @Test
+    void testSmallLimitGoesDirect() {
+        // 准备测试数据
+        RateLimitRule small = new RateLimitRule("rate_limit:{1001:2001}:SMS", 10, 60);
+        when(guardedRateLimiter.acquireUpTo(rule, 100)).thenReturn(100);
+        when(guardedRateLimiter.tryAcquire(List.of(small), 1)).thenReturn(RateLimitResult.reject(0, 10));
+
+        // 执行测试
+        RateLimitResult result = leasedRateLimiter.tryAcquire(List.of(rule, small), 1);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(leasedRateLimiter.tryAcquire(List.of(rule), 1).isAllowed());
+        }
+
+        // 验证结果：被拒绝的消息未消耗租约额度，100 条仍只需一次租借
+        assertFalse(result.isAllowed());
+        assertEquals(1, result.getRejectedIndex());
+        assertEquals(10, result.getCurrentCount());
+        verify(guardedRateLimiter, times(1)).acquireUpTo(rule, 100);
+    }
+
+    /**
+     * 测试租约到期后剩余额度退还 Redis
+     */
+    @Test
+    void testExpiredLeaseReleased() {
+        // 准备测试数据：租约有效期为窗口的 10%，即 6 秒
+        when(guardedRateLimiter.acquireUpTo(rule, 100)).thenReturn(100);
+        leasedRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 执行测试
+        setTime(WINDOW_START + 6_000);
+        leasedRateLimiter.sweep();
+
+        // 验证结果
+        verify(guardedRateLimiter).release(rule, 99);
+    }
+
+    /**
+     * 测试固定窗口的租约不跨越窗口边界，窗口切换后不退还
+     */
+    @Test
+    void testLeaseEndsAtWindowBoundary() {
+        // 准备测试数据：窗口结束前 1 秒租借
+        setTime(WINDOW_START + 59_000);
+        when(guardedRateLimiter.acquireUpTo(rule, 100)).thenReturn(100);
+        leasedRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 执行测试
+        setTime(WINDOW_START + 60_000);
+        leasedRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 验证结果：新窗口重新租借，上一窗口的剩余额度不退还
+        verify(guardedRateLimiter, times(2)).acquireUpTo(rule, 100);
+        verify(guardedRateLimiter, never()).release(any(), anyInt());
+    }
+
+    /**
+     * 测试滑动日志的租约到期后总是退还
+     */
+    @Test
+    void testSlidingLogAlwaysReleased() {
+        // 准备测试数据
+        RateLimitRule logRule = new RateLimitRule("rate_limit:{1001:2001}:WECHAT_WORK", 1000, 60,
+                RateLimitAlgorithm.SLIDING_LOG);
+        setTime(WINDOW_START + 59_000);
+        when(guardedRateLimiter.acquireUpTo(logRule, 100)).thenReturn(100);
+        leasedRateLimiter.tryAcquire(List.of(logRule), 1);
+
+        // 执行测试
+        setTime(WINDOW_START + 65_000);
+        leasedRateLimiter.sweep();
+
+        // 验证结果
+        verify(guardedRateLimiter).release(logRule, 99);
+    }
+
+    /**
+     * 测试关闭租约时直接由 Redis 判定
+     */
+    @Test
+    void testDisabled() {
+        // 准备测试数据
+        leaseConfig.setEnabled(false);
+        when(guardedRateLimiter.tryAcquire(List.of(rule), 1)).thenReturn(RateLimitResult.allow());
+
+        // 执行测试
+        leasedRateLimiter.tryAcquire(List.of(rule), 1);
+        leasedRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 验证结果
+        verify(guardedRateLimiter, times(2)).tryAcquire(List.of(rule), 1);
+        verify(guardedRateLimiter, never()).acquireUpTo(any(), anyInt());
+    }
+
+    /**
+     * 测试逐条判定时被拒绝的规则不影响其他规则
+     */
+    @Test
+    void testTryAcquireEach() {
+        // 准备测试数据
+        leaseConfig.setEnabled(false);
+        RateLimitRule local = new RateLimitRule("rate_limit:{1001:2001}:LOCAL", 1000, 60);
+        RateLimitRule wechatWork = new RateLimitRule("rate_limit:{1001:2001}:WECHAT_WORK", 1000, 60);
+        when(guardedRateLimiter.tryAcquire(List.of(local, rule, wechatWork), 1)).thenReturn(RateLimitResult.reject(1, 1000));
+        when(guardedRateLimiter.tryAcquire(List.of(local, wechatWork), 1)).thenReturn(RateLimitResult.allow());
+
+        // 执行测试
+        List<RateLimitResult> results = leasedRateLimiter.tryAcquireEach(List.of(local, rule, wechatWork), 1);
+
+        // 验证结果
+        assertTrue(results.get(0).isAllowed());
+        assertFalse(results.get(1).isAllowed());
+        assertEquals(1, results.get(1).getRejectedIndex());
+        assertEquals(1000, results.get(1).getCurrentCount());
+        assertTrue(results.get(2).isAllowed());
+    }
+
+    /**
+     * 测试逐组判定时被拒绝的组整组不计数，返回组内被拒绝规则的序号
+     */
+    @Test
+    void testTryAcquireGroups() {
+        // 准备测试数据
+        leaseConfig.setEnabled(false);
+        RateLimitRule global = new RateLimitRule("rate_limit:{global}:DINGTALK", 100000, 60);
+        RateLimitRule webhook = new RateLimitRule("rate_limit:{webhook:abc}:DINGTALK", 20, 60);
+        RateLimitRule local = new RateLimitRule("rate_limit:{1001:2001}:LOCAL", 1000, 60);
+        when(guardedRateLimiter.tryAcquire(List.of(global, rule, webhook, local), 1)).thenReturn(RateLimitResult.reject(2, 20));
+        when(guardedRateLimiter.tryAcquire(List.of(local), 1)).thenReturn(RateLimitResult.allow());
+
+        // 执行测试
+        List<RateLimitResult> results = leasedRateLimiter.tryAcquireGroups(
+                List.of(List.of(global, rule, webhook), List.of(local)), 1);
+
+        // 验证结果
+        assertFalse(results.get(0).isAllowed());
+        assertEquals(2, results.get(0).getRejectedIndex());
+        assertEquals(20, results.get(0).getCurrentCount());
+        assertTrue(results.get(1).isAllowed());
+    }
+
+    private void setTime(long epochMillis) {
+        ReflectionTestUtils.setField(leasedRateLimiter, "clock",
+                Clock.fixed(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,62 @@
+package com.message.center.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 频次限制健康检查单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitHealthIndicatorTest {
+
+    @Mock
+    private GuardedRateLimiter guardedRateLimiter;
+
+    @InjectMocks
+    private RateLimitHealthIndicator healthIndicator;
+
+    /**
+     * 测试熔断时返回降级状态及熔断器详情
+     */
+    @Test
+    void testDegraded() {
+        // 准备测试数据
+        when(guardedRateLimiter.isEnabled()).thenReturn(true);
+        when(guardedRateLimiter.isDegraded()).thenReturn(true);
+        when(guardedRateLimiter.getState()).thenReturn(CircuitBreaker.State.OPEN);
+        when(guardedRateLimiter.nodeCount()).thenReturn(3);
+
+        // 执行测试
+        Health health = healthIndicator.health();
+
+        // 验证结果
+        assertEquals(RateLimitHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals("OPEN", health.getDetails().get("circuit"));
+        assertEquals(3, health.getDetails().get("nodeCount"));
+    }
+
+    /**
+     * 测试 Redis 正常时返回UP
+     */
+    @Test
+    void testUp() {
+        // 准备测试数据
+        when(guardedRateLimiter.isEnabled()).thenReturn(true);
+        when(guardedRateLimiter.getState()).thenReturn(CircuitBreaker.State.CLOSED);
+
+        // 执行测试
+        Health health = healthIndicator.health();
+
+        // 验证结果
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("CLOSED", health.getDetails().get("circuit"));
+    }
+}
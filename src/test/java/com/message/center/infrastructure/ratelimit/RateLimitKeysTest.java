@@ -0,0 +1,87 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.message.center.domain.enums.ChannelType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 频次限制Key生成器单元测试
+ */
+class RateLimitKeysTest {
+
+    /**
+     * 测试前缀格式与原有 Key 一致，且同一前缀返回同一个对象
+     */
+    @Test
+    void testPrefix() {
+        // 执行测试
+        String first = RateLimitKeys.prefix(1001L, 2001L, ChannelType.DINGTALK);
+        String second = RateLimitKeys.prefix(1001L, 2001L, ChannelType.DINGTALK);
+        String noStore = RateLimitKeys.prefix(1001L, null, ChannelType.LOCAL);
+
+        // 验证结果
+        assertEquals(String.format("rate_limit:{%d:%s}:%s", 1001L, "2001", ChannelType.DINGTALK), first);
+        assertSame(first, second);
+        assertEquals("rate_limit:{1001:null}:LOCAL", noStore);
+        assertNotEquals(first, RateLimitKeys.prefix(1001L, 2001L, ChannelType.LOCAL));
+    }
+
+    /**
+     * 测试全局、租户和机器人层的前缀，各层 Key 互不相同
+     */
+    @Test
+    void testLevelPrefixes() {
+        // 执行测试
+        String global = RateLimitKeys.globalPrefix(ChannelType.DINGTALK);
+        String tenant = RateLimitKeys.tenantPrefix(1004L, ChannelType.DINGTALK);
+        String webhook = RateLimitKeys.webhookPrefix("abc", ChannelType.DINGTALK);
+
+        // 验证结果
+        assertEquals("rate_limit:{global}:DINGTALK", global);
+        assertEquals("rate_limit:{1004}:DINGTALK", tenant);
+        assertEquals("rate_limit:{webhook:abc}:DINGTALK", webhook);
+        assertSame(tenant, RateLimitKeys.tenantPrefix(1004L, ChannelType.DINGTALK));
+        assertSame(webhook, RateLimitKeys.webhookPrefix("abc", ChannelType.DINGTALK));
+        assertNotEquals(tenant, RateLimitKeys.prefix(1004L, null, ChannelType.DINGTALK));
+    }
+
+    /**
+     * 测试同一窗口内复用窗口 Key，窗口前进后原来的 Key 成为上一个窗口的 Key
+     */
+    @Test
+    void testWindowKey() {
+        // 准备测试数据
+        String prefix = RateLimitKeys.prefix(1002L, 2001L, ChannelType.DINGTALK);
+
+        // 执行测试
+        String current = RateLimitKeys.windowKey(prefix, 100);
+        String again = RateLimitKeys.windowKey(prefix, 100);
+        String previous = RateLimitKeys.previousWindowKey(prefix, 100);
+        String next = RateLimitKeys.windowKey(prefix, 101);
+
+        // 验证结果
+        assertEquals(prefix + ":100", current);
+        assertSame(current, again);
+        assertEquals(prefix + ":99", previous);
+        assertEquals(prefix + ":101", next);
+        assertSame(current, RateLimitKeys.previousWindowKey(prefix, 101));
+        assertEquals(prefix + ":100", RateLimitKeys.windowKey(prefix, 100));
+    }
+
+    /**
+     * 测试滑动日志 Key
+     */
+    @Test
+    void testLogKey() {
+        // 准备测试数据
+        String prefix = RateLimitKeys.prefix(1003L, 2001L, ChannelType.WECHAT_WORK);
+
+        // 执行测试
+        String key = RateLimitKeys.logKey(prefix);
+
+        // 验证结果
+        assertEquals("rate_limit:{1003:2001}:WECHAT_WORK:log", key);
+        assertSame(key, RateLimitKeys.logKey(prefix));
+    }
+}
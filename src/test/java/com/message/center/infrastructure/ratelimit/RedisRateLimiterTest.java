@@ -0,0 +1,349 @@
+package com.message.center.infrastructure.ratelimit;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.message.center.domain.enums.RateLimitAlgorithm;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis频次限制器单元测试
+ * 使用 jedis-mock 启动的内存 Redis 执行 Lua 脚本，时钟由测试控制，重点验证窗口边界
+ */
+class RedisRateLimiterTest {
+
+    /** 窗口起点：按分钟对齐的时间戳 */
+    private static final long WINDOW_START = 28_333_333L * 60_000;
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate redisTemplate;
+
+    private MutableClock clock;
+
+    private FixedWindowRateLimiter fixedWindowRateLimiter;
+
+    private RedisRateLimiter redisRateLimiter;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(redisTemplate.keys("rate_limit:*"));
+        clock = new MutableClock(WINDOW_START);
+        fixedWindowRateLimiter = limiter(new FixedWindowRateLimiter());
+        redisRateLimiter = new RedisRateLimiter();
+        ReflectionTestUtils.setField(redisRateLimiter, "rateLimiters", List.of(
+                fixedWindowRateLimiter, limiter(new SlidingLogRateLimiter()), limiter(new SlidingWindowCounterRateLimiter())));
+        ReflectionTestUtils.setField(redisRateLimiter, "redisTemplate", redisTemplate);
+        redisRateLimiter.init();
+    }
+
+    /**
+     * 测试固定窗口达到限制后拒绝，且计数同时设置了过期时间
+     */
+    @Test
+    void testFixedWindow_LimitAndTtl() {
+        // 准备测试数据
+        RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:LOCAL", 2, 60);
+
+        // 执行测试
+        RateLimitResult first = redisRateLimiter.tryAcquire(List.of(rule), 1);
+        RateLimitResult second = redisRateLimiter.tryAcquire(List.of(rule), 1);
+        RateLimitResult third = redisRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 验证结果
+        assertTrue(first.isAllowed());
+        assertTrue(second.isAllowed());
+        assertFalse(third.isAllowed());
+        assertEquals(0, third.getRejectedIndex());
+        assertEquals(2L, third.getCurrentCount());
+        String key = FixedWindowRateLimiter.windowKey(rule, WINDOW_START);
+        assertEquals("2", redisTemplate.opsForValue().get(key));
+        Long ttl = redisTemplate.getExpire(key);
+        assertTrue(ttl != null && ttl > 0 && ttl <= 60);
+    }
+
+    /**
+     * 测试固定窗口在边界前后各放行一整批，这是该算法的已知特性
+     */
+    @Test
+    void testFixedWindow_BoundaryAllowsDoubleBurst() {
+        // 准备测试数据
+        RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:LOCAL", 10, 60);
+        clock.set(WINDOW_START + 59_000);
+
+        // 执行测试
+        int beforeBoundary = acquireAll(rule, 10);
+        clock.set(WINDOW_START + 61_000);
+        int afterBoundary = acquireAll(rule, 10);
+
+        // 验证结果：2秒内放行了20条
+        assertEquals(10, beforeBoundary);
+        assertEquals(10, afterBoundary);
+    }
+
+    /**
+     * 测试滑动日志在窗口边界后仍按最近60秒计数，直到早先的记录滑出窗口
+     */
+    @Test
+    void testSlidingLog_Boundary() {
+        // 准备测试数据
+        RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:DINGTALK", 10, 60, RateLimitAlgorithm.SLIDING_LOG);
+        clock.set(WINDOW_START + 59_000);
+        assertEquals(10, acquireAll(rule, 10));
+
+        // 执行测试
+        clock.set(WINDOW_START + 61_000);
+        int afterBoundary = acquireAll(rule, 10);
+        clock.set(WINDOW_START + 119_001);
+        int afterSlide = acquireAll(rule, 10);
+
+        // 验证结果
+        assertEquals(0, afterBoundary);
+        assertEquals(10, afterSlide);
+    }
+
+    /**
+     * 测试滑动窗口计数按上一个窗口的剩余权重估算
+     */
+    @Test
+    void testSlidingWindowCounter_Boundary() {
+        // 准备测试数据
+        RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:WECHAT_WORK", 10, 60,
+                RateLimitAlgorithm.SLIDING_WINDOW_COUNTER);
+        clock.set(WINDOW_START + 59_000);
+        assertEquals(10, acquireAll(rule, 10));
+
+        // 执行测试
+        clock.set(WINDOW_START + 61_000);
+        int justAfterBoundary = acquireAll(rule, 10);
+        clock.set(WINDOW_START + 90_000);
+        int halfWindowLater = acquireAll(rule, 10);
+
+        // 验证结果：上一个窗口权重约59/60时估算值为9；过半窗口后权重0.5，估算值为5+1
+        assertEquals(1, justAfterBoundary);
+        assertEquals(4, halfWindowLater);
+    }
+
+    /**
+     * 测试同一算法的多个渠道一次判定，任一渠道超限时所有渠道都不计数
+     */
+    @Test
+    void testTryAcquire_AllOrNothing() {
+        // 准备测试数据
+        RateLimitRule local = new RateLimitRule("rate_limit:{1:2}:LOCAL", 10, 60);
+        RateLimitRule dingTalk = new RateLimitRule("rate_limit:{1:2}:DINGTALK", 1, 60);
+        redisRateLimiter.tryAcquire(List.of(dingTalk), 1);
+
+        // 执行测试
+        RateLimitResult result = redisRateLimiter.tryAcquire(List.of(local, dingTalk), 1);
+
+        // 验证结果
+        assertFalse(result.isAllowed());
+        assertEquals(1, result.getRejectedIndex());
+        assertNull(redisTemplate.opsForValue().get(FixedWindowRateLimiter.windowKey(local, WINDOW_START)));
+        assertEquals("1", redisTemplate.opsForValue().get(FixedWindowRateLimiter.windowKey(dingTalk, WINDOW_START)));
+    }
+
+    /**
+     * 测试多种算法混用时，后面的算法拒绝会退还前面已获得的额度
+     */
+    @Test
+    void testTryAcquire_MixedAlgorithmsRollback() {
+        // 准备测试数据
+        RateLimitRule local = new RateLimitRule("rate_limit:{1:2}:LOCAL", 10, 60);
+        RateLimitRule dingTalk = new RateLimitRule("rate_limit:{1:2}:DINGTALK", 1, 60, RateLimitAlgorithm.SLIDING_LOG);
+        redisRateLimiter.tryAcquire(List.of(dingTalk), 1);
+
+        // 执行测试
+        RateLimitResult result = redisRateLimiter.tryAcquire(List.of(local, dingTalk), 1);
+
+        // 验证结果
+        assertFalse(result.isAllowed());
+        assertEquals(1, result.getRejectedIndex());
+        assertEquals("0", redisTemplate.opsForValue().get(FixedWindowRateLimiter.windowKey(local, WINDOW_START)));
+    }
+
+    /**
+     * 测试没有过期时间的残留计数会被补上过期时间
+     */
+    @Test
+    void testFixedWindow_RepairsMissingTtl() {
+        // 准备测试数据：模拟旧实现 INCR 后进程退出留下的 Key
+        RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:LOCAL", 10, 60);
+        String key = FixedWindowRateLimiter.windowKey(rule, WINDOW_START);
+        redisTemplate.opsForValue().set(key, "1");
+
+        // 执行测试
+        redisRateLimiter.tryAcquire(List.of(rule), 1);
+
+        // 验证结果
+        Long ttl = redisTemplate.getExpire(key);
+        assertTrue(ttl != null && ttl > 0);
+    }
+
+    /**
+     * 测试按剩余额度部分放行，退还后可再次申请
+     */
+    @Test
+    void testAcquireUpToAndRelease() {
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            // 准备测试数据
+            RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:" + algorithm, 5, 60, algorithm);
+
+            // 执行测试
+            int first = redisRateLimiter.acquireUpTo(rule, 3);
+            int second = redisRateLimiter.acquireUpTo(rule, 3);
+            redisRateLimiter.release(rule, 2);
+            int third = redisRateLimiter.acquireUpTo(rule, 3);
+
+            // 验证结果
+            assertEquals(3, first, algorithm.getCode());
+            assertEquals(2, second, algorithm.getCode());
+            assertEquals(2, third, algorithm.getCode());
+        }
+    }
+
+    /**
+     * 测试批量申请在一个管道中按各规则的剩余额度放行，不同租户、不同算法互不影响
+     */
+    @Test
+    void testBatchAcquireUpToAndRelease() {
+        // 准备测试数据
+        RateLimitRule fixed = new RateLimitRule("rate_limit:{1:2}:LOCAL", 5, 60);
+        RateLimitRule log = new RateLimitRule("rate_limit:{3:4}:DINGTALK", 2, 60, RateLimitAlgorithm.SLIDING_LOG);
+        RateLimitRule counter = new RateLimitRule("rate_limit:{5:6}:WECHAT_WORK", 10, 60,
+                RateLimitAlgorithm.SLIDING_WINDOW_COUNTER);
+        List<RateLimitRule> rules = List.of(fixed, log, counter);
+
+        // 执行测试
+        int[] first = redisRateLimiter.acquireUpTo(rules, new int[]{3, 3, 0});
+        redisRateLimiter.release(rules, new int[]{1, 0, 0});
+        int[] second = redisRateLimiter.acquireUpTo(rules, new int[]{3, 3, 12});
+
+        // 验证结果
+        assertArrayEquals(new int[]{3, 2, 0}, first);
+        assertArrayEquals(new int[]{3, 0, 10}, second);
+        assertEquals("5", redisTemplate.opsForValue().get(FixedWindowRateLimiter.windowKey(fixed, WINDOW_START)));
+    }
+
+    /**
+     * 测试退还已过期窗口的额度不会留下没有过期时间的负数计数
+     */
+    @Test
+    void testRelease_ExpiredKeyIgnored() {
+        // 准备测试数据
+        RateLimitRule rule = new RateLimitRule("rate_limit:{1:2}:LOCAL", 5, 60);
+
+        // 执行测试
+        redisRateLimiter.release(rule, 3);
+
+        // 验证结果
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(FixedWindowRateLimiter.windowKey(rule, WINDOW_START))));
+    }
+
+    /**
+     * 测试额度恢复时间：固定窗口为下一个窗口起点，滑动日志为最早记录滑出窗口的时间
+     */
+    @Test
+    void testNextAvailableAt() {
+        // 准备测试数据
+        RateLimitRule fixed = new RateLimitRule("rate_limit:{1:2}:LOCAL", 1, 60);
+        RateLimitRule log = new RateLimitRule("rate_limit:{1:2}:DINGTALK", 2, 60, RateLimitAlgorithm.SLIDING_LOG);
+        clock.set(WINDOW_START + 10_000);
+        redisRateLimiter.tryAcquire(List.of(log), 1);
+        clock.set(WINDOW_START + 20_000);
+        redisRateLimiter.tryAcquire(List.of(log), 1);
+
+        // 执行测试
+        long fixedReopen = redisRateLimiter.nextAvailableAt(fixed);
+        long logReopen = redisRateLimiter.nextAvailableAt(log);
+
+        // 验证结果
+        assertEquals(WINDOW_START + 60_000, fixedReopen);
+        assertEquals(WINDOW_START + 70_000, logReopen);
+    }
+
+    private int acquireAll(RateLimitRule rule, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (redisRateLimiter.tryAcquire(List.of(rule), 1).isAllowed()) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    private <T extends AbstractRedisRateLimiter> T limiter(T limiter) {
+        limiter.redisTemplate = redisTemplate;
+        limiter.clock = clock;
+        return limiter;
+    }
+
+    /**
+     * 可调整的UTC时钟
+     */
+    private static class MutableClock extends Clock {
+
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.message.center.infrastructure.retry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 哈希时间轮单元测试
+ */
+class HashedTimingWheelTest {
+
+    private HashedTimingWheel timingWheel;
+
+    @BeforeEach
+    void setUp() {
+        // 8个槽，每格10毫秒，一圈80毫秒
+        timingWheel = new HashedTimingWheel("test-wheel", 10, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timingWheel.stop();
+    }
+
+    /**
+     * 测试任务按到期时间先后执行，且不早于到期时间
+     */
+    @Test
+    void testFiresInOrder() throws InterruptedException {
+        // 准备测试数据
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+
+        // 执行测试
+        timingWheel.schedule(() -> { fired.add(3); done.countDown(); }, 150, TimeUnit.MILLISECONDS);
+        timingWheel.schedule(() -> { fired.add(1); done.countDown(); }, 20, TimeUnit.MILLISECONDS);
+        timingWheel.schedule(() -> { fired.add(2); done.countDown(); }, 60, TimeUnit.MILLISECONDS);
+
+        // 验证结果
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertEquals(List.of(1, 2, 3), fired);
+        assertEquals(0, timingWheel.pending());
+    }
+
+    /**
+     * 测试超过一圈的任务在剩余圈数走完后才执行
+     */
+    @Test
+    void testMultipleRounds() throws InterruptedException {
+        // 准备测试数据
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // 执行测试
+        timingWheel.schedule(done::countDown, 250, TimeUnit.MILLISECONDS);
+
+        // 验证结果
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 250);
+    }
+
+    /**
+     * 测试取消的任务不再执行，未到期任务数随之减少
+     */
+    @Test
+    void testCancel() throws InterruptedException {
+        // 准备测试数据
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        HashedTimingWheel.Timeout cancelled = timingWheel.schedule(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        timingWheel.schedule(done::countDown, 100, TimeUnit.MILLISECONDS);
+
+        // 执行测试
+        boolean result = cancelled.cancel();
+
+        // 验证结果
+        assertTrue(result);
+        assertFalse(cancelled.cancel());
+        assertEquals(1, timingWheel.pending());
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(0, fired.get());
+        assertTrue(cancelled.isCancelled());
+    }
+
+    /**
+     * 测试任务抛出异常不影响后续任务
+     */
+    @Test
+    void testTaskFailure() throws InterruptedException {
+        // 准备测试数据
+        CountDownLatch done = new CountDownLatch(1);
+        timingWheel.schedule(() -> { throw new IllegalStateException("失败"); }, 10, TimeUnit.MILLISECONDS);
+
+        // 执行测试
+        timingWheel.schedule(done::countDown, 30, TimeUnit.MILLISECONDS);
+
+        // 验证结果
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 测试停止后不能再添加任务
+     */
+    @Test
+    void testStop() {
+        // 准备测试数据
+        timingWheel.schedule(() -> { }, 1, TimeUnit.SECONDS);
+
+        // 执行测试
+        timingWheel.stop();
+
+        // 验证结果
+        assertThrows(IllegalStateException.class, () -> timingWheel.schedule(() -> { }, 1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,81 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 进程内待重试任务存储，按与渠道任务表相同的条件领取，用于测试调度器
+ */
+class InMemoryRetryTaskStore implements RetryTaskStore {
+
+    private final List<ChannelTask> tasks = new ArrayList<>();
+
+    synchronized void add(ChannelTask task) {
+        tasks.add(task);
+    }
+
+    @Override
+    public synchronized List<ChannelTask> claimDue(ChannelType channelType, LocalDateTime now, int limit, String owner,
+                                                   LocalDateTime leaseUntil) {
+        List<ChannelTask> claimed = tasks.stream()
+                .filter(task -> task.getStatus() == TaskStatus.RETRY)
+                .filter(task -> task.getChannelType() == channelType)
+                .filter(task -> !task.getNextRetryTime().isAfter(now))
+                .sorted(Comparator.comparing(ChannelTask::getNextRetryTime))
+                .limit(limit)
+                .toList();
+        claimed.forEach(task -> {
+            task.setLeaseOwner(owner);
+            task.setNextRetryTime(leaseUntil);
+        });
+        return claimed;
+    }
+
+    @Override
+    public synchronized List<ChannelTask> findUpcoming(ChannelType channelType, LocalDateTime from,
+                                                       LocalDateTime until, int limit) {
+        return tasks.stream()
+                .filter(task -> task.getStatus() == TaskStatus.RETRY)
+                .filter(task -> task.getChannelType() == channelType)
+                .filter(task -> task.getNextRetryTime().isAfter(from) && !task.getNextRetryTime().isAfter(until))
+                .sorted(Comparator.comparing(ChannelTask::getNextRetryTime))
+                .limit(limit)
+                .map(InMemoryRetryTaskStore::copy)
+                .toList();
+    }
+
+    @Override
+    public synchronized boolean claim(ChannelTask task, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        ChannelTask stored = tasks.stream().filter(t -> t.getId().equals(task.getId())).findFirst().orElse(null);
+        if (stored == null || stored.getStatus() != TaskStatus.RETRY
+                || !stored.getNextRetryTime().equals(task.getNextRetryTime()) || stored.getNextRetryTime().isAfter(now)) {
+            return false;
+        }
+        stored.setLeaseOwner(owner);
+        stored.setNextRetryTime(leaseUntil);
+        task.setLeaseOwner(owner);
+        task.setNextRetryTime(leaseUntil);
+        return true;
+    }
+
+    /**
+     * 复制任务，与从数据库查出的对象一样和存储中的记录互不影响
+     */
+    private static ChannelTask copy(ChannelTask task) {
+        ChannelTask copy = new ChannelTask();
+        copy.setId(task.getId());
+        copy.setChannelType(task.getChannelType());
+        copy.setStatus(task.getStatus());
+        copy.setRetryCount(task.getRetryCount());
+        copy.setMaxRetry(task.getMaxRetry());
+        copy.setNextRetryTime(task.getNextRetryTime());
+        copy.setLeaseOwner(task.getLeaseOwner());
+        return copy;
+    }
+}
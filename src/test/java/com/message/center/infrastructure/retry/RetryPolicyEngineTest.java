@@ -0,0 +1,178 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.BackoffJitter;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.infrastructure.config.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 失败重试判定单元测试
+ */
+class RetryPolicyEngineTest {
+
+    private RetryConfig retryConfig;
+
+    private RetryBudget retryBudget;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RetryPolicyEngine retryPolicyEngine;
+
+    @BeforeEach
+    void setUp() {
+        retryConfig = new RetryConfig();
+        retryBudget = new RetryBudget();
+        ReflectionTestUtils.setField(retryBudget, "retryConfig", retryConfig);
+        meterRegistry = new SimpleMeterRegistry();
+        retryPolicyEngine = new RetryPolicyEngine();
+        ReflectionTestUtils.setField(retryPolicyEngine, "retryConfig", retryConfig);
+        ReflectionTestUtils.setField(retryPolicyEngine, "retryBudget", retryBudget);
+        ReflectionTestUtils.setField(retryPolicyEngine, "meterRegistry", meterRegistry);
+    }
+
+    /**
+     * 测试渠道配置错误不重试
+     */
+    @Test
+    void testNonRetryable() {
+        // 准备测试数据
+        ChannelTask task = task(ChannelType.DINGTALK, 0);
+
+        // 执行测试
+        RetryDecision decision = retryPolicyEngine.decide(task, "DINGTALK_CONFIG_ERROR");
+
+        // 验证结果
+        assertFalse(decision.isRetry());
+        assertEquals(RetryDecision.NON_RETRYABLE, decision.getOutcome());
+        assertEquals(1.0, meterRegistry.get("message.center.retry.decision")
+                .tag("channel", "DINGTALK").tag("outcome", "non_retryable").counter().count());
+    }
+
+    /**
+     * 测试达到最大重试次数后不再重试，渠道策略和错误码策略依次覆盖默认次数
+     */
+    @Test
+    void testMaxCountOverrides() {
+        // 准备测试数据
+        RetryConfig.Policy channelPolicy = new RetryConfig.Policy();
+        channelPolicy.setMaxCount(5);
+        retryConfig.getChannels().put(ChannelType.DINGTALK, channelPolicy);
+        RetryConfig.Policy errorPolicy = new RetryConfig.Policy();
+        errorPolicy.setMaxCount(1);
+        retryConfig.getErrorCodes().put("DINGTALK_SEND_ERROR", errorPolicy);
+
+        // 执行测试
+        RetryDecision defaultPolicy = retryPolicyEngine.decide(task(ChannelType.WECHAT_WORK, 3), null);
+        RetryDecision channelOverride = retryPolicyEngine.decide(task(ChannelType.DINGTALK, 3), null);
+        RetryDecision errorOverride = retryPolicyEngine.decide(task(ChannelType.DINGTALK, 1), "DINGTALK_SEND_ERROR");
+
+        // 验证结果
+        assertEquals(RetryDecision.EXHAUSTED, defaultPolicy.getOutcome());
+        assertTrue(channelOverride.isRetry());
+        assertEquals(RetryDecision.EXHAUSTED, errorOverride.getOutcome());
+    }
+
+    /**
+     * 测试不抖动时按指数退避计算间隔且不超过最大间隔
+     */
+    @Test
+    void testExponentialBackoff() {
+        // 准备测试数据
+        BackoffPolicy policy = new BackoffPolicy(10, 60_000, 2, 300_000, BackoffJitter.NONE);
+
+        // 执行测试与验证结果
+        assertEquals(60_000, policy.delayMillis(1));
+        assertEquals(120_000, policy.delayMillis(2));
+        assertEquals(240_000, policy.delayMillis(3));
+        assertEquals(300_000, policy.delayMillis(4));
+        assertEquals(300_000, policy.delayMillis(30));
+    }
+
+    /**
+     * 测试去相关抖动的间隔落在初始间隔到上一次间隔3倍之间，且同一次数的间隔被打散
+     */
+    @Test
+    void testDecorrelatedJitter() {
+        // 准备测试数据
+        BackoffPolicy policy = new BackoffPolicy(10, 60_000, 2, 3_600_000, BackoffJitter.DECORRELATED);
+        Set<Long> distinct = new HashSet<>();
+
+        // 执行测试
+        for (int i = 0; i < 1000; i++) {
+            long delay = policy.delayMillis(3);
+            // 验证结果
+            assertTrue(delay >= 60_000 && delay <= 360_000, "delay=" + delay);
+            distinct.add(delay);
+        }
+        assertTrue(distinct.size() > 100);
+        long first = policy.delayMillis(1);
+        assertTrue(first >= 60_000 && first <= 180_000, "first=" + first);
+    }
+
+    /**
+     * 测试渠道重试次数超过预算后不再重试，预算只影响本渠道
+     */
+    @Test
+    void testBudgetExhausted() {
+        // 准备测试数据
+        retryConfig.getBudget().setMinRetries(2);
+        retryConfig.getBudget().setRatio(0.5);
+        for (int i = 0; i < 4; i++) {
+            retryBudget.recordAttempt(ChannelType.DINGTALK);
+        }
+
+        // 执行测试
+        RetryDecision first = retryPolicyEngine.decide(task(ChannelType.DINGTALK, 0), "DINGTALK_SEND_ERROR");
+        RetryDecision second = retryPolicyEngine.decide(task(ChannelType.DINGTALK, 0), "DINGTALK_SEND_ERROR");
+        RetryDecision third = retryPolicyEngine.decide(task(ChannelType.DINGTALK, 0), "DINGTALK_SEND_ERROR");
+        RetryDecision otherChannel = retryPolicyEngine.decide(task(ChannelType.WECHAT_WORK, 0), null);
+
+        // 验证结果
+        assertTrue(first.isRetry());
+        assertTrue(second.isRetry());
+        assertEquals(RetryDecision.BUDGET_EXHAUSTED, third.getOutcome());
+        assertTrue(otherChannel.isRetry());
+    }
+
+    /**
+     * 测试重新排期不受最大重试次数限制，也不占用重试预算
+     */
+    @Test
+    void testRescheduleKeepsBudget() {
+        // 准备测试数据
+        retryConfig.getBudget().setMinRetries(1);
+        retryConfig.getBudget().setRatio(0);
+        ChannelTask exhausted = task(ChannelType.DINGTALK, 3);
+
+        // 执行测试
+        long first = retryPolicyEngine.rescheduleDelayMillis(exhausted, "BULKHEAD_REJECTED");
+        long second = retryPolicyEngine.rescheduleDelayMillis(exhausted, "BULKHEAD_REJECTED");
+        RetryDecision decision = retryPolicyEngine.decide(task(ChannelType.DINGTALK, 0), "DINGTALK_SEND_ERROR");
+
+        // 验证结果
+        assertTrue(first > 0);
+        assertTrue(second > 0);
+        assertEquals(3, exhausted.getRetryCount());
+        assertTrue(decision.isRetry());
+        assertEquals(2.0, meterRegistry.get("message.center.retry.decision")
+                .tag("channel", "DINGTALK").tag("outcome", "rescheduled").counter().count());
+    }
+
+    private static ChannelTask task(ChannelType channelType, int retryCount) {
+        ChannelTask task = new ChannelTask();
+        task.setId(1L);
+        task.setChannelType(channelType);
+        task.setRetryCount(retryCount);
+        task.setMaxRetry(3);
+        return task;
+    }
+}
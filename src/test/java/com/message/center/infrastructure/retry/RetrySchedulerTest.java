@@ -0,0 +1,267 @@
+package com.message.center.infrastructure.retry;
+
+import com.message.center.domain.entity.ChannelTask;
+import com.message.center.domain.enums.ChannelType;
+import com.message.center.domain.enums.TaskStatus;
+import com.message.center.infrastructure.config.RetrySchedulerConfig;
+import com.message.center.infrastructure.config.RetryWheelConfig;
+import com.message.center.infrastructure.config.ThreadPoolConfig;
+import com.message.center.infrastructure.executor.ChannelBulkheads;
+import com.message.center.infrastructure.executor.ChannelTaskExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * 失败重试调度器单元测试
+ * 使用进程内存储代替渠道任务表
+ */
+@ExtendWith(MockitoExtension.class)
+class RetrySchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    @Mock
+    private ChannelTaskExecutor channelTaskExecutor;
+
+    private InMemoryRetryTaskStore store;
+
+    private RetrySchedulerConfig schedulerConfig;
+
+    private RetryWheelConfig wheelConfig;
+
+    private ChannelBulkheads channelBulkheads;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRetryTaskStore();
+        schedulerConfig = new RetrySchedulerConfig();
+        // 由测试手动触发调度
+        schedulerConfig.setEnabled(false);
+        schedulerConfig.setReservedExecutorCapacity(0);
+        wheelConfig = new RetryWheelConfig();
+        wheelConfig.setEnabled(false);
+        wheelConfig.setTickMillis(10);
+        meterRegistry = new SimpleMeterRegistry();
+        ThreadPoolConfig threadPoolConfig = new ThreadPoolConfig();
+        for (ChannelType channelType : ChannelType.values()) {
+            ThreadPoolConfig.Bulkhead bulkhead = threadPoolConfig.bulkheadOf(channelType);
+            bulkhead.setCoreSize(4);
+            bulkhead.setMaxSize(4);
+            bulkhead.setQueueCapacity(10);
+        }
+        channelBulkheads = new ChannelBulkheads();
+        ReflectionTestUtils.setField(channelBulkheads, "threadPoolConfig", threadPoolConfig);
+        ReflectionTestUtils.setField(channelBulkheads, "meterRegistry", meterRegistry);
+        channelBulkheads.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channelBulkheads.destroy();
+    }
+
+    /**
+     * 测试领取到期任务并重新发送，领取后租约期内不会被再次领取
+     */
+    @Test
+    void testDispatchDue() {
+        // 准备测试数据
+        store.add(retryTask(1L, ChannelType.DINGTALK, -60));
+        store.add(retryTask(2L, ChannelType.DINGTALK, -30));
+        store.add(retryTask(3L, ChannelType.WECHAT_WORK, 0));
+        store.add(retryTask(4L, ChannelType.DINGTALK, 60));
+        RetryScheduler scheduler = scheduler(NOW);
+
+        // 执行测试
+        int first = scheduler.dispatchDue();
+        int second = scheduler.dispatchDue();
+
+        // 验证结果
+        assertEquals(3, first);
+        assertEquals(0, second);
+        verify(channelTaskExecutor, timeout(1000).times(3)).executeTask(any());
+        assertEquals(2.0, meterRegistry.get("message.center.retry.claimed").tag("channel", "DINGTALK").counter().count());
+    }
+
+    /**
+     * 测试多个节点同时调度时同一任务只被领取一次
+     */
+    @Test
+    void testNoDoubleClaim() {
+        // 准备测试数据
+        for (long id = 1; id <= 5; id++) {
+            store.add(retryTask(id, ChannelType.DINGTALK, -10));
+        }
+        RetryScheduler nodeA = scheduler(NOW);
+        RetryScheduler nodeB = scheduler(NOW);
+
+        // 执行测试
+        int total = nodeA.dispatchDue() + nodeB.dispatchDue();
+
+        // 验证结果
+        assertEquals(5, total);
+        verify(channelTaskExecutor, timeout(1000).times(5)).executeTask(any());
+    }
+
+    /**
+     * 测试节点领取后未能发出的任务在租约到期后被重新领取
+     */
+    @Test
+    void testLeaseExpires() {
+        // 准备测试数据
+        ChannelTask task = retryTask(1L, ChannelType.DINGTALK, -10);
+        store.add(task);
+        scheduler(NOW).dispatchDue();
+        verify(channelTaskExecutor, timeout(1000)).executeTask(task);
+
+        // 执行测试
+        int beforeExpiry = scheduler(NOW.plusSeconds(30)).dispatchDue();
+        int afterExpiry = scheduler(NOW.plusSeconds(61)).dispatchDue();
+
+        // 验证结果
+        assertEquals(0, beforeExpiry);
+        assertEquals(1, afterExpiry);
+    }
+
+    /**
+     * 测试渠道同时重试的任务数达到上限时不再领取该渠道，其他渠道不受影响
+     */
+    @Test
+    void testChannelConcurrency() throws InterruptedException {
+        // 准备测试数据
+        schedulerConfig.getChannelConcurrency().put(ChannelType.DINGTALK, 2);
+        for (long id = 1; id <= 5; id++) {
+            store.add(retryTask(id, ChannelType.DINGTALK, -10));
+        }
+        store.add(retryTask(6L, ChannelType.WECHAT_WORK, -10));
+        CountDownLatch blocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(channelTaskExecutor).executeTask(any());
+        RetryScheduler scheduler = scheduler(NOW);
+
+        // 执行测试
+        int first = scheduler.dispatchDue();
+        int whileBlocked = scheduler.dispatchDue();
+        blocked.countDown();
+        verify(channelTaskExecutor, timeout(1000).times(3)).executeTask(any());
+        Thread.sleep(100);
+        int afterRelease = scheduler.dispatchDue();
+
+        // 验证结果
+        assertEquals(3, first);
+        assertEquals(0, whileBlocked);
+        assertEquals(2, afterRelease);
+        assertTrue(meterRegistry.get("message.center.retry.backpressure")
+                .tag("reason", "channel").tag("channel", "DINGTALK").counter().count() >= 1);
+    }
+
+    /**
+     * 测试渠道线程池空闲容量不足时暂停领取该渠道
+     */
+    @Test
+    void testExecutorBackpressure() {
+        // 准备测试数据
+        schedulerConfig.setReservedExecutorCapacity(100);
+        store.add(retryTask(1L, ChannelType.DINGTALK, -10));
+        RetryScheduler scheduler = scheduler(NOW);
+
+        // 执行测试
+        int submitted = scheduler.dispatchDue();
+
+        // 验证结果
+        assertEquals(0, submitted);
+        verify(channelTaskExecutor, never()).executeTask(any());
+        assertEquals(1.0, meterRegistry.get("message.center.retry.backpressure")
+                .tag("reason", "executor").tag("channel", "DINGTALK").counter().count());
+    }
+
+    /**
+     * 测试近期到期的任务加载到时间轮，到期时领取发送；更晚到期的任务留在存储中
+     */
+    @Test
+    void testWheelFiresUpcoming() {
+        // 准备测试数据
+        wheelConfig.setEnabled(true);
+        wheelConfig.setHorizonSeconds(60);
+        store.add(retryTask(1L, ChannelType.DINGTALK, 1));
+        store.add(retryTask(2L, ChannelType.DINGTALK, 120));
+        RetryScheduler scheduler = scheduler(NOW);
+
+        // 执行测试
+        int loaded = scheduler.preload();
+        int reloaded = scheduler.preload();
+
+        // 验证结果
+        assertEquals(1, loaded);
+        assertEquals(0, reloaded);
+        verify(channelTaskExecutor, timeout(3000)).executeTask(argThat(task -> task.getId() == 1L));
+        verify(channelTaskExecutor, after(200).times(1)).executeTask(any());
+        scheduler.destroy();
+    }
+
+    /**
+     * 测试时间轮到期前任务已被其他节点领取时不重复发送
+     */
+    @Test
+    void testWheelSkipsClaimedTask() {
+        // 准备测试数据
+        wheelConfig.setEnabled(true);
+        store.add(retryTask(1L, ChannelType.DINGTALK, 1));
+        RetryScheduler scheduler = scheduler(NOW);
+        scheduler.preload();
+
+        // 执行测试
+        int claimedByOther = scheduler(NOW.plusSeconds(1)).dispatchDue();
+
+        // 验证结果
+        assertEquals(1, claimedByOther);
+        verify(channelTaskExecutor, after(1500).times(1)).executeTask(any());
+        scheduler.destroy();
+    }
+
+    private RetryScheduler scheduler(Instant now) {
+        RetryScheduler scheduler = new RetryScheduler();
+        ReflectionTestUtils.setField(scheduler, "schedulerConfig", schedulerConfig);
+        ReflectionTestUtils.setField(scheduler, "wheelConfig", wheelConfig);
+        ReflectionTestUtils.setField(scheduler, "retryTaskStore", store);
+        ReflectionTestUtils.setField(scheduler, "channelTaskExecutor", channelTaskExecutor);
+        ReflectionTestUtils.setField(scheduler, "channelBulkheads", channelBulkheads);
+        ReflectionTestUtils.setField(scheduler, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(scheduler, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        scheduler.init();
+        return scheduler;
+    }
+
+    private static ChannelTask retryTask(Long id, ChannelType channelType, int dueInSeconds) {
+        ChannelTask task = new ChannelTask();
+        task.setId(id);
+        task.setChannelType(channelType);
+        task.setStatus(TaskStatus.RETRY);
+        task.setRetryCount(1);
+        task.setMaxRetry(3);
+        task.setNextRetryTime(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).plusSeconds(dueInSeconds));
+        return task;
+    }
+}
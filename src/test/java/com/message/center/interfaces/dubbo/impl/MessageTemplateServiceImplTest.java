@@ -1,16 +1,22 @@
-package com.message.center.service.impl;
+package com.message.center.interfaces.dubbo.impl;
 
 import com.message.center.domain.entity.MessageTemplate;
 import com.message.center.domain.enums.ChannelType;
-import com.message.center.repository.MessageTemplateRepository;
-import com.message.center.service.api.MessageTemplateService;
+import com.message.center.domain.vo.BusinessData;
+import com.message.center.domain.repository.MessageTemplateRepository;
+import com.message.center.infrastructure.cache.CacheInvalidationManager;
+import com.message.center.infrastructure.template.TemplateEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -23,6 +29,12 @@ class MessageTemplateServiceImplTest {
     @Mock
     private MessageTemplateRepository messageTemplateRepository;
 
+    @Mock
+    private CacheInvalidationManager cacheInvalidationManager;
+
+    @Spy
+    private TemplateEngine templateEngine = new TemplateEngine();
+
     @InjectMocks
     private MessageTemplateServiceImpl messageTemplateService;
 
@@ -168,4 +180,58 @@ class MessageTemplateServiceImplTest {
         assertTrue(result);
         verify(messageTemplateRepository, times(1)).delete(1L);
     }
+
+    /**
+     * 测试缺失的变量保留原占位符，嵌套路径按层级取值
+     */
+    @Test
+    void testRenderTemplate_MissingAndNestedVariables() {
+        // 准备测试数据
+        mockTemplate.setTemplateContent("订单${order.id}，商品${order.items.0.name}，备注：${remark}");
+        String businessData = "{\"order\":{\"id\":\"ORD1\",\"items\":[{\"name\":\"咖啡\"}]}}";
+
+        // 执行测试
+        String result = messageTemplateService.renderTemplate(mockTemplate, businessData);
+
+        // 验证结果
+        assertEquals("订单ORD1，商品咖啡，备注：${remark}", result);
+    }
+
+    /**
+     * 测试同一模板只编译一次，模板内容变化后重新编译
+     */
+    @Test
+    void testRenderTemplate_CompiledOnce() {
+        // 准备测试数据
+        mockTemplate.setUpdateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+        Map<String, Object> data = new BusinessData("{\"orderId\":\"ORD1\",\"customerName\":\"张三\",\"amount\":1}").asMap();
+
+        // 执行测试
+        String first = messageTemplateService.renderTemplate(mockTemplate, data, "");
+        String second = messageTemplateService.renderTemplate(mockTemplate, data, "");
+        mockTemplate.setTemplateContent("订单：${orderId}");
+        mockTemplate.setUpdateTime(LocalDateTime.of(2024, 1, 2, 0, 0));
+        String third = messageTemplateService.renderTemplate(mockTemplate, data, "");
+
+        // 验证结果
+        assertEquals("您有一笔新订单：ORD1，客户：张三，金额：1元", first);
+        assertEquals(first, second);
+        assertSame(templateEngine.getCompiled(mockTemplate), templateEngine.getCompiled(mockTemplate));
+        assertEquals("订单：ORD1", third);
+    }
+
+    /**
+     * 测试更新模板后丢弃编译结果
+     */
+    @Test
+    void testUpdate_EvictsCompiledTemplate() {
+        // 准备测试数据
+        when(messageTemplateRepository.update(mockTemplate)).thenReturn(true);
+
+        // 执行测试
+        messageTemplateService.update(mockTemplate);
+
+        // 验证结果
+        verify(templateEngine).evict(1L);
+    }
 }
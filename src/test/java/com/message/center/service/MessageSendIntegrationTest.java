@@ -2,7 +2,7 @@ package com.message.center.service;
 
 import com.message.center.domain.vo.Message;
 import com.message.center.domain.vo.SendResult;
-import com.message.center.service.api.MessageSendService;
+import com.message.center.interfaces.dubbo.api.MessageSendService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -56,7 +56,7 @@ class MessageSendIntegrationTest {
         Message message2 = new Message();
         message2.setTenantId(1001L);
         message2.setBusinessType("NOTIFY");
-        message2.setBusinessData("{\"content\":\"测试通知"}");
+        message2.setBusinessData("{\"content\":\"测试通知\"}");
 
         // 执行测试
         MessageSendService.BatchSendResult result = messageSendService.batchSendMessages(java.util.List.of(message1, message2));